@@ -27,18 +27,21 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
 public abstract class WorkItemConsumer<T> implements Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(WorkItemConsumer.class);
 
     private static final int POLLING_DURATION_SECONDS  = 5;
     private static final int DEFAULT_COMMIT_TIME_IN_MS = 15000;
+    private static final int PAUSED_CHECK_INTERVAL_MS  = 100;
 
     private final BlockingQueue<T> queue;
     private final AtomicBoolean    isDirty           = new AtomicBoolean(false);
     private final AtomicLong       maxCommitTimeInMs = new AtomicLong(DEFAULT_COMMIT_TIME_IN_MS);
     private       CountDownLatch   countdownLatch;
     private       Queue<Object>    results;
+    private       BooleanSupplier  activeCheck       = () -> true;
 
     public WorkItemConsumer(BlockingQueue<T> queue) {
         this.queue          = queue;
@@ -48,6 +51,17 @@ public abstract class WorkItemConsumer<T> implements Runnable {
     public void run() {
         try {
             while (!Thread.currentThread().isInterrupted()) {
+                if (!activeCheck.getAsBoolean()) {
+                    // paused by the manager: stop taking items until resumed. A paused consumer doesn't exit, as that
+                    // would be seen by the manager as the pool running out of workers; the manager resumes all
+                    // consumers to drain or shut down
+                    commitDirty();
+
+                    Thread.sleep(PAUSED_CHECK_INTERVAL_MS);
+
+                    continue;
+                }
+
                 T item = queue.poll(POLLING_DURATION_SECONDS, TimeUnit.SECONDS);
 
                 if (item == null) {
@@ -80,6 +94,13 @@ public abstract class WorkItemConsumer<T> implements Runnable {
         this.countdownLatch = countdownLatch;
     }
 
+    /**
+     * Sets the check consulted before taking each item from the queue; while it returns false, this consumer doesn't take new items.
+     */
+    public void setActiveCheck(BooleanSupplier activeCheck) {
+        this.activeCheck = activeCheck != null ? activeCheck : () -> true;
+    }
+
     public <V> void setResults(Queue<Object> queue) {
         this.results = queue;
     }
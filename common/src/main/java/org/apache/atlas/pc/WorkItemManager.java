@@ -42,11 +42,14 @@ public class WorkItemManager<T, U extends WorkItemConsumer<T>> {
     private final List<U>          consumers = new ArrayList<>();
     private       CountDownLatch   countdownLatch;
     private       Queue<Object>    resultsQueue;
+    private volatile int           activeWorkers;
+    private volatile boolean       isDraining;
 
     public WorkItemManager(WorkItemBuilder<U, T> builder, String namePrefix, int batchSize, int numWorkers, boolean collectResults) {
-        this.numWorkers = numWorkers;
-        this.workQueue  = new LinkedBlockingQueue<>(batchSize * numWorkers);
-        this.service    = Executors.newFixedThreadPool(numWorkers, new BasicThreadFactory.Builder().namingPattern(namePrefix + "-%d").build());
+        this.numWorkers    = numWorkers;
+        this.activeWorkers = numWorkers;
+        this.workQueue     = new LinkedBlockingQueue<>(batchSize * numWorkers);
+        this.service       = Executors.newFixedThreadPool(numWorkers, new BasicThreadFactory.Builder().namingPattern(namePrefix + "-%d").build());
 
         createConsumers(builder, numWorkers, collectResults);
 
@@ -63,6 +66,7 @@ public class WorkItemManager<T, U extends WorkItemConsumer<T>> {
 
     public void start() {
         this.countdownLatch = new CountDownLatch(numWorkers);
+        this.isDraining     = false;
 
         for (U c : consumers) {
             c.setCountDownLatch(countdownLatch);
@@ -99,6 +103,9 @@ public class WorkItemManager<T, U extends WorkItemConsumer<T>> {
 
             LOG.debug("Drain: Stated! Queue size: {}", workQueue.size());
 
+            // resume paused consumers, so that they exit once the queue is empty
+            isDraining = true;
+
             this.countdownLatch.await();
 
             LOG.debug("Drain: Done! Queue size: {}", workQueue.size());
@@ -112,6 +119,8 @@ public class WorkItemManager<T, U extends WorkItemConsumer<T>> {
 
         LOG.info("WorkItemManager: Shutdown started. Will wait for: {} minutes...", avgCommitTimeSeconds);
 
+        isDraining = true;
+
         service.shutdown();
         service.awaitTermination(avgCommitTimeSeconds, TimeUnit.MINUTES);
 
@@ -122,14 +131,39 @@ public class WorkItemManager<T, U extends WorkItemConsumer<T>> {
         return this.resultsQueue;
     }
 
+    public int getNumWorkers() {
+        return numWorkers;
+    }
+
+    public int getActiveWorkers() {
+        return activeWorkers;
+    }
+
+    /**
+     * Limits the number of consumers taking items from the queue; value is bounded to [1, numWorkers].
+     * Consumers beyond the limit finish the item in hand, commit and then pause until the limit is raised, or until
+     * the manager is drained or shut down.
+     */
+    public void setActiveWorkers(int activeWorkers) {
+        this.activeWorkers = Math.max(1, Math.min(numWorkers, activeWorkers));
+    }
+
+    public int getQueueSize() {
+        return workQueue.size();
+    }
+
     private void createConsumers(WorkItemBuilder<U, T> builder, int numWorkers, boolean collectResults) {
         if (collectResults) {
             setResultsCollection(new ConcurrentLinkedQueue<>());
         }
 
         for (int i = 0; i < numWorkers; i++) {
+            final int workerIdx = i;
+
             U c = builder.build(workQueue);
 
+            c.setActiveCheck(() -> isDraining || workerIdx < activeWorkers);
+
             consumers.add(c);
 
             if (collectResults) {
@@ -217,6 +217,7 @@ public final class Constants {
     public static final String TASK_ERROR_MESSAGE     = encodePropertyKey(TASK_PREFIX + "errorMessage");
     public static final String TASK_START_TIME        = encodePropertyKey(TASK_PREFIX + "startTime");
     public static final String TASK_END_TIME          = encodePropertyKey(TASK_PREFIX + "endTime");
+    public static final String TASK_CHECKPOINT        = encodePropertyKey(TASK_PREFIX + "checkpoint");
     public static final String TASK_TYPE_NAME         = INTERNAL_PROPERTY_KEY_PREFIX + "AtlasTaskDef";
     /**
      * Index Recovery vertex property keys.
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.graphdb;
+
+import org.apache.atlas.model.discovery.AtlasAggregationEntry;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics of vertices matching an AggregationContext, computed by the index backend.
+ */
+public class AggregationStats {
+    private final long                                     count;
+    private final Map<String, List<AtlasAggregationEntry>> valueCounts;
+    private final Map<String, FieldStats>                  fieldStats;
+
+    /**
+     * @param count number of matching vertices
+     * @param valueCounts counts of values of aggregation fields/attributes, keyed by the field name/attribute qualified name
+     * @param fieldStats min, max and sum of values of attributes, keyed by the attribute qualified name
+     */
+    public AggregationStats(long count, Map<String, List<AtlasAggregationEntry>> valueCounts, Map<String, FieldStats> fieldStats) {
+        this.count       = count;
+        this.valueCounts = valueCounts;
+        this.fieldStats  = fieldStats;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Map<String, List<AtlasAggregationEntry>> getValueCounts() {
+        return valueCounts;
+    }
+
+    public Map<String, FieldStats> getFieldStats() {
+        return fieldStats;
+    }
+
+    public static class FieldStats {
+        private final Object min;
+        private final Object max;
+        private final Object sum;
+
+        public FieldStats(Object min, Object max, Object sum) {
+            this.min = min;
+            this.max = max;
+            this.sum = sum;
+        }
+
+        public Object getMin() {
+            return min;
+        }
+
+        public Object getMax() {
+            return max;
+        }
+
+        public Object getSum() {
+            return sum;
+        }
+    }
+}
@@ -18,9 +18,11 @@
 package org.apache.atlas.repository.graphdb;
 
 import org.apache.atlas.model.discovery.AtlasAggregationEntry;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents a graph client work with indices used by Jansgraph.
@@ -33,6 +35,17 @@ public interface AtlasGraphIndexClient {
      */
     Map<String, List<AtlasAggregationEntry>> getAggregatedMetrics(AggregationContext aggregationContext);
 
+    /**
+     * Gets statistics of vertices matching the given aggregation context: number of vertices, counts of values of the
+     * aggregation fields/attributes, and min, max and sum of values of the given numeric attributes.
+     *
+     * @param aggregationContext vertices to compute the statistics for, and the fields/attributes to count values of
+     * @param statsAttributes numeric attributes to compute min, max and sum of
+     * @param maxValueCounts maximum number of values to return counts of, for each field/attribute; highest counts are returned; negative to return counts of all values
+     * @return statistics; null if the index is not available or doesn't support computing the statistics
+     */
+    AggregationStats getAggregationStats(AggregationContext aggregationContext, Set<AtlasAttribute> statsAttributes, int maxValueCounts);
+
     /**
      * Returns top 5 suggestions for the given prefix string.
      *
@@ -23,6 +23,7 @@ import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.AtlasAggregationEntry;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AggregationContext;
+import org.apache.atlas.repository.graphdb.AggregationStats;
 import org.apache.atlas.repository.graphdb.AtlasGraphIndexClient;
 import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 import org.apache.commons.collections.CollectionUtils;
@@ -38,6 +39,7 @@ import org.apache.solr.client.solrj.request.GenericSolrRequest;
 import org.apache.solr.client.solrj.request.RequestWriter;
 import org.apache.solr.client.solrj.request.V2Request;
 import org.apache.solr.client.solrj.response.FacetField;
+import org.apache.solr.client.solrj.response.FieldStatsInfo;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.client.solrj.response.TermsResponse;
 import org.apache.solr.common.params.CommonParams;
@@ -264,6 +266,100 @@ public class AtlasJanusGraphIndexClient implements AtlasGraphIndexClient {
         return Collections.emptyMap();
     }
 
+    @Override
+    public AggregationStats getAggregationStats(AggregationContext aggregationContext, Set<AtlasAttribute> statsAttributes, int maxValueCounts) {
+        SolrClient solrClient = null;
+
+        try {
+            solrClient = Solr6Index.getSolrClient(); // get solr client using same settings as that of Janus Graph
+
+            if (solrClient == null) {
+                LOG.debug("The indexing system is not solr based. Aggregation stats will not be available.");
+
+                return null;
+            }
+
+            Map<String, String>   indexFieldName2PropertyKeyNameMap = new HashMap<>();
+            AtlasSolrQueryBuilder solrQueryBuilder                  = new AtlasSolrQueryBuilder();
+
+            solrQueryBuilder.withEntityTypes(aggregationContext.getSearchForEntityTypes())
+                    .withQueryString(aggregationContext.getQueryString())
+                    .withCriteria(aggregationContext.getFilterCriteria())
+                    .withExcludedDeletedEntities(aggregationContext.isExcludeDeletedEntities())
+                    .withIncludeSubTypes(aggregationContext.isIncludeSubTypes())
+                    .withCommonIndexFieldNames(aggregationContext.getIndexFieldNameCache());
+
+            SolrQuery solrQuery = new SolrQuery();
+
+            solrQuery.setQuery(solrQueryBuilder.build());
+            solrQuery.setRequestHandler(FREETEXT_REQUEST_HANDLER);
+            solrQuery.setRows(0);
+
+            if (CollectionUtils.isNotEmpty(aggregationContext.getAggregationFieldNames())) {
+                for (String propertyName : aggregationContext.getAggregationFieldNames()) {
+                    String indexFieldName = aggregationContext.getIndexFieldNameCache().get(propertyName);
+
+                    indexFieldName2PropertyKeyNameMap.put(indexFieldName, propertyName);
+
+                    solrQuery.addFacetField(indexFieldName);
+                }
+            }
+
+            if (CollectionUtils.isNotEmpty(aggregationContext.getAggregationAttributes())) {
+                for (AtlasAttribute attribute : aggregationContext.getAggregationAttributes()) {
+                    indexFieldName2PropertyKeyNameMap.put(attribute.getIndexFieldName(), attribute.getQualifiedName());
+
+                    solrQuery.addFacetField(attribute.getIndexFieldName());
+                }
+            }
+
+            if (solrQuery.getFacetFields() != null) {
+                solrQuery.setFacetMinCount(MIN_FACET_COUNT_REQUIRED);
+                solrQuery.setFacetLimit(maxValueCounts);
+            }
+
+            if (CollectionUtils.isNotEmpty(statsAttributes)) {
+                for (AtlasAttribute attribute : statsAttributes) {
+                    indexFieldName2PropertyKeyNameMap.put(attribute.getIndexFieldName(), attribute.getQualifiedName());
+
+                    solrQuery.addGetFieldStatistics(attribute.getIndexFieldName());
+                }
+            }
+
+            LOG.debug("getAggregationStats(): query={}", solrQuery);
+
+            QueryResponse                            queryResponse = solrClient.query(VERTEX_INDEX, solrQuery, SolrRequest.METHOD.POST);
+            Map<String, List<AtlasAggregationEntry>> valueCounts   = new HashMap<>();
+            Map<String, AggregationStats.FieldStats> fieldStats    = new HashMap<>();
+
+            if (queryResponse.getFacetFields() != null) {
+                for (FacetField facetField : queryResponse.getFacetFields()) {
+                    List<AtlasAggregationEntry> entries = new ArrayList<>(facetField.getValueCount());
+
+                    for (FacetField.Count count : facetField.getValues()) {
+                        entries.add(new AtlasAggregationEntry(count.getName(), count.getCount()));
+                    }
+
+                    valueCounts.put(indexFieldName2PropertyKeyNameMap.get(facetField.getName()), entries);
+                }
+            }
+
+            if (queryResponse.getFieldStatsInfo() != null) {
+                for (FieldStatsInfo statsInfo : queryResponse.getFieldStatsInfo().values()) {
+                    fieldStats.put(indexFieldName2PropertyKeyNameMap.get(statsInfo.getName()), new AggregationStats.FieldStats(statsInfo.getMin(), statsInfo.getMax(), statsInfo.getSum()));
+                }
+            }
+
+            return new AggregationStats(queryResponse.getResults().getNumFound(), valueCounts, fieldStats);
+        } catch (Exception e) {
+            LOG.warn("Error encountered in getting the aggregation stats", e);
+        } finally {
+            Solr6Index.releaseSolrClient(solrClient);
+        }
+
+        return null;
+    }
+
     @Override
     public List<String> getSuggestions(String prefixString, String indexFieldName) {
         SolrClient solrClient = null;
@@ -0,0 +1,228 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.janusgraph.diskstorage.rdbms;
+
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of janus_key ids, keyed by (storeId, key name).
+ *
+ * Id of a key never changes once the key is created, hence cached entries don't need invalidation.
+ * Entries are spread across segments, each guarded by its own lock, to reduce contention.
+ * Cache statistics are logged at debug level at most once every minute while the cache is in use.
+ *
+ */
+public class RdbmsKeyIdCache {
+    private static final Logger LOG = LoggerFactory.getLogger(RdbmsKeyIdCache.class);
+
+    private static final int  NUM_SEGMENTS          = 16;
+    private static final long STATS_LOG_INTERVAL_MS = 60 * 1000L;
+
+    private final int        maxSize;
+    private final Segment[]  segments;
+    private final AtomicLong hitCount           = new AtomicLong();
+    private final AtomicLong missCount          = new AtomicLong();
+    private final AtomicLong evictionCount      = new AtomicLong();
+    private final AtomicLong nextStatsLogTimeMs = new AtomicLong(System.currentTimeMillis() + STATS_LOG_INTERVAL_MS);
+
+    public RdbmsKeyIdCache(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+
+        if (this.maxSize > 0) {
+            int numSegments = Math.min(NUM_SEGMENTS, this.maxSize);
+
+            this.segments = new Segment[numSegments];
+
+            // capacities of segments add up to maxSize
+            for (int i = 0; i < numSegments; i++) {
+                int segmentSize = this.maxSize / numSegments + (i < this.maxSize % numSegments ? 1 : 0);
+
+                segments[i] = new Segment(segmentSize, evictionCount);
+            }
+        } else {
+            this.segments = new Segment[0];
+        }
+    }
+
+    public boolean isEnabled() {
+        return segments.length > 0;
+    }
+
+    public Long get(long storeId, StaticBuffer key) {
+        Long ret = null;
+
+        if (isEnabled()) {
+            CacheKey cacheKey = new CacheKey(storeId, key);
+            Segment  segment  = getSegment(cacheKey);
+
+            synchronized (segment) {
+                ret = segment.get(cacheKey);
+            }
+
+            if (ret != null) {
+                hitCount.incrementAndGet();
+            } else {
+                missCount.incrementAndGet();
+            }
+
+            logStats();
+        }
+
+        return ret;
+    }
+
+    public void put(long storeId, StaticBuffer key, Long keyId) {
+        if (isEnabled() && keyId != null) {
+            CacheKey cacheKey = new CacheKey(storeId, key);
+            Segment  segment  = getSegment(cacheKey);
+
+            synchronized (segment) {
+                segment.put(cacheKey, keyId);
+            }
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        int ret = 0;
+
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                ret += segment.size();
+            }
+        }
+
+        return ret;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public double getHitRatio() {
+        long hits  = hitCount.get();
+        long total = hits + missCount.get();
+
+        return total == 0 ? 0 : ((double) hits / total);
+    }
+
+    @Override
+    public String toString() {
+        return "RdbmsKeyIdCache(maxSize=" + maxSize + ", size=" + size() + ", hitCount=" + getHitCount() + ", missCount=" + getMissCount() + ", evictionCount=" + getEvictionCount() + ", hitRatio=" + String.format("%.3f", getHitRatio()) + ")";
+    }
+
+    private void logStats() {
+        if (LOG.isDebugEnabled()) {
+            long now         = System.currentTimeMillis();
+            long nextLogTime = nextStatsLogTimeMs.get();
+
+            if (now >= nextLogTime && nextStatsLogTimeMs.compareAndSet(nextLogTime, now + STATS_LOG_INTERVAL_MS)) {
+                LOG.debug("{}", this);
+            }
+        }
+    }
+
+    private Segment getSegment(CacheKey key) {
+        int hash = key.hashCode();
+
+        hash ^= (hash >>> 16);
+
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private static class CacheKey {
+        private final long         storeId;
+        private final StaticBuffer key;
+        private final int          hashCode;
+
+        CacheKey(long storeId, StaticBuffer key) {
+            this.storeId  = storeId;
+            this.key      = key;
+            this.hashCode = Objects.hash(storeId, key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj instanceof CacheKey) {
+                CacheKey other = (CacheKey) obj;
+
+                return storeId == other.storeId && key.equals(other.key);
+            }
+
+            return false;
+        }
+    }
+
+    private static class Segment extends LinkedHashMap<CacheKey, Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int        capacity;
+        private final AtomicLong evictionCount;
+
+        Segment(int capacity, AtomicLong evictionCount) {
+            super(16, 0.75f, true);
+
+            this.capacity      = capacity;
+            this.evictionCount = evictionCount;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Long> eldest) {
+            boolean ret = size() > capacity;
+
+            if (ret) {
+                evictionCount.incrementAndGet();
+            }
+
+            return ret;
+        }
+    }
+}
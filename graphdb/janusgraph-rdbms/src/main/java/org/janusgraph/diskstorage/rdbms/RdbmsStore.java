@@ -21,30 +21,42 @@ import org.janusgraph.diskstorage.BackendException;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.EntryList;
 import org.janusgraph.diskstorage.EntryMetaData;
+import org.janusgraph.diskstorage.PermanentBackendException;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyRangeQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.KeySlicesIterator;
 import org.janusgraph.diskstorage.keycolumnvalue.MultiSlicesQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
+import org.janusgraph.diskstorage.locking.PermanentLockingException;
+import org.janusgraph.diskstorage.locking.TemporaryLockingException;
 import org.janusgraph.diskstorage.rdbms.dao.DaoManager;
 import org.janusgraph.diskstorage.rdbms.dao.JanusColumnDao;
 import org.janusgraph.diskstorage.rdbms.dao.JanusKeyDao;
 import org.janusgraph.diskstorage.rdbms.dao.JanusStoreDao;
+import org.janusgraph.diskstorage.rdbms.entity.JanusColumn;
 import org.janusgraph.diskstorage.rdbms.entity.JanusKey;
 import org.janusgraph.diskstorage.rdbms.entity.JanusStore;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.janusgraph.diskstorage.util.StaticArrayEntry;
 import org.janusgraph.diskstorage.util.StaticArrayEntryList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 /**
@@ -54,6 +66,12 @@ import java.util.TreeMap;
 public class RdbmsStore implements KeyColumnValueStore {
     private static final Logger LOG = LoggerFactory.getLogger(RdbmsStore.class);
 
+    public static final int DEFAULT_SCAN_FETCH_SIZE = 1000;
+    public static final int DEFAULT_LOCK_TIMEOUT_MS = 10000;
+
+    // lock_not_available (raised on lock timeout), serialization_failure, deadlock_detected
+    private static final Set<String> LOCK_CONFLICT_SQL_STATES = new HashSet<>(Arrays.asList("55P03", "40001", "40P01"));
+
     private static final int STORE_CREATE_MAX_ATTEMPTS   = 10;
     private static final int STORE_CREATE_RETRY_DELAY_MS = 100;
     private static final int KEY_CREATE_MAX_ATTEMPTS     = 10;
@@ -62,26 +80,36 @@ public class RdbmsStore implements KeyColumnValueStore {
     private final String          name;
     private final DaoManager      daoManager;
     private final EntryMetaData[] entryMetaData;
+    private final int             multiQueryBatchSize;
+    private final int             mutationBatchSize;
+    private final int             scanFetchSize;
+    private final int             lockTimeoutMs;
+    private final RdbmsKeyIdCache keyIdCache;
     private       Long            storeId;
 
     public RdbmsStore(String name, RdbmsStoreManager storeManager) {
         LOG.info("RdbmsStore(name={})", name);
 
-        this.name          = name;
-        this.daoManager    = storeManager.getDaoManager();
-        this.entryMetaData = storeManager.getMetaDataSchema(name);
-        this.storeId       = null;
+        this.name                = name;
+        this.daoManager          = storeManager.getDaoManager();
+        this.entryMetaData       = storeManager.getMetaDataSchema(name);
+        this.multiQueryBatchSize = storeManager.getMultiQueryBatchSize();
+        this.mutationBatchSize   = storeManager.getMutationBatchSize();
+        this.scanFetchSize       = storeManager.getScanFetchSize();
+        this.lockTimeoutMs       = storeManager.getLockTimeoutMs();
+        this.keyIdCache          = storeManager.getKeyIdCache();
+        this.storeId             = null;
     }
 
     @Override
-    public EntryList getSlice(KeySliceQuery query, StoreTransaction trx) {
+    public EntryList getSlice(KeySliceQuery query, StoreTransaction trx) throws BackendException {
         LOG.debug("==> RdbmsStore.getSlice(name={}, query={}, trx={})", name, query, trx);
 
         final EntryList ret;
 
         if (isStorePresent(trx)) {
             JanusColumnDao         dao        = new JanusColumnDao((RdbmsTransaction) trx, this);
-            Long                   keyId      = getKeyIdOrCreate(toBytes(query.getKey()), trx);
+            Long                   keyId      = getKeyIdOrCreate(query.getKey(), trx);
             byte[]                 sliceStart = toBytes(query.getSliceStart());
             byte[]                 sliceEnd   = toBytes(query.getSliceEnd());
             List<JanusColumnValue> entries    = dao.getColumns(keyId, sliceStart, sliceEnd, query.getLimit());
@@ -109,8 +137,10 @@ public class RdbmsStore implements KeyColumnValueStore {
         if (isStorePresent(trx)) {
             ret = new TreeMap<>();
 
-            for (StaticBuffer key : keys) {
-                ret.put(key, getSlice(new KeySliceQuery(key, query), trx));
+            for (int fromIdx = 0; fromIdx < keys.size(); fromIdx += multiQueryBatchSize) {
+                int toIdx = Math.min(keys.size(), fromIdx + multiQueryBatchSize);
+
+                getSliceBatch(keys.subList(fromIdx, toIdx), query, trx, ret);
             }
         } else {
             ret = Collections.emptyMap();
@@ -122,31 +152,78 @@ public class RdbmsStore implements KeyColumnValueStore {
     }
 
     @Override
-    public void mutate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction trx) {
+    public void mutate(StaticBuffer key, List<Entry> additions, List<StaticBuffer> deletions, StoreTransaction trx) throws BackendException {
         LOG.debug("==> RdbmsStore.mutate(name={}, key={}, additions={}, deletions={}, trx={})", name, key, additions, deletions, trx);
 
-        byte[]         keyName   = toBytes(key);
-        long           keyId     = getKeyIdOrCreate(keyName, trx);
-        JanusColumnDao columnDao = new JanusColumnDao((RdbmsTransaction) trx, this);
+        Long keyId = getKeyIdOrCreate(key, trx);
 
-        for (StaticBuffer column : deletions) {
-            byte[] columnName = toBytes(column);
-
-            columnDao.remove(keyId, columnName);
+        if (keyId == null) {
+            throw new PermanentBackendException("failed to create key in store " + name);
         }
 
-        for (Entry entry : additions) {
-            columnDao.addOrUpdate(keyId, toBytes(entry.getColumn()), toBytes(entry.getValue()));
-        }
+        List<JanusColumn> columnDeletions = new ArrayList<>(deletions.size());
+        List<JanusColumn> columnAdditions = new ArrayList<>(additions.size());
+
+        addColumns(keyId, additions, deletions, columnAdditions, columnDeletions);
+
+        JanusColumnDao columnDao = new JanusColumnDao((RdbmsTransaction) trx, this);
+
+        columnDao.remove(columnDeletions, mutationBatchSize);
+        columnDao.addOrUpdate(columnAdditions, mutationBatchSize);
 
         LOG.debug("<== RdbmsStore.mutate(name={}, key={}, additions={}, deletions={}, trx={})", name, key, additions, deletions, trx);
     }
 
+    /**
+     * Locks the given key, and the column if it exists, until the end of the transaction, using row-level locks
+     * (SELECT ... FOR UPDATE). Since the locks are held until the transaction completes, the expected value is
+     * verified right after the locks are acquired.
+     *
+     * Waits for locks held by other transactions are bounded by storage.rdbms.lock-timeout-ms. A lock timeout,
+     * serialization failure or deadlock results in TemporaryLockingException; other failures in
+     * PermanentBackendException. In either case the database transaction is aborted, hence it is marked for rollback.
+     */
     @Override
-    public void acquireLock(StaticBuffer key, StaticBuffer column, StaticBuffer expectedValue, StoreTransaction trx) {
-        LOG.debug("RdbmsStore.acquireLock(key={}, column={}, expectedValue={}, trx={}): UnsupportedOperation", key, column, expectedValue, trx);
+    public void acquireLock(StaticBuffer key, StaticBuffer column, StaticBuffer expectedValue, StoreTransaction trx) throws BackendException {
+        LOG.debug("==> RdbmsStore.acquireLock(name={}, key={}, column={}, expectedValue={}, trx={})", name, key, column, expectedValue, trx);
+
+        Long keyId = getKeyIdOrCreate(key, trx);
+
+        if (keyId == null) {
+            throw new PermanentBackendException("failed to create key in store " + name);
+        }
+
+        RdbmsTransaction rdbmsTrx = (RdbmsTransaction) trx;
+        final byte[]     currentValue;
+
+        try {
+            JanusKeyDao    keyDao    = new JanusKeyDao(rdbmsTrx);
+            JanusColumnDao columnDao = new JanusColumnDao(rdbmsTrx, this);
 
-        throw new UnsupportedOperationException();
+            if (lockTimeoutMs > 0 && !rdbmsTrx.isLockTimeoutSet()) {
+                keyDao.setLockTimeout(lockTimeoutMs);
+
+                rdbmsTrx.setLockTimeoutSet(true);
+            }
+
+            keyDao.lockById(keyId);
+
+            currentValue = columnDao.getValueForUpdate(keyId, toBytes(column));
+        } catch (RuntimeException excp) {
+            rdbmsTrx.setRollbackOnly();
+
+            if (isLockConflict(excp)) {
+                throw new TemporaryLockingException("failed to lock key " + keyId + " in store " + name, excp);
+            }
+
+            throw new PermanentBackendException("failed to lock key " + keyId + " in store " + name, excp);
+        }
+
+        if (!Arrays.equals(toBytes(expectedValue), currentValue)) {
+            throw new PermanentLockingException("expected value mismatch for key " + keyId + " in store " + name);
+        }
+
+        LOG.debug("<== RdbmsStore.acquireLock(name={}, key={}, column={}, expectedValue={}, trx={})", name, key, column, expectedValue, trx);
     }
 
     @Override
@@ -189,9 +266,74 @@ public class RdbmsStore implements KeyColumnValueStore {
 
     @Override
     public KeySlicesIterator getKeys(MultiSlicesQuery query, StoreTransaction trx) {
-        LOG.debug("RdbmsStore.getKeys(query={}, trx={}): UnsupportedOperation", query, trx);
+        LOG.debug("==> RdbmsStore.getKeys(name={}, query={}, trx={})", name, query, trx);
+
+        final KeySlicesIterator ret;
+
+        if (isStorePresent(trx)) {
+            JanusColumnDao dao = new JanusColumnDao((RdbmsTransaction) trx, this);
 
-        throw new UnsupportedOperationException();
+            ret = dao.getKeysByColumnRanges(this.storeId, query.getQueries());
+        } else {
+            ret = JanusColumnDao.EMPTY_KEY_SLICES_ITERATOR;
+        }
+
+        LOG.debug("<== RdbmsStore.getKeys(name={}, query={}, trx={}): ret={}", name, query, trx, ret);
+
+        return ret;
+    }
+
+    /**
+     * Splits keys of this store into at most numRanges disjoint, contiguous ranges having about the same number of keys.
+     * Each range can be scanned independently, for example in parallel, with getKeys(KeyRangeQuery). The first range
+     * starts at the empty key, and the last range ends after the last key, so that together the ranges cover every key.
+     *
+     * @param numRanges maximum number of ranges
+     * @param trx store transaction
+     * @return key ranges, in order of keys; empty if the store has no keys
+     */
+    public List<KeyRange> getKeyRanges(int numRanges, StoreTransaction trx) {
+        LOG.debug("==> RdbmsStore.getKeyRanges(name={}, numRanges={}, trx={})", name, numRanges, trx);
+
+        List<KeyRange> ret = new ArrayList<>();
+
+        if (isStorePresent(trx)) {
+            JanusKeyDao dao      = new JanusKeyDao((RdbmsTransaction) trx);
+            long        keyCount = dao.getCountByStoreId(this.storeId);
+            byte[]      lastKey  = keyCount > 0 ? dao.getNameAtPosition(this.storeId, keyCount - 1) : null;
+
+            if (lastKey != null) {
+                long         rangeCount = Math.max(1, Math.min(numRanges, keyCount));
+                List<byte[]> boundaries = new ArrayList<>();
+
+                boundaries.add(new byte[0]);
+
+                for (long i = 1; i < rangeCount; i++) {
+                    byte[] boundary = dao.getNameAtPosition(this.storeId, i * keyCount / rangeCount);
+
+                    if (boundary == null) { // keys were deleted after they were counted
+                        break;
+                    }
+
+                    boundaries.add(boundary);
+                }
+
+                // smallest key that is greater than the last key, to make the end of the last range inclusive of the last key
+                boundaries.add(Arrays.copyOf(lastKey, lastKey.length + 1));
+
+                for (int i = 1; i < boundaries.size(); i++) {
+                    ret.add(new KeyRange(StaticArrayBuffer.of(boundaries.get(i - 1)), StaticArrayBuffer.of(boundaries.get(i))));
+                }
+            }
+        }
+
+        LOG.debug("<== RdbmsStore.getKeyRanges(name={}, numRanges={}, trx={}): ret={}", name, numRanges, trx, ret.size());
+
+        return ret;
+    }
+
+    public int getScanFetchSize() {
+        return scanFetchSize;
     }
 
     @Override
@@ -204,6 +346,63 @@ public class RdbmsStore implements KeyColumnValueStore {
         LOG.debug("RdbmsStore.close(name={})", name);
     }
 
+    /**
+     * Resolves ids of given keys, creating the keys that don't exist yet. Existing keys are looked up in the cache first.
+     *
+     * @param keys keys to resolve
+     * @param trx store transaction
+     * @return key ids, ordered by key
+     * @throws BackendException if a key could not be created
+     */
+    Map<StaticBuffer, Long> getKeyIdsOrCreate(Collection<StaticBuffer> keys, StoreTransaction trx) throws BackendException {
+        Long storeId = getStoreIdOrCreate(trx);
+
+        if (storeId == null) {
+            throw new PermanentBackendException("failed to create store " + name);
+        }
+
+        Map<StaticBuffer, Long> ret = getKeyIds(storeId, keys, trx);
+
+        for (StaticBuffer key : keys) {
+            if (!ret.containsKey(key)) {
+                Long keyId = createKey(storeId, toBytes(key), trx);
+
+                if (keyId == null) {
+                    throw new PermanentBackendException("failed to create key in store " + name);
+                }
+
+                keyIdCache.put(storeId, key, keyId);
+
+                ret.put(key, keyId);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Converts mutations of a key into JanusColumn instances to be written in bulk.
+     */
+    static void addColumns(long keyId, List<Entry> additions, List<StaticBuffer> deletions, List<JanusColumn> columnAdditions, List<JanusColumn> columnDeletions) {
+        for (StaticBuffer column : deletions) {
+            columnDeletions.add(new JanusColumn(keyId, toBytes(column), null));
+        }
+
+        for (Entry entry : additions) {
+            columnAdditions.add(new JanusColumn(keyId, toBytes(entry.getColumn()), toBytes(entry.getValue())));
+        }
+    }
+
+    private static boolean isLockConflict(Throwable excp) {
+        for (Throwable cause = excp; cause != null; cause = cause.getCause() != cause ? cause.getCause() : null) {
+            if (cause instanceof SQLException && LOCK_CONFLICT_SQL_STATES.contains(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private boolean isStorePresent(StoreTransaction trx) {
         Long storeId = this.storeId;
 
@@ -220,6 +419,66 @@ public class RdbmsStore implements KeyColumnValueStore {
         return storeId != null;
     }
 
+    private void getSliceBatch(List<StaticBuffer> keys, SliceQuery query, StoreTransaction trx, Map<StaticBuffer, EntryList> result) {
+        Map<StaticBuffer, Long>           keyIds    = getKeyIds(this.storeId, keys, trx);
+        JanusColumnDao                    columnDao = new JanusColumnDao((RdbmsTransaction) trx, this);
+        Map<Long, List<JanusColumnValue>> columns   = columnDao.getColumns(keyIds.values(), toBytes(query.getSliceStart()), toBytes(query.getSliceEnd()), query.getLimit());
+
+        LOG.debug("RdbmsStore.getSliceBatch(name={}, len(keys)={}): keysFound={}, keysWithColumns={}", name, keys.size(), keyIds.size(), columns.size());
+
+        for (StaticBuffer key : keys) {
+            Long                   keyId   = keyIds.get(key);
+            List<JanusColumnValue> entries = keyId != null ? columns.get(keyId) : null;
+
+            if (entries != null && !entries.isEmpty()) {
+                result.put(key, StaticArrayEntryList.ofStaticBuffer(entries, toEntry));
+            } else {
+                result.put(key, EntryList.EMPTY_LIST);
+            }
+        }
+    }
+
+    /**
+     * Returns ids of given keys that exist in the store. Keys not found in the cache are looked up in batches.
+     */
+    private Map<StaticBuffer, Long> getKeyIds(long storeId, Collection<StaticBuffer> keys, StoreTransaction trx) {
+        Map<StaticBuffer, Long> ret      = new TreeMap<>();
+        List<StaticBuffer>      toLookup = new ArrayList<>();
+
+        for (StaticBuffer key : keys) {
+            Long keyId = keyIdCache.get(storeId, key);
+
+            if (keyId != null) {
+                ret.put(key, keyId);
+            } else {
+                toLookup.add(key);
+            }
+        }
+
+        if (!toLookup.isEmpty()) {
+            JanusKeyDao  keyDao   = new JanusKeyDao((RdbmsTransaction) trx);
+            List<byte[]> keyNames = new ArrayList<>(Math.min(toLookup.size(), multiQueryBatchSize));
+
+            for (int fromIdx = 0; fromIdx < toLookup.size(); fromIdx += multiQueryBatchSize) {
+                int toIdx = Math.min(toLookup.size(), fromIdx + multiQueryBatchSize);
+
+                keyNames.clear();
+
+                for (StaticBuffer key : toLookup.subList(fromIdx, toIdx)) {
+                    keyNames.add(toBytes(key));
+                }
+
+                for (Map.Entry<StaticBuffer, Long> entry : keyDao.getIdsByStoreIdAndNames(storeId, keyNames).entrySet()) {
+                    keyIdCache.put(storeId, entry.getKey(), entry.getValue());
+
+                    ret.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        return ret;
+    }
+
     private static byte[] toBytes(StaticBuffer val) {
         return val == null ? null : val.as(StaticBuffer.ARRAY_FACTORY);
     }
@@ -268,10 +527,33 @@ public class RdbmsStore implements KeyColumnValueStore {
         return ret;
     }
 
-    private Long getKeyIdOrCreate(byte[] key, StoreTransaction trx) {
-        Long        storeId = getStoreIdOrCreate(trx);
-        JanusKeyDao dao     = new JanusKeyDao((RdbmsTransaction) trx);
-        Long        ret     = dao.getIdByStoreIdAndName(storeId, key);
+    private Long getKeyIdOrCreate(StaticBuffer key, StoreTransaction trx) throws BackendException {
+        Long storeId = getStoreIdOrCreate(trx);
+
+        if (storeId == null) {
+            throw new PermanentBackendException("failed to create store " + name);
+        }
+
+        Long ret = keyIdCache.get(storeId, key);
+
+        if (ret == null) {
+            JanusKeyDao dao     = new JanusKeyDao((RdbmsTransaction) trx);
+            byte[]      keyName = toBytes(key);
+
+            ret = dao.getIdByStoreIdAndName(storeId, keyName);
+
+            if (ret == null) {
+                ret = createKey(storeId, keyName, trx);
+            }
+
+            keyIdCache.put(storeId, key, ret);
+        }
+
+        return ret;
+    }
+
+    private Long createKey(Long storeId, byte[] key, StoreTransaction trx) {
+        Long ret = null;
 
         for (int attempt = 1; ret == null; attempt++) {
             try (RdbmsTransaction trx2 = new RdbmsTransaction(trx.getConfiguration(), daoManager)) {
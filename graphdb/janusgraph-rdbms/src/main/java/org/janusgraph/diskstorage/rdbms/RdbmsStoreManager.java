@@ -23,6 +23,7 @@ import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.StoreMetaData;
 import org.janusgraph.diskstorage.common.AbstractStoreManager;
 import org.janusgraph.diskstorage.configuration.ConfigNamespace;
+import org.janusgraph.diskstorage.configuration.ConfigOption;
 import org.janusgraph.diskstorage.configuration.Configuration;
 import org.janusgraph.diskstorage.keycolumnvalue.KCVMutation;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyColumnValueStore;
@@ -32,11 +33,14 @@ import org.janusgraph.diskstorage.keycolumnvalue.StandardStoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreFeatures;
 import org.janusgraph.diskstorage.keycolumnvalue.StoreTransaction;
 import org.janusgraph.diskstorage.rdbms.dao.DaoManager;
+import org.janusgraph.diskstorage.rdbms.dao.JanusColumnDao;
+import org.janusgraph.diskstorage.rdbms.entity.JanusColumn;
 import org.janusgraph.graphdb.configuration.GraphDatabaseConfiguration;
 import org.janusgraph.graphdb.configuration.PreInitializeConfigOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -54,11 +58,22 @@ public class RdbmsStoreManager extends AbstractStoreManager implements KeyColumn
     public static final ConfigNamespace RDBMS_NS      = new ConfigNamespace(GraphDatabaseConfiguration.STORAGE_NS, NAME, "RDBMS configuration options");
     public static final ConfigNamespace JPA_CONFIG_NS = new ConfigNamespace(RDBMS_NS, "jpa", "JPA configurations", true);
 
+    public static final ConfigOption<Integer> MULTI_QUERY_BATCH_SIZE = new ConfigOption<>(RDBMS_NS, "multi-query-batch-size", "Maximum number of keys to read in a single query for multi-key slice queries", ConfigOption.Type.MASKABLE, 500);
+    public static final ConfigOption<Integer> MUTATION_BATCH_SIZE    = new ConfigOption<>(RDBMS_NS, "mutation-batch-size", "Maximum number of columns to add or delete in a single statement", ConfigOption.Type.MASKABLE, 1000);
+    public static final ConfigOption<Integer> KEY_ID_CACHE_SIZE      = new ConfigOption<>(RDBMS_NS, "key-id-cache-size", "Maximum number of key ids to cache; 0 disables the cache", ConfigOption.Type.MASKABLE, 100000);
+    public static final ConfigOption<Integer> SCAN_FETCH_SIZE        = new ConfigOption<>(RDBMS_NS, "scan-fetch-size", "Number of rows to read in a single query while scanning keys", ConfigOption.Type.MASKABLE, RdbmsStore.DEFAULT_SCAN_FETCH_SIZE);
+    public static final ConfigOption<Integer> LOCK_TIMEOUT_MS        = new ConfigOption<>(RDBMS_NS, "lock-timeout-ms", "Maximum time, in milliseconds, to wait for a row lock while acquiring a lock; 0 waits until the lock is available", ConfigOption.Type.MASKABLE, RdbmsStore.DEFAULT_LOCK_TIMEOUT_MS);
+
     private static RdbmsStoreManager sInstance;
 
     private final StandardStoreFeatures   features;
     private final Map<String, RdbmsStore> stores;
     private final DaoManager              daoManager;
+    private final int                     multiQueryBatchSize;
+    private final int                     mutationBatchSize;
+    private final int                     scanFetchSize;
+    private final int                     lockTimeoutMs;
+    private final RdbmsKeyIdCache         keyIdCache;
 
     public RdbmsStoreManager(Configuration config) {
         super(config);
@@ -68,6 +83,7 @@ public class RdbmsStoreManager extends AbstractStoreManager implements KeyColumn
                                                     .unorderedScan(true)
                                                     .multiQuery(true)
                                                     .transactional(true)
+                                                    .locking(true)
                                                     .keyConsistent(GraphDatabaseConfiguration.buildGraphConfiguration())
                                                     .keyOrdered(true)
                                                     .batchMutation(true)
@@ -75,9 +91,15 @@ public class RdbmsStoreManager extends AbstractStoreManager implements KeyColumn
         stores     = new HashMap<>();
         daoManager = new DaoManager(config.getSubset(JPA_CONFIG_NS));
 
+        multiQueryBatchSize = Math.max(1, config.get(MULTI_QUERY_BATCH_SIZE));
+        mutationBatchSize   = Math.max(1, config.get(MUTATION_BATCH_SIZE));
+        scanFetchSize       = Math.max(1, config.get(SCAN_FETCH_SIZE));
+        lockTimeoutMs       = Math.max(0, config.get(LOCK_TIMEOUT_MS));
+        keyIdCache          = new RdbmsKeyIdCache(config.get(KEY_ID_CACHE_SIZE));
+
         sInstance = this;
 
-        LOG.info("RdbmsStoreManager()");
+        LOG.info("RdbmsStoreManager(multiQueryBatchSize={}, mutationBatchSize={}, scanFetchSize={}, lockTimeoutMs={}, keyIdCacheSize={})", multiQueryBatchSize, mutationBatchSize, scanFetchSize, lockTimeoutMs, keyIdCache.getMaxSize());
     }
 
     public static RdbmsStoreManager getInstance() {
@@ -88,6 +110,26 @@ public class RdbmsStoreManager extends AbstractStoreManager implements KeyColumn
         return daoManager;
     }
 
+    public int getMultiQueryBatchSize() {
+        return multiQueryBatchSize;
+    }
+
+    public int getMutationBatchSize() {
+        return mutationBatchSize;
+    }
+
+    public int getScanFetchSize() {
+        return scanFetchSize;
+    }
+
+    public int getLockTimeoutMs() {
+        return lockTimeoutMs;
+    }
+
+    public RdbmsKeyIdCache getKeyIdCache() {
+        return keyIdCache;
+    }
+
     @Override
     public KeyColumnValueStore openDatabase(String name, StoreMetaData.Container container) throws BackendException {
         LOG.debug("==> RdbmsStoreManager.openDatabase(name={})", name);
@@ -109,27 +151,34 @@ public class RdbmsStoreManager extends AbstractStoreManager implements KeyColumn
     public void mutateMany(Map<String, Map<StaticBuffer, KCVMutation>> storeMutations, StoreTransaction trx) throws BackendException {
         LOG.debug("==> RdbmsStoreManager.mutateMany(numStores={}, trx={})", storeMutations.size(), trx);
 
-        int numMutations = 0;
-        int numAdditions = 0;
-        int numDeletions = 0;
+        int               numMutations    = 0;
+        List<JanusColumn> columnAdditions = new ArrayList<>();
+        List<JanusColumn> columnDeletions = new ArrayList<>();
 
+        // key ids are unique across stores, hence mutations of all stores are written together
         for (Map.Entry<String, Map<StaticBuffer, KCVMutation>> storeEntry : storeMutations.entrySet()) {
-            String              storeName = storeEntry.getKey();
-            KeyColumnValueStore store     = this.openDatabase(storeName);
+            String                         storeName = storeEntry.getKey();
+            Map<StaticBuffer, KCVMutation> mutations = storeEntry.getValue();
+            RdbmsStore                     store     = (RdbmsStore) this.openDatabase(storeName);
+            Map<StaticBuffer, Long>        keyIds    = store.getKeyIdsOrCreate(mutations.keySet(), trx);
 
-            for (Map.Entry<StaticBuffer, KCVMutation> mutationEntry : storeEntry.getValue().entrySet()) {
-                StaticBuffer key      = mutationEntry.getKey();
-                KCVMutation  mutation = mutationEntry.getValue();
+            for (Map.Entry<StaticBuffer, KCVMutation> mutationEntry : mutations.entrySet()) {
+                Long        keyId    = keyIds.get(mutationEntry.getKey());
+                KCVMutation mutation = mutationEntry.getValue();
 
                 numMutations++;
-                numAdditions += mutation.getAdditions().size();
-                numDeletions += mutation.getDeletions().size();
 
-                store.mutate(key, mutation.getAdditions(), mutation.getDeletions(), trx);
+                RdbmsStore.addColumns(keyId, mutation.getAdditions(), mutation.getDeletions(), columnAdditions, columnDeletions);
             }
         }
 
-        LOG.debug("<== RdbmsStoreManager.mutateMany(numStores={}, numMutations={}, numAdditions={}, numDeletions={})", storeMutations.size(), numMutations, numAdditions, numDeletions);
+        JanusColumnDao columnDao = new JanusColumnDao((RdbmsTransaction) trx);
+
+        // deletions are applied before additions, same as in RdbmsStore.mutate()
+        int numDeleteStatements = columnDao.remove(columnDeletions, mutationBatchSize);
+        int numUpsertStatements = columnDao.addOrUpdate(columnAdditions, mutationBatchSize);
+
+        LOG.debug("<== RdbmsStoreManager.mutateMany(numStores={}, numMutations={}, numAdditions={}, numDeletions={}): numUpsertStatements={}, numDeleteStatements={}", storeMutations.size(), numMutations, columnAdditions.size(), columnDeletions.size(), numUpsertStatements, numDeleteStatements);
     }
 
     @Override
@@ -150,6 +199,10 @@ public class RdbmsStoreManager extends AbstractStoreManager implements KeyColumn
 
             stores.clear();
             daoManager.close();
+
+            LOG.info("RdbmsStoreManager.close(): {}", keyIdCache);
+
+            keyIdCache.clear();
         }
     }
 
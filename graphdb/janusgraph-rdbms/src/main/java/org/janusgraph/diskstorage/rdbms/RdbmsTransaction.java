@@ -44,6 +44,7 @@ public class RdbmsTransaction extends AbstractStoreTransaction implements Closea
 
     private final EntityManager     em;
     private final EntityTransaction trx;
+    private       boolean           isLockTimeoutSet;
 
     public RdbmsTransaction(BaseTransactionConfig trxConfig, DaoManager daoManager) {
         super(trxConfig);
@@ -66,6 +67,23 @@ public class RdbmsTransaction extends AbstractStoreTransaction implements Closea
         return em;
     }
 
+    /**
+     * Marks the transaction so that it can only be rolled back; commit() will fail with RollbackException.
+     */
+    public void setRollbackOnly() {
+        if (trx.isActive()) {
+            trx.setRollbackOnly();
+        }
+    }
+
+    public boolean isLockTimeoutSet() {
+        return isLockTimeoutSet;
+    }
+
+    public void setLockTimeoutSet(boolean isLockTimeoutSet) {
+        this.isLockTimeoutSet = isLockTimeoutSet;
+    }
+
     @Override
     public void commit() {
         LOG.trace("==> RdbmsTransaction.commit()");
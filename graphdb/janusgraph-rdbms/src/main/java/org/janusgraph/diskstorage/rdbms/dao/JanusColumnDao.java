@@ -18,10 +18,11 @@
  */
 package org.janusgraph.diskstorage.rdbms.dao;
 
-import org.eclipse.persistence.queries.ScrollableCursor;
 import org.janusgraph.diskstorage.Entry;
 import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.keycolumnvalue.KeyIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySlicesIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
 import org.janusgraph.diskstorage.rdbms.JanusColumnValue;
 import org.janusgraph.diskstorage.rdbms.RdbmsStore;
 import org.janusgraph.diskstorage.rdbms.RdbmsTransaction;
@@ -31,17 +32,43 @@ import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 import org.janusgraph.diskstorage.util.StaticArrayEntry;
 
 import javax.persistence.NoResultException;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
 
 /**
  * DAO to access Column entities stored in RDBMS
  *
  */
 public class JanusColumnDao extends BaseDao<JanusColumn> {
+    private static final String UPSERT_COLUMNS_PREFIX      = "INSERT INTO janus_column (key_id, name, val) VALUES ";
+    private static final String UPSERT_COLUMNS_SUFFIX      = " ON CONFLICT (key_id, name) DO UPDATE SET val = EXCLUDED.val";
+    private static final String UPSERT_COLUMNS_ROW         = "(?, ?, ?)";
+    private static final String DELETE_COLUMNS_PREFIX      = "DELETE FROM janus_column WHERE (key_id, name) IN (";
+    private static final String DELETE_COLUMNS_SUFFIX      = ")";
+    private static final String DELETE_COLUMNS_ROW         = "(?, ?)";
+    private static final String GET_COLUMNS_BY_KEYS_PREFIX = "SELECT key_id, name, val FROM (SELECT key_id, name, val, ROW_NUMBER() OVER (PARTITION BY key_id ORDER BY name) AS rn FROM janus_column WHERE key_id IN (";
+    private static final String GET_COLUMNS_BY_KEYS_SUFFIX = ") AND name >= ? AND name < ?) t WHERE rn <= ? ORDER BY key_id, name";
+    private static final String GET_KEYS_BY_SLICES         = "SELECT k.id, k.name, c.name, c.val FROM JanusColumn c, JanusKey k WHERE k.storeId = :storeId AND c.keyId = k.id AND ";
+
     private final RdbmsStore store;
 
+    public JanusColumnDao(RdbmsTransaction trx) {
+        this(trx, null);
+    }
+
     public JanusColumnDao(RdbmsTransaction trx, RdbmsStore store) {
         super(trx);
 
@@ -67,6 +94,64 @@ public class JanusColumnDao extends BaseDao<JanusColumn> {
                     .executeUpdate();
     }
 
+    /**
+     * Adds or updates given columns using multi-row upsert statements, each with at most batchSize rows.
+     * When a column appears more than once, the last occurrence wins.
+     *
+     * @param columns columns to add or update
+     * @param batchSize maximum number of rows in a single statement
+     * @return number of statements executed
+     */
+    public int addOrUpdate(List<JanusColumn> columns, int batchSize) {
+        int               ret      = 0;
+        List<JanusColumn> batch    = new ArrayList<>(Math.min(columns.size(), batchSize));
+        Set<ColumnId>     batchIds = new HashSet<>();
+
+        for (JanusColumn column : columns) {
+            // a single upsert statement can't update the same row twice; flush the batch on a duplicate to preserve ordering
+            if (batch.size() >= batchSize || !batchIds.add(new ColumnId(column))) {
+                executeBatch(batch, UPSERT_COLUMNS_PREFIX, UPSERT_COLUMNS_ROW, UPSERT_COLUMNS_SUFFIX, true);
+
+                ret++;
+
+                batch.clear();
+                batchIds.clear();
+                batchIds.add(new ColumnId(column));
+            }
+
+            batch.add(column);
+        }
+
+        if (!batch.isEmpty()) {
+            executeBatch(batch, UPSERT_COLUMNS_PREFIX, UPSERT_COLUMNS_ROW, UPSERT_COLUMNS_SUFFIX, true);
+
+            ret++;
+        }
+
+        return ret;
+    }
+
+    /**
+     * Removes given columns using multi-row delete statements, each with at most batchSize rows.
+     *
+     * @param columns columns to remove; only keyId and name are used
+     * @param batchSize maximum number of rows in a single statement
+     * @return number of statements executed
+     */
+    public int remove(List<JanusColumn> columns, int batchSize) {
+        int ret = 0;
+
+        for (int fromIdx = 0; fromIdx < columns.size(); fromIdx += batchSize) {
+            int toIdx = Math.min(columns.size(), fromIdx + batchSize);
+
+            executeBatch(columns.subList(fromIdx, toIdx), DELETE_COLUMNS_PREFIX, DELETE_COLUMNS_ROW, DELETE_COLUMNS_SUFFIX, false);
+
+            ret++;
+        }
+
+        return ret;
+    }
+
     public List<JanusColumnValue> getColumns(long keyId, byte[] startColumn, byte[] endColumn, int limit) {
         List<Object[]> result = em.createNamedQuery("JanusColumn.getColumnsByKeyIdStartNameEndName", Object[].class)
                                     .setParameter("keyId", keyId)
@@ -78,28 +163,261 @@ public class JanusColumnDao extends BaseDao<JanusColumn> {
         return toColumnList(result);
     }
 
+    public Map<Long, List<JanusColumnValue>> getColumns(Collection<Long> keyIds, byte[] startColumn, byte[] endColumn, int limit) {
+        Map<Long, List<JanusColumnValue>> ret = new HashMap<>();
+
+        if (keyIds != null && !keyIds.isEmpty()) {
+            final List<?> result;
+
+            if (limit < Integer.MAX_VALUE) { // limit columns of each key in the database, instead of reading all columns in the slice
+                Query query    = em.createNativeQuery(getColumnsByKeyIdsWithLimitSql(keyIds.size()));
+                int   paramIdx = 1;
+
+                for (Long keyId : keyIds) {
+                    query.setParameter(paramIdx++, keyId);
+                }
+
+                result = query.setParameter(paramIdx++, startColumn)
+                              .setParameter(paramIdx++, endColumn)
+                              .setParameter(paramIdx, limit)
+                              .getResultList();
+            } else {
+                result = em.createNamedQuery("JanusColumn.getColumnsByKeyIdsStartNameEndName", Object[].class)
+                            .setParameter("keyIds", keyIds)
+                            .setParameter("startName", startColumn)
+                            .setParameter("endName", endColumn)
+                            .getResultList();
+            }
+
+            if (result != null) {
+                for (Object obj : result) {
+                    Object[] row = (Object[]) obj;
+
+                    ret.computeIfAbsent(toLong(row[0]), k -> new ArrayList<>()).add(new JanusColumnValue(toByteArray(row[1]), toByteArray(row[2])));
+                }
+            }
+        }
+
+        return ret;
+    }
+
     public KeyIterator getKeysByColumnRange(long storeId, byte[] startColumn, byte[] endColumn, int limit) {
-        ScrollableCursor result = (ScrollableCursor) em.createNamedQuery("JanusColumn.getKeysByStoreIdColumnRange")
-                                                       .setParameter("storeId", storeId)
-                                                       .setParameter("startName", startColumn)
-                                                       .setParameter("endName", endColumn)
-                                                       .setHint("eclipselink.cursor.scrollable", true)
-                                                       .getResultList();
-
-        return toKeyColumns(result, limit);
+        RowPager pager = (lastKey, lastColumn, pageSize) -> {
+            if (lastKey == null) {
+                return em.createNamedQuery("JanusColumn.getKeysByStoreIdColumnRange", Object[].class)
+                            .setParameter("storeId", storeId)
+                            .setParameter("startName", startColumn)
+                            .setParameter("endName", endColumn)
+                            .setMaxResults(pageSize)
+                            .getResultList();
+            }
+
+            return getRowsAfter(storeId, lastKey, lastColumn, endColumn, pageSize, nextKeysPageSize ->
+                        em.createNamedQuery("JanusColumn.getKeysByStoreIdColumnRangeAfterKey", Object[].class)
+                            .setParameter("storeId", storeId)
+                            .setParameter("lastKey", lastKey)
+                            .setParameter("startName", startColumn)
+                            .setParameter("endName", endColumn)
+                            .setMaxResults(nextKeysPageSize)
+                            .getResultList());
+        };
+
+        return toKeyColumns(new PagedRows(pager, getScanFetchSize()), limit);
+    }
+
+    /**
+     * Scans keys of the store having columns in any of the given slices, with a single query per page covering all slices.
+     * Only columns in the slices are read; columns of each key are distributed to the slices they belong to, honoring
+     * the limit of each slice.
+     */
+    public KeySlicesIterator getKeysByColumnRanges(long storeId, List<SliceQuery> slices) {
+        if (slices == null || slices.isEmpty()) {
+            return EMPTY_KEY_SLICES_ITERATOR;
+        }
+
+        String   slicesCondition = getSlicesCondition(slices.size());
+        RowPager pager           = (lastKey, lastColumn, pageSize) -> {
+            if (lastKey == null) {
+                return setSliceParameters(em.createQuery(GET_KEYS_BY_SLICES + slicesCondition + " ORDER BY k.name, c.name", Object[].class), slices)
+                            .setParameter("storeId", storeId)
+                            .setMaxResults(pageSize)
+                            .getResultList();
+            }
+
+            List<Object[]> lastKeyRows = setSliceParameters(em.createQuery(GET_KEYS_BY_SLICES + "k.name = :lastKey AND c.name > :lastName AND " + slicesCondition + " ORDER BY c.name", Object[].class), slices)
+                                            .setParameter("storeId", storeId)
+                                            .setParameter("lastKey", lastKey)
+                                            .setParameter("lastName", lastColumn)
+                                            .setMaxResults(pageSize)
+                                            .getResultList();
+
+            return appendRows(lastKeyRows, pageSize, nextKeysPageSize ->
+                        setSliceParameters(em.createQuery(GET_KEYS_BY_SLICES + "k.name > :lastKey AND " + slicesCondition + " ORDER BY k.name, c.name", Object[].class), slices)
+                            .setParameter("storeId", storeId)
+                            .setParameter("lastKey", lastKey)
+                            .setMaxResults(nextKeysPageSize)
+                            .getResultList());
+        };
+
+        KeyIterator keys = toKeyColumns(new PagedRows(pager, getScanFetchSize()), Integer.MAX_VALUE);
+
+        return keys == EMPTY_KEY_ITERATOR ? EMPTY_KEY_SLICES_ITERATOR : new RdbmsKeySlicesIterator(keys, slices);
+    }
+
+    /**
+     * Returns the value of the given column, locking its row until the end of the current transaction.
+     *
+     * @return value of the column; null if the column doesn't exist
+     */
+    public byte[] getValueForUpdate(long keyId, byte[] name) {
+        List<?> result = em.createNativeQuery("SELECT val FROM janus_column WHERE key_id = ? AND name = ? FOR UPDATE")
+                           .setParameter(1, keyId)
+                           .setParameter(2, name)
+                           .getResultList();
+
+        if (result == null || result.isEmpty()) {
+            return null;
+        }
+
+        Object row = result.get(0);
+
+        return toByteArray(row instanceof Object[] ? ((Object[]) row)[0] : row);
     }
 
     public KeyIterator getKeysByKeyAndColumnRange(long storeId, byte[] startKey, byte[] endKey, byte[] startColumn, byte[] endColumn, int limit) {
-        ScrollableCursor result = (ScrollableCursor) em.createNamedQuery("JanusColumn.getKeysByStoreIdKeyRangeColumnRange")
-                                                       .setParameter("storeId", storeId)
-                                                       .setParameter("startKey", startKey)
-                                                       .setParameter("endKey", endKey)
-                                                       .setParameter("startName", startColumn)
-                                                       .setParameter("endName", endColumn)
-                                                       .setHint("eclipselink.cursor.scrollable", true)
-                                                       .getSingleResult();
-
-        return toKeyColumns(result, limit);
+        RowPager pager = (lastKey, lastColumn, pageSize) -> {
+            if (lastKey == null) {
+                return em.createNamedQuery("JanusColumn.getKeysByStoreIdKeyRangeColumnRange", Object[].class)
+                            .setParameter("storeId", storeId)
+                            .setParameter("startKey", startKey)
+                            .setParameter("endKey", endKey)
+                            .setParameter("startName", startColumn)
+                            .setParameter("endName", endColumn)
+                            .setMaxResults(pageSize)
+                            .getResultList();
+            }
+
+            return getRowsAfter(storeId, lastKey, lastColumn, endColumn, pageSize, nextKeysPageSize ->
+                        em.createNamedQuery("JanusColumn.getKeysByStoreIdKeyRangeColumnRangeAfterKey", Object[].class)
+                            .setParameter("storeId", storeId)
+                            .setParameter("lastKey", lastKey)
+                            .setParameter("endKey", endKey)
+                            .setParameter("startName", startColumn)
+                            .setParameter("endName", endColumn)
+                            .setMaxResults(nextKeysPageSize)
+                            .getResultList());
+        };
+
+        return toKeyColumns(new PagedRows(pager, getScanFetchSize()), limit);
+    }
+
+    /*
+     * Rows after (lastKey, lastColumn) are read with two range queries: remaining columns of lastKey, followed by columns
+     * of keys after lastKey. A single query with (key > lastKey OR (key = lastKey AND column > lastColumn)) can't be
+     * served with an index range scan, and would read the store from its first key for every page.
+     */
+    private List<Object[]> getRowsAfter(long storeId, byte[] lastKey, byte[] lastColumn, byte[] endColumn, int pageSize, IntFunction<List<Object[]>> nextKeysFetcher) {
+        List<Object[]> lastKeyRows = em.createNamedQuery("JanusColumn.getKeysByStoreIdKeyNameColumnRangeAfterName", Object[].class)
+                                        .setParameter("storeId", storeId)
+                                        .setParameter("lastKey", lastKey)
+                                        .setParameter("lastName", lastColumn)
+                                        .setParameter("endName", endColumn)
+                                        .setMaxResults(pageSize)
+                                        .getResultList();
+
+        return appendRows(lastKeyRows, pageSize, nextKeysFetcher);
+    }
+
+    private static List<Object[]> appendRows(List<Object[]> rows, int pageSize, IntFunction<List<Object[]>> nextRowsFetcher) {
+        List<Object[]> ret = rows;
+
+        if (ret == null || ret.size() < pageSize) {
+            List<Object[]> nextRows = nextRowsFetcher.apply(pageSize - (ret == null ? 0 : ret.size()));
+
+            if (ret == null || ret.isEmpty()) {
+                ret = nextRows;
+            } else if (nextRows != null && !nextRows.isEmpty()) {
+                ret = new ArrayList<>(ret);
+
+                ret.addAll(nextRows);
+            }
+        }
+
+        return ret;
+    }
+
+    /*
+     * JPQL condition matching columns in any of the given slices, with parameters sliceStart<i> and sliceEnd<i>
+     */
+    private static String getSlicesCondition(int sliceCount) {
+        StringBuilder ret = new StringBuilder("(");
+
+        for (int i = 0; i < sliceCount; i++) {
+            if (i > 0) {
+                ret.append(" OR ");
+            }
+
+            ret.append("(c.name >= :sliceStart").append(i).append(" AND c.name < :sliceEnd").append(i).append(")");
+        }
+
+        return ret.append(")").toString();
+    }
+
+    private static TypedQuery<Object[]> setSliceParameters(TypedQuery<Object[]> query, List<SliceQuery> slices) {
+        for (int i = 0; i < slices.size(); i++) {
+            query.setParameter("sliceStart" + i, toBytes(slices.get(i).getSliceStart()))
+                 .setParameter("sliceEnd" + i, toBytes(slices.get(i).getSliceEnd()));
+        }
+
+        return query;
+    }
+
+    private void executeBatch(List<JanusColumn> columns, String prefix, String row, String suffix, boolean includeValue) {
+        StringBuilder sql = new StringBuilder(prefix.length() + suffix.length() + columns.size() * (row.length() + 2));
+
+        sql.append(prefix);
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+
+            sql.append(row);
+        }
+
+        sql.append(suffix);
+
+        Query query    = em.createNativeQuery(sql.toString());
+        int   paramIdx = 1;
+
+        for (JanusColumn column : columns) {
+            query.setParameter(paramIdx++, column.getKeyId());
+            query.setParameter(paramIdx++, column.getName());
+
+            if (includeValue) {
+                query.setParameter(paramIdx++, column.getVal());
+            }
+        }
+
+        query.executeUpdate();
+    }
+
+    private static String getColumnsByKeyIdsWithLimitSql(int keyCount) {
+        StringBuilder sql = new StringBuilder(GET_COLUMNS_BY_KEYS_PREFIX.length() + GET_COLUMNS_BY_KEYS_SUFFIX.length() + keyCount * 3);
+
+        sql.append(GET_COLUMNS_BY_KEYS_PREFIX);
+
+        for (int i = 0; i < keyCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+
+            sql.append("?");
+        }
+
+        sql.append(GET_COLUMNS_BY_KEYS_SUFFIX);
+
+        return sql.toString();
     }
 
     private List<JanusColumnValue> toColumnList(List<Object[]> result) {
@@ -119,7 +437,11 @@ public class JanusColumnDao extends BaseDao<JanusColumn> {
         return ret;
     }
 
-    private KeyIterator toKeyColumns(ScrollableCursor keysResult, int limit) {
+    private int getScanFetchSize() {
+        return store != null ? store.getScanFetchSize() : RdbmsStore.DEFAULT_SCAN_FETCH_SIZE;
+    }
+
+    private KeyIterator toKeyColumns(PagedRows keysResult, int limit) {
         final KeyIterator ret;
 
         if (keysResult != null && keysResult.hasNext()) {
@@ -132,14 +454,13 @@ public class JanusColumnDao extends BaseDao<JanusColumn> {
     }
 
     private class RdbmsKeyIterator implements KeyIterator {
-        private final ScrollableCursor rows;
-        private final int              limit;
-        private final Row              currKey   = new Row();
-        private final Row              nextKey   = new Row();
-        private       Long             prevKeyId;
-        private       boolean          isClosed;
-
-        public RdbmsKeyIterator(ScrollableCursor rows, int limit) {
+        private final PagedRows rows;
+        private final int       limit;
+        private final Row       currKey = new Row();
+        private final Row       nextKey = new Row();
+        private       boolean   isClosed;
+
+        public RdbmsKeyIterator(PagedRows rows, int limit) {
             this.rows  = rows;
             this.limit = limit;
         }
@@ -150,10 +471,10 @@ public class JanusColumnDao extends BaseDao<JanusColumn> {
 
             if (nextKey.keyId == null) {
                 while (rows.hasNext()) {
-                    Object[] nextRow = (Object[]) rows.next();
+                    Object[] nextRow = rows.next();
                     Long     keyId   = toLong(nextRow[0]);
 
-                    if (prevKeyId != null && prevKeyId.equals(keyId)) { // ignore additional columns for this key
+                    if (keyId.equals(currKey.keyId)) { // ignore additional columns for the current key
                         continue;
                     }
 
@@ -170,8 +491,6 @@ public class JanusColumnDao extends BaseDao<JanusColumn> {
         public StaticBuffer next() {
             ensureOpen();
 
-            prevKeyId = currKey.keyId;
-
             if (nextKey.keyId == null) {
                 hasNext();
             }
@@ -197,7 +516,7 @@ public class JanusColumnDao extends BaseDao<JanusColumn> {
 
                     if (currKey.column == null) {
                         while (rows.hasNext()) {
-                            Object[] nextRow = (Object[]) rows.next();
+                            Object[] nextRow = rows.next();
                             Long     keyId   = toLong(nextRow[0]);
 
                             if (!keyId.equals(currKey.keyId)) {
@@ -285,6 +604,192 @@ public class JanusColumnDao extends BaseDao<JanusColumn> {
         }
     }
 
+    private static class ColumnId {
+        private final Long         keyId;
+        private final StaticBuffer name;
+
+        ColumnId(JanusColumn column) {
+            this.keyId = column.getKeyId();
+            this.name  = StaticArrayBuffer.of(column.getName());
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * keyId.hashCode() + name.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj instanceof ColumnId) {
+                ColumnId other = (ColumnId) obj;
+
+                return keyId.equals(other.keyId) && name.equals(other.name);
+            }
+
+            return false;
+        }
+    }
+
+    private static byte[] toBytes(StaticBuffer val) {
+        return val == null ? null : val.as(StaticBuffer.ARRAY_FACTORY);
+    }
+
+    private static class RdbmsKeySlicesIterator implements KeySlicesIterator {
+        private final KeyIterator                            keys;
+        private final List<SliceQuery>                       queries;
+        private final Map<SliceQuery, RecordIterator<Entry>> currEntries = new LinkedHashMap<>();
+
+        RdbmsKeySlicesIterator(KeyIterator keys, List<SliceQuery> queries) {
+            this.keys    = keys;
+            this.queries = queries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return keys.hasNext();
+        }
+
+        @Override
+        public StaticBuffer next() {
+            StaticBuffer ret = keys.next();
+
+            Map<SliceQuery, List<Entry>> sliceEntries = new LinkedHashMap<>();
+
+            for (SliceQuery query : queries) {
+                sliceEntries.put(query, new ArrayList<>());
+            }
+
+            for (Iterator<Entry> iter = keys.getEntries(); iter.hasNext(); ) {
+                Entry entry = iter.next();
+
+                for (SliceQuery query : queries) {
+                    List<Entry> entries = sliceEntries.get(query);
+
+                    if (entries.size() < query.getLimit() && query.contains(entry.getColumn())) {
+                        entries.add(entry);
+                    }
+                }
+            }
+
+            currEntries.clear();
+
+            for (Map.Entry<SliceQuery, List<Entry>> e : sliceEntries.entrySet()) {
+                currEntries.put(e.getKey(), new ListRecordIterator<>(e.getValue()));
+            }
+
+            return ret;
+        }
+
+        @Override
+        public Map<SliceQuery, RecordIterator<Entry>> getEntries() {
+            return currEntries;
+        }
+
+        @Override
+        public void close() throws IOException {
+            currEntries.clear();
+
+            keys.close();
+        }
+    }
+
+    private static class ListRecordIterator<T> implements RecordIterator<T> {
+        private final Iterator<T> iter;
+
+        ListRecordIterator(List<T> list) {
+            this.iter = list.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iter.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return iter.next();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private interface RowPager {
+        List<Object[]> fetch(byte[] lastKey, byte[] lastColumn, int pageSize);
+    }
+
+    /**
+     * Iterates over rows of (keyId, keyName, columnName, columnValue), ordered by keyName and columnName, fetching
+     * pageSize rows at a time. Each page is read with a separate query that continues after the last row of the
+     * previous page, so that no database cursor is held open across pages.
+     */
+    private static class PagedRows {
+        private final RowPager       pager;
+        private final int            pageSize;
+        private       List<Object[]> page;
+        private       int            pageIdx;
+        private       boolean        isLastPage;
+
+        PagedRows(RowPager pager, int pageSize) {
+            this.pager    = pager;
+            this.pageSize = pageSize;
+        }
+
+        boolean hasNext() {
+            if (page == null) {
+                fetchPage(null, null);
+            } else if (pageIdx >= page.size() && !isLastPage) {
+                Object[] lastRow = page.get(page.size() - 1);
+
+                fetchPage((byte[]) lastRow[1], (byte[]) lastRow[2]);
+            }
+
+            return pageIdx < page.size();
+        }
+
+        Object[] next() {
+            return hasNext() ? page.get(pageIdx++) : null;
+        }
+
+        void close() {
+            page       = Collections.emptyList();
+            pageIdx    = 0;
+            isLastPage = true;
+        }
+
+        private void fetchPage(byte[] lastKey, byte[] lastColumn) {
+            List<Object[]> rows = pager.fetch(lastKey, lastColumn, pageSize);
+
+            page       = rows != null ? rows : Collections.emptyList();
+            pageIdx    = 0;
+            isLastPage = page.size() < pageSize;
+        }
+    }
+
+    public static final KeySlicesIterator EMPTY_KEY_SLICES_ITERATOR = new KeySlicesIterator() {
+        @Override
+        public Map<SliceQuery, RecordIterator<Entry>> getEntries() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean hasNext() {
+            return false;
+        }
+
+        @Override
+        public StaticBuffer next() {
+            return null;
+        }
+    };
+
     public static final KeyIterator EMPTY_KEY_ITERATOR = new KeyIterator() {
         @Override
         public RecordIterator<Entry> getEntries() {
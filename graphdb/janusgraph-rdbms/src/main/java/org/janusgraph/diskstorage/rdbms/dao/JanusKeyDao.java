@@ -18,11 +18,17 @@
  */
 package org.janusgraph.diskstorage.rdbms.dao;
 
+import org.janusgraph.diskstorage.StaticBuffer;
 import org.janusgraph.diskstorage.rdbms.RdbmsTransaction;
 import org.janusgraph.diskstorage.rdbms.entity.JanusKey;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
 
 import javax.persistence.NoResultException;
 
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 /**
  * DAO to access Key entities stored in RDBMS
  *
@@ -46,4 +52,73 @@ public class JanusKeyDao extends BaseDao<JanusKey> {
 
         return null;
     }
+
+    public Map<StaticBuffer, Long> getIdsByStoreIdAndNames(long storeId, List<byte[]> names) {
+        Map<StaticBuffer, Long> ret = new TreeMap<>();
+
+        if (names != null && !names.isEmpty()) {
+            List<Object[]> result = em.createNamedQuery("JanusKey.getIdsByStoreIdAndNames", Object[].class)
+                                      .setParameter("storeId", storeId)
+                                      .setParameter("names", names)
+                                      .getResultList();
+
+            if (result != null) {
+                for (Object[] row : result) {
+                    Long   id   = toLong(row[0]);
+                    byte[] name = toByteArray(row[1]);
+
+                    if (id != null && name != null) {
+                        ret.put(StaticArrayBuffer.of(name), id);
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    public long getCountByStoreId(long storeId) {
+        Object result = em.createNamedQuery("JanusKey.getCountByStoreId")
+                          .setParameter("storeId", storeId)
+                          .getSingleResult();
+
+        return (result instanceof Number) ? ((Number) result).longValue() : 0;
+    }
+
+    /**
+     * Returns the name of the key at the given position, in order of key name, of the store; null if the store has
+     * fewer keys.
+     */
+    public byte[] getNameAtPosition(long storeId, long position) {
+        List<?> result = em.createNamedQuery("JanusKey.getNamesByStoreId")
+                           .setParameter("storeId", storeId)
+                           .setFirstResult((int) Math.min(position, Integer.MAX_VALUE))
+                           .setMaxResults(1)
+                           .getResultList();
+
+        return (result == null || result.isEmpty()) ? null : toByteArray(result.get(0));
+    }
+
+    /**
+     * Limits the time statements of the current transaction wait for row locks; on timeout, a statement fails with
+     * SQLState 55P03 (lock_not_available).
+     */
+    public void setLockTimeout(long timeoutMs) {
+        em.createNativeQuery("SELECT set_config('lock_timeout', ?, true)")
+          .setParameter(1, timeoutMs + "ms")
+          .getSingleResult();
+    }
+
+    /**
+     * Locks the row of the given key until the end of the current transaction.
+     *
+     * @return true if the key exists
+     */
+    public boolean lockById(long keyId) {
+        List<?> result = em.createNativeQuery("SELECT id FROM janus_key WHERE id = ? FOR UPDATE")
+                           .setParameter(1, keyId)
+                           .getResultList();
+
+        return result != null && !result.isEmpty();
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.janusgraph.diskstorage.rdbms;
+
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class RdbmsKeyIdCacheTest {
+    private static final long STORE_ID_1 = 1L;
+    private static final long STORE_ID_2 = 2L;
+
+    @Test
+    public void testHitAndMiss() {
+        RdbmsKeyIdCache cache = new RdbmsKeyIdCache(100);
+
+        assertNull(cache.get(STORE_ID_1, toBuffer("key1")));
+
+        cache.put(STORE_ID_1, toBuffer("key1"), 10L);
+
+        assertEquals(cache.get(STORE_ID_1, toBuffer("key1")), Long.valueOf(10L));
+        assertNull(cache.get(STORE_ID_1, toBuffer("key2")));
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void testStoresAreIsolated() {
+        RdbmsKeyIdCache cache = new RdbmsKeyIdCache(100);
+
+        cache.put(STORE_ID_1, toBuffer("key1"), 10L);
+        cache.put(STORE_ID_2, toBuffer("key1"), 20L);
+
+        assertEquals(cache.get(STORE_ID_1, toBuffer("key1")), Long.valueOf(10L));
+        assertEquals(cache.get(STORE_ID_2, toBuffer("key1")), Long.valueOf(20L));
+
+        cache.put(STORE_ID_2, toBuffer("key2"), 21L);
+
+        assertNull(cache.get(STORE_ID_1, toBuffer("key2")));
+        assertEquals(cache.size(), 3);
+    }
+
+    @Test
+    public void testEvictionAtSizeLimit() {
+        for (int maxSize : new int[] {1, 10, 16, 20, 100}) {
+            RdbmsKeyIdCache cache    = new RdbmsKeyIdCache(maxSize);
+            int             keyCount = maxSize * 10;
+
+            for (int i = 0; i < keyCount; i++) {
+                cache.put(STORE_ID_1, toBuffer("key" + i), (long) i);
+
+                assertTrue(cache.size() <= maxSize, "cache size " + cache.size() + " exceeds maxSize " + maxSize);
+            }
+
+            assertTrue(cache.size() > 0);
+            assertEquals(cache.getEvictionCount(), keyCount - cache.size());
+
+            // the most recently added key is never evicted
+            assertEquals(cache.get(STORE_ID_1, toBuffer("key" + (keyCount - 1))), Long.valueOf(keyCount - 1));
+        }
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        RdbmsKeyIdCache cache = new RdbmsKeyIdCache(1);
+
+        cache.put(STORE_ID_1, toBuffer("key1"), 10L);
+        cache.put(STORE_ID_1, toBuffer("key2"), 20L);
+
+        assertNull(cache.get(STORE_ID_1, toBuffer("key1")));
+        assertEquals(cache.get(STORE_ID_1, toBuffer("key2")), Long.valueOf(20L));
+        assertEquals(cache.getEvictionCount(), 1);
+    }
+
+    @Test
+    public void testStats() {
+        RdbmsKeyIdCache cache = new RdbmsKeyIdCache(100);
+
+        assertEquals(cache.getHitRatio(), 0.0);
+
+        cache.put(STORE_ID_1, toBuffer("key1"), 10L);
+
+        cache.get(STORE_ID_1, toBuffer("key1"));
+        cache.get(STORE_ID_1, toBuffer("key1"));
+        cache.get(STORE_ID_1, toBuffer("key1"));
+        cache.get(STORE_ID_1, toBuffer("key2"));
+
+        assertEquals(cache.getHitCount(), 3);
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getEvictionCount(), 0);
+        assertEquals(cache.getHitRatio(), 0.75);
+        assertTrue(cache.toString().contains("hitCount=3"), cache.toString());
+        assertTrue(cache.toString().contains("missCount=1"), cache.toString());
+    }
+
+    @Test
+    public void testDisabledCache() {
+        RdbmsKeyIdCache cache = new RdbmsKeyIdCache(0);
+
+        cache.put(STORE_ID_1, toBuffer("key1"), 10L);
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get(STORE_ID_1, toBuffer("key1")));
+        assertEquals(cache.size(), 0);
+        assertEquals(cache.getHitCount(), 0);
+        assertEquals(cache.getMissCount(), 0);
+    }
+
+    private static StaticBuffer toBuffer(String str) {
+        return StaticArrayBuffer.of(str.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.janusgraph.diskstorage.rdbms;
+
+import org.janusgraph.diskstorage.BaseTransactionConfig;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeyRange;
+import org.janusgraph.diskstorage.rdbms.dao.DaoManager;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests that RdbmsStore.getKeyRanges() splits keys of a store into disjoint, contiguous ranges that cover every key.
+ */
+public class RdbmsStoreKeyRangeTest {
+    private static final long STORE_ID = 1L;
+
+    private final List<StaticBuffer> keys = new ArrayList<>(); // in order of key, as stored in the database
+    private       DaoManager         daoManager;
+    private       RdbmsStore         store;
+
+    @BeforeMethod
+    public void setUp() {
+        RdbmsStoreManager storeManager = mock(RdbmsStoreManager.class);
+
+        daoManager = mock(DaoManager.class);
+
+        keys.clear();
+
+        when(daoManager.createEntityManager()).thenAnswer(invocation -> createEntityManager());
+        when(storeManager.getDaoManager()).thenReturn(daoManager);
+        when(storeManager.getKeyIdCache()).thenReturn(new RdbmsKeyIdCache(100));
+        when(storeManager.getScanFetchSize()).thenReturn(RdbmsStore.DEFAULT_SCAN_FETCH_SIZE);
+
+        store = new RdbmsStore("edgestore", storeManager);
+    }
+
+    @Test
+    public void testRangesCoverAllKeys() {
+        addKeys(1000);
+
+        for (int numRanges : new int[] {1, 2, 3, 7, 16, 999, 1000}) {
+            List<KeyRange> ranges = getKeyRanges(numRanges);
+
+            assertEquals(ranges.size(), numRanges);
+            assertRangesCoverAllKeys(ranges);
+        }
+    }
+
+    @Test
+    public void testMoreRangesThanKeys() {
+        addKeys(5);
+
+        List<KeyRange> ranges = getKeyRanges(16);
+
+        assertEquals(ranges.size(), 5);
+        assertRangesCoverAllKeys(ranges);
+    }
+
+    @Test
+    public void testKeysOfDifferentLengths() {
+        addKey(new byte[] {0});
+        addKey(new byte[] {0, 0});
+        addKey(new byte[] {1});
+        addKey(new byte[] {1, 0});
+        addKey(new byte[] {1, 0, 0});
+        addKey(new byte[] {1, 2});
+        addKey(new byte[] {(byte) 0x7f});
+        addKey(new byte[] {(byte) 0x80});
+        addKey(new byte[] {(byte) 0xff});
+        addKey(new byte[] {(byte) 0xff, (byte) 0xff});
+
+        for (int numRanges = 1; numRanges <= keys.size(); numRanges++) {
+            List<KeyRange> ranges = getKeyRanges(numRanges);
+
+            assertEquals(ranges.size(), numRanges);
+            assertRangesCoverAllKeys(ranges);
+        }
+    }
+
+    @Test
+    public void testEmptyStore() {
+        assertTrue(getKeyRanges(4).isEmpty());
+    }
+
+    private List<KeyRange> getKeyRanges(int numRanges) {
+        return store.getKeyRanges(numRanges, new RdbmsTransaction(mock(BaseTransactionConfig.class), daoManager));
+    }
+
+    private void assertRangesCoverAllKeys(List<KeyRange> ranges) {
+        for (int i = 0; i < ranges.size(); i++) {
+            KeyRange range = ranges.get(i);
+
+            assertTrue(range.getStart().compareTo(range.getEnd()) < 0, "empty range " + range);
+
+            if (i > 0) {
+                assertEquals(range.getStart(), ranges.get(i - 1).getEnd(), "ranges must be contiguous");
+            }
+        }
+
+        for (StaticBuffer key : keys) {
+            int rangeCount = 0;
+
+            for (KeyRange range : ranges) {
+                if (key.compareTo(range.getStart()) >= 0 && key.compareTo(range.getEnd()) < 0) {
+                    rangeCount++;
+                }
+            }
+
+            assertEquals(rangeCount, 1, "key " + key + " must be in exactly one range");
+        }
+
+        for (KeyRange range : ranges) {
+            assertTrue(keys.stream().anyMatch(key -> key.compareTo(range.getStart()) >= 0 && key.compareTo(range.getEnd()) < 0), "range " + range + " has no keys");
+        }
+    }
+
+    private void addKeys(int count) {
+        for (int i = 0; i < count; i++) {
+            addKey(new byte[] {(byte) (i >> 8), (byte) i});
+        }
+    }
+
+    private void addKey(byte[] key) {
+        keys.add(StaticArrayBuffer.of(key));
+
+        Collections.sort(keys);
+    }
+
+    private EntityManager createEntityManager() {
+        EntityManager     em  = mock(EntityManager.class);
+        EntityTransaction trx = mock(EntityTransaction.class);
+
+        when(em.getTransaction()).thenReturn(trx);
+        when(em.createNamedQuery(anyString())).thenAnswer(invocation -> {
+            String queryName   = invocation.getArgument(0);
+            Query  query       = mock(Query.class, RETURNS_SELF);
+            int[]  firstResult = {0};
+
+            switch (queryName) {
+                case "JanusStore.getIdByName":
+                    when(query.getSingleResult()).thenReturn(STORE_ID);
+                    break;
+
+                case "JanusKey.getCountByStoreId":
+                    when(query.getSingleResult()).thenAnswer(inv -> (long) keys.size());
+                    break;
+
+                case "JanusKey.getNamesByStoreId":
+                    when(query.setFirstResult(anyInt())).thenAnswer(inv -> {
+                        firstResult[0] = inv.getArgument(0);
+
+                        return query;
+                    });
+                    when(query.getResultList()).thenAnswer(inv -> firstResult[0] < keys.size() ? Collections.singletonList(keys.get(firstResult[0]).as(StaticBuffer.ARRAY_FACTORY)) : Collections.emptyList());
+                    break;
+            }
+
+            return query;
+        });
+
+        return em;
+    }
+}
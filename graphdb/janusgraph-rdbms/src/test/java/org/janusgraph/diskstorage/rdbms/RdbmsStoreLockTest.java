@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.janusgraph.diskstorage.rdbms;
+
+import org.janusgraph.diskstorage.BaseTransactionConfig;
+import org.janusgraph.diskstorage.PermanentBackendException;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.locking.PermanentLockingException;
+import org.janusgraph.diskstorage.locking.TemporaryLockingException;
+import org.janusgraph.diskstorage.rdbms.dao.DaoManager;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests RdbmsStore.acquireLock() against an emulated database, in which SELECT ... FOR UPDATE on the key row waits for
+ * the row lock held by another transaction until the transaction's lock_timeout, like PostgreSQL does.
+ */
+public class RdbmsStoreLockTest {
+    private static final long         STORE_ID        = 1L;
+    private static final long         KEY_ID          = 100L;
+    private static final int          LOCK_TIMEOUT_MS = 500;
+    private static final StaticBuffer KEY             = toBuffer("key1");
+    private static final StaticBuffer COLUMN          = toBuffer("col1");
+
+    private final ReentrantLock    keyRowLock      = new ReentrantLock();
+    private final AtomicInteger    lockTimeoutSets = new AtomicInteger();
+    private       RuntimeException columnReadFailure;
+    private       DaoManager       daoManager;
+    private       RdbmsStore       store;
+    private       ExecutorService  executor;
+
+    @BeforeMethod
+    public void setUp() {
+        RdbmsStoreManager storeManager = mock(RdbmsStoreManager.class);
+        RdbmsKeyIdCache   keyIdCache   = new RdbmsKeyIdCache(100);
+
+        daoManager = mock(DaoManager.class);
+
+        keyIdCache.put(STORE_ID, KEY, KEY_ID);
+
+        when(daoManager.createEntityManager()).thenAnswer(invocation -> createEntityManager());
+        when(storeManager.getDaoManager()).thenReturn(daoManager);
+        when(storeManager.getKeyIdCache()).thenReturn(keyIdCache);
+        when(storeManager.getScanFetchSize()).thenReturn(RdbmsStore.DEFAULT_SCAN_FETCH_SIZE);
+        when(storeManager.getLockTimeoutMs()).thenReturn(LOCK_TIMEOUT_MS);
+
+        lockTimeoutSets.set(0);
+
+        columnReadFailure = null;
+        store             = new RdbmsStore("edgestore", storeManager);
+        executor          = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLockTimeoutSetOncePerTransaction() throws Exception {
+        RdbmsTransaction trx = newTransaction();
+
+        store.acquireLock(KEY, COLUMN, null, trx);
+        store.acquireLock(KEY, COLUMN, null, trx);
+
+        trx.commit();
+
+        assertEquals(lockTimeoutSets.get(), 1);
+    }
+
+    @Test
+    public void testConcurrentLockerTimesOut() throws Exception {
+        RdbmsTransaction trx1 = newTransaction();
+
+        store.acquireLock(KEY, COLUMN, null, trx1);
+
+        Future<Throwable> locker2 = executor.submit(() -> {
+            RdbmsTransaction trx2 = newTransaction();
+
+            try {
+                store.acquireLock(KEY, COLUMN, null, trx2);
+
+                return null;
+            } catch (Throwable t) {
+                assertTrue(isRollbackOnly(trx2), "transaction must be marked for rollback after a lock failure");
+
+                trx2.rollback();
+
+                return t;
+            }
+        });
+
+        Throwable failure = locker2.get(LOCK_TIMEOUT_MS * 10L, TimeUnit.MILLISECONDS);
+
+        assertTrue(failure instanceof TemporaryLockingException, "expected TemporaryLockingException, found " + failure);
+
+        trx1.commit();
+    }
+
+    @Test
+    public void testConcurrentLockerProceedsOnCommit() throws Exception {
+        RdbmsTransaction trx1    = newTransaction();
+        CountDownLatch   waiting = new CountDownLatch(1);
+
+        store.acquireLock(KEY, COLUMN, null, trx1);
+
+        Future<Throwable> locker2 = executor.submit(() -> {
+            RdbmsTransaction trx2 = newTransaction();
+
+            try {
+                waiting.countDown();
+
+                store.acquireLock(KEY, COLUMN, null, trx2);
+
+                trx2.commit();
+
+                return null;
+            } catch (Throwable t) {
+                trx2.rollback();
+
+                return t;
+            }
+        });
+
+        waiting.await();
+
+        Thread.sleep(LOCK_TIMEOUT_MS / 5);
+
+        assertFalse(locker2.isDone(), "second locker must wait while the lock is held");
+
+        trx1.commit();
+
+        assertEquals(locker2.get(LOCK_TIMEOUT_MS * 10L, TimeUnit.MILLISECONDS), null);
+    }
+
+    @Test
+    public void testOtherFailureIsNotTemporary() throws Exception {
+        RdbmsTransaction trx = newTransaction();
+
+        columnReadFailure = new PersistenceException(new SQLException("relation \"janus_column\" does not exist", "42P01"));
+
+        try {
+            store.acquireLock(KEY, COLUMN, null, trx);
+
+            fail("expected acquireLock() to fail");
+        } catch (TemporaryLockingException excp) {
+            fail("failure not caused by lock conflict must not be reported as temporary");
+        } catch (PermanentBackendException excp) {
+            // expected
+        }
+
+        assertTrue(isRollbackOnly(trx));
+
+        trx.rollback();
+    }
+
+    @Test
+    public void testExpectedValueMismatch() throws Exception {
+        RdbmsTransaction trx = newTransaction();
+
+        try {
+            store.acquireLock(KEY, COLUMN, toBuffer("expected"), trx);
+
+            fail("expected acquireLock() to fail");
+        } catch (PermanentLockingException excp) {
+            // expected
+        }
+
+        assertFalse(isRollbackOnly(trx));
+
+        trx.rollback();
+    }
+
+    private RdbmsTransaction newTransaction() {
+        return new RdbmsTransaction(mock(BaseTransactionConfig.class), daoManager);
+    }
+
+    private static boolean isRollbackOnly(RdbmsTransaction trx) {
+        return trx.getEntityManager().getTransaction().getRollbackOnly();
+    }
+
+    private EntityManager createEntityManager() {
+        EntityManager     em             = mock(EntityManager.class);
+        EntityTransaction trx            = mock(EntityTransaction.class);
+        boolean[]         isActive       = {false};
+        boolean[]         isRollbackOnly = {false};
+        long[]            lockTimeoutMs  = {0};
+
+        doAnswer(invocation -> isActive[0] = true).when(trx).begin();
+        doAnswer(invocation -> endTransaction(isActive)).when(trx).commit();
+        doAnswer(invocation -> endTransaction(isActive)).when(trx).rollback();
+        doAnswer(invocation -> isRollbackOnly[0] = true).when(trx).setRollbackOnly();
+        when(trx.isActive()).thenAnswer(invocation -> isActive[0]);
+        when(trx.getRollbackOnly()).thenAnswer(invocation -> isRollbackOnly[0]);
+
+        when(em.getTransaction()).thenReturn(trx);
+        when(em.createNamedQuery(anyString())).thenAnswer(invocation -> {
+            Query query = mock(Query.class, RETURNS_SELF);
+
+            when(query.getSingleResult()).thenReturn(STORE_ID); // JanusStore.getIdByName
+
+            return query;
+        });
+        when(em.createNativeQuery(anyString())).thenAnswer(invocation -> {
+            String sql   = invocation.getArgument(0);
+            Query  query = mock(Query.class, RETURNS_SELF);
+
+            if (sql.contains("set_config('lock_timeout'")) {
+                when(query.setParameter(anyInt(), any())).thenAnswer(inv -> {
+                    lockTimeoutMs[0] = Long.parseLong(((String) inv.getArgument(1)).replace("ms", ""));
+
+                    return query;
+                });
+                when(query.getSingleResult()).thenAnswer(inv -> {
+                    lockTimeoutSets.incrementAndGet();
+
+                    return lockTimeoutMs[0] + "ms";
+                });
+            } else if (sql.contains("FROM janus_key") && sql.contains("FOR UPDATE")) {
+                when(query.getResultList()).thenAnswer(inv -> {
+                    if (keyRowLock.isHeldByCurrentThread()) {
+                        return Collections.singletonList(KEY_ID);
+                    }
+
+                    boolean isLocked = lockTimeoutMs[0] > 0 ? keyRowLock.tryLock(lockTimeoutMs[0], TimeUnit.MILLISECONDS) : keyRowLock.tryLock(1, TimeUnit.MINUTES);
+
+                    if (!isLocked) {
+                        throw new PersistenceException(new SQLException("canceling statement due to lock timeout", "55P03"));
+                    }
+
+                    return Collections.singletonList(KEY_ID);
+                });
+            } else if (sql.contains("FROM janus_column") && sql.contains("FOR UPDATE")) {
+                when(query.getResultList()).thenAnswer(inv -> {
+                    if (columnReadFailure != null) {
+                        throw columnReadFailure;
+                    }
+
+                    return Collections.emptyList();
+                });
+            }
+
+            return query;
+        });
+
+        return em;
+    }
+
+    // row locks are released when the transaction ends
+    private Object endTransaction(boolean[] isActive) {
+        isActive[0] = false;
+
+        while (keyRowLock.isHeldByCurrentThread()) {
+            keyRowLock.unlock();
+        }
+
+        return null;
+    }
+
+    private static StaticBuffer toBuffer(String val) {
+        return StaticArrayBuffer.of(val.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.janusgraph.diskstorage.rdbms.dao;
+
+import org.janusgraph.diskstorage.Entry;
+import org.janusgraph.diskstorage.EntryMetaData;
+import org.janusgraph.diskstorage.StaticBuffer;
+import org.janusgraph.diskstorage.keycolumnvalue.KeySlicesIterator;
+import org.janusgraph.diskstorage.keycolumnvalue.SliceQuery;
+import org.janusgraph.diskstorage.rdbms.RdbmsStore;
+import org.janusgraph.diskstorage.rdbms.RdbmsStoreManager;
+import org.janusgraph.diskstorage.rdbms.RdbmsTransaction;
+import org.janusgraph.diskstorage.util.RecordIterator;
+import org.janusgraph.diskstorage.util.StaticArrayBuffer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class JanusColumnDaoTest {
+    private static final long STORE_ID        = 1L;
+    private static final int  SCAN_FETCH_SIZE = 2;
+
+    private final List<Object[]> rows    = new ArrayList<>();
+    private final List<String>   queries = new ArrayList<>();
+    private       JanusColumnDao dao;
+
+    @BeforeMethod
+    public void setUp() {
+        RdbmsStoreManager storeManager = mock(RdbmsStoreManager.class);
+        RdbmsTransaction  trx          = mock(RdbmsTransaction.class);
+        EntityManager     em           = mock(EntityManager.class);
+
+        when(storeManager.getScanFetchSize()).thenReturn(SCAN_FETCH_SIZE);
+        when(storeManager.getMetaDataSchema(anyString())).thenReturn(new EntryMetaData[0]);
+        when(trx.getEntityManager()).thenReturn(em);
+        when(em.createQuery(anyString(), eq(Object[].class))).thenAnswer(invocation -> createQuery(invocation.getArgument(0)));
+
+        rows.clear();
+        queries.clear();
+
+        dao = new JanusColumnDao(trx, new RdbmsStore("edgestore", storeManager));
+    }
+
+    @Test
+    public void testKeysByColumnRangesReadOnlyColumnsInSlices() throws Exception {
+        addRow(1L, "k1", "a");
+        addRow(1L, "k1", "b");
+        addRow(1L, "k1", "m"); // in no slice
+        addRow(1L, "k1", "x");
+        addRow(1L, "k1", "y");
+        addRow(2L, "k2", "n"); // in no slice
+        addRow(3L, "k3", "x");
+
+        SliceQuery slice1 = new SliceQuery(toBuffer("a"), toBuffer("c")).setLimit(10);
+        SliceQuery slice2 = new SliceQuery(toBuffer("x"), toBuffer("z")).setLimit(1);
+
+        Map<String, Map<SliceQuery, List<String>>> result = readAll(dao.getKeysByColumnRanges(STORE_ID, Arrays.asList(slice1, slice2)));
+
+        assertEquals(new ArrayList<>(result.keySet()), Arrays.asList("k1", "k3"), "keys without columns in any slice must not be returned");
+        assertEquals(result.get("k1").get(slice1), Arrays.asList("a", "b"));
+        assertEquals(result.get("k1").get(slice2), Arrays.asList("x"));
+        assertEquals(result.get("k3").get(slice1), Arrays.asList());
+        assertEquals(result.get("k3").get(slice2), Arrays.asList("x"));
+
+        for (String query : queries) {
+            assertTrue(query.contains(":sliceStart0") && query.contains(":sliceEnd1"), query);
+            assertFalse(query.contains(" OR (k.name"), "key continuation must not be an OR: " + query);
+        }
+    }
+
+    @Test
+    public void testKeysByColumnRangesContinuesWithinKeyAcrossPages() throws Exception {
+        for (String column : Arrays.asList("a", "b", "c", "d", "e")) {
+            addRow(1L, "k1", column);
+        }
+
+        addRow(2L, "k2", "a");
+
+        SliceQuery slice = new SliceQuery(toBuffer("a"), toBuffer("z")).setLimit(100);
+
+        Map<String, Map<SliceQuery, List<String>>> result = readAll(dao.getKeysByColumnRanges(STORE_ID, Arrays.asList(slice)));
+
+        assertEquals(new ArrayList<>(result.keySet()), Arrays.asList("k1", "k2"));
+        assertEquals(result.get("k1").get(slice), Arrays.asList("a", "b", "c", "d", "e"));
+        assertEquals(result.get("k2").get(slice), Arrays.asList("a"));
+        assertTrue(queries.size() > 2, "expected multiple pages of " + SCAN_FETCH_SIZE + " rows: " + queries.size());
+    }
+
+    @Test
+    public void testKeysByColumnRangesWithNoMatchingColumns() throws Exception {
+        addRow(1L, "k1", "m");
+
+        SliceQuery slice = new SliceQuery(toBuffer("a"), toBuffer("c")).setLimit(10);
+
+        KeySlicesIterator iter = dao.getKeysByColumnRanges(STORE_ID, Arrays.asList(slice));
+
+        assertFalse(iter.hasNext());
+    }
+
+    private Map<String, Map<SliceQuery, List<String>>> readAll(KeySlicesIterator iter) throws Exception {
+        Map<String, Map<SliceQuery, List<String>>> ret = new LinkedHashMap<>();
+
+        while (iter.hasNext()) {
+            StaticBuffer                  key    = iter.next();
+            Map<SliceQuery, List<String>> slices = new HashMap<>();
+
+            for (Map.Entry<SliceQuery, RecordIterator<Entry>> e : iter.getEntries().entrySet()) {
+                List<String> columns = new ArrayList<>();
+
+                while (e.getValue().hasNext()) {
+                    columns.add(toString(e.getValue().next().getColumn()));
+                }
+
+                slices.put(e.getKey(), columns);
+            }
+
+            ret.put(toString(key), slices);
+        }
+
+        iter.close();
+
+        return ret;
+    }
+
+    private void addRow(long keyId, String key, String column) {
+        rows.add(new Object[] {keyId, toBytes(key), toBytes(column), toBytes("val-" + column)});
+    }
+
+    /*
+     * evaluates the key-scan queries of JanusColumnDao against rows, which are in order of key and column
+     */
+    private TypedQuery<Object[]> createQuery(String jpql) {
+        TypedQuery<Object[]> ret    = mock(TypedQuery.class, RETURNS_SELF);
+        Map<String, Object>  params = new HashMap<>();
+        int[]                limit  = {Integer.MAX_VALUE};
+
+        queries.add(jpql);
+
+        when(ret.setParameter(anyString(), any())).thenAnswer(invocation -> {
+            params.put(invocation.getArgument(0), invocation.getArgument(1));
+
+            return ret;
+        });
+        when(ret.setMaxResults(anyInt())).thenAnswer(invocation -> {
+            limit[0] = invocation.getArgument(0);
+
+            return ret;
+        });
+        when(ret.getResultList()).thenAnswer(invocation -> {
+            List<Object[]> result = new ArrayList<>();
+
+            for (Object[] row : rows) {
+                if (result.size() < limit[0] && matches(jpql, params, (byte[]) row[1], (byte[]) row[2])) {
+                    result.add(row);
+                }
+            }
+
+            return result;
+        });
+
+        return ret;
+    }
+
+    private static boolean matches(String jpql, Map<String, Object> params, byte[] key, byte[] column) {
+        if (jpql.contains("k.name = :lastKey") && (compare(key, params.get("lastKey")) != 0 || compare(column, params.get("lastName")) <= 0)) {
+            return false;
+        }
+
+        if (jpql.contains("k.name > :lastKey") && compare(key, params.get("lastKey")) <= 0) {
+            return false;
+        }
+
+        for (int i = 0; params.containsKey("sliceStart" + i); i++) {
+            if (compare(column, params.get("sliceStart" + i)) >= 0 && compare(column, params.get("sliceEnd" + i)) < 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static int compare(byte[] val, Object other) {
+        return StaticArrayBuffer.of(val).compareTo(StaticArrayBuffer.of((byte[]) other));
+    }
+
+    private static StaticBuffer toBuffer(String val) {
+        return StaticArrayBuffer.of(toBytes(val));
+    }
+
+    private static byte[] toBytes(String val) {
+        return val.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String toString(StaticBuffer val) {
+        return new String(val.as(StaticBuffer.ARRAY_FACTORY), StandardCharsets.UTF_8);
+    }
+}
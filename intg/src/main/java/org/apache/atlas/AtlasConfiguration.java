@@ -63,10 +63,19 @@ public enum AtlasConfiguration {
     ENTITY_CHANGE_NOTIFY_IGNORE_RELATIONSHIP_ATTRIBUTES("atlas.entity.change.notify.ignore.relationship.attributes", true),
 
     CLASSIFICATION_PROPAGATION_DEFAULT("atlas.classification.propagation.default", true),
+    CLASSIFICATION_PROPAGATION_DELTA_ENABLED("atlas.classification.propagation.delta.enabled", false),
 
     //search configuration
     SEARCH_MAX_LIMIT("atlas.search.maxlimit", 10000),
     SEARCH_DEFAULT_LIMIT("atlas.search.defaultlimit", 100),
+    SEARCH_KEYSET_PAGINATION_ENABLED("atlas.search.keyset.pagination.enabled", false),
+    SEARCH_RESULT_CACHE_ENABLED("atlas.search.result.cache.enabled", false),
+    SEARCH_RESULT_CACHE_TTL_MS("atlas.search.result.cache.ttl.ms", 60000),
+    SEARCH_RESULT_CACHE_MAX_ENTRIES("atlas.search.result.cache.max.entries", 1000),
+    SEARCH_RESULT_CACHE_MAX_BYTES("atlas.search.result.cache.max.bytes", 64 * 1024 * 1024),
+    SEARCH_HYDRATION_PARALLELISM("atlas.search.hydration.parallelism", 1),
+    SEARCH_HYDRATION_MIN_BATCH_SIZE("atlas.search.hydration.min.batch.size", 50),
+    SEARCH_STREAM_PAGE_SIZE("atlas.search.stream.page.size", 500),
 
     CUSTOM_ATTRIBUTE_KEY_MAX_LENGTH("atlas.custom.attribute.key.max.length", 50),
     CUSTOM_ATTRIBUTE_VALUE_MAX_LENGTH("atlas.custom.attribute.value.max.length", 500),
@@ -79,6 +88,12 @@ public enum AtlasConfiguration {
     LINEAGE_ON_DEMAND_ENABLED("atlas.lineage.on.demand.enabled", false),
     LINEAGE_ON_DEMAND_DEFAULT_NODE_COUNT("atlas.lineage.on.demand.default.node.count", 3),
     LINEAGE_MAX_NODE_COUNT("atlas.lineage.max.node.count", 9000),
+    LINEAGE_ADJACENCY_CACHE_ENABLED("atlas.lineage.adjacency.cache.enabled", false),
+    LINEAGE_ADJACENCY_CACHE_MAX_ENTRIES("atlas.lineage.adjacency.cache.max.entries", 100000),
+    LINEAGE_INDEX_ENABLED("atlas.lineage.index.enabled", false),
+    LINEAGE_INDEX_BUILD_BATCH_SIZE("atlas.lineage.index.build.batch.size", 10000),
+    LINEAGE_HYDRATION_PARALLELISM("atlas.lineage.hydration.parallelism", 4),
+    LINEAGE_HYDRATION_MIN_BATCH_SIZE("atlas.lineage.hydration.min.batch.size", 100),
 
     HTTP_HEADER_SERVER_VALUE("atlas.http.header.server.value", "Apache Atlas"),
     STORAGE_BACKEND_TYPE("atlas.graph.storage.backend", ""),
@@ -87,13 +102,23 @@ public enum AtlasConfiguration {
     PROCESS_NAME_UPDATE_PATCH("atlas.process.name.update.patch", false),
     PROCESS_IMPALA_NAME_UPDATE_PATCH("atlas.process.impala.name.update.patch", false),
     STORE_DIFFERENTIAL_AUDITS("atlas.entity.audit.differential", false),
+    ENTITY_RESOLVER_BATCH_SIZE("atlas.entity.resolver.batch.size", 100),
+    GUID_VERTEX_CACHE_ENABLED("atlas.graph.guid.vertex.cache.enabled", false),
+    GUID_VERTEX_CACHE_MAX_ENTRIES("atlas.graph.guid.vertex.cache.max.entries", 100000),
     DSL_CACHED_TRANSLATOR("atlas.dsl.cached.translator", true),
+    DSL_CACHED_TRANSLATOR_MAX_ENTRIES("atlas.dsl.cached.translator.max.entries", 1000),
+    DSL_PARAMETERIZED_PLANS_ENABLED("atlas.dsl.parameterized.plans.enabled", true),
+    DSL_INDEX_AGGREGATION_ENABLED("atlas.dsl.index.aggregation.enabled", false),
     DEBUG_METRICS_ENABLED("atlas.debug.metrics.enabled", false),
     TASKS_USE_ENABLED("atlas.tasks.enabled", true),
+    TASKS_EXECUTOR_THREAD_COUNT("atlas.tasks.executor.threads", 1),
+    TASKS_PROPAGATION_CHUNK_SIZE("atlas.tasks.propagation.chunk.size", 1000),
     SESSION_TIMEOUT_SECS("atlas.session.timeout.secs", -1),
     UPDATE_COMPOSITE_INDEX_STATUS("atlas.update.composite.index.status", true),
     METRICS_TIME_TO_LIVE_HOURS("atlas.metrics.ttl.hours", 336), // 14 days default
     NOTIFICATION_CONCURRENT_PROCESSING("atlas.notifications.concurrent", false),
+    NOTIFICATION_PARTITIONED_PROCESSING("atlas.notifications.partitioned", false),
+    NOTIFICATION_PARTITIONED_MAX_PENDING("atlas.notifications.partitioned.max.pending", 100),
     ATLAS_PARALLEL_PROCESSING_ENABLED("atlas.notification.parallel.processing.enabled", false),
     ATLAS_METADATA_TOPIC_PREFIX("atlas.notification.metadata.topic.prefix", "ATLAS_METADATA_"),
     ATLAS_LINEAGE_TOPIC_PREFIX("atlas.notification.lineage.topic.prefix", "ATLAS_LINEAGE_"),
@@ -77,11 +77,16 @@ public class AtlasMetrics implements Serializable {
     public static final String STAT_NOTIFY_UPDATES_COUNT_TOTAL         = PREFIX_NOTIFICATION + "totalUpdates";
     public static final String STAT_NOTIFY_DELETES_COUNT_TOTAL         = PREFIX_NOTIFICATION + "totalDeletes";
     public static final String STAT_NOTIFY_FAILED_COUNT_TOTAL          = PREFIX_NOTIFICATION + "totalFailed";
+    public static final String STAT_NOTIFY_INGEST_ACTIVE_WORKERS       = PREFIX_NOTIFICATION + "ingestActiveWorkers";
+    public static final String STAT_NOTIFY_INGEST_MAX_WORKERS          = PREFIX_NOTIFICATION + "ingestMaxWorkers";
+    public static final String STAT_NOTIFY_INGEST_QUEUE_DEPTH          = PREFIX_NOTIFICATION + "ingestQueueDepth";
+    public static final String STAT_NOTIFY_INGEST_BLOCKED_TICKETS      = PREFIX_NOTIFICATION + "ingestBlockedTickets";
     public static final String STAT_SERVER_ACTIVE_TIMESTAMP            = PREFIX_SERVER + "activeTimeStamp";
     public static final String STAT_SERVER_START_TIMESTAMP             = PREFIX_SERVER + "startTimeStamp";
     public static final String STAT_SERVER_STATUS_BACKEND_STORE        = PREFIX_SERVER + "statusBackendStore";
     public static final String STAT_SERVER_STATUS_INDEX_STORE          = PREFIX_SERVER + "statusIndexStore";
     public static final String STAT_SERVER_UP_TIME                     = PREFIX_SERVER + "upTime";
+    public static final String STAT_SERVER_GUID_VERTEX_CACHE           = PREFIX_SERVER + "guidVertexCache";
 
     public static final String STAT_TOTAL_MESSAGES_CONSUMED_TOTAL          = PREFIX_NOTIFICATION_PROCESSOR + "messagesConsumedTotal";
     public static final String STAT_TOTAL_MESSAGES_PROCESSED_TOTAL         = PREFIX_NOTIFICATION_PROCESSOR + "messagesProcessedTotal";
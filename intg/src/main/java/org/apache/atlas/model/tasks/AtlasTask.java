@@ -49,6 +49,7 @@ public class AtlasTask {
     private int                 attemptCount;
     private String              errorMessage;
     private Status              status;
+    private Map<String, Object> checkpoint;
 
     public AtlasTask() {
     }
@@ -166,6 +167,14 @@ public class AtlasTask {
         this.endTime = endTime;
     }
 
+    public Map<String, Object> getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(Map<String, Object> checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
     @JsonIgnore
     public void start() {
         this.setStatus(Status.IN_PROGRESS);
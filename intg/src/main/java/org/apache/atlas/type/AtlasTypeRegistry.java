@@ -69,6 +69,7 @@ public class AtlasTypeRegistry {
     private final Set<String>                    missingRelationshipDefs;
     private final Map<String, String>            commonIndexFieldNameCache;
     protected     RegistryData                   registryData;
+    private volatile long                        version;
 
     public AtlasTypeRegistry() {
         registryData              = new RegistryData();
@@ -97,6 +98,14 @@ public class AtlasTypeRegistry {
         resolveIndexFieldNamesForRootTypes();
     }
 
+    /**
+     * @return a number that changes every time updates to the type registry are committed; can be used to
+     * invalidate data derived from type definitions
+     */
+    public long getVersion() {
+        return version;
+    }
+
     public Collection<String> getAllTypeNames() {
         return registryData.allTypes.getAllTypeNames();
     }
@@ -1011,6 +1020,7 @@ public class AtlasTypeRegistry {
                             copyIndexNameFromCurrent(ttr.getAllBusinessMetadataTypes());
 
                             typeRegistry.registryData = ttr.registryData;
+                            typeRegistry.version++;
                         }
                     }
 
@@ -20,7 +20,9 @@ package org.apache.atlas.kafka;
 import org.apache.atlas.notification.AbstractNotificationConsumer;
 import org.apache.atlas.notification.AtlasNotificationMessageDeserializer;
 import org.apache.atlas.notification.NotificationInterface;
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
@@ -72,6 +74,13 @@ public class AtlasKafkaConsumer<T> extends AbstractNotificationConsumer<T> {
         return kafkaConsumer != null ? kafkaConsumer.subscription() : null;
     }
 
+    @Override
+    public void setRebalanceListener(ConsumerRebalanceListener listener) {
+        if (kafkaConsumer != null && CollectionUtils.isNotEmpty(kafkaConsumer.subscription())) {
+            kafkaConsumer.subscribe(kafkaConsumer.subscription(), listener); // replaces the earlier subscription to the same topics
+        }
+    }
+
     @Override
     public void commit(TopicPartition partition, long offset) {
         if (!autoCommitEnabled) {
@@ -81,6 +90,13 @@ public class AtlasKafkaConsumer<T> extends AbstractNotificationConsumer<T> {
         }
     }
 
+    @Override
+    public void seek(TopicPartition partition, long offset) {
+        LOG.debug(" seeking partition {} to offset {}", partition, offset);
+
+        kafkaConsumer.seek(partition, offset);
+    }
+
     @Override
     public void close() {
         if (kafkaConsumer != null) {
@@ -18,6 +18,7 @@
 package org.apache.atlas.notification;
 
 import org.apache.atlas.kafka.AtlasKafkaMessage;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.common.TopicPartition;
 
 import java.util.List;
@@ -75,4 +76,19 @@ public interface NotificationConsumer<T> {
     Set<TopicPartition> getTopicPartition();
 
     Set<String> subscription();
+
+    /**
+     * Set the listener to be notified when partitions are assigned to or revoked from this consumer. The listener is
+     * called from receive(), in the thread calling it. Must be called from the thread that calls receive().
+     */
+    default void setRebalanceListener(ConsumerRebalanceListener listener) {
+    }
+
+    /**
+     * Set the offset the next receive() fetches the partition from, to receive again messages from the given offset.
+     * Must be called from the thread that calls receive().
+     */
+    default void seek(TopicPartition partition, long offset) {
+        throw new UnsupportedOperationException("seek() is not supported by " + getClass().getSimpleName());
+    }
 }
@@ -17,12 +17,16 @@
 
 package org.apache.atlas;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.atlas.annotation.GraphTransaction;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.exception.NotFoundException;
 import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graph.GraphHelper;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.tasks.TaskManagement;
@@ -39,8 +43,10 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -56,6 +62,8 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
     private static final ThreadLocal<Map<Object, String>>             vertexGuidCache            = ThreadLocal.withInitial(HashMap::new);
     private static final ThreadLocal<Map<Object, AtlasEntity.Status>> vertexStateCache           = ThreadLocal.withInitial(HashMap::new);
     private static final ThreadLocal<Map<Object, AtlasEntity.Status>> edgeStateCache             = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Set<String>>                     stateChangedGuids          = ThreadLocal.withInitial(HashSet::new);
+    private static volatile GuidVertexCache                           sharedGuidVertexCache      = new GuidVertexCache(AtlasConfiguration.GUID_VERTEX_CACHE_ENABLED.getBoolean(), AtlasConfiguration.GUID_VERTEX_CACHE_MAX_ENTRIES.getInt());
 
     private final AtlasGraph     graph;
     private final TaskManagement taskManagement;
@@ -92,6 +100,96 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
         return cache.get(guid);
     }
 
+    /**
+     * Looks up the shared, process-wide cache for the vertex of the entity with the given guid. The vertex is loaded by
+     * its id, which is cheaper than the index lookup by guid, and added to the transaction's caches.
+     *
+     * @return vertex of the entity; null if not cached, or if the cached vertex no longer exists
+     */
+    public static AtlasVertex getVertexFromSharedCache(AtlasGraph graph, String guid) {
+        GuidVertexCache.Entry entry = sharedGuidVertexCache.get(guid);
+
+        if (entry == null) {
+            return null;
+        }
+
+        AtlasVertex ret = graph.getVertex(entry.getVertexId());
+
+        if (ret == null || !guid.equals(ret.getProperty(Constants.GUID_PROPERTY_KEY, String.class))) {
+            LOG.debug("getVertexFromSharedCache(guid={}): vertex {} not found", guid, entry.getVertexId());
+
+            sharedGuidVertexCache.invalidate(Collections.singleton(guid));
+
+            return null;
+        }
+
+        addToVertexCache(guid, ret);
+        addToVertexGuidCache(ret.getId(), guid);
+        addToVertexStateCache(ret.getId(), entry.getState());
+
+        return ret;
+    }
+
+    /**
+     * @return sequence number to pass to addToSharedVertexCache(), which skips caching vertices read before an invalidation
+     */
+    public static long getSharedVertexCacheSequence() {
+        return sharedGuidVertexCache.getSequence();
+    }
+
+    public static void addToSharedVertexCache(String guid, AtlasVertex vertex, long sequence) {
+        if (!sharedGuidVertexCache.isEnabled()) {
+            return;
+        }
+
+        RequestContext context = RequestContext.get();
+
+        // entities changed in this transaction are not visible to others until commit
+        if (context.isUpdatedEntity(guid) || context.isDeletedEntity(guid) || stateChangedGuids.get().contains(guid)) {
+            return;
+        }
+
+        sharedGuidVertexCache.put(guid, vertex.getIdForDisplay(), GraphHelper.getStatus(vertex), sequence);
+    }
+
+    /**
+     * Records change in state of the entity vertex, to invalidate the shared cache entry of the entity at the end of
+     * the transaction. Entities updated or deleted in the request are tracked by RequestContext.
+     *
+     * Changes made outside of a @GraphTransaction, like by tasks that commit the graph directly, have no end of
+     * transaction to wait for; the shared cache entry is invalidated right away instead.
+     */
+    public static void recordVertexStateChange(AtlasVertex vertex) {
+        if (!sharedGuidVertexCache.isEnabled()) {
+            return;
+        }
+
+        String guid = GraphHelper.getGuid(vertex);
+
+        if (guid == null) {
+            return;
+        }
+
+        if (isTxnOpen.get()) {
+            stateChangedGuids.get().add(guid);
+        } else {
+            sharedGuidVertexCache.invalidate(Collections.singleton(guid));
+        }
+    }
+
+    public static Map<String, Number> getSharedVertexCacheStats() {
+        return sharedGuidVertexCache.getStats();
+    }
+
+    @VisibleForTesting
+    static GuidVertexCache setSharedVertexCache(GuidVertexCache cache) {
+        GuidVertexCache ret = sharedGuidVertexCache;
+
+        sharedGuidVertexCache = cache;
+
+        return ret;
+    }
+
     public static void clearCache() {
         guidVertexCache.get().clear();
         vertexGuidCache.get().clear();
@@ -221,6 +319,7 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
                 // Reset the boolean flags
                 isTxnOpen.set(Boolean.FALSE);
                 innerFailure.set(Boolean.FALSE);
+                invalidateSharedVertexCache();
                 clearCache();
 
                 List<PostTransactionHook> trxHooks = postTransactionHooks.get();
@@ -286,6 +385,29 @@ public class GraphTransactionInterceptor implements MethodInterceptor {
         graph.rollback();
     }
 
+    private static void invalidateSharedVertexCache() {
+        if (!sharedGuidVertexCache.isEnabled()) {
+            return;
+        }
+
+        RequestContext context = RequestContext.get();
+        Set<String>    guids   = stateChangedGuids.get();
+
+        for (AtlasEntityHeader entity : context.getUpdatedEntities()) {
+            guids.add(entity.getGuid());
+        }
+
+        for (AtlasEntityHeader entity : context.getDeletedEntities()) {
+            guids.add(entity.getGuid());
+        }
+
+        guids.remove(null);
+
+        sharedGuidVertexCache.invalidate(guids);
+
+        guids.clear();
+    }
+
     private void submitTasks() {
         if (CollectionUtils.isEmpty(RequestContext.get().getQueuedTasks()) || taskManagement == null) {
             return;
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas;
+
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.util.InvalidatingCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Process-wide cache of entity guid to vertex-id and entity state, shared by all transactions.
+ *
+ * Vertices are bound to the transaction that loaded them, hence only the vertex-id is cached; callers must load the
+ * vertex by id and verify its guid. Entries are invalidated by GraphTransactionInterceptor at the end of transactions
+ * that update or delete the entities.
+ */
+public class GuidVertexCache {
+    private static final Logger LOG = LoggerFactory.getLogger(GuidVertexCache.class);
+
+    private final boolean                  enabled;
+    private final InvalidatingCache<Entry> cache;
+
+    public GuidVertexCache(boolean enabled, int maxEntries) {
+        this.enabled = enabled && maxEntries > 0;
+        this.cache   = new InvalidatingCache<>("GuidVertexCache", maxEntries);
+
+        LOG.info("GuidVertexCache(enabled={}, maxEntries={})", this.enabled, maxEntries);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return sequence number to pass to put(), which skips caching entries read before an invalidation of the guid
+     */
+    public long getSequence() {
+        return cache.getSequence();
+    }
+
+    /**
+     * @return vertex-id and state of the entity with the given guid; null if not cached
+     */
+    public Entry get(String guid) {
+        return enabled ? cache.get(guid) : null;
+    }
+
+    public void put(String guid, String vertexId, AtlasEntity.Status state, long sequence) {
+        if (enabled && guid != null && vertexId != null) {
+            cache.put(guid, new Entry(vertexId, state), Collections.singleton(guid), sequence);
+        }
+    }
+
+    public void invalidate(Collection<String> guids) {
+        if (enabled) {
+            cache.invalidate(guids);
+        }
+    }
+
+    public void invalidateAll() {
+        if (enabled) {
+            cache.invalidateAll();
+        }
+    }
+
+    public Map<String, Number> getStats() {
+        return cache.getStats();
+    }
+
+    public static class Entry {
+        private final String             vertexId;
+        private final AtlasEntity.Status state;
+
+        Entry(String vertexId, AtlasEntity.Status state) {
+            this.vertexId = vertexId;
+            this.state    = state;
+        }
+
+        public String getVertexId() {
+            return vertexId;
+        }
+
+        public AtlasEntity.Status getState() {
+            return state;
+        }
+    }
+}
@@ -44,6 +44,16 @@ public interface AtlasDiscoveryService {
      */
     AtlasSearchResult searchUsingDslQuery(String query, int limit, int offset) throws AtlasBaseException;
 
+    /**
+     * Executes the DSL query page by page, passing each result to the consumer as it is retrieved.
+     *
+     * @param query search query in DSL format.
+     * @param limit maximum number of results to stream; when not specified, all results are streamed.
+     * @param offset offset to the results returned. [ offset >= 0 ]. -1 maps to offset 0.
+     * @param consumer receives the results; the search stops when it returns false
+     */
+    void searchUsingDslQuery(String query, int limit, int offset, SearchResultConsumer consumer) throws AtlasBaseException;
+
     /**
      * @param query query
      * @param typeName type name
@@ -84,6 +94,16 @@ public interface AtlasDiscoveryService {
      */
     AtlasSearchResult searchWithParameters(SearchParameters searchParameters) throws AtlasBaseException;
 
+    /**
+     * Search for entities matching the search criteria, passing each matching entity to the consumer as it is
+     * retrieved. Referred entities are not included; limit, when specified, caps the number of entities streamed.
+     *
+     * @param searchParameters Search criteria
+     * @param consumer receives the matching entities; the search stops when it returns false
+     * @throws AtlasBaseException
+     */
+    void searchWithParameters(SearchParameters searchParameters, SearchResultConsumer consumer) throws AtlasBaseException;
+
     /**
      * Search for guids of entities matching the search criteria
      *
@@ -19,8 +19,10 @@ package org.apache.atlas.discovery;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.RequestContext;
 import org.apache.atlas.SortOrder;
 import org.apache.atlas.annotation.GraphTransaction;
@@ -75,6 +77,7 @@ import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.util.AtlasGremlinQueryProvider;
 import org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery;
 import org.apache.atlas.util.SearchTracker;
+import org.apache.atlas.utils.AtlasPerfTracer;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -85,6 +88,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
@@ -101,6 +105,8 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -120,7 +126,8 @@ import static org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery.
 
 @Component
 public class EntityDiscoveryService implements AtlasDiscoveryService {
-    private static final Logger LOG = LoggerFactory.getLogger(EntityDiscoveryService.class);
+    private static final Logger LOG      = LoggerFactory.getLogger(EntityDiscoveryService.class);
+    private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("EntityDiscoveryService");
 
     private static final String DEFAULT_SORT_ATTRIBUTE_NAME = "name";
 
@@ -138,9 +145,15 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
     private final SuggestionsProvider       suggestionsProvider;
     private final DSLQueryExecutor          dslQueryExecutor;
     private final TaskManagement            taskManagement;
+    private final SearchResultCache         searchResultCache;
+    private final EntityHeaderHydrator      entityHeaderHydrator;
 
-    @Inject
     EntityDiscoveryService(AtlasTypeRegistry typeRegistry, AtlasGraph graph, GraphBackedSearchIndexer indexer, SearchTracker searchTracker, UserProfileService userProfileService, TaskManagement taskManagement) throws AtlasException {
+        this(typeRegistry, graph, indexer, searchTracker, userProfileService, taskManagement, new SearchResultCache(false, 0, 0, 0));
+    }
+
+    @Inject
+    EntityDiscoveryService(AtlasTypeRegistry typeRegistry, AtlasGraph graph, GraphBackedSearchIndexer indexer, SearchTracker searchTracker, UserProfileService userProfileService, TaskManagement taskManagement, SearchResultCache searchResultCache) throws AtlasException {
         this.graph                    = graph;
         this.entityRetriever          = new EntityGraphRetriever(this.graph, typeRegistry);
         this.indexer                  = indexer;
@@ -155,10 +168,17 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         this.suggestionsProvider      = new SuggestionsProviderImpl(graph, typeRegistry);
         this.dslQueryExecutor         = new TraversalBasedExecutor(typeRegistry, graph, entityRetriever);
         this.taskManagement           = taskManagement;
+        this.searchResultCache        = searchResultCache;
+        this.entityHeaderHydrator     = new EntityHeaderHydrator(graph, entityRetriever, AtlasConfiguration.SEARCH_HYDRATION_PARALLELISM.getInt(), AtlasConfiguration.SEARCH_HYDRATION_MIN_BATCH_SIZE.getInt());
 
         LOG.info("DSL Executor: {}", this.dslQueryExecutor.getClass().getSimpleName());
     }
 
+    @PreDestroy
+    public void shutdown() {
+        entityHeaderHydrator.shutdown();
+    }
+
     public static SearchParameters createSearchParameters(QuickSearchParameters quickSearchParameters) {
         SearchParameters searchParameters = new SearchParameters();
 
@@ -214,6 +234,42 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         return ret;
     }
 
+    @Override
+    public void searchUsingDslQuery(String dslQuery, int limit, int offset, SearchResultConsumer consumer) throws AtlasBaseException {
+        boolean       singlePage    = TraversalBasedExecutor.hasLimitOffset(dslQuery);
+        int           maxCount      = limit > 0 ? limit : Integer.MAX_VALUE;
+        int           pageOffset    = Math.max(offset, 0);
+        int           count         = 0;
+        SearchContext searchContext = new SearchContext(new SearchParameters(), typeRegistry, graph, indexer.getVertexIndexKeys()); // only to track the search
+        String        searchID      = searchTracker.add(searchContext); // For future cancellations
+
+        try {
+            while (count < maxCount && !searchContext.terminateSearch()) {
+                int               pageLimit = singlePage ? limit : Math.min(getStreamPageSize(), maxCount - count);
+                AtlasSearchResult page;
+
+                try {
+                    page = dslQueryExecutor.execute(dslQuery, pageLimit, pageOffset);
+                } finally {
+                    releasePageTransaction();
+                }
+
+                int pageCount = getResultCount(page);
+
+                scrubSearchResults(page);
+
+                if (!streamSearchResult(page, consumer) || singlePage || pageCount < pageLimit) {
+                    break;
+                }
+
+                count      += pageCount;
+                pageOffset += pageCount;
+            }
+        } finally {
+            searchTracker.remove(searchID);
+        }
+    }
+
     @Override
     public String getDslQueryUsingTypeNameClassification(String query, String typeName, String classification) {
         String queryStr = query == null ? "" : query;
@@ -472,17 +528,78 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
     @Override
     @GraphTransaction
     public AtlasSearchResult searchWithParameters(SearchParameters searchParameters) throws AtlasBaseException {
-        String query = searchParameters.getQuery();
+        return searchWithSearchContext(createSearchContext(searchParameters));
+    }
 
-        if (StringUtils.isNotEmpty(query)) {
-            String modifiedString = StringUtils.strip(query, "*");
+    @Override
+    public void searchWithParameters(SearchParameters searchParameters, SearchResultConsumer consumer) throws AtlasBaseException {
+        int           maxCount    = searchParameters.getLimit() > 0 ? searchParameters.getLimit() : Integer.MAX_VALUE;
+        int           skipCount   = Math.max(searchParameters.getOffset(), 0);
+        String        endMarker   = String.valueOf(SearchContext.MarkerUtil.MARKER_END);
+        SearchContext prevContext = null;
+        String        searchID    = null;
+        int           count       = 0;
+
+        // pages are read using the marker - keyset based when sortBy is not given - each with a new search context. A
+        // marker can't be combined with an offset, hence results before the requested offset are skipped here
+        searchParameters.setOffset(0);
+        searchParameters.setLimit(getStreamPageSize());
+        searchParameters.setMarker(SearchContext.MarkerUtil.MARKER_START);
 
-            if (AtlasStructType.AtlasAttribute.hastokenizeChar(modifiedString)) {
-                searchParameters.setQuery(modifiedString);
+        try {
+            while (count < maxCount) {
+                SearchContext searchContext = createSearchContext(searchParameters);
+
+                searchID = searchTracker.add(searchContext); // For future cancellations
+
+                // the search might have been terminated before the previous page's context was replaced above
+                if (prevContext != null && prevContext.terminateSearch()) {
+                    break;
+                }
+
+                AtlasSearchResult page = new AtlasSearchResult(searchParameters);
+                String            nextMarker;
+                int               pageCount;
+
+                try {
+                    List<AtlasVertex> resultList = searchContext.getSearchProcessor().execute();
+
+                    nextMarker = searchContext.getSearchProcessor().getNextMarker();
+                    pageCount  = resultList.size();
+
+                    if (skipCount > 0) {
+                        int skip = Math.min(skipCount, resultList.size());
+
+                        resultList = resultList.subList(skip, resultList.size());
+                        skipCount -= skip;
+                    }
+
+                    if (resultList.size() > maxCount - count) {
+                        resultList = resultList.subList(0, maxCount - count);
+                    }
+
+                    count += resultList.size();
+
+                    page.setEntities(entityHeaderHydrator.toEntityHeaders(resultList, getResultAttributes(searchContext), searchParameters.getIncludeClassificationAttributes()));
+                } finally {
+                    releasePageTransaction();
+                }
+
+                scrubSearchResults(page);
+
+                if (!streamSearchResult(page, consumer) || searchContext.terminateSearch() || pageCount < searchParameters.getLimit() || StringUtils.isEmpty(nextMarker) || endMarker.equals(nextMarker)) {
+                    break;
+                }
+
+                searchParameters.setMarker(nextMarker);
+
+                prevContext = searchContext;
+            }
+        } finally {
+            if (searchID != null) {
+                searchTracker.remove(searchID);
             }
         }
-
-        return searchWithSearchContext(new SearchContext(searchParameters, typeRegistry, graph, indexer.getVertexIndexKeys()));
     }
 
     @Override
@@ -965,16 +1082,42 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
 
     private AtlasSearchResult searchWithSearchContext(SearchContext searchContext) throws AtlasBaseException {
         SearchParameters  searchParameters = searchContext.getSearchParameters();
-        AtlasSearchResult ret              = new AtlasSearchResult(searchParameters);
         final QueryParams params           = QueryParams.getNormalizedParams(searchParameters.getLimit(), searchParameters.getOffset());
-        String            searchID         = searchTracker.add(searchContext); // For future cancellations
 
         searchParameters.setLimit(params.limit());
         searchParameters.setOffset(params.offset());
 
+        String cacheKey = searchResultCache.getCacheKey(searchContext);
+
+        if (cacheKey == null) {
+            return executeSearch(searchContext);
+        }
+
+        AtlasSearchResult ret = searchResultCache.get(cacheKey);
+
+        if (ret == null) {
+            long sequence = searchResultCache.getSequence();
+
+            ret = executeSearch(searchContext);
+
+            searchResultCache.put(cacheKey, ret, SearchResultCache.getDependentTypes(searchContext, ret), sequence);
+        }
+
+        return ret;
+    }
+
+    private AtlasSearchResult executeSearch(SearchContext searchContext) throws AtlasBaseException {
+        SearchParameters  searchParameters = searchContext.getSearchParameters();
+        AtlasSearchResult ret              = new AtlasSearchResult(searchParameters);
+        String            searchID         = searchTracker.add(searchContext); // For future cancellations
+
         try {
             List<AtlasVertex> resultList = searchContext.getSearchProcessor().execute();
 
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                PERF_LOG.debug("searchWithParameters({}): fetchedVertices={}, returnedVertices={}", searchContext, searchContext.getFetchedVertexCount(), resultList.size());
+            }
+
             ret.setApproximateCount(searchContext.getSearchProcessor().getResultCount());
 
             String nextMarker = searchContext.getSearchProcessor().getNextMarker();
@@ -1016,17 +1159,9 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
             // By default any attribute that shows up in the search parameter should be sent back in the response
             // If additional values are requested then the entityAttributes will be a superset of the all search attributes
             // and the explicitly requested attribute(s)
-            Set<String> resultAttributes = new HashSet<>();
+            Set<String> resultAttributes = getResultAttributes(searchContext);
             Set<String> entityAttributes = new HashSet<>();
 
-            if (CollectionUtils.isNotEmpty(searchParameters.getAttributes())) {
-                resultAttributes.addAll(searchParameters.getAttributes());
-            }
-
-            if (CollectionUtils.isNotEmpty(searchContext.getEntityAttributes())) {
-                resultAttributes.addAll(searchContext.getEntityAttributes());
-            }
-
             if (CollectionUtils.isNotEmpty(searchContext.getEntityTypes())) {
                 AtlasEntityType entityType = searchContext.getEntityTypes().iterator().next();
 
@@ -1051,48 +1186,34 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
                 }
             }
 
-            for (AtlasVertex atlasVertex : resultList) {
-                AtlasEntityHeader entity = entityRetriever.toAtlasEntityHeader(atlasVertex, resultAttributes);
-
-                if (searchParameters.getIncludeClassificationAttributes()) {
-                    entity.setClassifications(entityRetriever.getAllClassifications(atlasVertex));
-                }
+            List<AtlasEntityHeader> entities      = entityHeaderHydrator.toEntityHeaders(resultList, resultAttributes, searchParameters.getIncludeClassificationAttributes());
+            Set<String>             referredGuids = new LinkedHashSet<>();
 
+            for (AtlasEntityHeader entity : entities) {
                 ret.addEntity(entity);
 
-                // populate ret.referredEntities
+                // collect guids for ret.referredEntities
                 for (String entityAttribute : entityAttributes) {
                     Object attrValue = entity.getAttribute(entityAttribute);
 
                     if (attrValue instanceof AtlasObjectId) {
-                        AtlasObjectId objId = (AtlasObjectId) attrValue;
-
-                        if (ret.getReferredEntities() == null) {
-                            ret.setReferredEntities(new HashMap<>());
-                        }
-
-                        if (!ret.getReferredEntities().containsKey(objId.getGuid())) {
-                            ret.getReferredEntities().put(objId.getGuid(), entityRetriever.toAtlasEntityHeader(objId.getGuid()));
-                        }
+                        referredGuids.add(((AtlasObjectId) attrValue).getGuid());
                     } else if (attrValue instanceof Collection) {
                         Collection objIds = (Collection) attrValue;
 
                         for (Object obj : objIds) {
                             if (obj instanceof AtlasObjectId) {
-                                AtlasObjectId objId = (AtlasObjectId) obj;
-
-                                if (ret.getReferredEntities() == null) {
-                                    ret.setReferredEntities(new HashMap<>());
-                                }
-
-                                if (!ret.getReferredEntities().containsKey(objId.getGuid())) {
-                                    ret.getReferredEntities().put(objId.getGuid(), entityRetriever.toAtlasEntityHeader(objId.getGuid()));
-                                }
+                                referredGuids.add(((AtlasObjectId) obj).getGuid());
                             }
                         }
                     }
                 }
             }
+
+            // populate ret.referredEntities
+            if (!referredGuids.isEmpty()) {
+                ret.setReferredEntities(new HashMap<>(entityHeaderHydrator.toEntityHeaders(referredGuids)));
+            }
         } finally {
             searchTracker.remove(searchID);
         }
@@ -1102,6 +1223,89 @@ public class EntityDiscoveryService implements AtlasDiscoveryService {
         return ret;
     }
 
+    private SearchContext createSearchContext(SearchParameters searchParameters) throws AtlasBaseException {
+        String query = searchParameters.getQuery();
+
+        if (StringUtils.isNotEmpty(query)) {
+            String modifiedString = StringUtils.strip(query, "*");
+
+            if (AtlasStructType.AtlasAttribute.hastokenizeChar(modifiedString)) {
+                searchParameters.setQuery(modifiedString);
+            }
+        }
+
+        return new SearchContext(searchParameters, typeRegistry, graph, indexer.getVertexIndexKeys());
+    }
+
+    /*
+     * streamed searches read each page in its own graph transaction, instead of holding one transaction open until
+     * the whole result is written to the client
+     */
+    private void releasePageTransaction() {
+        graph.rollback();
+
+        GraphTransactionInterceptor.clearCache();
+    }
+
+    private int getStreamPageSize() {
+        return Math.max(1, Math.min(AtlasConfiguration.SEARCH_STREAM_PAGE_SIZE.getInt(), AtlasConfiguration.SEARCH_MAX_LIMIT.getInt()));
+    }
+
+    private static int getResultCount(AtlasSearchResult result) {
+        int ret = result.getEntities() != null ? result.getEntities().size() : 0;
+
+        if (result.getAttributes() != null && result.getAttributes().getValues() != null) {
+            ret += result.getAttributes().getValues().size();
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return false if the consumer stopped the search
+     */
+    private static boolean streamSearchResult(AtlasSearchResult result, SearchResultConsumer consumer) {
+        if (result.getEntities() != null) {
+            for (AtlasEntityHeader entity : result.getEntities()) {
+                if (!consumer.accept(entity)) {
+                    return false;
+                }
+            }
+        }
+
+        if (result.getAttributes() != null && result.getAttributes().getValues() != null) {
+            List<String> names = result.getAttributes().getName();
+
+            for (List<Object> values : result.getAttributes().getValues()) {
+                Map<String, Object> row = new LinkedHashMap<>();
+
+                for (int i = 0; i < names.size() && i < values.size(); i++) {
+                    row.put(names.get(i), values.get(i));
+                }
+
+                if (!consumer.accept(row)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private Set<String> getResultAttributes(SearchContext searchContext) {
+        Set<String> ret = new HashSet<>();
+
+        if (CollectionUtils.isNotEmpty(searchContext.getSearchParameters().getAttributes())) {
+            ret.addAll(searchContext.getSearchParameters().getAttributes());
+        }
+
+        if (CollectionUtils.isNotEmpty(searchContext.getEntityAttributes())) {
+            ret.addAll(searchContext.getEntityAttributes());
+        }
+
+        return ret;
+    }
+
     private String getQueryForFullTextSearch(String userKeyedString, String typeName, String classification) {
         String        typeFilter           = getTypeFilter(typeRegistry, typeName, maxTypesLengthInIdxQuery);
         String        classificationFilter = getClassificationFilter(typeRegistry, classification, maxTagsLengthInIdxQuery);
@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Converts a page of search result vertices to entity headers. Pages with at least minBatchSize vertices are
+ * split into chunks that are hydrated in parallel; each worker reads its vertices in a graph transaction of its own,
+ * which is rolled back once the chunk is done. Vertices that can't be read by a worker - for example, ones not yet
+ * committed by the calling transaction - and chunks that fail are hydrated serially in the calling thread.
+ */
+public class EntityHeaderHydrator {
+    private static final Logger LOG = LoggerFactory.getLogger(EntityHeaderHydrator.class);
+
+    private final AtlasGraph           graph;
+    private final EntityGraphRetriever entityRetriever;
+    private final int                  parallelism;
+    private final int                  minBatchSize;
+    private final ExecutorService      executor;
+
+    public EntityHeaderHydrator(AtlasGraph graph, EntityGraphRetriever entityRetriever, int parallelism, int minBatchSize) {
+        this("search", graph, entityRetriever, parallelism, minBatchSize);
+    }
+
+    /**
+     * @param name used in names of the worker threads
+     */
+    public EntityHeaderHydrator(String name, AtlasGraph graph, EntityGraphRetriever entityRetriever, int parallelism, int minBatchSize) {
+        this.graph           = graph;
+        this.entityRetriever = entityRetriever;
+        this.parallelism     = Math.max(1, parallelism);
+        this.minBatchSize    = Math.max(1, minBatchSize);
+        this.executor        = this.parallelism > 1 ? Executors.newFixedThreadPool(this.parallelism, new ThreadFactoryBuilder().setDaemon(true).setNameFormat("atlas-" + name + "-hydrator-%d").build()) : null;
+
+        LOG.info("EntityHeaderHydrator(name={}, parallelism={}, minBatchSize={})", name, this.parallelism, this.minBatchSize);
+    }
+
+    /**
+     * @return entity headers, in the same order as the given vertices
+     */
+    public List<AtlasEntityHeader> toEntityHeaders(List<AtlasVertex> vertices, Set<String> attributes, boolean includeClassifications) throws AtlasBaseException {
+        return hydrate(vertices, vertex -> {
+            AtlasEntityHeader ret = entityRetriever.toAtlasEntityHeader(vertex, attributes);
+
+            if (includeClassifications) {
+                ret.setClassifications(entityRetriever.getAllClassifications(vertex));
+            }
+
+            return ret;
+        }, vertex -> graph.getVertex(vertex.getId().toString()));
+    }
+
+    /**
+     * @return entity headers keyed by guid, in the order of the given guids
+     */
+    public Map<String, AtlasEntityHeader> toEntityHeaders(Collection<String> guids) throws AtlasBaseException {
+        List<String>                   guidList = new ArrayList<>(guids);
+        List<AtlasEntityHeader>        headers  = hydrate(guidList, entityRetriever::toAtlasEntityHeader, guid -> guid);
+        Map<String, AtlasEntityHeader> ret      = new LinkedHashMap<>();
+
+        for (int i = 0; i < guidList.size(); i++) {
+            ret.put(guidList.get(i), headers.get(i));
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return entity headers, in the same order as the given vertex ids; null for vertices that don't exist
+     */
+    public List<AtlasEntityHeader> toEntityHeadersByVertexId(List<Object> vertexIds) throws AtlasBaseException {
+        return hydrate(vertexIds, vertexId -> entityRetriever.toAtlasEntityHeader(graph.getVertex(String.valueOf(vertexId))), vertexId -> vertexId);
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    static int getChunkSize(int itemCount, int parallelism) {
+        return (itemCount + parallelism - 1) / parallelism;
+    }
+
+    private <T> List<AtlasEntityHeader> hydrate(List<T> items, Hydrator<T> hydrator, Loader<T> loader) throws AtlasBaseException {
+        List<AtlasEntityHeader> ret = new ArrayList<>(items.size());
+
+        if (executor == null || items.size() < minBatchSize) {
+            for (T item : items) {
+                ret.add(hydrator.hydrate(item));
+            }
+
+            return ret;
+        }
+
+        String                                user      = RequestContext.get().getUser();
+        Set<String>                           groups    = RequestContext.get().getUserGroups();
+        int                                   chunkSize = getChunkSize(items.size(), parallelism);
+        List<Future<List<AtlasEntityHeader>>> futures   = new ArrayList<>();
+
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            List<T> chunk = items.subList(start, Math.min(start + chunkSize, items.size()));
+
+            futures.add(executor.submit(() -> hydrateChunk(chunk, hydrator, loader, user, groups)));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            List<T>                 chunk   = items.subList(i * chunkSize, Math.min((i + 1) * chunkSize, items.size()));
+            List<AtlasEntityHeader> headers = null;
+
+            try {
+                headers = futures.get(i).get();
+            } catch (ExecutionException e) {
+                LOG.warn("parallel hydration of {} search results failed; hydrating them serially", chunk.size(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new AtlasBaseException(e);
+            }
+
+            for (int j = 0; j < chunk.size(); j++) {
+                AtlasEntityHeader header = headers != null ? headers.get(j) : null;
+
+                ret.add(header != null ? header : hydrator.hydrate(chunk.get(j)));
+            }
+        }
+
+        return ret;
+    }
+
+    private <T> List<AtlasEntityHeader> hydrateChunk(List<T> chunk, Hydrator<T> hydrator, Loader<T> loader, String user, Set<String> groups) throws AtlasBaseException {
+        List<AtlasEntityHeader> ret = new ArrayList<>(chunk.size());
+
+        RequestContext.get().setUser(user, groups);
+
+        try {
+            for (T item : chunk) {
+                T loaded = loader.load(item);
+
+                ret.add(loaded != null ? hydrator.hydrate(loaded) : null);
+            }
+        } finally {
+            graph.rollback();
+
+            GraphTransactionInterceptor.clearCache();
+            RequestContext.clear();
+        }
+
+        return ret;
+    }
+
+    private interface Hydrator<T> {
+        AtlasEntityHeader hydrate(T item) throws AtlasBaseException;
+    }
+
+    private interface Loader<T> {
+        T load(T item);
+    }
+}
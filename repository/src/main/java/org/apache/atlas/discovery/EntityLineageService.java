@@ -37,6 +37,7 @@ import org.apache.atlas.model.lineage.LineageOnDemandConstraints;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphTraversal;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
@@ -48,17 +49,21 @@ import org.apache.atlas.v1.model.lineage.SchemaResponse.SchemaDetails;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -71,7 +76,6 @@ import static org.apache.atlas.AtlasErrorCode.INSTANCE_LINEAGE_QUERY_FAILED;
 import static org.apache.atlas.model.lineage.AtlasLineageInfo.LineageDirection.BOTH;
 import static org.apache.atlas.model.lineage.AtlasLineageInfo.LineageDirection.INPUT;
 import static org.apache.atlas.model.lineage.AtlasLineageInfo.LineageDirection.OUTPUT;
-import static org.apache.atlas.repository.Constants.RELATIONSHIP_GUID_PROPERTY_KEY;
 import static org.apache.atlas.repository.graphdb.AtlasEdgeDirection.IN;
 import static org.apache.atlas.repository.graphdb.AtlasEdgeDirection.OUT;
 import static org.apache.atlas.util.AtlasGremlinQueryProvider.AtlasGremlinQuery.FULL_LINEAGE_DATASET;
@@ -96,13 +100,28 @@ public class EntityLineageService implements AtlasLineageService {
     private final AtlasGremlinQueryProvider gremlinQueryProvider;
     private final EntityGraphRetriever      entityRetriever;
     private final AtlasTypeRegistry         atlasTypeRegistry;
+    private final LineageAdjacencyCache     adjacencyCache;
+    private final LineageIndex              lineageIndex;
+    private final EntityHeaderHydrator      entityHeaderHydrator;
 
     @Inject
-    EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph) {
+    EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph, LineageAdjacencyCache adjacencyCache, LineageIndex lineageIndex) {
         this.graph                = atlasGraph;
         this.gremlinQueryProvider = AtlasGremlinQueryProvider.getInstance();
         this.entityRetriever      = new EntityGraphRetriever(atlasGraph, typeRegistry);
         this.atlasTypeRegistry    = typeRegistry;
+        this.adjacencyCache       = adjacencyCache;
+        this.lineageIndex         = lineageIndex;
+        this.entityHeaderHydrator = new EntityHeaderHydrator("lineage", atlasGraph, entityRetriever, AtlasConfiguration.LINEAGE_HYDRATION_PARALLELISM.getInt(), AtlasConfiguration.LINEAGE_HYDRATION_MIN_BATCH_SIZE.getInt());
+    }
+
+    EntityLineageService(AtlasTypeRegistry typeRegistry, AtlasGraph atlasGraph) {
+        this(typeRegistry, atlasGraph, new LineageAdjacencyCache(false, 0), new LineageIndex(atlasGraph, typeRegistry, null, false, 0));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        entityHeaderHydrator.shutdown();
     }
 
     @Override
@@ -309,45 +328,32 @@ public class EntityLineageService implements AtlasLineageService {
             depth = -1;
         }
 
+        AtlasVertex         vertex          = AtlasGraphUtilsV2.findByGuid(this.graph, guid);
+        Map<String, Object> entityVertexIds = new LinkedHashMap<>();
+
         if (isDataSet) {
-            AtlasVertex datasetVertex = AtlasGraphUtilsV2.findByGuid(this.graph, guid);
+            Map<String, Object> datasets = Collections.singletonMap(guid, vertex.getId());
 
             if (direction == INPUT || direction == BOTH) {
-                traverseEdges(datasetVertex, true, depth, ret);
+                traverseEdges(datasets, true, depth, null, entityVertexIds, ret);
             }
 
             if (direction == OUTPUT || direction == BOTH) {
-                traverseEdges(datasetVertex, false, depth, ret);
+                traverseEdges(datasets, false, depth, null, entityVertexIds, ret);
             }
         } else {
-            AtlasVertex processVertex = AtlasGraphUtilsV2.findByGuid(this.graph, guid);
-
             // make one hop to the next dataset vertices from process vertex and traverse with 'depth = depth - 1'
             if (direction == INPUT || direction == BOTH) {
-                Iterable<AtlasEdge> processEdges = processVertex.getEdges(AtlasEdgeDirection.OUT, PROCESS_INPUTS_EDGE);
-
-                for (AtlasEdge processEdge : processEdges) {
-                    addEdgeToResult(processEdge, ret);
-
-                    AtlasVertex datasetVertex = processEdge.getInVertex();
-
-                    traverseEdges(datasetVertex, true, depth - 1, ret);
-                }
+                traverseEdges(getProcessDatasets(guid, vertex, PROCESS_INPUTS_EDGE, null, entityVertexIds, ret), true, depth - 1, null, entityVertexIds, ret);
             }
 
             if (direction == OUTPUT || direction == BOTH) {
-                Iterable<AtlasEdge> processEdges = processVertex.getEdges(AtlasEdgeDirection.OUT, PROCESS_OUTPUTS_EDGE);
-
-                for (AtlasEdge processEdge : processEdges) {
-                    addEdgeToResult(processEdge, ret);
-
-                    AtlasVertex datasetVertex = processEdge.getInVertex();
-
-                    traverseEdges(datasetVertex, false, depth - 1, ret);
-                }
+                traverseEdges(getProcessDatasets(guid, vertex, PROCESS_OUTPUTS_EDGE, null, entityVertexIds, ret), false, depth - 1, null, entityVertexIds, ret);
             }
         }
 
+        loadEntityHeaders(ret, entityVertexIds);
+
         return ret;
     }
 
@@ -412,140 +418,213 @@ public class EntityLineageService implements AtlasLineageService {
             depth = -1;
         }
 
+        AtlasVertex         vertex          = AtlasGraphUtilsV2.findByGuid(this.graph, guid);
+        Map<String, Object> entityVertexIds = new LinkedHashMap<>();
+
         if (isDataSet) {
-            AtlasVertex datasetVertex = AtlasGraphUtilsV2.findByGuid(this.graph, guid);
+            Map<String, Object> datasets = Collections.singletonMap(guid, vertex.getId());
 
             if (!ret.getRelationsOnDemand().containsKey(guid)) {
                 ret.getRelationsOnDemand().put(guid, new LineageInfoOnDemand(lineageConstraintsByGuid));
             }
 
             if (direction == INPUT || direction == BOTH) {
-                traverseEdgesOnDemand(datasetVertex, true, depth, new HashSet<>(), lineageConstraintsMap, ret);
+                traverseEdges(datasets, true, depth, lineageConstraintsMap, entityVertexIds, ret);
             }
 
             if (direction == OUTPUT || direction == BOTH) {
-                traverseEdgesOnDemand(datasetVertex, false, depth, new HashSet<>(), lineageConstraintsMap, ret);
+                traverseEdges(datasets, false, depth, lineageConstraintsMap, entityVertexIds, ret);
             }
         } else {
-            AtlasVertex processVertex = AtlasGraphUtilsV2.findByGuid(this.graph, guid);
-
             // make one hop to the next dataset vertices from process vertex and traverse with 'depth = depth - 1'
             if (direction == INPUT || direction == BOTH) {
-                Iterable<AtlasEdge> processEdges = processVertex.getEdges(AtlasEdgeDirection.OUT, PROCESS_INPUTS_EDGE);
-
-                traverseEdgesOnDemand(processEdges, true, depth, lineageConstraintsMap, ret);
+                traverseEdges(getProcessDatasets(guid, vertex, PROCESS_INPUTS_EDGE, lineageConstraintsMap, entityVertexIds, ret), true, depth - 1, lineageConstraintsMap, entityVertexIds, ret);
             }
 
             if (direction == OUTPUT || direction == BOTH) {
-                Iterable<AtlasEdge> processEdges = processVertex.getEdges(AtlasEdgeDirection.OUT, PROCESS_OUTPUTS_EDGE);
-
-                traverseEdgesOnDemand(processEdges, false, depth, lineageConstraintsMap, ret);
+                traverseEdges(getProcessDatasets(guid, vertex, PROCESS_OUTPUTS_EDGE, lineageConstraintsMap, entityVertexIds, ret), false, depth - 1, lineageConstraintsMap, entityVertexIds, ret);
             }
         }
 
+        loadEntityHeaders(ret, entityVertexIds);
+
         return ret;
     }
 
-    private void traverseEdges(AtlasVertex datasetVertex, boolean isInput, int depth, AtlasLineageInfo ret) throws AtlasBaseException {
-        traverseEdges(datasetVertex, isInput, depth, new HashSet<>(), ret);
+    /**
+     * Loads headers of the entities in the lineage, in parallel for large lineages.
+     */
+    private void loadEntityHeaders(AtlasLineageInfo lineageInfo, Map<String, Object> entityVertexIds) throws AtlasBaseException {
+        List<String>            guids   = new ArrayList<>(entityVertexIds.keySet());
+        List<AtlasEntityHeader> headers = entityHeaderHydrator.toEntityHeadersByVertexId(new ArrayList<>(entityVertexIds.values()));
+
+        for (int i = 0; i < guids.size(); i++) {
+            lineageInfo.getGuidEntityMap().put(guids.get(i), headers.get(i));
+        }
     }
 
-    private void traverseEdges(AtlasVertex datasetVertex, boolean isInput, int depth, Set<String> visitedVertices, AtlasLineageInfo ret) throws AtlasBaseException {
-        if (depth != 0) {
-            // keep track of visited vertices to avoid circular loop
-            visitedVertices.add(getId(datasetVertex));
+    /**
+     * Adds edges from the process to its input or output datasets to the lineage, and returns the datasets.
+     * lineageConstraintsMap is null unless lineage is requested on-demand.
+     */
+    private Map<String, Object> getProcessDatasets(String processGuid, AtlasVertex processVertex, String edgeLabel, Map<String, LineageOnDemandConstraints> lineageConstraintsMap, Map<String, Object> entityVertexIds, AtlasLineageInfo lineageInfo) throws AtlasBaseException {
+        Map<String, Object> ret = new LinkedHashMap<>();
 
-            Iterable<AtlasEdge> incomingEdges = datasetVertex.getEdges(IN, isInput ? PROCESS_OUTPUTS_EDGE : PROCESS_INPUTS_EDGE);
+        for (LineageEdge processEdge : getEdges(Collections.singletonMap(processGuid, processVertex.getId()), OUT, edgeLabel).get(processGuid)) {
+            String datasetGuid = processEdge.getInGuid();
 
-            for (AtlasEdge incomingEdge : incomingEdges) {
-                AtlasVertex         processVertex = incomingEdge.getOutVertex();
-                Iterable<AtlasEdge> outgoingEdges = processVertex.getEdges(OUT, isInput ? PROCESS_INPUTS_EDGE : PROCESS_OUTPUTS_EDGE);
+            if (lineageConstraintsMap != null) {
+                if (incrementAndCheckIfRelationsLimitReached(processEdge, processEdge.isInputEdge(), lineageConstraintsMap, lineageInfo)) {
+                    break;
+                }
 
-                for (AtlasEdge outgoingEdge : outgoingEdges) {
-                    AtlasVertex entityVertex = outgoingEdge.getInVertex();
+                if (!lineageInfo.getRelationsOnDemand().containsKey(datasetGuid)) {
+                    lineageInfo.getRelationsOnDemand().put(datasetGuid, new LineageInfoOnDemand(getAndValidateLineageConstraintsByGuid(datasetGuid, lineageConstraintsMap)));
+                }
+            }
+
+            addEdgeToResult(processEdge, lineageInfo, entityVertexIds);
 
-                    if (entityVertex != null) {
-                        addEdgeToResult(incomingEdge, ret);
-                        addEdgeToResult(outgoingEdge, ret);
+            ret.put(datasetGuid, processEdge.getInVertexId());
+        }
 
-                        if (!visitedVertices.contains(getId(entityVertex))) {
-                            traverseEdges(entityVertex, isInput, depth - 1, visitedVertices, ret);
+        return ret;
+    }
+
+    /**
+     * Traverses lineage breadth-first from the given datasets, a level - datasets, their processes and the next
+     * datasets - at a time. Edges of all vertices in a level are read with one graph query per edge label, or from
+     * LineageAdjacencyCache. lineageConstraintsMap is null unless lineage is requested on-demand.
+     */
+    private void traverseEdges(Map<String, Object> datasets, boolean isInput, int depth, Map<String, LineageOnDemandConstraints> lineageConstraintsMap, Map<String, Object> entityVertexIds, AtlasLineageInfo ret) throws AtlasBaseException {
+        boolean             isOnDemand      = lineageConstraintsMap != null;
+        String              incomingLabel   = isInput ? PROCESS_OUTPUTS_EDGE : PROCESS_INPUTS_EDGE;
+        String              outgoingLabel   = isInput ? PROCESS_INPUTS_EDGE : PROCESS_OUTPUTS_EDGE;
+        Set<Object>         visitedVertices = new HashSet<>(datasets.values()); // keep track of visited vertices to avoid circular loop
+        Map<String, Object> frontier        = datasets;
+
+        for (int level = depth; level != 0 && !frontier.isEmpty(); level--) {
+            if (!isOnDemand && lineageMaxNodeCountReached(ret.getRelations())) { // no more edges will be added to the result
+                break;
+            }
+
+            List<LineageEdge> incomingEdges = new ArrayList<>();
+
+            for (List<LineageEdge> datasetEdges : getEdges(frontier, IN, incomingLabel).values()) {
+                for (LineageEdge incomingEdge : datasetEdges) {
+                    if (isOnDemand) {
+                        if (incrementAndCheckIfRelationsLimitReached(incomingEdge, !isInput, lineageConstraintsMap, ret)) {
+                            break;
                         }
+
+                        addEdgeToResult(incomingEdge, ret, entityVertexIds);
                     }
+
+                    incomingEdges.add(incomingEdge);
                 }
             }
+
+            Map<String, List<LineageEdge>> outgoingEdges = getEdges(getProcesses(incomingEdges), OUT, outgoingLabel);
+            Map<String, Object>            nextFrontier  = new LinkedHashMap<>();
+
+            for (LineageEdge incomingEdge : incomingEdges) {
+                List<LineageEdge> processEdges = outgoingEdges.get(incomingEdge.getOutGuid());
+
+                if (!isOnDemand && !processEdges.isEmpty()) {
+                    addEdgeToResult(incomingEdge, ret, entityVertexIds);
+                }
+
+                for (LineageEdge outgoingEdge : processEdges) {
+                    if (isOnDemand && incrementAndCheckIfRelationsLimitReached(outgoingEdge, isInput, lineageConstraintsMap, ret)) {
+                        break;
+                    }
+
+                    addEdgeToResult(outgoingEdge, ret, entityVertexIds);
+
+                    if (visitedVertices.add(outgoingEdge.getInVertexId())) {
+                        nextFrontier.put(outgoingEdge.getInGuid(), outgoingEdge.getInVertexId());
+                    }
+                }
+            }
+
+            frontier = nextFrontier;
         }
     }
 
-    private void traverseEdgesOnDemand(Iterable<AtlasEdge> processEdges, boolean isInput, int depth, Map<String, LineageOnDemandConstraints> lineageConstraintsMap, AtlasLineageInfo ret) throws AtlasBaseException {
-        for (AtlasEdge processEdge : processEdges) {
-            boolean isInputEdge = processEdge.getLabel().equalsIgnoreCase(PROCESS_INPUTS_EDGE);
+    private static Map<String, Object> getProcesses(List<LineageEdge> incomingEdges) {
+        Map<String, Object> ret = new LinkedHashMap<>();
 
-            if (incrementAndCheckIfRelationsLimitReached(processEdge, isInputEdge, lineageConstraintsMap, ret)) {
-                break;
-            } else {
-                addEdgeToResult(processEdge, ret);
+        for (LineageEdge incomingEdge : incomingEdges) {
+            ret.put(incomingEdge.getOutGuid(), incomingEdge.getOutVertexId());
+        }
+
+        return ret;
+    }
+
+    /**
+     * @param vertices vertex ids, keyed by guid
+     * @return edges of each of the given vertices, keyed by guid. Edges not in LineageIndex or LineageAdjacencyCache
+     * are read with one graph query.
+     */
+    private Map<String, List<LineageEdge>> getEdges(Map<String, Object> vertices, AtlasEdgeDirection direction, String edgeLabel) {
+        Map<String, List<LineageEdge>> ret         = new LinkedHashMap<>();
+        Map<Object, String>            guidsToRead = new HashMap<>();
+        long                           sequence    = adjacencyCache.getSequence();
+
+        for (Map.Entry<String, Object> vertex : vertices.entrySet()) {
+            List<LineageEdge> edges = lineageIndex.getEdges(vertex.getKey(), direction, edgeLabel);
+
+            if (edges == null) {
+                edges = adjacencyCache.get(vertex.getKey(), direction, edgeLabel);
             }
 
-            AtlasVertex                datasetVertex           = processEdge.getInVertex();
-            String                     inGuid                  = AtlasGraphUtilsV2.getIdFromVertex(datasetVertex);
-            LineageOnDemandConstraints inGuidLineageConstrains = getAndValidateLineageConstraintsByGuid(inGuid, lineageConstraintsMap);
+            if (edges == null) {
+                edges = new ArrayList<>();
 
-            if (!ret.getRelationsOnDemand().containsKey(inGuid)) {
-                ret.getRelationsOnDemand().put(inGuid, new LineageInfoOnDemand(inGuidLineageConstrains));
+                guidsToRead.put(vertex.getValue(), vertex.getKey());
             }
 
-            traverseEdgesOnDemand(datasetVertex, isInput, depth - 1, new HashSet<>(), lineageConstraintsMap, ret);
+            ret.put(vertex.getKey(), edges);
         }
-    }
 
-    private void traverseEdgesOnDemand(AtlasVertex datasetVertex, boolean isInput, int depth, Set<String> visitedVertices, Map<String, LineageOnDemandConstraints> lineageConstraintsMap, AtlasLineageInfo ret) throws AtlasBaseException {
-        if (depth != 0) {
-            // keep track of visited vertices to avoid circular loop
-            visitedVertices.add(getId(datasetVertex));
+        if (!guidsToRead.isEmpty()) {
+            GraphTraversal traversal = graph.V(guidsToRead.keySet().toArray());
+            Set<AtlasEdge> edges     = ((AtlasGraphTraversal) (direction == IN ? traversal.inE(edgeLabel) : traversal.outE(edgeLabel))).getAtlasEdgeSet();
 
-            Iterable<AtlasEdge> incomingEdges = datasetVertex.getEdges(IN, isInput ? PROCESS_OUTPUTS_EDGE : PROCESS_INPUTS_EDGE);
+            for (AtlasEdge edge : edges) {
+                LineageEdge lineageEdge = new LineageEdge(edge);
+                String      guid        = guidsToRead.get(direction == IN ? lineageEdge.getInVertexId() : lineageEdge.getOutVertexId());
 
-            for (AtlasEdge incomingEdge : incomingEdges) {
-                if (incrementAndCheckIfRelationsLimitReached(incomingEdge, !isInput, lineageConstraintsMap, ret)) {
-                    break;
-                } else {
-                    addEdgeToResult(incomingEdge, ret);
+                if (guid != null) {
+                    ret.get(guid).add(lineageEdge);
                 }
+            }
 
-                AtlasVertex         processVertex = incomingEdge.getOutVertex();
-                Iterable<AtlasEdge> outgoingEdges = processVertex.getEdges(OUT, isInput ? PROCESS_INPUTS_EDGE : PROCESS_OUTPUTS_EDGE);
+            if (adjacencyCache.isEnabled()) {
+                for (String guid : guidsToRead.values()) {
+                    List<LineageEdge> guidEdges = Collections.unmodifiableList(ret.get(guid));
 
-                for (AtlasEdge outgoingEdge : outgoingEdges) {
-                    if (incrementAndCheckIfRelationsLimitReached(outgoingEdge, isInput, lineageConstraintsMap, ret)) {
-                        break;
-                    } else {
-                        addEdgeToResult(outgoingEdge, ret);
-                    }
+                    ret.put(guid, guidEdges);
 
-                    AtlasVertex entityVertex = outgoingEdge.getInVertex();
-
-                    if (entityVertex != null && !visitedVertices.contains(getId(entityVertex))) {
-                        traverseEdgesOnDemand(entityVertex, isInput, depth - 1, visitedVertices, lineageConstraintsMap, ret);
-                    }
+                    adjacencyCache.put(guid, direction, edgeLabel, guidEdges, sequence);
                 }
             }
         }
+
+        return ret;
     }
 
-    private boolean incrementAndCheckIfRelationsLimitReached(AtlasEdge atlasEdge, boolean isInput, Map<String, LineageOnDemandConstraints> lineageConstraintsMap, AtlasLineageInfo ret) {
-        if (lineageContainsEdge(ret, atlasEdge)) {
+    private boolean incrementAndCheckIfRelationsLimitReached(LineageEdge edge, boolean isInput, Map<String, LineageOnDemandConstraints> lineageConstraintsMap, AtlasLineageInfo ret) {
+        if (lineageContainsEdge(ret, edge)) {
             return false;
         }
 
         boolean hasRelationsLimitReached = false;
 
-        AtlasVertex                inVertex                 = isInput ? atlasEdge.getOutVertex() : atlasEdge.getInVertex();
-        String                     inGuid                   = AtlasGraphUtilsV2.getIdFromVertex(inVertex);
+        String                     inGuid                   = isInput ? edge.getOutGuid() : edge.getInGuid();
         LineageOnDemandConstraints inGuidLineageConstraints = getAndValidateLineageConstraintsByGuid(inGuid, lineageConstraintsMap);
 
-        AtlasVertex                outVertex                 = isInput ? atlasEdge.getInVertex() : atlasEdge.getOutVertex();
-        String                     outGuid                   = AtlasGraphUtilsV2.getIdFromVertex(outVertex);
+        String                     outGuid                   = isInput ? edge.getInGuid() : edge.getOutGuid();
         LineageOnDemandConstraints outGuidLineageConstraints = getAndValidateLineageConstraintsByGuid(outGuid, lineageConstraintsMap);
 
         LineageInfoOnDemand inLineageInfo  = ret.getRelationsOnDemand().containsKey(inGuid) ? ret.getRelationsOnDemand().get(inGuid) : new LineageInfoOnDemand(inGuidLineageConstraints);
@@ -575,9 +654,9 @@ public class EntityLineageService implements AtlasLineageService {
         return hasRelationsLimitReached;
     }
 
-    private void addEdgeToResult(AtlasEdge edge, AtlasLineageInfo lineageInfo) throws AtlasBaseException {
+    private void addEdgeToResult(LineageEdge edge, AtlasLineageInfo lineageInfo, Map<String, Object> entityVertexIds) throws AtlasBaseException {
         if (!lineageContainsEdge(lineageInfo, edge) && !lineageMaxNodeCountReached(lineageInfo.getRelations())) {
-            processEdge(edge, lineageInfo);
+            processEdge(edge, lineageInfo.getGuidEntityMap(), lineageInfo.getRelations(), lineageInfo.getVisitedEdges(), entityVertexIds);
         }
     }
 
@@ -597,36 +676,22 @@ public class EntityLineageService implements AtlasLineageService {
         return relationGuid;
     }
 
-    private boolean lineageContainsEdge(AtlasLineageInfo lineageInfo, AtlasEdge edge) {
-        boolean ret = false;
-
-        if (edge != null && lineageInfo != null && CollectionUtils.isNotEmpty(lineageInfo.getVisitedEdges())) {
-            String  inGuid           = AtlasGraphUtilsV2.getIdFromVertex(edge.getInVertex());
-            String  outGuid          = AtlasGraphUtilsV2.getIdFromVertex(edge.getOutVertex());
-            String  relationGuid     = AtlasGraphUtilsV2.getEncodedProperty(edge, RELATIONSHIP_GUID_PROPERTY_KEY, String.class);
-            boolean isInputEdge      = edge.getLabel().equalsIgnoreCase(PROCESS_INPUTS_EDGE);
-            String  visitedEdgeLabel = isInputEdge ? getVisitedEdgeLabel(inGuid, outGuid, relationGuid) : getVisitedEdgeLabel(outGuid, inGuid, relationGuid);
-
-            if (lineageInfo.getVisitedEdges().contains(visitedEdgeLabel)) {
-                ret = true;
-            }
+    private String getVisitedEdgeLabel(LineageEdge edge) {
+        if (edge.isInputEdge()) {
+            return getVisitedEdgeLabel(edge.getInGuid(), edge.getOutGuid(), edge.getRelationGuid());
         }
 
-        return ret;
+        return getVisitedEdgeLabel(edge.getOutGuid(), edge.getInGuid(), edge.getRelationGuid());
     }
 
-    private void processEdge(final AtlasEdge edge, final AtlasLineageInfo lineageInfo) throws AtlasBaseException {
-        processEdge(edge, lineageInfo.getGuidEntityMap(), lineageInfo.getRelations(), lineageInfo.getVisitedEdges());
+    private boolean lineageContainsEdge(AtlasLineageInfo lineageInfo, LineageEdge edge) {
+        return edge != null && lineageInfo != null && CollectionUtils.isNotEmpty(lineageInfo.getVisitedEdges()) && lineageInfo.getVisitedEdges().contains(getVisitedEdgeLabel(edge));
     }
 
     private AtlasLineageInfo initializeLineageInfo(String guid, LineageDirection direction, int depth) {
         return new AtlasLineageInfo(guid, new HashMap<>(), new HashSet<>(), new HashSet<>(), new HashMap<>(), direction, depth);
     }
 
-    private static String getId(AtlasVertex vertex) {
-        return vertex.getIdForDisplay();
-    }
-
     private List<?> executeGremlinScript(Map<String, Object> bindings, String lineageQuery) throws AtlasBaseException {
         List<?>      ret;
         ScriptEngine engine = graph.getGremlinScriptEngine();
@@ -643,39 +708,42 @@ public class EntityLineageService implements AtlasLineageService {
     }
 
     private void processEdge(final AtlasEdge edge, final Map<String, AtlasEntityHeader> entities, final Set<LineageRelation> relations) throws AtlasBaseException {
-        processEdge(edge, entities, relations, null);
+        processEdge(new LineageEdge(edge), entities, relations, null, null);
     }
 
-    private void processEdge(final AtlasEdge edge, final Map<String, AtlasEntityHeader> entities, final Set<LineageRelation> relations, final Set<String> visitedEdges) throws AtlasBaseException {
-        AtlasVertex inVertex     = edge.getInVertex();
-        AtlasVertex outVertex    = edge.getOutVertex();
-        String      inGuid       = AtlasGraphUtilsV2.getIdFromVertex(inVertex);
-        String      outGuid      = AtlasGraphUtilsV2.getIdFromVertex(outVertex);
-        String      relationGuid = AtlasGraphUtilsV2.getEncodedProperty(edge, RELATIONSHIP_GUID_PROPERTY_KEY, String.class);
-        boolean     isInputEdge  = edge.getLabel().equalsIgnoreCase(PROCESS_INPUTS_EDGE);
+    /**
+     * @param entityVertexIds if not null, vertex ids of entities not in entities are added to it, for their headers to be
+     *                        loaded once the traversal completes; otherwise entity headers are loaded right away
+     */
+    private void processEdge(final LineageEdge edge, final Map<String, AtlasEntityHeader> entities, final Set<LineageRelation> relations, final Set<String> visitedEdges, final Map<String, Object> entityVertexIds) throws AtlasBaseException {
+        String inGuid       = edge.getInGuid();
+        String outGuid      = edge.getOutGuid();
+        String relationGuid = edge.getRelationGuid();
 
         if (!entities.containsKey(inGuid)) {
-            AtlasEntityHeader entityHeader = entityRetriever.toAtlasEntityHeader(inVertex);
-
-            entities.put(inGuid, entityHeader);
+            if (entityVertexIds != null) {
+                entityVertexIds.put(inGuid, edge.getInVertexId());
+            } else {
+                entities.put(inGuid, entityRetriever.toAtlasEntityHeader(graph.getVertex(String.valueOf(edge.getInVertexId()))));
+            }
         }
 
         if (!entities.containsKey(outGuid)) {
-            AtlasEntityHeader entityHeader = entityRetriever.toAtlasEntityHeader(outVertex);
-
-            entities.put(outGuid, entityHeader);
+            if (entityVertexIds != null) {
+                entityVertexIds.put(outGuid, edge.getOutVertexId());
+            } else {
+                entities.put(outGuid, entityRetriever.toAtlasEntityHeader(graph.getVertex(String.valueOf(edge.getOutVertexId()))));
+            }
         }
 
-        if (isInputEdge) {
+        if (edge.isInputEdge()) {
             relations.add(new LineageRelation(inGuid, outGuid, relationGuid));
         } else {
             relations.add(new LineageRelation(outGuid, inGuid, relationGuid));
         }
 
         if (visitedEdges != null) {
-            String visitedEdgeLabel = isInputEdge ? getVisitedEdgeLabel(inGuid, outGuid, relationGuid) : getVisitedEdgeLabel(outGuid, inGuid, relationGuid);
-
-            visitedEdges.add(visitedEdgeLabel);
+            visitedEdges.add(getVisitedEdgeLabel(edge));
         }
     }
 
@@ -17,6 +17,7 @@
  */
 package org.apache.atlas.discovery;
 
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.SortOrder;
 import org.apache.atlas.model.discovery.SearchParameters.FilterCriteria;
 import org.apache.atlas.repository.Constants;
@@ -31,15 +32,20 @@ import org.apache.atlas.utils.AtlasPerfTracer;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.Predicate;
 import org.apache.commons.collections.PredicateUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.StreamSupport;
 
@@ -61,7 +67,9 @@ public class EntitySearchProcessor extends SearchProcessor {
     private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("EntitySearchProcessor");
 
     private final AtlasIndexQuery indexQuery;
+    private final AtlasIndexQuery countQuery;
     private final AtlasGraphQuery graphQuery;
+    private final boolean         keysetPagination;
     private       Predicate       graphQueryPredicate;
     private       Predicate       filterGraphQueryPredicate;
 
@@ -122,6 +130,11 @@ public class EntitySearchProcessor extends SearchProcessor {
             }
         } else {
             graphAttributes.addAll(indexAttributes);
+
+            // OR conditions having non-indexed attributes are evaluated by graph query or in-memory; use index query for the rest
+            if (typeSearchByIndex && CollectionUtils.isNotEmpty(indexAttributes)) {
+                constructFilterQuery(indexQuery, entityTypes, getIndexFilterCriteria(entityTypes, filterCriteria), indexAttributes);
+            }
         }
 
         if (indexQuery.length() > 0) {
@@ -132,9 +145,26 @@ public class EntitySearchProcessor extends SearchProcessor {
             indexQueryString = STRAY_OR_PATTERN.matcher(indexQueryString).replaceAll(")");
             indexQueryString = STRAY_ELIPSIS_PATTERN.matcher(indexQueryString).replaceAll("");
 
-            this.indexQuery = context.getGraph().indexQuery(Constants.VERTEX_INDEX, indexQueryString);
+            // with a marker and no sortBy, page through results in __timestamp order: the next page starts at
+            // the __timestamp of the last returned entity, instead of skipping all entities of earlier pages
+            this.keysetPagination = context.getMarker() != null && StringUtils.isEmpty(sortBy) &&
+                                    (context.getMarkerTimestamp() != null || AtlasConfiguration.SEARCH_KEYSET_PAGINATION_ENABLED.getBoolean());
+
+            if (keysetPagination && context.getMarkerTimestamp() != null) {
+                StringBuilder keysetQuery = new StringBuilder(indexQueryString);
+
+                graphIndexQueryBuilder.addTimestampAfterQueryFilter(keysetQuery, context.getMarkerTimestamp());
+
+                this.indexQuery = context.getGraph().indexQuery(Constants.VERTEX_INDEX, keysetQuery.toString());
+                this.countQuery = context.getGraph().indexQuery(Constants.VERTEX_INDEX, indexQueryString);
+            } else {
+                this.indexQuery = context.getGraph().indexQuery(Constants.VERTEX_INDEX, indexQueryString);
+                this.countQuery = this.indexQuery;
+            }
         } else {
-            this.indexQuery = null;
+            this.indexQuery       = null;
+            this.countQuery       = null;
+            this.keysetPagination = false;
         }
 
         if (CollectionUtils.isNotEmpty(graphAttributes) || !typeSearchByIndex) {
@@ -259,8 +289,9 @@ public class EntitySearchProcessor extends SearchProcessor {
                 qryOffset = (nextProcessor != null || (graphQuery != null && indexQuery != null) || isEntityRootType()) ? 0 : startIdx;
             }
 
-            int                                 resultIdx             = qryOffset;
-            LinkedHashMap<Integer, AtlasVertex> offsetEntityVertexMap = new LinkedHashMap<>();
+            int                                 resultIdx              = qryOffset;
+            LinkedHashMap<Integer, AtlasVertex> offsetEntityVertexMap  = new LinkedHashMap<>();
+            Map<Long, Integer>                  firstOffsetByTimestamp = keysetPagination ? new HashMap<>() : null;
 
             for (; ret.size() < limit; qryOffset += limit) {
                 offsetEntityVertexMap.clear();
@@ -273,7 +304,19 @@ public class EntitySearchProcessor extends SearchProcessor {
 
                 final boolean isLastResultPage;
 
-                if (indexQuery != null) {
+                if (keysetPagination) {
+                    Iterator<AtlasIndexQuery.Result> idxQueryResult = indexQuery.vertices(qryOffset, limit, Constants.TIMESTAMP_PROPERTY_KEY, Order.asc);
+
+                    offsetEntityVertexMap = getVerticesFromIndexQueryResult(idxQueryResult, offsetEntityVertexMap, qryOffset);
+
+                    for (Map.Entry<Integer, AtlasVertex> entry : offsetEntityVertexMap.entrySet()) {
+                        Long timestamp = entry.getValue().getProperty(Constants.TIMESTAMP_PROPERTY_KEY, Long.class);
+
+                        if (timestamp != null) {
+                            firstOffsetByTimestamp.putIfAbsent(timestamp, entry.getKey());
+                        }
+                    }
+                } else if (indexQuery != null) {
                     Iterator<AtlasIndexQuery.Result> idxQueryResult = executeIndexQuery(context, indexQuery, qryOffset, limit);
 
                     offsetEntityVertexMap = getVerticesFromIndexQueryResult(idxQueryResult, offsetEntityVertexMap, qryOffset);
@@ -304,6 +347,10 @@ public class EntitySearchProcessor extends SearchProcessor {
 
             if (marker != null) {
                 nextOffset = resultIdx + 1;
+
+                if (keysetPagination) {
+                    setKeysetMarker(ret, marker, firstOffsetByTimestamp);
+                }
             }
         } finally {
             AtlasPerfTracer.log(perf);
@@ -316,8 +363,8 @@ public class EntitySearchProcessor extends SearchProcessor {
 
     @Override
     public long getResultCount() {
-        if (indexQuery != null) {
-            return indexQuery.vertexTotals();
+        if (countQuery != null) {
+            return countQuery.vertexTotals();
         } else if (graphQuery != null) {
             return StreamSupport.stream(graphQuery.vertexIds().spliterator(), false).count();
         } else {
@@ -343,4 +390,40 @@ public class EntitySearchProcessor extends SearchProcessor {
 
         return offsetEntityVertexMap;
     }
+
+    /*
+     * nextOffset is the offset, in the current query, of the entity following the last returned one. Convert it to a
+     * keyset marker: __timestamp of the last returned entity and the number of query results having this __timestamp
+     * up to the last returned entity, which the next page must skip.
+     *
+     * All results before the current marker offset have the marker's timestamp; for a plain offset marker, the
+     * timestamps of results before the marker offset are unknown, hence the plain offset is retained in such case.
+     */
+    private void setKeysetMarker(List<AtlasVertex> ret, int marker, Map<Long, Integer> firstOffsetByTimestamp) {
+        Long prevTimestamp = context.getMarkerTimestamp();
+
+        nextMarkerTimestamp = prevTimestamp;
+
+        if (nextOffset == MarkerUtil.MARKER_END || ret.isEmpty()) {
+            return;
+        }
+
+        Long    lastTimestamp = ret.get(ret.size() - 1).getProperty(Constants.TIMESTAMP_PROPERTY_KEY, Long.class);
+        Integer firstOffset   = lastTimestamp != null ? firstOffsetByTimestamp.get(lastTimestamp) : null;
+
+        if (firstOffset == null) {
+            return;
+        }
+
+        if (firstOffset == marker && marker > 0) {
+            if (Objects.equals(lastTimestamp, prevTimestamp)) {
+                firstOffset = 0;
+            } else if (prevTimestamp == null) {
+                return;
+            }
+        }
+
+        nextOffset          = nextOffset - firstOffset;
+        nextMarkerTimestamp = lastTimestamp;
+    }
 }
@@ -27,6 +27,7 @@ import static org.apache.atlas.discovery.SearchProcessor.INDEX_SEARCH_PREFIX;
 import static org.apache.atlas.repository.Constants.CLASSIFICATION_NAMES_KEY;
 import static org.apache.atlas.repository.Constants.PROPAGATED_CLASSIFICATION_NAMES_KEY;
 import static org.apache.atlas.repository.Constants.STATE_PROPERTY_KEY;
+import static org.apache.atlas.repository.Constants.TIMESTAMP_PROPERTY_KEY;
 
 public class GraphIndexQueryBuilder {
     SearchContext context;
@@ -86,6 +87,16 @@ public class GraphIndexQueryBuilder {
         }
     }
 
+    void addTimestampAfterQueryFilter(StringBuilder indexQuery, Long lastTimestamp) {
+        if (indexQuery != null && lastTimestamp != null) {
+            if (indexQuery.length() != 0) {
+                indexQuery.append(" AND ");
+            }
+
+            indexQuery.append("(").append(INDEX_SEARCH_PREFIX).append("\"").append(TIMESTAMP_PROPERTY_KEY).append("\"").append(": [").append(lastTimestamp).append(" TO *]").append(")");
+        }
+    }
+
     void addTypeAndSubTypesQueryFilter(StringBuilder indexQuery, String typeAndAllSubTypesQryStr) {
         if (indexQuery != null && StringUtils.isNotEmpty(typeAndAllSubTypesQryStr)) {
             if (indexQuery.length() > 0) {
@@ -0,0 +1,288 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.listener.ChangedTypeDefs;
+import org.apache.atlas.listener.EntityChangeListenerV2;
+import org.apache.atlas.listener.TypeDefChangeListener;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasRelatedObjectId;
+import org.apache.atlas.model.instance.AtlasRelationship;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
+import org.apache.atlas.util.AtlasRepositoryConfiguration;
+import org.apache.atlas.util.InvalidatingCache;
+import org.apache.commons.collections.MapUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache of lineage edges of entities, keyed by entity guid, edge direction and edge label.
+ *
+ * Each entry is indexed by the guids of the entity and of both ends of its edges. Entity and relationship changes
+ * notified via EntityChangeListenerV2 evict entries indexed by the guids of the changed entities and of entities
+ * they refer to; type-def changes evict all entries.
+ */
+@Component
+public class LineageAdjacencyCache implements EntityChangeListenerV2, TypeDefChangeListener {
+    private static final Logger LOG = LoggerFactory.getLogger(LineageAdjacencyCache.class);
+
+    private final boolean                              enabled;
+    private final InvalidatingCache<List<LineageEdge>> cache;
+
+    @Inject
+    public LineageAdjacencyCache() {
+        this(AtlasConfiguration.LINEAGE_ADJACENCY_CACHE_ENABLED.getBoolean() && AtlasRepositoryConfiguration.isV2EntityNotificationEnabled(),
+                AtlasConfiguration.LINEAGE_ADJACENCY_CACHE_MAX_ENTRIES.getInt());
+    }
+
+    LineageAdjacencyCache(boolean enabled, int maxEntries) {
+        this.enabled = enabled && maxEntries > 0;
+        this.cache   = new InvalidatingCache<>("LineageAdjacencyCache", maxEntries);
+
+        LOG.info("LineageAdjacencyCache(enabled={}, maxEntries={})", this.enabled, maxEntries);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return sequence number to pass to put(), which skips caching edges read before an invalidation of the entity
+     * or of entities at the other end of the edges
+     */
+    public long getSequence() {
+        return cache.getSequence();
+    }
+
+    /**
+     * @return edges of the entity in the given direction with the given label; null if not cached
+     */
+    public List<LineageEdge> get(String guid, AtlasEdgeDirection direction, String label) {
+        return enabled ? cache.get(getKey(guid, direction, label)) : null;
+    }
+
+    public void put(String guid, AtlasEdgeDirection direction, String label, List<LineageEdge> edges, long sequence) {
+        if (!enabled) {
+            return;
+        }
+
+        Set<String> guids = new HashSet<>();
+
+        guids.add(guid);
+
+        for (LineageEdge edge : edges) {
+            guids.add(edge.getInGuid());
+            guids.add(edge.getOutGuid());
+        }
+
+        guids.remove(null);
+
+        cache.put(getKey(guid, direction, label), edges, guids, sequence);
+    }
+
+    public void invalidate(Collection<String> guids) {
+        if (enabled) {
+            cache.invalidate(guids);
+        }
+    }
+
+    public void invalidateAll() {
+        if (enabled) {
+            cache.invalidateAll();
+        }
+    }
+
+    public Map<String, Number> getStats() {
+        return cache.getStats();
+    }
+
+    @Override
+    public void onEntitiesAdded(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesUpdated(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesDeleted(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesPurged(List<AtlasEntity> entities) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onClassificationsAdded(AtlasEntity entity, List<AtlasClassification> classifications) {
+    }
+
+    @Override
+    public void onClassificationsAdded(List<AtlasEntity> entities, List<AtlasClassification> classifications) {
+    }
+
+    @Override
+    public void onClassificationsUpdated(AtlasEntity entity, List<AtlasClassification> classifications) {
+    }
+
+    @Override
+    public void onClassificationsDeleted(AtlasEntity entity, List<AtlasClassification> classifications) {
+    }
+
+    @Override
+    public void onClassificationsDeleted(List<AtlasEntity> entities, List<AtlasClassification> classifications) {
+    }
+
+    @Override
+    public void onTermAdded(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) {
+    }
+
+    @Override
+    public void onTermDeleted(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) {
+    }
+
+    @Override
+    public void onRelationshipsAdded(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsUpdated(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsDeleted(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsPurged(List<AtlasRelationship> relationships) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onLabelsAdded(AtlasEntity entity, Set<String> labels) {
+    }
+
+    @Override
+    public void onLabelsDeleted(AtlasEntity entity, Set<String> labels) {
+    }
+
+    @Override
+    public void onBusinessAttributesUpdated(AtlasEntity entity, Map<String, Map<String, Object>> updatedBusinessAttributes) {
+    }
+
+    @Override
+    public void onChange(ChangedTypeDefs changedTypeDefs) {
+        invalidateAll();
+    }
+
+    @Override
+    public void onLoadCompletion() {
+    }
+
+    static String getKey(String guid, AtlasEdgeDirection direction, String label) {
+        return guid + "|" + direction + "|" + label;
+    }
+
+    /**
+     * @return guids of the given entities and of entities referred to in their attributes; lineage edges removed by
+     * an update are found through the index of the cached entries, which includes the guids of both edge ends
+     */
+    static Set<String> getReferencedGuids(List<AtlasEntity> entities) {
+        Set<String> ret = new HashSet<>();
+
+        for (AtlasEntity entity : entities) {
+            ret.add(entity.getGuid());
+
+            addReferencedGuids(entity.getAttributes(), ret);
+            addReferencedGuids(entity.getRelationshipAttributes(), ret);
+        }
+
+        ret.remove(null);
+
+        return ret;
+    }
+
+    private static void addReferencedGuids(Map<String, Object> attributes, Set<String> guids) {
+        if (MapUtils.isNotEmpty(attributes)) {
+            for (Object value : attributes.values()) {
+                addReferencedGuids(value, guids);
+            }
+        }
+    }
+
+    private static void addReferencedGuids(Object value, Set<String> guids) {
+        if (value instanceof AtlasObjectId) {
+            guids.add(((AtlasObjectId) value).getGuid());
+        } else if (value instanceof Map) {
+            Object guid = ((Map<?, ?>) value).get(AtlasObjectId.KEY_GUID);
+
+            if (guid instanceof String) {
+                guids.add((String) guid);
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                addReferencedGuids(element, guids);
+            }
+        }
+    }
+
+    private void onEntitiesChanged(List<AtlasEntity> entities) {
+        if (enabled && entities != null) {
+            cache.invalidateOnCommit(getReferencedGuids(entities));
+        }
+    }
+
+    private void onRelationshipsChanged(List<AtlasRelationship> relationships) {
+        if (enabled && relationships != null) {
+            Set<String> guids = new HashSet<>();
+
+            for (AtlasRelationship relationship : relationships) {
+                if (relationship.getEnd1() != null) {
+                    guids.add(relationship.getEnd1().getGuid());
+                }
+
+                if (relationship.getEnd2() != null) {
+                    guids.add(relationship.getEnd2().getGuid());
+                }
+            }
+
+            guids.remove(null);
+
+            cache.invalidateOnCommit(guids);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
+
+import static org.apache.atlas.repository.Constants.RELATIONSHIP_GUID_PROPERTY_KEY;
+
+/**
+ * Properties of a __Process.inputs/__Process.outputs edge used by lineage traversal, read from the graph once.
+ * Instances are immutable, so that they can be shared by concurrent lineage requests via LineageAdjacencyCache.
+ */
+class LineageEdge {
+    private static final String PROCESS_INPUTS_EDGE = "__Process.inputs";
+
+    private final String  label;
+    private final Object  inVertexId;
+    private final Object  outVertexId;
+    private final String  inGuid;
+    private final String  outGuid;
+    private final String  relationGuid;
+    private final boolean isInputEdge;
+
+    LineageEdge(AtlasEdge edge) {
+        this(edge.getLabel(), edge.getInVertex().getId(), edge.getOutVertex().getId(),
+                AtlasGraphUtilsV2.getIdFromVertex(edge.getInVertex()),
+                AtlasGraphUtilsV2.getIdFromVertex(edge.getOutVertex()),
+                AtlasGraphUtilsV2.getEncodedProperty(edge, RELATIONSHIP_GUID_PROPERTY_KEY, String.class));
+    }
+
+    LineageEdge(String label, Object inVertexId, Object outVertexId, String inGuid, String outGuid, String relationGuid) {
+        this.label        = label;
+        this.inVertexId   = inVertexId;
+        this.outVertexId  = outVertexId;
+        this.inGuid       = inGuid;
+        this.outGuid      = outGuid;
+        this.relationGuid = relationGuid;
+        this.isInputEdge  = PROCESS_INPUTS_EDGE.equalsIgnoreCase(label);
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    Object getInVertexId() {
+        return inVertexId;
+    }
+
+    Object getOutVertexId() {
+        return outVertexId;
+    }
+
+    String getInGuid() {
+        return inGuid;
+    }
+
+    String getOutGuid() {
+        return outGuid;
+    }
+
+    String getRelationGuid() {
+        return relationGuid;
+    }
+
+    boolean isInputEdge() {
+        return isInputEdge;
+    }
+
+    @Override
+    public String toString() {
+        return "LineageEdge{label=" + label + ", outGuid=" + outGuid + ", inGuid=" + inGuid + ", relationGuid=" + relationGuid + "}";
+    }
+}
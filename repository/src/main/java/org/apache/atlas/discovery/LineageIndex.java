@@ -0,0 +1,497 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.AtlasException;
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.ha.HAConfiguration;
+import org.apache.atlas.listener.ActiveStateChangeHandler;
+import org.apache.atlas.listener.EntityChangeListenerV2;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasRelatedObjectId;
+import org.apache.atlas.model.instance.AtlasRelationship;
+import org.apache.atlas.repository.graphdb.AtlasEdge;
+import org.apache.atlas.repository.graphdb.AtlasEdgeDirection;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
+import org.apache.atlas.service.Service;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.atlas.util.AtlasRepositoryConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.apache.atlas.AtlasClient.DATA_SET_SUPER_TYPE;
+import static org.apache.atlas.AtlasClient.PROCESS_SUPER_TYPE;
+import static org.apache.atlas.repository.Constants.ENTITY_TYPE_PROPERTY_KEY;
+import static org.apache.atlas.repository.graphdb.AtlasEdgeDirection.IN;
+import static org.apache.atlas.repository.graphdb.AtlasEdgeDirection.OUT;
+
+/**
+ * In-memory index of all lineage edges - __Process.inputs and __Process.outputs - of the graph, which lets lineage
+ * requests of any depth be traversed without reading edges from the graph.
+ *
+ * The index is built in a background thread once the instance is active, by reading the edges of all Process
+ * entities. It is then kept up to date from EntityChangeListenerV2 notifications: edges of changed DataSet/Process
+ * entities are read again after the transaction commits. Until then, and until the index is built, lookups for
+ * the affected entities return null, so that callers read their edges from the graph.
+ */
+@Component
+@Order(10)
+public class LineageIndex implements Service, ActiveStateChangeHandler, EntityChangeListenerV2 {
+    private static final Logger LOG = LoggerFactory.getLogger(LineageIndex.class);
+
+    private static final String   PROCESS_INPUTS_EDGE  = "__Process.inputs";
+    private static final String   PROCESS_OUTPUTS_EDGE = "__Process.outputs";
+    private static final String[] LINEAGE_EDGE_LABELS  = {PROCESS_INPUTS_EDGE, PROCESS_OUTPUTS_EDGE};
+
+    private final AtlasGraph                     graph;
+    private final AtlasTypeRegistry              typeRegistry;
+    private final Configuration                  configuration;
+    private final boolean                        enabled;
+    private final int                            buildBatchSize;
+    private final Map<String, List<LineageEdge>> processEdges = new HashMap<>(); // edges from process to its inputs/outputs, by process guid
+    private final Map<String, List<LineageEdge>> datasetEdges = new HashMap<>(); // edges from processes to the dataset, by dataset guid
+    private final Map<String, Integer>           staleGuids   = new HashMap<>(); // guids with edge changes not yet read; value is the count of pending refreshes
+    private final ExecutorService                executor;
+    private volatile boolean                     isReady;
+
+    @Inject
+    public LineageIndex(AtlasGraph graph, AtlasTypeRegistry typeRegistry, Configuration configuration) {
+        this(graph, typeRegistry, configuration, AtlasConfiguration.LINEAGE_INDEX_ENABLED.getBoolean() && AtlasRepositoryConfiguration.isV2EntityNotificationEnabled(),
+                AtlasConfiguration.LINEAGE_INDEX_BUILD_BATCH_SIZE.getInt());
+    }
+
+    LineageIndex(AtlasGraph graph, AtlasTypeRegistry typeRegistry, Configuration configuration, boolean enabled, int buildBatchSize) {
+        this.graph          = graph;
+        this.typeRegistry   = typeRegistry;
+        this.configuration  = configuration;
+        this.enabled        = enabled;
+        this.buildBatchSize = Math.max(1, buildBatchSize);
+        this.executor       = enabled ? Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("atlas-lineage-index-%d").build()) : null;
+
+        LOG.info("LineageIndex(enabled={}, buildBatchSize={})", enabled, this.buildBatchSize);
+    }
+
+    public boolean isReady() {
+        return isReady;
+    }
+
+    /**
+     * @return lineage edges of the entity in the given direction with the given label; null if the index is not
+     * ready or the edges of the entity are being updated
+     */
+    public synchronized List<LineageEdge> getEdges(String guid, AtlasEdgeDirection direction, String label) {
+        if (!isReady || staleGuids.containsKey(guid)) {
+            return null;
+        }
+
+        List<LineageEdge> edges = direction == OUT ? processEdges.get(guid) : direction == IN ? datasetEdges.get(guid) : null;
+        List<LineageEdge> ret   = new ArrayList<>();
+
+        if (edges != null) {
+            for (LineageEdge edge : edges) {
+                if (label.equals(edge.getLabel())) {
+                    ret.add(edge);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    public synchronized Map<String, Number> getStats() {
+        Map<String, Number> ret       = new LinkedHashMap<>();
+        int                 edgeCount = 0;
+
+        for (List<LineageEdge> edges : processEdges.values()) {
+            edgeCount += edges.size();
+        }
+
+        ret.put("processes", processEdges.size());
+        ret.put("datasets", datasetEdges.size());
+        ret.put("edges", edgeCount);
+        ret.put("staleEntities", staleGuids.size());
+
+        return ret;
+    }
+
+    @Override
+    public void start() throws AtlasException {
+        if (configuration == null || !HAConfiguration.isHAEnabled(configuration)) {
+            scheduleBuild();
+        } else {
+            LOG.info("LineageIndex.start(): deferring until instance activation");
+        }
+    }
+
+    @Override
+    public void stop() throws AtlasException {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void instanceIsActive() throws AtlasException {
+        LOG.info("==> LineageIndex.instanceIsActive()");
+
+        scheduleBuild();
+
+        LOG.info("<== LineageIndex.instanceIsActive()");
+    }
+
+    @Override
+    public synchronized void instanceIsPassive() throws AtlasException {
+        LOG.info("LineageIndex.instanceIsPassive(): clearing the index");
+
+        isReady = false;
+
+        processEdges.clear();
+        datasetEdges.clear();
+    }
+
+    @Override
+    public int getHandlerOrder() {
+        return HandlerOrder.LINEAGE_INDEX.getOrder();
+    }
+
+    @Override
+    public void onEntitiesAdded(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesUpdated(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesDeleted(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesPurged(List<AtlasEntity> entities) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onClassificationsAdded(AtlasEntity entity, List<AtlasClassification> classifications) {
+    }
+
+    @Override
+    public void onClassificationsAdded(List<AtlasEntity> entities, List<AtlasClassification> classifications) {
+    }
+
+    @Override
+    public void onClassificationsUpdated(AtlasEntity entity, List<AtlasClassification> classifications) {
+    }
+
+    @Override
+    public void onClassificationsDeleted(AtlasEntity entity, List<AtlasClassification> classifications) {
+    }
+
+    @Override
+    public void onClassificationsDeleted(List<AtlasEntity> entities, List<AtlasClassification> classifications) {
+    }
+
+    @Override
+    public void onTermAdded(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) {
+    }
+
+    @Override
+    public void onTermDeleted(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) {
+    }
+
+    @Override
+    public void onRelationshipsAdded(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsUpdated(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsDeleted(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsPurged(List<AtlasRelationship> relationships) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onLabelsAdded(AtlasEntity entity, Set<String> labels) {
+    }
+
+    @Override
+    public void onLabelsDeleted(AtlasEntity entity, Set<String> labels) {
+    }
+
+    @Override
+    public void onBusinessAttributesUpdated(AtlasEntity entity, Map<String, Map<String, Object>> updatedBusinessAttributes) {
+    }
+
+    /**
+     * Replaces the edges of the given process in the index.
+     */
+    synchronized void setProcessEdges(String processGuid, List<LineageEdge> edges) {
+        List<LineageEdge> oldEdges = processEdges.remove(processGuid);
+
+        if (oldEdges != null) {
+            for (LineageEdge oldEdge : oldEdges) {
+                List<LineageEdge> datasetEdgeList = datasetEdges.get(oldEdge.getInGuid());
+
+                if (datasetEdgeList != null) {
+                    datasetEdgeList.remove(oldEdge);
+
+                    if (datasetEdgeList.isEmpty()) {
+                        datasetEdges.remove(oldEdge.getInGuid());
+                    }
+                }
+            }
+        }
+
+        if (!edges.isEmpty()) {
+            processEdges.put(processGuid, edges);
+
+            for (LineageEdge edge : edges) {
+                datasetEdges.computeIfAbsent(edge.getInGuid(), k -> new ArrayList<>()).add(edge);
+            }
+        }
+    }
+
+    synchronized void setReady(boolean isReady) {
+        this.isReady = isReady;
+    }
+
+    /**
+     * @return the given guids, and guids of entities connected to them by lineage edges in the index; edges of all
+     * of these may change when the given entities change
+     */
+    synchronized Set<String> getAffectedGuids(Set<String> guids) {
+        Set<String> ret = new HashSet<>(guids);
+
+        for (String guid : guids) {
+            for (LineageEdge edge : processEdges.getOrDefault(guid, Collections.emptyList())) {
+                ret.add(edge.getInGuid());
+            }
+
+            for (LineageEdge edge : datasetEdges.getOrDefault(guid, Collections.emptyList())) {
+                ret.add(edge.getOutGuid());
+            }
+        }
+
+        return ret;
+    }
+
+    synchronized void markStale(Set<String> guids) {
+        for (String guid : guids) {
+            staleGuids.merge(guid, 1, Integer::sum);
+        }
+    }
+
+    synchronized void clearStale(Set<String> guids) {
+        for (String guid : guids) {
+            staleGuids.computeIfPresent(guid, (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void scheduleBuild() {
+        if (enabled) {
+            executor.submit(this::build);
+        }
+    }
+
+    private void build() {
+        LOG.info("==> LineageIndex.build()");
+
+        long            startTime    = System.currentTimeMillis();
+        AtlasEntityType processType  = typeRegistry.getEntityTypeByName(PROCESS_SUPER_TYPE);
+        int             processCount = 0;
+
+        setReady(false);
+
+        try {
+            synchronized (this) {
+                processEdges.clear();
+                datasetEdges.clear();
+            }
+
+            for (String typeName : processType != null ? processType.getTypeAndAllSubTypes() : Collections.<String>emptySet()) {
+                List<Object> vertexIds = new ArrayList<>();
+
+                for (Object vertexId : graph.query().has(ENTITY_TYPE_PROPERTY_KEY, typeName).vertexIds()) {
+                    vertexIds.add(vertexId);
+                }
+
+                for (Object vertexId : vertexIds) {
+                    AtlasVertex vertex = graph.getVertex(vertexId.toString());
+
+                    if (vertex != null) {
+                        setProcessEdges(AtlasGraphUtilsV2.getIdFromVertex(vertex), readProcessEdges(vertex));
+                    }
+
+                    if (++processCount % buildBatchSize == 0) {
+                        graph.rollback(); // release vertices read so far
+
+                        LOG.info("LineageIndex.build(): read edges of {} processes", processCount);
+                    }
+                }
+            }
+
+            setReady(true);
+
+            LOG.info("<== LineageIndex.build(): read edges of {} processes in {} ms: {}", processCount, System.currentTimeMillis() - startTime, getStats());
+        } catch (Throwable t) {
+            LOG.error("LineageIndex.build(): failed; lineage requests will read edges from the graph", t);
+        } finally {
+            graph.rollback();
+
+            GraphTransactionInterceptor.clearCache();
+            RequestContext.clear();
+        }
+    }
+
+    private void refresh(Set<String> guids) {
+        try {
+            Set<String> processGuids = new HashSet<>(guids);
+
+            for (String guid : guids) {
+                AtlasVertex vertex = AtlasGraphUtilsV2.findByGuid(graph, guid);
+
+                if (vertex != null) {
+                    for (AtlasEdge edge : (Iterable<AtlasEdge>) vertex.getEdges(IN, LINEAGE_EDGE_LABELS)) {
+                        processGuids.add(AtlasGraphUtilsV2.getIdFromVertex(edge.getOutVertex()));
+                    }
+                }
+            }
+
+            for (String processGuid : processGuids) {
+                AtlasVertex vertex = AtlasGraphUtilsV2.findByGuid(graph, processGuid);
+
+                setProcessEdges(processGuid, vertex != null ? readProcessEdges(vertex) : Collections.emptyList());
+            }
+        } catch (Throwable t) {
+            LOG.error("LineageIndex.refresh(): failed to read lineage edges of {}; rebuilding the index", guids, t);
+
+            scheduleBuild();
+        } finally {
+            graph.rollback();
+
+            GraphTransactionInterceptor.clearCache();
+            RequestContext.clear();
+
+            clearStale(guids);
+        }
+    }
+
+    private List<LineageEdge> readProcessEdges(AtlasVertex processVertex) {
+        List<LineageEdge> ret = new ArrayList<>();
+
+        for (AtlasEdge edge : (Iterable<AtlasEdge>) processVertex.getEdges(OUT, LINEAGE_EDGE_LABELS)) {
+            ret.add(new LineageEdge(edge));
+        }
+
+        return ret;
+    }
+
+    private void onEntitiesChanged(List<AtlasEntity> entities) {
+        if (enabled && entities != null) {
+            List<AtlasEntity> lineageEntities = new ArrayList<>();
+
+            for (AtlasEntity entity : entities) {
+                AtlasEntityType entityType = typeRegistry.getEntityTypeByName(entity.getTypeName());
+
+                if (entityType != null && (entityType.getTypeAndAllSuperTypes().contains(PROCESS_SUPER_TYPE) || entityType.getTypeAndAllSuperTypes().contains(DATA_SET_SUPER_TYPE))) {
+                    lineageEntities.add(entity);
+                }
+            }
+
+            if (!lineageEntities.isEmpty()) {
+                refreshOnCommit(LineageAdjacencyCache.getReferencedGuids(lineageEntities));
+            }
+        }
+    }
+
+    private void onRelationshipsChanged(List<AtlasRelationship> relationships) {
+        if (enabled && relationships != null) {
+            Set<String> guids = new HashSet<>();
+
+            for (AtlasRelationship relationship : relationships) {
+                if (relationship.getLabel() != null && !PROCESS_INPUTS_EDGE.equals(relationship.getLabel()) && !PROCESS_OUTPUTS_EDGE.equals(relationship.getLabel())) {
+                    continue;
+                }
+
+                if (relationship.getEnd1() != null) {
+                    guids.add(relationship.getEnd1().getGuid());
+                }
+
+                if (relationship.getEnd2() != null) {
+                    guids.add(relationship.getEnd2().getGuid());
+                }
+            }
+
+            guids.remove(null);
+
+            if (!guids.isEmpty()) {
+                refreshOnCommit(guids);
+            }
+        }
+    }
+
+    // mark the entities as stale now, and read their edges once the transaction completes
+    private void refreshOnCommit(Set<String> guids) {
+        Set<String> affectedGuids = getAffectedGuids(guids);
+
+        markStale(affectedGuids);
+
+        new GraphTransactionInterceptor.PostTransactionHook() {
+            @Override
+            public void onComplete(boolean isSuccess) {
+                executor.submit(() -> refresh(affectedGuids));
+            }
+        };
+    }
+}
@@ -96,7 +96,9 @@ public class SearchContext {
     private       boolean                      terminateSearch;
     private       SearchProcessor              searchProcessor;
     private       Integer                      marker;
+    private       Long                         markerTimestamp;
     private       boolean                      hasRelationshipAttributes;
+    private       long                         fetchedVertexCount;
 
     public SearchContext(SearchParameters searchParameters, AtlasTypeRegistry typeRegistry, AtlasGraph graph, Set<String> indexedKeys) throws AtlasBaseException {
         this.searchParameters    = searchParameters;
@@ -152,7 +154,8 @@ public class SearchContext {
         }
 
         if (StringUtils.isNotEmpty(searchParameters.getMarker())) {
-            marker = MarkerUtil.decodeMarker(searchParameters);
+            marker          = MarkerUtil.decodeMarker(searchParameters);
+            markerTimestamp = MarkerUtil.decodeMarkerTimestamp(searchParameters);
         }
 
         //remove other types if builtin type is present
@@ -312,6 +315,10 @@ public class SearchContext {
         return marker;
     }
 
+    public Long getMarkerTimestamp() {
+        return markerTimestamp;
+    }
+
     public Set<AtlasRelationshipType> getRelationshipTypes() {
         return relationshipTypes;
     }
@@ -342,6 +349,18 @@ public class SearchContext {
         this.terminateSearch = terminateSearch;
     }
 
+    public void incrementFetchedVertexCount() {
+        fetchedVertexCount++;
+    }
+
+    /**
+     * @return number of vertices fetched from index and graph queries to evaluate the search; vertices fetched in
+     *         excess of the returned results were dropped by in-memory filtering or skipped for offset
+     */
+    public long getFetchedVertexCount() {
+        return fetchedVertexCount;
+    }
+
     public StringBuilder toString(StringBuilder sb) {
         if (sb == null) {
             sb = new StringBuilder();
@@ -662,9 +681,18 @@ public class SearchContext {
 
         private static final int    IDX_HASH_CODE    = 0;
         private static final int    IDX_OFFSET       = 1;
+        private static final int    IDX_TIMESTAMP    = 2;
         private static final String MARKER_DELIMITER = ":";
 
         public static String getNextEncMarker(SearchParameters searchParameters, Integer nextOffset) {
+            return getNextEncMarker(searchParameters, nextOffset, null);
+        }
+
+        /**
+         * @param nextOffset    offset of the next result; for keyset markers, offset among results having the given timestamp
+         * @param lastTimestamp __timestamp of the last returned entity, for keyset markers; null for offset markers
+         */
+        public static String getNextEncMarker(SearchParameters searchParameters, Integer nextOffset, Long lastTimestamp) {
             if (nextOffset == null) {
                 return null;
             }
@@ -675,10 +703,29 @@ public class SearchContext {
 
             String value = searchParameters.hashCode() + MARKER_DELIMITER + nextOffset;
 
+            if (lastTimestamp != null) {
+                value += MARKER_DELIMITER + lastTimestamp;
+            }
+
             return Base64.getEncoder().encodeToString(value.getBytes());
         }
 
         public static Integer decodeMarker(SearchParameters searchParameters) throws AtlasBaseException {
+            String[] str = decodeMarkerParts(searchParameters);
+
+            return str == null ? 0 : Integer.parseInt(str[IDX_OFFSET]);
+        }
+
+        /**
+         * @return __timestamp of the last entity returned in the previous page, if the marker is a keyset marker; otherwise null
+         */
+        public static Long decodeMarkerTimestamp(SearchParameters searchParameters) throws AtlasBaseException {
+            String[] str = decodeMarkerParts(searchParameters);
+
+            return (str == null || str.length <= IDX_TIMESTAMP) ? null : Long.parseLong(str[IDX_TIMESTAMP]);
+        }
+
+        private static String[] decodeMarkerParts(SearchParameters searchParameters) throws AtlasBaseException {
             if (searchParameters == null || searchParameters.getOffset() > 0) {
                 throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "Marker can be used only if offset=0.");
             }
@@ -686,7 +733,7 @@ public class SearchContext {
             String encodedMarker = searchParameters.getMarker();
 
             if (StringUtils.equals(encodedMarker, MARKER_START)) {
-                return 0;
+                return null;
             }
 
             try {
@@ -699,15 +746,19 @@ public class SearchContext {
 
                 String[] str = inputMarker.split(MARKER_DELIMITER);
 
-                if (str.length != 2) {
+                if (str.length != 2 && str.length != 3) {
                     throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "Invalid marker found! Decoding using delimiter did not yield correct result!");
                 }
 
                 int hashCode        = Integer.parseInt(str[IDX_HASH_CODE]);
                 int currentHashCode = searchParameters.hashCode();
 
+                if (str.length > IDX_TIMESTAMP) {
+                    Long.parseLong(str[IDX_TIMESTAMP]);
+                }
+
                 if (hashCode == currentHashCode && Integer.parseInt(str[IDX_OFFSET]) >= 0) {
-                    return Integer.parseInt(str[IDX_OFFSET]);
+                    return str;
                 }
 
                 throw new AtlasBaseException(AtlasErrorCode.BAD_REQUEST, "Invalid Marker! Parsing resulted in error.");
@@ -132,6 +132,7 @@ public abstract class SearchProcessor {
     protected       Predicate              inMemoryPredicate;
     protected       GraphIndexQueryBuilder graphIndexQueryBuilder;
     protected       Integer                nextOffset;
+    protected       Long                   nextMarkerTimestamp;
 
     protected SearchProcessor(SearchContext context) {
         this.context                = context;
@@ -172,6 +173,10 @@ public abstract class SearchProcessor {
     }
 
     public String getNextMarker() {
+        if (nextMarkerTimestamp != null) {
+            return SearchContext.MarkerUtil.getNextEncMarker(context.getSearchParameters(), nextOffset, nextMarkerTimestamp);
+        }
+
         return SearchContext.MarkerUtil.getNextEncMarker(context.getSearchParameters(), nextOffset);
     }
 
@@ -589,6 +594,52 @@ public abstract class SearchProcessor {
         }
     }
 
+    //
+    // Returns the part of filterCriteria that can be used in index query when canApplyIndexFilter() is false, i.e.
+    // when OR conditions have non-indexed attributes. Such OR conditions are dropped, while criteria in AND
+    // conditions are retained as each of them only narrows down the results. Examples:
+    //    (AND idx-attr1=x (OR idx-attr2=y non-idx-attr=z))  ==> (AND idx-attr1=x)
+    //    (OR idx-attr1=x non-idx-attr=z)                    ==> null
+    //
+    // Index query built with the returned criteria returns a superset of the results, so the complete
+    // filterCriteria must still be evaluated by graph query or in-memory.
+    //
+    protected FilterCriteria getIndexFilterCriteria(Set<? extends AtlasStructType> structTypes, FilterCriteria filterCriteria) {
+        if (filterCriteria == null) {
+            return null;
+        }
+
+        Condition            filterCondition = filterCriteria.getCondition();
+        List<FilterCriteria> criterion       = filterCriteria.getCriterion();
+
+        if (filterCondition == null || CollectionUtils.isEmpty(criterion)) {
+            return filterCriteria; // non-indexed attributes are skipped while building index query
+        } else if (filterCondition == Condition.OR) {
+            return canApplyIndexFilter(structTypes, filterCriteria, true) ? filterCriteria : null;
+        }
+
+        List<FilterCriteria> indexCriterion = new ArrayList<>();
+
+        for (FilterCriteria criteria : criterion) {
+            FilterCriteria indexCriteria = getIndexFilterCriteria(structTypes, criteria);
+
+            if (indexCriteria != null) {
+                indexCriterion.add(indexCriteria);
+            }
+        }
+
+        if (indexCriterion.isEmpty()) {
+            return null;
+        }
+
+        FilterCriteria ret = new FilterCriteria();
+
+        ret.setCondition(Condition.AND);
+        ret.setCriterion(indexCriterion);
+
+        return ret;
+    }
+
     protected Predicate constructInMemoryPredicate(Set<? extends AtlasStructType> structTypes, FilterCriteria filterCriteria, Set<String> indexAttributes) {
         Predicate ret = null;
 
@@ -764,6 +815,7 @@ public abstract class SearchProcessor {
                 AtlasVertex vertex = idxQueryResult.next().getVertex();
 
                 vertices.add(vertex);
+                context.incrementFetchedVertexCount();
             }
         }
 
@@ -776,6 +828,7 @@ public abstract class SearchProcessor {
                 AtlasVertex vertex = idxQueryResult.next().getVertex();
 
                 offsetEntityVertexMap.put(qryOffset++, vertex);
+                context.incrementFetchedVertexCount();
             }
         }
 
@@ -800,6 +853,7 @@ public abstract class SearchProcessor {
                 AtlasVertex vertex = iterator.next();
 
                 vertices.add(vertex);
+                context.incrementFetchedVertexCount();
             }
         }
 
@@ -812,6 +866,7 @@ public abstract class SearchProcessor {
                 AtlasVertex vertex = iterator.next();
 
                 offsetEntityVertexMap.put(qryOffset++, vertex);
+                context.incrementFetchedVertexCount();
             }
         }
 
@@ -861,10 +916,13 @@ public abstract class SearchProcessor {
 
         if (ret) { // index exists
             // for string type attributes, don't use index query in the following cases:
-            //   - operation is NEQ, as it might return fewer entries due to tokenization of vertex property value
+            //   - operation is NEQ, as it might return fewer entries due to tokenization of vertex property value;
+            //     STRING (untokenized) attributes are compared as a whole, hence index query can be used for NEQ
             //   - value-to-compare has special characters
             if (AtlasBaseTypeDef.ATLAS_TYPE_STRING.equals(typeName)) {
-                if (operator == SearchParameters.Operator.NEQ || operator == SearchParameters.Operator.NOT_CONTAINS) {
+                boolean isUntokenized = indexType == AtlasStructDef.AtlasAttributeDef.IndexType.STRING && !isPipeSeparatedSystemAttribute(attributeName);
+
+                if ((operator == SearchParameters.Operator.NEQ && !isUntokenized) || operator == SearchParameters.Operator.NOT_CONTAINS) {
                     LOG.debug("{} operator found for string attribute {}, deferring to in-memory or graph query (might cause poor performance)", operator, qualifiedName);
 
                     ret = false;
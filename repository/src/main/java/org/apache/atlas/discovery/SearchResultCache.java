@@ -0,0 +1,324 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.listener.ChangedTypeDefs;
+import org.apache.atlas.listener.EntityChangeListenerV2;
+import org.apache.atlas.listener.TypeDefChangeListener;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.glossary.AtlasGlossaryTerm;
+import org.apache.atlas.model.instance.AtlasClassification;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.model.instance.AtlasRelatedObjectId;
+import org.apache.atlas.model.instance.AtlasRelationship;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.util.AtlasRepositoryConfiguration;
+import org.apache.atlas.util.InvalidatingCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Cache of basic/quick search results, keyed by search parameters and the user and groups the results were
+ * authorized for.
+ *
+ * Each entry records the entity types it depends on: the types searched for and types of entities in the result.
+ * Entity changes notified via EntityChangeListenerV2 evict entries that depend on the type of the changed entity;
+ * type-def changes evict all entries. Entries also expire after a TTL, which bounds staleness due to changes
+ * not notified to listeners, like updates to authorization policies.
+ */
+@Component
+public class SearchResultCache implements EntityChangeListenerV2, TypeDefChangeListener {
+    private static final Logger LOG = LoggerFactory.getLogger(SearchResultCache.class);
+
+    private static final String ALL_TYPES = InvalidatingCache.ANY_TAG;
+
+    private final boolean                   enabled;
+    private final InvalidatingCache<byte[]> cache;
+
+    @Inject
+    public SearchResultCache() {
+        this(AtlasConfiguration.SEARCH_RESULT_CACHE_ENABLED.getBoolean() && AtlasRepositoryConfiguration.isV2EntityNotificationEnabled(),
+                AtlasConfiguration.SEARCH_RESULT_CACHE_TTL_MS.getLong(),
+                AtlasConfiguration.SEARCH_RESULT_CACHE_MAX_ENTRIES.getInt(),
+                AtlasConfiguration.SEARCH_RESULT_CACHE_MAX_BYTES.getLong());
+    }
+
+    SearchResultCache(boolean enabled, long ttlMs, int maxEntries, long maxBytes) {
+        this.enabled = enabled && ttlMs > 0 && maxEntries > 0 && maxBytes > 0;
+        this.cache   = new InvalidatingCache<>("SearchResultCache", maxEntries, maxBytes, value -> value.length, ttlMs);
+
+        LOG.info("SearchResultCache(enabled={}, ttlMs={}, maxEntries={}, maxBytes={})", this.enabled, ttlMs, maxEntries, maxBytes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return cache key for the search, or null if results of the search should not be cached
+     */
+    public String getCacheKey(SearchContext searchContext) {
+        if (!enabled) {
+            return null;
+        }
+
+        for (AtlasEntityType entityType : searchContext.getEntityTypes()) {
+            if (entityType.isInternalType()) { // changes to internal entities are not notified to listeners
+                return null;
+            }
+        }
+
+        RequestContext   requestContext   = RequestContext.get();
+        SearchParameters searchParameters = searchContext.getSearchParameters();
+        Set<String>      userGroups       = requestContext.getUserGroups();
+
+        return requestContext.getUser() + "|" + (userGroups != null ? new TreeSet<>(userGroups) : "") + "|" + AtlasType.toJson(searchParameters);
+    }
+
+    /**
+     * @return sequence number to pass to put(), which skips caching results if entities they depend on changed since
+     */
+    public long getSequence() {
+        return cache.getSequence();
+    }
+
+    public AtlasSearchResult get(String key) {
+        byte[] value = cache.get(key);
+
+        // a new instance for each call, as callers can update the result
+        return value != null ? AtlasType.fromJson(new String(value, StandardCharsets.UTF_8), AtlasSearchResult.class) : null;
+    }
+
+    public void put(String key, AtlasSearchResult result, Set<String> dependentTypes, long sequence) {
+        cache.put(key, AtlasType.toJson(result).getBytes(StandardCharsets.UTF_8), dependentTypes, sequence);
+    }
+
+    public void invalidate(Collection<String> typeNames) {
+        if (enabled) {
+            cache.invalidate(typeNames);
+        }
+    }
+
+    public void invalidateAll() {
+        if (enabled) {
+            cache.invalidateAll();
+        }
+    }
+
+    public Map<String, Number> getStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * @return types of entities the search results depend on; ALL_TYPES if the search is not restricted to specific entity types
+     */
+    public static Set<String> getDependentTypes(SearchContext searchContext, AtlasSearchResult result) {
+        Set<String> ret = new HashSet<>();
+
+        if (searchContext.getEntityTypes().isEmpty() || searchContext.getEntityTypes().contains(SearchContext.MATCH_ALL_ENTITY_TYPES)) {
+            ret.add(ALL_TYPES);
+        } else {
+            for (AtlasEntityType entityType : searchContext.getEntityTypes()) {
+                ret.add(entityType.getTypeName());
+            }
+
+            ret.addAll(searchContext.getEntityTypeNames());
+        }
+
+        if (result.getEntities() != null) {
+            for (AtlasEntityHeader header : result.getEntities()) {
+                ret.add(header.getTypeName());
+            }
+        }
+
+        if (result.getReferredEntities() != null) {
+            for (AtlasEntityHeader header : result.getReferredEntities().values()) {
+                ret.add(header.getTypeName());
+            }
+        }
+
+        ret.remove(null);
+
+        return ret;
+    }
+
+    @Override
+    public void onEntitiesAdded(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesUpdated(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesDeleted(List<AtlasEntity> entities, boolean isImport) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onEntitiesPurged(List<AtlasEntity> entities) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onClassificationsAdded(AtlasEntity entity, List<AtlasClassification> classifications) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onClassificationsAdded(List<AtlasEntity> entities, List<AtlasClassification> classifications) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onClassificationsUpdated(AtlasEntity entity, List<AtlasClassification> classifications) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onClassificationsDeleted(AtlasEntity entity, List<AtlasClassification> classifications) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onClassificationsDeleted(List<AtlasEntity> entities, List<AtlasClassification> classifications) {
+        onEntitiesChanged(entities);
+    }
+
+    @Override
+    public void onTermAdded(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) {
+        onObjectsChanged(entities);
+    }
+
+    @Override
+    public void onTermDeleted(AtlasGlossaryTerm term, List<AtlasRelatedObjectId> entities) {
+        onObjectsChanged(entities);
+    }
+
+    @Override
+    public void onRelationshipsAdded(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsUpdated(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsDeleted(List<AtlasRelationship> relationships, boolean isImport) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onRelationshipsPurged(List<AtlasRelationship> relationships) {
+        onRelationshipsChanged(relationships);
+    }
+
+    @Override
+    public void onLabelsAdded(AtlasEntity entity, Set<String> labels) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onLabelsDeleted(AtlasEntity entity, Set<String> labels) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onBusinessAttributesUpdated(AtlasEntity entity, Map<String, Map<String, Object>> updatedBusinessAttributes) {
+        onEntitiesChanged(Collections.singletonList(entity));
+    }
+
+    @Override
+    public void onChange(ChangedTypeDefs changedTypeDefs) {
+        invalidateAll();
+    }
+
+    @Override
+    public void onLoadCompletion() {
+    }
+
+    private void onEntitiesChanged(List<AtlasEntity> entities) {
+        if (enabled && entities != null) {
+            Set<String> typeNames = new HashSet<>();
+
+            for (AtlasEntity entity : entities) {
+                typeNames.add(entity.getTypeName());
+            }
+
+            invalidateOnCommit(typeNames);
+        }
+    }
+
+    private void onObjectsChanged(List<? extends AtlasObjectId> objectIds) {
+        if (enabled && objectIds != null) {
+            Set<String> typeNames = new HashSet<>();
+
+            for (AtlasObjectId objectId : objectIds) {
+                typeNames.add(objectId.getTypeName());
+            }
+
+            invalidateOnCommit(typeNames);
+        }
+    }
+
+    private void onRelationshipsChanged(List<AtlasRelationship> relationships) {
+        if (enabled && relationships != null) {
+            Set<String> typeNames = new HashSet<>();
+
+            for (AtlasRelationship relationship : relationships) {
+                if (relationship.getEnd1() != null) {
+                    typeNames.add(relationship.getEnd1().getTypeName());
+                }
+
+                if (relationship.getEnd2() != null) {
+                    typeNames.add(relationship.getEnd2().getTypeName());
+                }
+            }
+
+            invalidateOnCommit(typeNames);
+        }
+    }
+
+    private void invalidateOnCommit(Set<String> typeNames) {
+        typeNames.remove(null);
+
+        cache.invalidateOnCommit(typeNames);
+    }
+}
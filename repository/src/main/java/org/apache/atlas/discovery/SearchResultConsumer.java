@@ -0,0 +1,31 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+/**
+ * Receives search results one record at a time, as they are retrieved, instead of as a fully built AtlasSearchResult.
+ */
+@FunctionalInterface
+public interface SearchResultConsumer {
+    /**
+     * @param record AtlasEntityHeader of a matching entity; for DSL queries with a select clause, a map of the selected
+     *               column names to their values
+     * @return false to stop the search, for example when the client is no longer reading the results
+     */
+    boolean accept(Object record);
+}
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.query;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A DSL query with its string literals replaced by placeholders. Queries that differ only in the values of
+ * string literals, like "hive_table where name = 't1'" and "hive_table where name = 't2'", have the same shape.
+ *
+ * Literals in single or double quotes are treated as parameters; back-quoted strings are identifiers and are
+ * retained in the shape. Literals "true", "false", empty strings and strings containing quotes are retained as well,
+ * since they are translated differently than other strings.
+ */
+public class DSLQueryShape {
+    public static final String PLACEHOLDER = "?";
+
+    private static final char   SINGLE_QUOTE = '\'';
+    private static final char   DOUBLE_QUOTE = '"';
+    private static final char   BACK_QUOTE   = '`';
+    private static final char[] QUOTES       = new char[] {SINGLE_QUOTE, DOUBLE_QUOTE, BACK_QUOTE};
+
+    private final String       query;
+    private final List<String> segments;   // query text around the parameters; size is parameters.size() + 1
+    private final List<String> parameters; // literals, including their quotes
+    private final String       shape;
+
+    private DSLQueryShape(String query, List<String> segments, List<String> parameters) {
+        this.query      = query;
+        this.segments   = segments;
+        this.parameters = parameters;
+        this.shape      = parameters.isEmpty() ? query : toQuery(getPlaceholders());
+    }
+
+    public static DSLQueryShape of(String query) {
+        List<String> segments   = new ArrayList<>();
+        List<String> parameters = new ArrayList<>();
+        int          segStart   = 0;
+
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+
+            if (c != SINGLE_QUOTE && c != DOUBLE_QUOTE && c != BACK_QUOTE) {
+                continue;
+            }
+
+            int end = query.indexOf(c, i + 1);
+
+            if (end == -1) { // unterminated string; leave it to the parser to report
+                return new DSLQueryShape(query, Collections.singletonList(query), Collections.emptyList());
+            }
+
+            String literal = query.substring(i, end + 1);
+
+            if (c != BACK_QUOTE && isParameter(literal)) {
+                segments.add(query.substring(segStart, i));
+                parameters.add(literal);
+
+                segStart = end + 1;
+            }
+
+            i = end;
+        }
+
+        segments.add(query.substring(segStart));
+
+        return new DSLQueryShape(query, segments, parameters);
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public boolean hasParameters() {
+        return !parameters.isEmpty();
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @param values literals, including quotes, to replace the parameters with
+     * @return the query with its parameters replaced by the given values
+     */
+    public String toQuery(List<String> values) {
+        StringBuilder sb = new StringBuilder(query.length());
+
+        for (int i = 0; i < parameters.size(); i++) {
+            sb.append(segments.get(i)).append(values.get(i));
+        }
+
+        return sb.append(segments.get(parameters.size())).toString();
+    }
+
+    private List<String> getPlaceholders() {
+        List<String> ret = new ArrayList<>(parameters.size());
+
+        for (String parameter : parameters) {
+            char quote = parameter.charAt(0);
+
+            ret.add(quote + PLACEHOLDER + quote);
+        }
+
+        return ret;
+    }
+
+    private static boolean isParameter(String literal) {
+        String value = literal.substring(1, literal.length() - 1);
+
+        return !value.isEmpty() && !IdentifierHelper.isTrueOrFalse(value) && StringUtils.containsNone(value, QUOTES);
+    }
+}
@@ -0,0 +1,287 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.query;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Translated form of a DSL query, that can be shared by concurrent executions of the query.
+ *
+ * A parameterized plan is translated from the shape of a query, with its literals replaced by sentinel values.
+ * Executing a query having the same shape only requires replacing the sentinels in the clauses with the literals
+ * of the query - without parsing and translating the query again.
+ *
+ * GremlinQueryComposer transforms literals of non-string attributes (dates, numbers, enums), and literals in
+ * "like" and "in" clauses; such literals can't be bound by simple replacement. Hence a parameterized plan is
+ * created only if every sentinel is found as-is in the translated clauses, and if binding the literals of the
+ * query being translated results in the same clauses as translating the query.
+ */
+public class GremlinQueryPlan {
+    private static final String                      SENTINEL_PREFIX      = "__atlas_dsl_param_";
+    private static final String                      SENTINEL_SUFFIX      = "__";
+    private static final String                      OPERATOR_WITHIN      = "within";
+    private static final Map<GremlinClause, Integer> BINDABLE_VALUE_INDEX = new EnumMap<>(GremlinClause.class);
+
+    static {
+        // index of the value that holds the literal, in clauses that use the literal as-is
+        BINDABLE_VALUE_INDEX.put(GremlinClause.HAS_OPERATOR, 2);
+        BINDABLE_VALUE_INDEX.put(GremlinClause.HAS_NOT_OPERATOR, 1);
+        BINDABLE_VALUE_INDEX.put(GremlinClause.TERM, 1);
+    }
+
+    private final GremlinQuery template;
+    private final List<String> sentinels; // without quotes; empty for a plan that is not parameterized
+
+    private GremlinQueryPlan(GremlinQuery template, List<String> sentinels) {
+        this.template  = template;
+        this.sentinels = sentinels;
+    }
+
+    /**
+     * @return plan for the given query, that can only be used to execute the same query
+     */
+    public static GremlinQueryPlan of(GremlinQuery query) {
+        return new GremlinQueryPlan(query, Collections.emptyList());
+    }
+
+    /**
+     * @param shape  shape of the query
+     * @param probe  translation of the query returned by getProbeQuery()
+     * @param actual translation of the query
+     * @return parameterized plan for the shape of the query; null if literals of the query can't be bound to the probe
+     */
+    public static GremlinQueryPlan create(DSLQueryShape shape, GremlinQuery probe, GremlinQuery actual) {
+        List<String> sentinels = getSentinels(shape.getParameters().size());
+
+        if (!containsOnlyBindableSentinels(probe.getClauses(), sentinels) || containsSentinel(probe.getSelectComposer())) {
+            return null;
+        }
+
+        GremlinQueryPlan ret   = new GremlinQueryPlan(probe, sentinels);
+        GremlinQuery     bound = ret.bind(shape.getParameters());
+
+        return isSame(bound.getClauses(), actual.getClauses()) && StringUtils.equals(bound.queryStr(), actual.queryStr()) ? ret : null;
+    }
+
+    /**
+     * @return the query to translate for a parameterized plan - with literals replaced by sentinels
+     */
+    public static String getProbeQuery(DSLQueryShape shape) {
+        List<String> parameters = shape.getParameters();
+        List<String> sentinels  = getSentinels(parameters.size());
+        List<String> values     = new ArrayList<>(parameters.size());
+
+        for (int i = 0; i < parameters.size(); i++) {
+            char quote = parameters.get(i).charAt(0);
+
+            values.add(quote + sentinels.get(i) + quote);
+        }
+
+        return shape.toQuery(values);
+    }
+
+    public boolean isParameterized() {
+        return !sentinels.isEmpty();
+    }
+
+    /**
+     * @param parameters literals, including quotes, in the order they appear in the query
+     * @return a new GremlinQuery instance, with the literals bound to the plan
+     */
+    public GremlinQuery bind(List<String> parameters) {
+        if (!isParameterized()) {
+            return new GremlinQuery(template.queryStr(), template.getQueryMetadata(), template.getClauses(), template.getSelectComposer());
+        }
+
+        String[] search  = new String[sentinels.size()];
+        String[] replace = new String[sentinels.size()];
+
+        for (int i = 0; i < sentinels.size(); i++) {
+            String parameter = parameters.get(i);
+
+            search[i]  = sentinels.get(i);
+            replace[i] = parameter.substring(1, parameter.length() - 1);
+        }
+
+        return new GremlinQuery(StringUtils.replaceEach(template.queryStr(), search, replace), template.getQueryMetadata(), bind(template.getClauses(), search, replace), template.getSelectComposer());
+    }
+
+    private static GremlinClauseList bind(GremlinClauseList clauses, String[] search, String[] replace) {
+        GremlinClauseList ret = new GremlinClauseList();
+
+        for (int i = 0; i <= clauses.size(); i++) {
+            if (clauses.hasSubClause(i)) {
+                for (GremlinClauseList subClauses : clauses.getSubClauses(i)) {
+                    ret.addSubClauses(i, bind(subClauses, search, replace));
+                }
+            }
+
+            if (i < clauses.size()) {
+                ret.add(bind(clauses.get(i), search, replace));
+            }
+        }
+
+        return ret;
+    }
+
+    private static GremlinQueryComposer.GremlinClauseValue bind(GremlinQueryComposer.GremlinClauseValue clauseValue, String[] search, String[] replace) {
+        String[] values = clauseValue.getValues();
+        String[] bound  = new String[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            bound[i] = StringUtils.replaceEach(values[i], search, replace);
+        }
+
+        Object rawValue = clauseValue.getRawValue();
+
+        if (rawValue instanceof String) {
+            return new GremlinQueryComposer.GremlinClauseValue(clauseValue.getClause(), bound[0], bound[1], StringUtils.replaceEach((String) rawValue, search, replace), bound[2]);
+        } else if (rawValue != null) {
+            return new GremlinQueryComposer.GremlinClauseValue(clauseValue.getClause(), bound[0], bound[1], rawValue, bound[2]);
+        } else {
+            return new GremlinQueryComposer.GremlinClauseValue(clauseValue.getClause(), bound);
+        }
+    }
+
+    /*
+     * A sentinel can be bound only when it is the entire value - possibly quoted - holding the literal of a
+     * comparison clause, and in case of HAS_OPERATOR, when the raw value is the sentinel as well. Values of
+     * AND/OR clauses are only descriptive: they are not used to build the traversal, hence any occurrence is fine.
+     */
+    private static boolean containsOnlyBindableSentinels(GremlinClauseList clauses, List<String> sentinels) {
+        for (int i = 0; i <= clauses.size(); i++) {
+            if (clauses.hasSubClause(i)) {
+                for (GremlinClauseList subClauses : clauses.getSubClauses(i)) {
+                    if (!containsOnlyBindableSentinels(subClauses, sentinels)) {
+                        return false;
+                    }
+                }
+            }
+
+            if (i == clauses.size()) {
+                break;
+            }
+
+            GremlinQueryComposer.GremlinClauseValue clauseValue = clauses.get(i);
+            GremlinClause                           clause      = clauseValue.getClause();
+
+            if (clause == GremlinClause.AND || clause == GremlinClause.OR) {
+                continue;
+            }
+
+            String[] values        = clauseValue.getValues();
+            Object   rawValue      = clauseValue.getRawValue();
+            Integer  bindableIndex = getBindableValueIndex(clauseValue);
+
+            for (int j = 0; j < values.length; j++) {
+                if (containsSentinel(values[j]) && (bindableIndex == null || bindableIndex != j || !isSentinel(IdentifierHelper.removeQuotes(values[j]), sentinels))) {
+                    return false;
+                }
+            }
+
+            if (rawValue != null && containsSentinel(rawValue.toString()) && !isSentinel(rawValue, sentinels)) {
+                return false;
+            }
+
+            // HAS_OPERATOR builds the traversal with the raw value, hence it must be bound as well
+            if (clause == GremlinClause.HAS_OPERATOR && bindableIndex != null && containsSentinel(values[bindableIndex]) && !isSentinel(rawValue, sentinels)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static Integer getBindableValueIndex(GremlinQueryComposer.GremlinClauseValue clauseValue) {
+        Integer ret = BINDABLE_VALUE_INDEX.get(clauseValue.getClause());
+
+        if (clauseValue.getClause() == GremlinClause.HAS_OPERATOR && OPERATOR_WITHIN.equalsIgnoreCase(clauseValue.getValues()[1])) {
+            ret = null;
+        }
+
+        return ret;
+    }
+
+    private static boolean isSame(GremlinClauseList list1, GremlinClauseList list2) {
+        if (list1.size() != list2.size()) {
+            return false;
+        }
+
+        for (int i = 0; i <= list1.size(); i++) {
+            if (list1.hasSubClause(i) != list2.hasSubClause(i)) {
+                return false;
+            } else if (list1.hasSubClause(i)) {
+                List<GremlinClauseList> subClauses1 = list1.getSubClauses(i);
+                List<GremlinClauseList> subClauses2 = list2.getSubClauses(i);
+
+                if (subClauses1.size() != subClauses2.size()) {
+                    return false;
+                }
+
+                for (int j = 0; j < subClauses1.size(); j++) {
+                    if (!isSame(subClauses1.get(j), subClauses2.get(j))) {
+                        return false;
+                    }
+                }
+            }
+
+            if (i < list1.size()) {
+                GremlinQueryComposer.GremlinClauseValue value1 = list1.get(i);
+                GremlinQueryComposer.GremlinClauseValue value2 = list2.get(i);
+
+                if (value1.getClause() != value2.getClause() || !Arrays.equals(value1.getValues(), value2.getValues()) || !Objects.equals(value1.getRawValue(), value2.getRawValue())) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean containsSentinel(SelectClauseComposer selectComposer) {
+        return selectComposer != null && (containsSentinel(Arrays.toString(selectComposer.getItems())) ||
+                                          containsSentinel(Arrays.toString(selectComposer.getAttributes())) ||
+                                          containsSentinel(Arrays.toString(selectComposer.getLabels())));
+    }
+
+    private static boolean containsSentinel(String value) {
+        return value != null && value.contains(SENTINEL_PREFIX);
+    }
+
+    private static boolean isSentinel(Object value, List<String> sentinels) {
+        return value instanceof String && sentinels.contains(value);
+    }
+
+    private static List<String> getSentinels(int count) {
+        List<String> ret = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            ret.add(SENTINEL_PREFIX + i + SENTINEL_SUFFIX);
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,419 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.query.executors;
+
+import org.apache.atlas.model.discovery.AtlasAggregationEntry;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.discovery.AtlasSearchResult.AttributeSearchResult;
+import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
+import org.apache.atlas.query.GremlinClause;
+import org.apache.atlas.query.GremlinClauseList;
+import org.apache.atlas.query.GremlinQuery;
+import org.apache.atlas.query.IdentifierHelper;
+import org.apache.atlas.query.SelectClauseComposer;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AggregationContext;
+import org.apache.atlas.repository.graphdb.AggregationStats;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphIndexClient;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.apache.atlas.model.typedef.AtlasBaseTypeDef.ATLAS_TYPE_BYTE;
+import static org.apache.atlas.model.typedef.AtlasBaseTypeDef.ATLAS_TYPE_DATE;
+import static org.apache.atlas.model.typedef.AtlasBaseTypeDef.ATLAS_TYPE_DOUBLE;
+import static org.apache.atlas.model.typedef.AtlasBaseTypeDef.ATLAS_TYPE_FLOAT;
+import static org.apache.atlas.model.typedef.AtlasBaseTypeDef.ATLAS_TYPE_INT;
+import static org.apache.atlas.model.typedef.AtlasBaseTypeDef.ATLAS_TYPE_LONG;
+import static org.apache.atlas.model.typedef.AtlasBaseTypeDef.ATLAS_TYPE_SHORT;
+import static org.apache.atlas.model.typedef.AtlasBaseTypeDef.ATLAS_TYPE_STRING;
+
+/**
+ * Evaluates aggregation-only DSL queries, like "hive_table select count(), max(createTime)" and
+ * "hive_table groupby(owner) select owner, count()", with facet and stats queries on the index - instead of
+ * retrieving every matching vertex from the graph and aggregating the values in SelectClauseProjections.
+ *
+ * Only queries that select from entity types without any filter are evaluated on the index, and only when
+ * every attribute referred by the query is indexed: min/max/sum of numeric attributes, min/max of date attributes,
+ * and groupby on string attributes indexed as 'string' - since values of text fields are tokenized by the index.
+ * For other queries, or when the index is not available, execute() returns null and the query is to be evaluated
+ * on the graph.
+ *
+ * Results can differ from those computed on the graph, hence this is disabled by default
+ * (atlas.dsl.index.aggregation.enabled):
+ * - changes are reflected only after the index is committed, i.e. up to the index commit interval later
+ * - groupby doesn't return a group for entities without a value for the attribute
+ * - groups are returned in the order of a HashMap keyed by the group value, as on the graph; groups whose values
+ *   fall in the same hash bucket can be in a different order, since on the graph that depends on the traversal order
+ * Like on the graph, count is returned as an int, sum as a double, and min/max of dates as milliseconds since epoch.
+ */
+public class IndexBasedAggregator {
+    private static final Logger LOG = LoggerFactory.getLogger(IndexBasedAggregator.class);
+
+    private static final Set<String> NUMERIC_TYPE_NAMES = new HashSet<>(Arrays.asList(ATLAS_TYPE_BYTE, ATLAS_TYPE_SHORT, ATLAS_TYPE_INT, ATLAS_TYPE_LONG, ATLAS_TYPE_FLOAT, ATLAS_TYPE_DOUBLE));
+
+    private static final Set<GremlinClause> SUPPORTED_CLAUSES = new HashSet<>(Arrays.asList(GremlinClause.SELECT_ONLY_AGG_FN, GremlinClause.SELECT_MULTI_ATTR_GRP_FN,
+                                                                                            GremlinClause.G, GremlinClause.V, GremlinClause.HAS_TYPE, GremlinClause.HAS_TYPE_WITHIN,
+                                                                                            GremlinClause.GROUP_BY, GremlinClause.DEDUP, GremlinClause.TO_LIST, GremlinClause.INLINE_TRANSFORM_CALL));
+
+    private static final int ALL_VALUE_COUNTS = -1;
+
+    private final AtlasTypeRegistry typeRegistry;
+    private final AtlasGraph        graph;
+
+    public IndexBasedAggregator(AtlasTypeRegistry typeRegistry, AtlasGraph graph) {
+        this.typeRegistry = typeRegistry;
+        this.graph        = graph;
+    }
+
+    /**
+     * @return result of the query computed using the index; null if the query is to be evaluated on the graph
+     */
+    public AtlasSearchResult execute(String dslQuery, GremlinQuery gremlinQuery) {
+        AggregationRequest request = getRequest(gremlinQuery);
+
+        if (request == null) {
+            return null;
+        }
+
+        String typeIndexFieldName = typeRegistry.getIndexFieldName(Constants.ENTITY_TYPE_PROPERTY_KEY);
+
+        if (typeIndexFieldName == null) { // index fields are not yet initialized
+            return null;
+        }
+
+        AggregationStats stats;
+
+        try {
+            AtlasGraphIndexClient indexClient = graph.getGraphIndexClient();
+
+            stats = indexClient.getAggregationStats(request.getAggregationContext(typeIndexFieldName), request.statsAttributes, request.getMaxValueCounts());
+        } catch (Exception excp) {
+            LOG.warn("Failed to compute aggregations using index. Query will be evaluated on the graph: {}", dslQuery, excp);
+
+            stats = null;
+        }
+
+        if (stats == null) {
+            LOG.debug("Aggregations not available from index. Query will be evaluated on the graph: {}", dslQuery);
+
+            return null;
+        }
+
+        LOG.debug("Computed aggregations using index: query={}, count={}", dslQuery, stats.getCount());
+
+        return request.groupByAttribute != null ? toGroupByResult(gremlinQuery, request, stats) : toResult(dslQuery, gremlinQuery, request, stats);
+    }
+
+    private AtlasSearchResult toResult(String dslQuery, GremlinQuery gremlinQuery, AggregationRequest request, AggregationStats stats) {
+        if (stats.getCount() == 0) { // same as the result when no vertex matches the query on the graph
+            return new AtlasSearchResult(dslQuery, AtlasSearchResult.AtlasQueryType.DSL);
+        }
+
+        SelectClauseComposer selectComposer = gremlinQuery.getSelectComposer();
+        List<Object>         row            = new ArrayList<>();
+
+        for (int idx = 0; idx < selectComposer.getLabels().length; idx++) {
+            if (selectComposer.isCountIdx(idx)) {
+                row.add(toCount(stats.getCount()));
+            } else {
+                AtlasAttribute              attribute  = request.selectAttributes.get(idx);
+                AggregationStats.FieldStats fieldStats = stats.getFieldStats() != null ? stats.getFieldStats().get(attribute.getQualifiedName()) : null;
+
+                if (fieldStats == null) {
+                    row.add(null);
+                } else if (selectComposer.isMinIdx(idx)) {
+                    row.add(toValue(attribute, fieldStats.getMin()));
+                } else if (selectComposer.isMaxIdx(idx)) {
+                    row.add(toValue(attribute, fieldStats.getMax()));
+                } else {
+                    row.add(fieldStats.getSum());
+                }
+            }
+        }
+
+        return toSearchResult(selectComposer, Collections.singletonList(row));
+    }
+
+    // on the graph, count is the size of a collection
+    private static int toCount(long count) {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    // the index returns min/max as double; dates are stored as milliseconds since epoch
+    private static Object toValue(AtlasAttribute attribute, Object value) {
+        if (ATLAS_TYPE_DATE.equals(attribute.getTypeName())) {
+            return value instanceof Number ? ((Number) value).longValue() : null;
+        }
+
+        return attribute.getAttributeType().getNormalizedValue(value);
+    }
+
+    private AtlasSearchResult toGroupByResult(GremlinQuery gremlinQuery, AggregationRequest request, AggregationStats stats) {
+        SelectClauseComposer        selectComposer = gremlinQuery.getSelectComposer();
+        List<AtlasAggregationEntry> valueCounts    = stats.getValueCounts() != null ? stats.getValueCounts().get(request.groupByAttribute.getQualifiedName()) : null;
+        Map<String, List<Object>>   rowsByValue    = new HashMap<>(valueCounts != null ? valueCounts.size() : 0);
+
+        if (valueCounts != null) {
+            for (AtlasAggregationEntry valueCount : valueCounts) {
+                List<Object> row = new ArrayList<>(selectComposer.getLabels().length);
+
+                for (int idx = 0; idx < selectComposer.getLabels().length; idx++) {
+                    row.add(selectComposer.isCountIdx(idx) ? toCount(valueCount.getCount()) : valueCount.getName());
+                }
+
+                rowsByValue.put(valueCount.getName(), row);
+            }
+        }
+
+        // the index returns groups in the order of their counts; on the graph, groups are collected in a HashMap keyed
+        // by the group value, of the same initial capacity - see AtlasJanusGraphTraversal.getAtlasVertexMap()
+        return toSearchResult(selectComposer, SelectClauseProjections.getSublistForGroupBy(gremlinQuery, new ArrayList<>(rowsByValue.values())));
+    }
+
+    private AtlasSearchResult toSearchResult(SelectClauseComposer selectComposer, List<List<Object>> rows) {
+        AtlasSearchResult     ret                   = new AtlasSearchResult();
+        AttributeSearchResult attributeSearchResult = new AttributeSearchResult();
+
+        attributeSearchResult.setName(Arrays.asList(selectComposer.getLabels()));
+        attributeSearchResult.setValues(rows);
+
+        ret.setAttributes(attributeSearchResult);
+
+        return ret;
+    }
+
+    private AggregationRequest getRequest(GremlinQuery gremlinQuery) {
+        SelectClauseComposer selectComposer = gremlinQuery.getSelectComposer();
+
+        if (!gremlinQuery.hasValidSelectClause() || !gremlinQuery.hasSelectList() || !selectComposer.hasAggregators()) {
+            return null;
+        }
+
+        GremlinClauseList    clauses         = gremlinQuery.getClauses();
+        GremlinClause        selectClause    = null;
+        Set<AtlasEntityType> entityTypes     = null;
+        String               groupByProperty = null;
+
+        for (int i = 0; i <= clauses.size(); i++) {
+            if (clauses.hasSubClause(i)) {
+                return null;
+            }
+
+            if (i == clauses.size()) {
+                break;
+            }
+
+            GremlinClause clause = clauses.get(i).getClause();
+            String[]      values = clauses.get(i).getValues();
+
+            if (!SUPPORTED_CLAUSES.contains(clause)) {
+                return null;
+            }
+
+            switch (clause) {
+                case SELECT_ONLY_AGG_FN:
+                case SELECT_MULTI_ATTR_GRP_FN:
+                    if (i != 0) {
+                        return null;
+                    }
+
+                    selectClause = clause;
+                    break;
+
+                case HAS_TYPE:
+                case HAS_TYPE_WITHIN:
+                    if (entityTypes != null) {
+                        return null;
+                    }
+
+                    entityTypes = getEntityTypes(clause == GremlinClause.HAS_TYPE ? new String[] {values[0]} : StringUtils.split(IdentifierHelper.removeQuotes(values[0]), ','));
+
+                    if (entityTypes == null) {
+                        return null;
+                    }
+                    break;
+
+                case GROUP_BY:
+                    if (groupByProperty != null) {
+                        return null;
+                    }
+
+                    groupByProperty = values[0];
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        if (selectClause == null || entityTypes == null) {
+            return null;
+        }
+
+        if (selectClause == GremlinClause.SELECT_ONLY_AGG_FN && groupByProperty == null) {
+            return getAggregationRequest(selectComposer, entityTypes);
+        } else if (selectClause == GremlinClause.SELECT_MULTI_ATTR_GRP_FN && groupByProperty != null) {
+            return getGroupByRequest(selectComposer, entityTypes, groupByProperty);
+        }
+
+        return null;
+    }
+
+    // select count(), min(a), max(a), sum(a): count is computed by the index for any query; min/max/sum only for indexed numeric attributes, min/max for indexed dates
+    private AggregationRequest getAggregationRequest(SelectClauseComposer selectComposer, Set<AtlasEntityType> entityTypes) {
+        AggregationRequest ret = new AggregationRequest(entityTypes);
+
+        for (int idx = 0; idx < selectComposer.getLabels().length; idx++) {
+            if (selectComposer.isCountIdx(idx)) {
+                continue;
+            }
+
+            if (!selectComposer.isMinIdx(idx) && !selectComposer.isMaxIdx(idx) && !selectComposer.isSumIdx(idx)) {
+                return null;
+            }
+
+            AtlasAttribute attribute = getIndexedAttribute(entityTypes, selectComposer.getAttribute(idx));
+
+            if (attribute == null) {
+                return null;
+            } else if (!NUMERIC_TYPE_NAMES.contains(attribute.getTypeName()) && !(ATLAS_TYPE_DATE.equals(attribute.getTypeName()) && !selectComposer.isSumIdx(idx))) {
+                return null;
+            }
+
+            ret.selectAttributes.put(idx, attribute);
+            ret.statsAttributes.add(attribute);
+        }
+
+        return ret;
+    }
+
+    // groupby(a) select a, count(): counts are computed by the index only for string attributes indexed as 'string'
+    private AggregationRequest getGroupByRequest(SelectClauseComposer selectComposer, Set<AtlasEntityType> entityTypes, String groupByProperty) {
+        if (selectComposer.getLabels().length != 2 || selectComposer.getCountIdx() == -1) {
+            return null;
+        }
+
+        int groupByIdx = selectComposer.getCountIdx() == 0 ? 1 : 0;
+
+        if (!selectComposer.isPrimitiveAttribute(groupByIdx) || !Objects.equals(selectComposer.getAttribute(groupByIdx), groupByProperty)) {
+            return null;
+        }
+
+        AtlasAttribute attribute = getIndexedAttribute(entityTypes, groupByProperty);
+
+        if (attribute == null || !ATLAS_TYPE_STRING.equals(attribute.getTypeName()) || attribute.getIndexType() != AtlasAttributeDef.IndexType.STRING) {
+            return null;
+        }
+
+        AggregationRequest ret = new AggregationRequest(entityTypes);
+
+        ret.groupByAttribute = attribute;
+
+        return ret;
+    }
+
+    private Set<AtlasEntityType> getEntityTypes(String[] typeNames) {
+        Set<AtlasEntityType> ret = new LinkedHashSet<>();
+
+        for (String typeName : typeNames) {
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(IdentifierHelper.removeQuotes(typeName.trim()));
+
+            if (entityType == null) { // classification or an unknown type
+                return null;
+            }
+
+            ret.add(entityType);
+        }
+
+        return ret.isEmpty() ? null : ret;
+    }
+
+    /*
+     * The attribute must be present, with the same index field, in all the given types - which is the case for
+     * attributes of the type selected in the query, since the other types are its subtypes.
+     */
+    private static AtlasAttribute getIndexedAttribute(Set<AtlasEntityType> entityTypes, String propertyName) {
+        AtlasAttribute ret = null;
+
+        for (AtlasEntityType entityType : entityTypes) {
+            AtlasAttribute attribute = null;
+
+            for (AtlasAttribute attr : entityType.getAllAttributes().values()) {
+                if (StringUtils.equals(attr.getVertexPropertyName(), propertyName) || StringUtils.equals(attr.getQualifiedName(), propertyName)) {
+                    attribute = attr;
+
+                    break;
+                }
+            }
+
+            if (attribute == null || attribute.getIndexFieldName() == null) {
+                return null;
+            }
+
+            if (ret == null) {
+                ret = attribute;
+            } else if (!StringUtils.equals(ret.getIndexFieldName(), attribute.getIndexFieldName())) {
+                return null;
+            }
+        }
+
+        return ret;
+    }
+
+    private static class AggregationRequest {
+        private final Set<AtlasEntityType>         entityTypes;
+        private final Map<Integer, AtlasAttribute> selectAttributes = new HashMap<>();
+        private final Set<AtlasAttribute>          statsAttributes  = new HashSet<>();
+        private       AtlasAttribute               groupByAttribute;
+
+        AggregationRequest(Set<AtlasEntityType> entityTypes) {
+            this.entityTypes = entityTypes;
+        }
+
+        // DSL queries don't exclude deleted entities; types to search for are already expanded to include subtypes
+        AggregationContext getAggregationContext(String typeIndexFieldName) {
+            Map<String, String> indexFieldNameCache   = new HashMap<>();
+            Set<AtlasAttribute> aggregationAttributes = groupByAttribute != null ? Collections.singleton(groupByAttribute) : Collections.emptySet();
+
+            indexFieldNameCache.put(Constants.ENTITY_TYPE_PROPERTY_KEY, typeIndexFieldName);
+
+            return new AggregationContext(null, null, entityTypes, Collections.emptySet(), aggregationAttributes, indexFieldNameCache, false, false);
+        }
+
+        // all groups, since the requested page is taken in the order groups are returned on the graph - not in the order of counts
+        int getMaxValueCounts() {
+            return groupByAttribute != null ? ALL_VALUE_COUNTS : 0;
+        }
+    }
+}
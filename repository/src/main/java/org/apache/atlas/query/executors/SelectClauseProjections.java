@@ -90,7 +90,7 @@ public class SelectClauseProjections {
         return ret;
     }
 
-    private static List<List<Object>> getSublistForGroupBy(GremlinQuery gremlinQuery, List<List<Object>> values) {
+    static List<List<Object>> getSublistForGroupBy(GremlinQuery gremlinQuery, List<List<Object>> values) {
         int startIndex = gremlinQuery.getQueryMetadata().getResolvedOffset() - 1;
 
         if (startIndex < 0) {
@@ -21,7 +21,9 @@ import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.AtlasSearchResult;
 import org.apache.atlas.query.AtlasDSL;
+import org.apache.atlas.query.DSLQueryShape;
 import org.apache.atlas.query.GremlinQuery;
+import org.apache.atlas.query.GremlinQueryPlan;
 import org.apache.atlas.query.QueryParams;
 import org.apache.atlas.repository.graphdb.AtlasEdge;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
@@ -29,13 +31,14 @@ import org.apache.atlas.repository.graphdb.AtlasGraphTraversal;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
 import org.apache.atlas.type.AtlasTypeRegistry;
-import org.apache.atlas.utils.LruCache;
+import org.apache.atlas.util.InvalidatingCache;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -51,18 +54,29 @@ public class TraversalBasedExecutor implements DSLQueryExecutor {
     private final AtlasTypeRegistry    typeRegistry;
     private final AtlasGraph           graph;
     private final EntityGraphRetriever entityRetriever;
+    private final IndexBasedAggregator indexBasedAggregator;
 
     public TraversalBasedExecutor(AtlasTypeRegistry typeRegistry, AtlasGraph graph, EntityGraphRetriever entityRetriever) {
-        this.typeRegistry    = typeRegistry;
-        this.graph           = graph;
-        this.entityRetriever = entityRetriever;
+        this.typeRegistry         = typeRegistry;
+        this.graph                = graph;
+        this.entityRetriever      = entityRetriever;
+        this.indexBasedAggregator = AtlasConfiguration.DSL_INDEX_AGGREGATION_ENABLED.getBoolean() ? new IndexBasedAggregator(typeRegistry, graph) : null;
     }
 
     @Override
     public AtlasSearchResult execute(String dslQuery, int limit, int offset) throws AtlasBaseException {
+        GremlinQuery gremlinQuery = translator.translate(typeRegistry, dslQuery, limit, offset);
+
+        if (indexBasedAggregator != null) {
+            AtlasSearchResult ret = indexBasedAggregator.execute(dslQuery, gremlinQuery);
+
+            if (ret != null) {
+                return ret;
+            }
+        }
+
         AtlasSearchResult                           ret            = new AtlasSearchResult(dslQuery, AtlasSearchResult.AtlasQueryType.DSL);
-        GremlinQuery                                gremlinQuery   = toTraversal(dslQuery, limit, offset);
-        AtlasGraphTraversal<AtlasVertex, AtlasEdge> graphTraversal = gremlinQuery.getTraversal();
+        AtlasGraphTraversal<AtlasVertex, AtlasEdge> graphTraversal = toTraversal(gremlinQuery).getTraversal();
 
         LOG.debug("Executing DSL: query={}, gremlinQuery={}", dslQuery, graphTraversal);
 
@@ -103,9 +117,16 @@ public class TraversalBasedExecutor implements DSLQueryExecutor {
         return ret;
     }
 
-    private GremlinQuery toTraversal(String query, int limit, int offset) throws AtlasBaseException {
-        GremlinQuery        gremlinQuery = translator.translate(typeRegistry, query, limit, offset);
-        AtlasGraphTraversal result       = GremlinClauseToTraversalTranslator.run(this.graph, gremlinQuery.getClauses());
+    /**
+     * @return true if the query has a limit or offset clause of its own, in which case the limit and offset
+     * passed to execute() are not applied
+     */
+    public static boolean hasLimitOffset(String dslQuery) {
+        return dslQuery.contains(DSL_KEYWORD_LIMIT) || dslQuery.contains(DSL_KEYWORD_OFFSET);
+    }
+
+    private GremlinQuery toTraversal(GremlinQuery gremlinQuery) {
+        AtlasGraphTraversal result = GremlinClauseToTraversalTranslator.run(this.graph, gremlinQuery.getClauses());
 
         gremlinQuery.setResult(result);
 
@@ -117,48 +138,101 @@ public class TraversalBasedExecutor implements DSLQueryExecutor {
         }
 
         public GremlinQuery translate(AtlasTypeRegistry typeRegistry, String query, int limit, int offset) throws AtlasBaseException {
-            QueryParams params = QueryParams.getNormalizedParams(limit, offset);
-
-            query = getStringWithLimitOffset(query, params);
-
-            AtlasDSL.Translator dslTranslator = new AtlasDSL.Translator(query, typeRegistry, params.offset(), params.limit());
-
-            return dslTranslator.translate();
+            return translate(typeRegistry, query, QueryParams.getNormalizedParams(limit, offset), !hasLimitOffset(query));
         }
 
-        private String getStringWithLimitOffset(String query, QueryParams params) {
-            if (!query.contains(DSL_KEYWORD_LIMIT) && !query.contains(DSL_KEYWORD_OFFSET)) {
+        protected GremlinQuery translate(AtlasTypeRegistry typeRegistry, String query, QueryParams params, boolean appendLimitOffset) throws AtlasBaseException {
+            if (appendLimitOffset) {
                 query += String.format(DEFAULT_LIMIT_OFFSET_TEMPLATE, params.limit(), params.offset());
             }
 
-            return query;
+            AtlasDSL.Translator dslTranslator = new AtlasDSL.Translator(query, typeRegistry, params.offset(), params.limit());
+
+            return dslTranslator.translate();
         }
     }
 
+    /**
+     * Caches translated queries, keyed by the query and the version of the type registry - so that type updates
+     * don't leave stale translations in the cache. Queries that differ only in values of string literals share
+     * a parameterized plan, keyed by the shape of the query; see GremlinQueryPlan. Each call returns a
+     * GremlinQuery instance of its own, since the executor sets the traversal in the instance.
+     */
     private static class CachedTranslator extends Translator {
-        private static final int DSLQUERY_CACHE_SIZE = 100;
+        private final InvalidatingCache<GremlinQueryPlan> plans;
+        private final boolean                             parameterizedPlansEnabled;
 
-        private final Map<String, GremlinQuery> cachedQuery;
-
-        public CachedTranslator() {
-            this.cachedQuery = new LruCache<>(DSLQUERY_CACHE_SIZE, 100000);
+        public CachedTranslator(int maxEntries, boolean parameterizedPlansEnabled) {
+            this.plans                     = new InvalidatingCache<>("DSL translation cache", maxEntries);
+            this.parameterizedPlansEnabled = parameterizedPlansEnabled;
         }
 
         @Override
         public GremlinQuery translate(AtlasTypeRegistry typeRegistry, String query, int limit, int offset) throws AtlasBaseException {
-            String key = String.format("%s-%s-%s", query, limit, offset);
+            QueryParams      params            = QueryParams.getNormalizedParams(limit, offset);
+            boolean          appendLimitOffset = !hasLimitOffset(query);
+            String           keySuffix         = String.format("|%s|%s|%s|%s", params.limit(), params.offset(), appendLimitOffset, typeRegistry.getVersion());
+            DSLQueryShape    shape             = parameterizedPlansEnabled ? DSLQueryShape.of(query) : null;
+            String           shapeKey          = shape != null && shape.hasParameters() ? "shape:" + shape.getShape() + keySuffix : null;
+            String           queryKey          = "query:" + query + keySuffix;
+            GremlinQueryPlan shapePlan         = shapeKey != null ? plans.get(shapeKey) : null;
+
+            if (shapePlan != null && shapePlan.isParameterized()) {
+                return shapePlan.bind(shape.getParameters());
+            }
 
-            if (!cachedQuery.containsKey(key)) {
-                GremlinQuery gremlinQuery = super.translate(typeRegistry, query, limit, offset);
+            GremlinQueryPlan plan = plans.get(queryKey);
 
-                cachedQuery.put(key, gremlinQuery);
+            if (plan != null) {
+                return plan.bind(Collections.emptyList());
             }
 
-            return cachedQuery.get(key);
+            GremlinQuery ret = super.translate(typeRegistry, query, params, appendLimitOffset);
+
+            if (shapeKey != null && shapePlan == null) {
+                shapePlan = createParameterizedPlan(typeRegistry, shape, params, appendLimitOffset, ret);
+
+                if (shapePlan != null) {
+                    putPlan(shapeKey, shapePlan);
+
+                    return ret;
+                }
+
+                // record that the shape can't be parameterized, to avoid attempting again for queries of this shape
+                putPlan(shapeKey, GremlinQueryPlan.of(ret));
+            }
+
+            plan = GremlinQueryPlan.of(ret);
+
+            putPlan(queryKey, plan);
+
+            return plan.bind(Collections.emptyList());
+        }
+
+        public Map<String, Number> getStats() {
+            return plans.getStats();
+        }
+
+        private GremlinQueryPlan createParameterizedPlan(AtlasTypeRegistry typeRegistry, DSLQueryShape shape, QueryParams params, boolean appendLimitOffset, GremlinQuery actual) {
+            try {
+                GremlinQuery probe = super.translate(typeRegistry, GremlinQueryPlan.getProbeQuery(shape), params, appendLimitOffset);
+
+                return GremlinQueryPlan.create(shape, probe, actual);
+            } catch (Exception excp) {
+                // literals like dates are validated during translation, hence translating the probe can fail
+                LOG.debug("DSL query shape can't be parameterized: {}", shape.getShape(), excp);
+
+                return null;
+            }
+        }
+
+        // translations depend only on the query and the type registry version in the key, hence are never invalidated
+        private void putPlan(String key, GremlinQueryPlan plan) {
+            plans.put(key, plan, Collections.emptySet(), plans.getSequence());
         }
     }
 
     static {
-        translator = AtlasConfiguration.DSL_CACHED_TRANSLATOR.getBoolean() ? new CachedTranslator() : new Translator();
+        translator = AtlasConfiguration.DSL_CACHED_TRANSLATOR.getBoolean() ? new CachedTranslator(AtlasConfiguration.DSL_CACHED_TRANSLATOR_MAX_ENTRIES.getInt(), AtlasConfiguration.DSL_PARAMETERIZED_PLANS_ENABLED.getBoolean()) : new Translator();
     }
 }
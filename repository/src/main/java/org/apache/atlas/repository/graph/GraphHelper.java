@@ -292,7 +292,15 @@ public final class GraphHelper {
         return ret;
     }
 
+    public static boolean hasPropagatedClassification(AtlasVertex entityVertex, AtlasVertex classificationVertex) {
+        return getPropagatedClassificationEdge(entityVertex, classificationVertex) != null;
+    }
+
     public static List<AtlasEdge> getPropagatedEdges(AtlasVertex classificationVertex) {
+        return getPropagatedEdges(classificationVertex, Integer.MAX_VALUE);
+    }
+
+    public static List<AtlasEdge> getPropagatedEdges(AtlasVertex classificationVertex, int maxEdges) {
         List<AtlasEdge> ret   = new ArrayList<>();
         Iterable        edges = classificationVertex.query().direction(AtlasEdgeDirection.IN).label(CLASSIFICATION_LABEL)
                 .has(CLASSIFICATION_EDGE_IS_PROPAGATED_PROPERTY_KEY, true)
@@ -300,6 +308,10 @@ public final class GraphHelper {
 
         if (edges != null) {
             for (AtlasEdge edge : (Iterable<AtlasEdge>) edges) {
+                if (ret.size() >= maxEdges) {
+                    break;
+                }
+
                 ret.add(edge);
             }
         }
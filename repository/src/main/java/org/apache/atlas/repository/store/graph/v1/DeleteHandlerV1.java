@@ -131,9 +131,10 @@ import static org.apache.atlas.type.Constants.PENDING_TASKS_PROPERTY_KEY;
 public abstract class DeleteHandlerV1 {
     public static final Logger LOG = LoggerFactory.getLogger(DeleteHandlerV1.class);
 
-    private static final boolean DEFERRED_ACTION_ENABLED = AtlasConfiguration.TASKS_USE_ENABLED.getBoolean();
-    private static final String  PROCESS_OUTPUTS_EDGE               = "__Process.outputs";
-    private static final String  RELATIONSHIP_ATTRIBUTE_KEY_STRING  = "columnLineages";
+    private static final boolean DEFERRED_ACTION_ENABLED           = AtlasConfiguration.TASKS_USE_ENABLED.getBoolean();
+    private static final boolean PROPAGATION_DELTA_ENABLED         = AtlasConfiguration.CLASSIFICATION_PROPAGATION_DELTA_ENABLED.getBoolean();
+    private static final String  PROCESS_OUTPUTS_EDGE              = "__Process.outputs";
+    private static final String  RELATIONSHIP_ATTRIBUTE_KEY_STRING = "columnLineages";
 
     protected final GraphHelper graphHelper;
 
@@ -697,20 +698,27 @@ public abstract class DeleteHandlerV1 {
         }
 
         List<AtlasVertex>                   currentClassificationVertices = getPropagatableClassifications(edge);
-        Map<AtlasVertex, List<AtlasVertex>> currentClassificationsMap     = entityRetriever.getClassificationPropagatedEntitiesMapping(currentClassificationVertices);
-        Map<AtlasVertex, List<AtlasVertex>> updatedClassificationsMap     = entityRetriever.getClassificationPropagatedEntitiesMapping(currentClassificationVertices, getRelationshipGuid(edge));
-        Map<AtlasVertex, List<AtlasVertex>> removePropagationsMap         = new HashMap<>();
+        Map<AtlasVertex, List<AtlasVertex>> removePropagationsMap;
 
-        if (MapUtils.isNotEmpty(currentClassificationsMap) && MapUtils.isEmpty(updatedClassificationsMap)) {
-            removePropagationsMap.putAll(currentClassificationsMap);
+        if (PROPAGATION_DELTA_ENABLED) {
+            removePropagationsMap = entityRetriever.getRemovedPropagationsMapping(edge, currentClassificationVertices);
         } else {
-            for (AtlasVertex classificationVertex : updatedClassificationsMap.keySet()) {
-                List<AtlasVertex> currentPropagatingEntities = currentClassificationsMap.getOrDefault(classificationVertex, Collections.emptyList());
-                List<AtlasVertex> updatedPropagatingEntities = updatedClassificationsMap.getOrDefault(classificationVertex, Collections.emptyList());
-                List<AtlasVertex> entitiesRemoved            = (List<AtlasVertex>) CollectionUtils.subtract(currentPropagatingEntities, updatedPropagatingEntities);
+            Map<AtlasVertex, List<AtlasVertex>> currentClassificationsMap = entityRetriever.getClassificationPropagatedEntitiesMapping(currentClassificationVertices);
+            Map<AtlasVertex, List<AtlasVertex>> updatedClassificationsMap = entityRetriever.getClassificationPropagatedEntitiesMapping(currentClassificationVertices, getRelationshipGuid(edge));
 
-                if (CollectionUtils.isNotEmpty(entitiesRemoved)) {
-                    removePropagationsMap.put(classificationVertex, entitiesRemoved);
+            removePropagationsMap = new HashMap<>();
+
+            if (MapUtils.isNotEmpty(currentClassificationsMap) && MapUtils.isEmpty(updatedClassificationsMap)) {
+                removePropagationsMap.putAll(currentClassificationsMap);
+            } else {
+                for (AtlasVertex classificationVertex : updatedClassificationsMap.keySet()) {
+                    List<AtlasVertex> currentPropagatingEntities = currentClassificationsMap.getOrDefault(classificationVertex, Collections.emptyList());
+                    List<AtlasVertex> updatedPropagatingEntities = updatedClassificationsMap.getOrDefault(classificationVertex, Collections.emptyList());
+                    List<AtlasVertex> entitiesRemoved            = (List<AtlasVertex>) CollectionUtils.subtract(currentPropagatingEntities, updatedPropagatingEntities);
+
+                    if (CollectionUtils.isNotEmpty(entitiesRemoved)) {
+                        removePropagationsMap.put(classificationVertex, entitiesRemoved);
+                    }
                 }
             }
         }
@@ -745,10 +753,19 @@ public abstract class DeleteHandlerV1 {
     }
 
     public List<AtlasVertex> removeTagPropagation(AtlasVertex classificationVertex) throws AtlasBaseException {
+        return removeTagPropagation(classificationVertex, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes at most maxPropagations propagations of the given classification.
+     *
+     * @return entity vertices the classification was removed from; fewer than maxPropagations when no propagation is left
+     */
+    public List<AtlasVertex> removeTagPropagation(AtlasVertex classificationVertex, int maxPropagations) throws AtlasBaseException {
         List<AtlasVertex> ret = new ArrayList<>();
 
         if (classificationVertex != null) {
-            List<AtlasEdge> propagatedEdges = getPropagatedEdges(classificationVertex);
+            List<AtlasEdge> propagatedEdges = getPropagatedEdges(classificationVertex, maxPropagations);
 
             if (CollectionUtils.isNotEmpty(propagatedEdges)) {
                 AtlasClassification classification = entityRetriever.toAtlasClassification(classificationVertex);
@@ -56,6 +56,7 @@ import org.slf4j.LoggerFactory;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -289,6 +290,10 @@ public class AtlasGraphUtilsV2 {
 
             element.setProperty(propertyName, value);
         }
+
+        if (element instanceof AtlasVertex && STATE_PROPERTY_KEY.equals(propertyName)) {
+            GraphTransactionInterceptor.recordVertexStateChange((AtlasVertex) element);
+        }
     }
 
     public static <T extends AtlasElement, O> O getProperty(T element, String propertyName, Class<O> returnType) {
@@ -489,7 +494,12 @@ public class AtlasGraphUtilsV2 {
         AtlasVertex ret = GraphTransactionInterceptor.getVertexFromCache(guid);
 
         if (ret == null) {
-            AtlasGraphQuery query = graph.query().has(Constants.GUID_PROPERTY_KEY, guid);
+            ret = GraphTransactionInterceptor.getVertexFromSharedCache(graph, guid);
+        }
+
+        if (ret == null) {
+            long            sequence = GraphTransactionInterceptor.getSharedVertexCacheSequence();
+            AtlasGraphQuery query    = graph.query().has(Constants.GUID_PROPERTY_KEY, guid);
 
             Iterator<AtlasVertex> results = query.vertices().iterator();
 
@@ -497,6 +507,7 @@ public class AtlasGraphUtilsV2 {
 
             if (ret != null) {
                 GraphTransactionInterceptor.addToVertexCache(guid, ret);
+                GraphTransactionInterceptor.addToSharedVertexCache(guid, ret, sequence);
             }
         }
 
@@ -551,6 +562,42 @@ public class AtlasGraphUtilsV2 {
         return hasInstanceVertex;
     }
 
+    /**
+     * Finds entities of the given type, or of its sub-types, having one of the given values for the given unique
+     * attribute. Unlike findByUniqueAttributes(), a single graph query is issued for all the values.
+     *
+     * @return vertices found, keyed by attribute value; values for which no entity is found are not included
+     */
+    public static Map<String, AtlasVertex> findByUniqueAttributeValues(AtlasGraph graph, AtlasEntityType entityType, AtlasAttribute attribute, Collection<String> attrValues) {
+        MetricRecorder           metric = RequestContext.get().startMetricRecord("findByUniqueAttributeValues");
+        Map<String, AtlasVertex> ret    = new HashMap<>();
+
+        if (attribute != null && CollectionUtils.isNotEmpty(attrValues)) {
+            String  typeName          = entityType.getTypeName();
+            boolean useUniqueProperty = USE_UNIQUE_INDEX_PROPERTY_TO_FIND_ENTITY && attribute.getVertexUniquePropertyName() != null;
+            String  propertyName      = useUniqueProperty ? attribute.getVertexUniquePropertyName() : attribute.getVertexPropertyName();
+
+            findByTypeAndPropertyValues(graph, ENTITY_TYPE_PROPERTY_KEY, typeName, propertyName, attrValues, !useUniqueProperty, ret);
+
+            // values for which no instance of given typeName is found, try to find an instance of type's sub-type
+            if (ret.size() < attrValues.size() && !entityType.getAllSubTypes().isEmpty()) {
+                List<String> remainingValues = new ArrayList<>();
+
+                for (String attrValue : attrValues) {
+                    if (!ret.containsKey(attrValue)) {
+                        remainingValues.add(attrValue);
+                    }
+                }
+
+                findByTypeAndPropertyValues(graph, SUPER_TYPES_PROPERTY_KEY, typeName, propertyName, remainingValues, !useUniqueProperty, ret);
+            }
+        }
+
+        RequestContext.get().endMetricRecord(metric);
+
+        return ret;
+    }
+
     public static AtlasVertex findByTypeAndUniquePropertyName(String typeName, String propertyName, Object attrVal) {
         return findByTypeAndUniquePropertyName(getGraphInstance(), typeName, propertyName, attrVal);
     }
@@ -631,6 +678,27 @@ public class AtlasGraphUtilsV2 {
         return vertex;
     }
 
+    private static void findByTypeAndPropertyValues(AtlasGraph graph, String typePropertyKey, String typeName, String propertyName, Collection<String> values, boolean activeOnly, Map<String, AtlasVertex> result) {
+        AtlasGraphQuery query = graph.query().has(typePropertyKey, typeName);
+
+        if (activeOnly) {
+            query.has(STATE_PROPERTY_KEY, AtlasEntity.Status.ACTIVE.name());
+        }
+
+        query.in(propertyName, values);
+
+        Iterator<AtlasVertex> results = query.vertices().iterator();
+
+        while (results.hasNext()) {
+            AtlasVertex vertex = results.next();
+            Object      value  = vertex.getProperty(propertyName, Object.class);
+
+            if (value != null) {
+                result.putIfAbsent(value.toString(), vertex);
+            }
+        }
+    }
+
     public static List<String> findEntityGUIDsByType(String typename, SortOrder sortOrder) {
         return findEntityGUIDsByType(getGraphInstance(), typename, sortOrder);
     }
@@ -86,6 +86,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -956,29 +957,79 @@ public class EntityGraphMapper {
                 return null;
             }
 
-            List<String> impactedVerticesGuidsToLock = impactedVertices.stream().map(GraphHelper::getGuid).collect(Collectors.toList());
+            return propagateClassification(classificationVertex, impactedVertices);
+        } catch (Exception e) {
+            LOG.error("propagateClassification(entityGuid={}, classificationVertexId={}): error while propagating classification", entityGuid, classificationVertexId, e);
+
+            throw new AtlasBaseException(e);
+        }
+    }
 
-            GraphTransactionInterceptor.lockObjectAndReleasePostCommit(impactedVerticesGuidsToLock);
+    /**
+     * Returns entities the given classification should be propagated to from the given entity, including the entity
+     * itself. Entities are traversed lazily, so that the propagation can be applied in chunks with
+     * propagateClassification(String, List), each in its own transaction.
+     */
+    public Iterator<AtlasVertex> getImpactedVerticesToPropagate(String entityGuid, String classificationVertexId, String relationshipGuid) {
+        if (StringUtils.isEmpty(entityGuid) || StringUtils.isEmpty(classificationVertexId)) {
+            LOG.warn("getImpactedVerticesToPropagate(entityGuid={}, classificationVertexId={}): entityGuid and/or classification vertex id is empty", entityGuid, classificationVertexId);
+
+            return Collections.emptyIterator();
+        }
 
-            AtlasClassification classification       = entityRetriever.toAtlasClassification(classificationVertex);
-            List<AtlasVertex>   entitiesPropagatedTo = deleteDelegate.getHandler().addTagPropagation(classificationVertex, impactedVertices);
+        AtlasVertex entityVertex = AtlasGraphUtilsV2.findByGuid(this.graph, entityGuid);
+
+        if (entityVertex == null) {
+            LOG.warn("getImpactedVerticesToPropagate(entityGuid={}, classificationVertexId={}): entity vertex not found", entityGuid, classificationVertexId);
+
+            return Collections.emptyIterator();
+        }
+
+        return entityRetriever.getIncludedImpactedVerticesIterator(entityVertex, relationshipGuid, classificationVertexId);
+    }
+
+    @GraphTransaction
+    public List<String> propagateClassification(String classificationVertexId, List<AtlasVertex> impactedVertices) throws AtlasBaseException {
+        try {
+            AtlasVertex classificationVertex = StringUtils.isEmpty(classificationVertexId) ? null : graph.getVertex(classificationVertexId);
+
+            if (classificationVertex == null) {
+                LOG.warn("propagateClassification(classificationVertexId={}): classification vertex not found", classificationVertexId);
 
-            if (CollectionUtils.isEmpty(entitiesPropagatedTo)) {
                 return null;
             }
 
-            List<AtlasEntity> propagatedEntities = updateClassificationText(classification, entitiesPropagatedTo);
-
-            entityChangeNotifier.onClassificationsAddedToEntities(propagatedEntities, Collections.singletonList(classification));
+            if (CollectionUtils.isEmpty(impactedVertices)) {
+                return null;
+            }
 
-            return propagatedEntities.stream().map(x -> x.getGuid()).collect(Collectors.toList());
+            return propagateClassification(classificationVertex, impactedVertices);
         } catch (Exception e) {
-            LOG.error("propagateClassification(entityGuid={}, classificationVertexId={}): error while propagating classification", entityGuid, classificationVertexId, e);
+            LOG.error("propagateClassification(classificationVertexId={}): error while propagating classification", classificationVertexId, e);
 
             throw new AtlasBaseException(e);
         }
     }
 
+    private List<String> propagateClassification(AtlasVertex classificationVertex, List<AtlasVertex> impactedVertices) throws AtlasBaseException {
+        List<String> impactedVerticesGuidsToLock = impactedVertices.stream().map(GraphHelper::getGuid).collect(Collectors.toList());
+
+        GraphTransactionInterceptor.lockObjectAndReleasePostCommit(impactedVerticesGuidsToLock);
+
+        AtlasClassification classification       = entityRetriever.toAtlasClassification(classificationVertex);
+        List<AtlasVertex>   entitiesPropagatedTo = deleteDelegate.getHandler().addTagPropagation(classificationVertex, impactedVertices);
+
+        if (CollectionUtils.isEmpty(entitiesPropagatedTo)) {
+            return null;
+        }
+
+        List<AtlasEntity> propagatedEntities = updateClassificationText(classification, entitiesPropagatedTo);
+
+        entityChangeNotifier.onClassificationsAddedToEntities(propagatedEntities, Collections.singletonList(classification));
+
+        return propagatedEntities.stream().map(x -> x.getGuid()).collect(Collectors.toList());
+    }
+
     public void deleteClassification(String entityGuid, String classificationName, String associatedEntityGuid) throws AtlasBaseException {
         if (StringUtils.isEmpty(associatedEntityGuid) || associatedEntityGuid.equals(entityGuid)) {
             deleteClassification(entityGuid, classificationName);
@@ -1325,6 +1376,18 @@ public class EntityGraphMapper {
 
     @GraphTransaction
     public List<String> deleteClassificationPropagation(String entityGuid, String classificationVertexId) throws AtlasBaseException {
+        return deleteClassificationPropagation(classificationVertexId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes at most maxPropagations propagations of the given classification; the classification vertex is deleted
+     * once no propagation is left. Calling this repeatedly, each in its own transaction, removes a large number of
+     * propagations in chunks.
+     *
+     * @return guids of active entities the classification was removed from; null if the classification vertex was not found or had no propagations left
+     */
+    @GraphTransaction
+    public List<String> deleteClassificationPropagation(String classificationVertexId, int maxPropagations) throws AtlasBaseException {
         try {
             if (StringUtils.isEmpty(classificationVertexId)) {
                 LOG.warn("deleteClassificationPropagation(classificationVertexId={}): classification vertex id is empty", classificationVertexId);
@@ -1341,9 +1404,11 @@ public class EntityGraphMapper {
             }
 
             AtlasClassification classification = entityRetriever.toAtlasClassification(classificationVertex);
-            List<AtlasVertex>   entityVertices = deleteDelegate.getHandler().removeTagPropagation(classificationVertex);
+            List<AtlasVertex>   entityVertices = deleteDelegate.getHandler().removeTagPropagation(classificationVertex, maxPropagations);
 
-            deleteDelegate.getHandler().deleteClassificationVertex(classificationVertex, true);
+            if (entityVertices.size() < maxPropagations) {
+                deleteDelegate.getHandler().deleteClassificationVertex(classificationVertex, true);
+            }
 
             if (CollectionUtils.isEmpty(entityVertices)) {
                 return null;
@@ -80,8 +80,10 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
@@ -136,6 +138,7 @@ import static org.apache.atlas.repository.graph.GraphHelper.getRelationshipGuid;
 import static org.apache.atlas.repository.graph.GraphHelper.getRemovePropagations;
 import static org.apache.atlas.repository.graph.GraphHelper.getStatus;
 import static org.apache.atlas.repository.graph.GraphHelper.getTypeName;
+import static org.apache.atlas.repository.graph.GraphHelper.hasPropagatedClassification;
 import static org.apache.atlas.repository.graph.GraphHelper.isEntityIncomplete;
 import static org.apache.atlas.repository.graph.GraphHelper.isPropagationEnabled;
 import static org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2.getIdFromVertex;
@@ -611,6 +614,88 @@ public class EntityGraphRetriever {
         return ret;
     }
 
+    /**
+     * Same as getIncludedImpactedVerticesV2(), but the vertices are traversed lazily as the returned iterator is consumed,
+     * in breadth-first order. Edges of a vertex are read completely before any of its adjacent vertices is returned, hence
+     * the caller can commit the graph transaction between calls to next().
+     */
+    public Iterator<AtlasVertex> getIncludedImpactedVerticesIterator(AtlasVertex entityVertex, String relationshipGuidToExclude, String classificationId) {
+        return new ImpactedVerticesIterator(entityVertex, relationshipGuidToExclude, classificationId, true);
+    }
+
+    /**
+     * Computes propagations to remove when the given relationship edge is removed, by looking only at entities on the
+     * far side of the edge: of the entities impacted by the edge (traversed without going through the edge), those
+     * having a classification propagated are checked for being still reachable from the classification's entity
+     * without the edge. The check stops as soon as all of them are found to be reachable.
+     *
+     * @return entities to remove the propagation from, for each of the given classification vertices
+     */
+    public Map<AtlasVertex, List<AtlasVertex>> getRemovedPropagationsMapping(AtlasEdge edge, List<AtlasVertex> classificationVertices) {
+        Map<AtlasVertex, List<AtlasVertex>> ret = new HashMap<>();
+
+        if (edge == null || CollectionUtils.isEmpty(classificationVertices)) {
+            return ret;
+        }
+
+        String                   relationshipGuid = getRelationshipGuid(edge);
+        PropagateTags            propagateTags    = getPropagateTags(edge);
+        Map<String, AtlasVertex> impactedVertices = new LinkedHashMap<>();
+        List<AtlasVertex>        farSideVertices  = new ArrayList<>();
+
+        if (propagateTags == ONE_TO_TWO || propagateTags == PropagateTags.BOTH) {
+            farSideVertices.add(edge.getInVertex());
+        }
+
+        if (propagateTags == TWO_TO_ONE || propagateTags == PropagateTags.BOTH) {
+            farSideVertices.add(edge.getOutVertex());
+        }
+
+        for (AtlasVertex farSideVertex : farSideVertices) {
+            Iterator<AtlasVertex> iter = getIncludedImpactedVerticesIterator(farSideVertex, relationshipGuid, null);
+
+            while (iter.hasNext()) {
+                AtlasVertex vertex = iter.next();
+
+                impactedVertices.putIfAbsent(vertex.getIdForDisplay(), vertex);
+            }
+        }
+
+        for (AtlasVertex classificationVertex : classificationVertices) {
+            Map<String, AtlasVertex> propagatedVertices = new LinkedHashMap<>();
+
+            for (Map.Entry<String, AtlasVertex> entry : impactedVertices.entrySet()) {
+                if (hasPropagatedClassification(entry.getValue(), classificationVertex)) {
+                    propagatedVertices.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            if (propagatedVertices.isEmpty()) {
+                continue;
+            }
+
+            AtlasVertex sourceEntityVertex = AtlasGraphUtilsV2.findByGuid(this.graph, getClassificationEntityGuid(classificationVertex));
+
+            if (sourceEntityVertex == null) {
+                LOG.warn("getRemovedPropagationsMapping(): entity not found for classification {}", classificationVertex.getIdForDisplay());
+
+                continue;
+            }
+
+            Iterator<AtlasVertex> iter = new ImpactedVerticesIterator(sourceEntityVertex, relationshipGuid, classificationVertex.getIdForDisplay(), false);
+
+            while (!propagatedVertices.isEmpty() && iter.hasNext()) {
+                propagatedVertices.remove(iter.next().getIdForDisplay());
+            }
+
+            if (!propagatedVertices.isEmpty()) {
+                ret.put(classificationVertex, new ArrayList<>(propagatedVertices.values()));
+            }
+        }
+
+        return ret;
+    }
+
     public AtlasRelationshipHeader mapEdgeToAtlasRelationshipHeader(AtlasEdge edge) throws AtlasBaseException {
         AtlasRelationshipWithExtInfo withExtInfo = new AtlasRelationshipWithExtInfo();
 
@@ -673,76 +758,11 @@ public class EntityGraphRetriever {
     }
 
     private void traverseImpactedVertices(final AtlasVertex entityVertexStart, final String relationshipGuidToExclude, final String classificationId, final List<AtlasVertex> result) {
-        Set<String>              visitedVertices = new HashSet<>();
-        Queue<AtlasVertex>       queue           = new ArrayDeque<>(Collections.singletonList(entityVertexStart));
-        Map<String, AtlasVertex> resultsMap      = new HashMap<>();
-
-        while (!queue.isEmpty()) {
-            AtlasVertex entityVertex   = queue.poll();
-            String      entityVertexId = entityVertex.getIdForDisplay();
-
-            if (visitedVertices.contains(entityVertexId)) {
-                LOG.info("Already visited: {}", entityVertexId);
-
-                continue;
-            }
-
-            visitedVertices.add(entityVertexId);
-
-            AtlasEntityType entityType          = typeRegistry.getEntityTypeByName(getTypeName(entityVertex));
-            String[]        tagPropagationEdges = entityType != null ? entityType.getTagPropagationEdgesArray() : null;
-
-            if (tagPropagationEdges == null) {
-                continue;
-            }
-
-            Iterable<AtlasEdge> propagationEdges = entityVertex.getEdges(AtlasEdgeDirection.BOTH, tagPropagationEdges);
-
-            for (AtlasEdge propagationEdge : propagationEdges) {
-                if (getEdgeStatus(propagationEdge) != ACTIVE && !RequestContext.get().isImportInProgress()) {
-                    continue;
-                }
-
-                PropagateTags tagPropagation = getPropagateTags(propagationEdge);
-
-                if (tagPropagation == null || tagPropagation == NONE) {
-                    continue;
-                } else if (tagPropagation == TWO_TO_ONE) {
-                    if (isOutVertex(entityVertex, propagationEdge)) {
-                        continue;
-                    }
-                } else if (tagPropagation == ONE_TO_TWO) {
-                    if (!isOutVertex(entityVertex, propagationEdge)) {
-                        continue;
-                    }
-                }
-
-                if (relationshipGuidToExclude != null) {
-                    if (StringUtils.equals(getRelationshipGuid(propagationEdge), relationshipGuidToExclude)) {
-                        continue;
-                    }
-                }
+        Iterator<AtlasVertex> iter = new ImpactedVerticesIterator(entityVertexStart, relationshipGuidToExclude, classificationId, false);
 
-                if (classificationId != null) {
-                    List<String> blockedClassificationIds = getBlockedClassificationIds(propagationEdge);
-
-                    if (CollectionUtils.isNotEmpty(blockedClassificationIds) && blockedClassificationIds.contains(classificationId)) {
-                        continue;
-                    }
-                }
-
-                AtlasVertex adjacentVertex             = getOtherVertex(propagationEdge, entityVertex);
-                String      adjacentVertexIdForDisplay = adjacentVertex.getIdForDisplay();
-
-                if (!visitedVertices.contains(adjacentVertexIdForDisplay) && !resultsMap.containsKey(adjacentVertexIdForDisplay)) {
-                    resultsMap.put(adjacentVertexIdForDisplay, adjacentVertex);
-
-                    queue.add(adjacentVertex);
-                }
-            }
+        while (iter.hasNext()) {
+            result.add(iter.next());
         }
-
-        result.addAll(resultsMap.values());
     }
 
     private boolean isOutVertex(AtlasVertex vertex, AtlasEdge edge) {
@@ -1799,4 +1819,94 @@ public class EntityGraphRetriever {
     private boolean isInactiveEdge(Object element, boolean ignoreInactive) {
         return ignoreInactive && element instanceof AtlasEdge && getStatus((AtlasEdge) element) != AtlasEntity.Status.ACTIVE;
     }
+
+    private class ImpactedVerticesIterator implements Iterator<AtlasVertex> {
+        private final String             relationshipGuidToExclude;
+        private final String             classificationId;
+        private final Set<String>        visitedVertices = new HashSet<>();
+        private final Queue<AtlasVertex> queue           = new ArrayDeque<>();
+        private final Queue<AtlasVertex> pending         = new ArrayDeque<>();
+
+        ImpactedVerticesIterator(AtlasVertex entityVertexStart, String relationshipGuidToExclude, String classificationId, boolean includeStartVertex) {
+            this.relationshipGuidToExclude = relationshipGuidToExclude;
+            this.classificationId          = classificationId;
+
+            visitedVertices.add(entityVertexStart.getIdForDisplay());
+            queue.add(entityVertexStart);
+
+            if (includeStartVertex) {
+                pending.add(entityVertexStart);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending.isEmpty() && !queue.isEmpty()) {
+                addAdjacentVertices(queue.poll());
+            }
+
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public AtlasVertex next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return pending.poll();
+        }
+
+        private void addAdjacentVertices(AtlasVertex entityVertex) {
+            AtlasEntityType entityType          = typeRegistry.getEntityTypeByName(getTypeName(entityVertex));
+            String[]        tagPropagationEdges = entityType != null ? entityType.getTagPropagationEdgesArray() : null;
+
+            if (tagPropagationEdges == null) {
+                return;
+            }
+
+            Iterable<AtlasEdge> propagationEdges = entityVertex.getEdges(AtlasEdgeDirection.BOTH, tagPropagationEdges);
+
+            for (AtlasEdge propagationEdge : propagationEdges) {
+                if (getEdgeStatus(propagationEdge) != ACTIVE && !RequestContext.get().isImportInProgress()) {
+                    continue;
+                }
+
+                PropagateTags tagPropagation = getPropagateTags(propagationEdge);
+
+                if (tagPropagation == null || tagPropagation == NONE) {
+                    continue;
+                } else if (tagPropagation == TWO_TO_ONE) {
+                    if (isOutVertex(entityVertex, propagationEdge)) {
+                        continue;
+                    }
+                } else if (tagPropagation == ONE_TO_TWO) {
+                    if (!isOutVertex(entityVertex, propagationEdge)) {
+                        continue;
+                    }
+                }
+
+                if (relationshipGuidToExclude != null) {
+                    if (StringUtils.equals(getRelationshipGuid(propagationEdge), relationshipGuidToExclude)) {
+                        continue;
+                    }
+                }
+
+                if (classificationId != null) {
+                    List<String> blockedClassificationIds = getBlockedClassificationIds(propagationEdge);
+
+                    if (CollectionUtils.isNotEmpty(blockedClassificationIds) && blockedClassificationIds.contains(classificationId)) {
+                        continue;
+                    }
+                }
+
+                AtlasVertex adjacentVertex = getOtherVertex(propagationEdge, entityVertex);
+
+                if (visitedVertices.add(adjacentVertex.getIdForDisplay())) {
+                    queue.add(adjacentVertex);
+                    pending.add(adjacentVertex);
+                }
+            }
+        }
+    }
 }
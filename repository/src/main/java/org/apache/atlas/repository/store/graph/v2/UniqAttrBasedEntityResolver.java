@@ -28,17 +28,21 @@ import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.EntityGraphDiscoveryContext;
 import org.apache.atlas.repository.store.graph.EntityResolver;
 import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.commons.collections.MapUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class UniqAttrBasedEntityResolver implements EntityResolver {
-    private static final Logger     LOG = LoggerFactory.getLogger(UniqAttrBasedEntityResolver.class);
+    private static final Logger     LOG        = LoggerFactory.getLogger(UniqAttrBasedEntityResolver.class);
+    private static final int        BATCH_SIZE = AtlasConfiguration.ENTITY_RESOLVER_BATCH_SIZE.getInt();
     private final        AtlasGraph graph;
     private final AtlasTypeRegistry typeRegistry;
     private final EntityGraphMapper entityGraphMapper;
@@ -56,8 +60,9 @@ public class UniqAttrBasedEntityResolver implements EntityResolver {
         }
 
         //Resolve attribute references
-        List<AtlasObjectId> resolvedReferences = new ArrayList<>();
-        AtlasVertex         vertex;
+        List<AtlasObjectId>             resolvedReferences = new ArrayList<>();
+        Map<AtlasObjectId, AtlasVertex> batchLookups       = findInBatches(context.getReferencedByUniqAttribs());
+        AtlasVertex                     vertex;
 
         for (AtlasObjectId objId : context.getReferencedByUniqAttribs()) {
             AtlasEntityType entityType = typeRegistry.getEntityTypeByName(objId.getTypeName());
@@ -70,7 +75,9 @@ public class UniqAttrBasedEntityResolver implements EntityResolver {
             final String              typeName       = entityType.getTypeName();
             final Map<String, Object> uniqAttributes = objId.getUniqueAttributes();
 
-            if (isParallelProcessingAllowed(uniqAttributes, msgTimestamp)) {
+            if (batchLookups.containsKey(objId)) {
+                vertex = batchLookups.get(objId);
+            } else if (isParallelProcessingAllowed(uniqAttributes, msgTimestamp)) {
                 LOG.debug("Parallel Processing-{}: Using temporal lookup (findActiveByUniqueAttributesAsOf) with entityType={}, attrValues={}, asOfTimestamp={}",
                         Thread.currentThread().getName(), typeName, uniqAttributes, msgTimestamp);
                 vertex = AtlasGraphUtilsV2.findActiveByUniqueAttributesAsOf(this.graph, entityType, uniqAttributes, msgTimestamp);
@@ -93,6 +100,85 @@ public class UniqAttrBasedEntityResolver implements EntityResolver {
         return context;
     }
 
+    /**
+     * Looks up references having a single unique attribute value with one graph query per type, attribute and batch of
+     * values, instead of one query per reference. References that can't be looked up this way, like those having more
+     * than one unique attribute or those needing temporal lookup, are not included in the returned map.
+     *
+     * @return vertices of the references looked up; null for references not found
+     */
+    private Map<AtlasObjectId, AtlasVertex> findInBatches(Collection<AtlasObjectId> objIds) {
+        Map<AtlasObjectId, AtlasVertex> ret = new HashMap<>();
+
+        if (BATCH_SIZE <= 1 || objIds.size() < 2) {
+            return ret;
+        }
+
+        // typeName -> unique attribute name -> attribute value -> references
+        Map<String, Map<String, Map<String, List<AtlasObjectId>>>> lookups = new HashMap<>();
+
+        for (AtlasObjectId objId : objIds) {
+            AtlasEntityType     entityType     = typeRegistry.getEntityTypeByName(objId.getTypeName());
+            Map<String, Object> uniqAttributes = objId.getUniqueAttributes();
+
+            if (entityType == null || isParallelProcessingAllowed(uniqAttributes, RequestContext.get().getCreateEventMsgTime())) {
+                continue;
+            }
+
+            String attrName  = null;
+            Object attrValue = null;
+            int    attrCount = 0;
+
+            for (String uniqAttrName : entityType.getUniqAttributes().keySet()) {
+                Object value = uniqAttributes != null ? uniqAttributes.get(uniqAttrName) : null;
+
+                if (value != null) {
+                    attrName  = uniqAttrName;
+                    attrValue = value;
+                    attrCount++;
+                }
+            }
+
+            if (attrCount == 1 && attrValue instanceof String) {
+                lookups.computeIfAbsent(entityType.getTypeName(), k -> new HashMap<>())
+                        .computeIfAbsent(attrName, k -> new HashMap<>())
+                        .computeIfAbsent((String) attrValue, k -> new ArrayList<>()).add(objId);
+            }
+        }
+
+        for (Map.Entry<String, Map<String, Map<String, List<AtlasObjectId>>>> typeEntry : lookups.entrySet()) {
+            AtlasEntityType entityType = typeRegistry.getEntityTypeByName(typeEntry.getKey());
+
+            for (Map.Entry<String, Map<String, List<AtlasObjectId>>> attrEntry : typeEntry.getValue().entrySet()) {
+                Map<String, List<AtlasObjectId>> refsByValue = attrEntry.getValue();
+
+                if (refsByValue.size() < 2) { // single lookup doesn't benefit from batching
+                    continue;
+                }
+
+                AtlasAttribute attribute  = entityType.getUniqAttributes().get(attrEntry.getKey());
+                List<String>   attrValues = new ArrayList<>(refsByValue.keySet());
+
+                for (int i = 0; i < attrValues.size(); i += BATCH_SIZE) {
+                    List<String>             batch    = attrValues.subList(i, Math.min(i + BATCH_SIZE, attrValues.size()));
+                    Map<String, AtlasVertex> vertices = AtlasGraphUtilsV2.findByUniqueAttributeValues(this.graph, entityType, attribute, batch);
+
+                    for (String attrValue : batch) {
+                        AtlasVertex vertex = vertices.get(attrValue);
+
+                        for (AtlasObjectId objId : refsByValue.get(attrValue)) {
+                            ret.put(objId, vertex);
+                        }
+                    }
+                }
+
+                LOG.debug("findInBatches(): looked up {} references of type {} by {}", attrValues.size(), typeEntry.getKey(), attrEntry.getKey());
+            }
+        }
+
+        return ret;
+    }
+
     private boolean isParallelProcessingAllowed(Map<String, Object> uniqAttributes, Long msgTimestamp) {
         return AtlasConfiguration.ATLAS_PARALLEL_PROCESSING_ENABLED.getBoolean() && MapUtils.isNotEmpty(uniqAttributes) && msgTimestamp != null;
     }
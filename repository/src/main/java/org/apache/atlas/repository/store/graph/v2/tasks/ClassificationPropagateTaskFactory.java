@@ -32,6 +32,7 @@ import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class ClassificationPropagateTaskFactory implements TaskFactory {
@@ -41,7 +42,8 @@ public class ClassificationPropagateTaskFactory implements TaskFactory {
     public static final String CLASSIFICATION_PROPAGATION_DELETE              = "CLASSIFICATION_PROPAGATION_DELETE";
     public static final String CLASSIFICATION_PROPAGATION_RELATIONSHIP_UPDATE = "CLASSIFICATION_PROPAGATION_RELATIONSHIP_UPDATE";
 
-    private static final List<String> SUPPORTED_TYPES = new ArrayList<>(Arrays.asList(CLASSIFICATION_PROPAGATION_ADD, CLASSIFICATION_PROPAGATION_DELETE, CLASSIFICATION_PROPAGATION_RELATIONSHIP_UPDATE));
+    private static final List<String> SUPPORTED_TYPES      = new ArrayList<>(Arrays.asList(CLASSIFICATION_PROPAGATION_ADD, CLASSIFICATION_PROPAGATION_DELETE, CLASSIFICATION_PROPAGATION_RELATIONSHIP_UPDATE));
+    private static final List<String> PARTITION_KEY_PARAMS = Arrays.asList(ClassificationTask.PARAM_ENTITY_GUID, ClassificationTask.PARAM_CLASSIFICATION_VERTEX_ID, ClassificationTask.PARAM_RELATIONSHIP_GUID);
 
     private final AtlasGraph             graph;
     private final EntityGraphMapper      entityGraphMapper;
@@ -80,4 +82,25 @@ public class ClassificationPropagateTaskFactory implements TaskFactory {
     public List<String> getSupportedTypes() {
         return SUPPORTED_TYPES;
     }
+
+    /**
+     * Propagation tasks of an entity, of a classification or of a relationship are executed in the order they were created.
+     */
+    @Override
+    public List<String> getPartitionKeys(AtlasTask task) {
+        List<String>        ret        = new ArrayList<>(PARTITION_KEY_PARAMS.size());
+        Map<String, Object> parameters = task.getParameters();
+
+        if (parameters != null) {
+            for (String param : PARTITION_KEY_PARAMS) {
+                Object value = parameters.get(param);
+
+                if (value != null) {
+                    ret.add(param + ":" + value);
+                }
+            }
+        }
+
+        return ret;
+    }
 }
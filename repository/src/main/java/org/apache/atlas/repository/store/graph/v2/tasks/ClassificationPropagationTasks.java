@@ -20,15 +20,25 @@ package org.apache.atlas.repository.store.graph.v2.tasks;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.instance.AtlasRelationship;
 import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.repository.graph.GraphHelper;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
 import org.apache.atlas.repository.store.graph.v1.DeleteHandlerDelegate;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphMapper;
 import org.apache.atlas.type.AtlasType;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 public class ClassificationPropagationTasks {
+    private static final Logger LOG = LoggerFactory.getLogger(ClassificationPropagationTasks.class);
+
     public static class Add extends ClassificationTask {
         public Add(AtlasTask task, AtlasGraph graph, EntityGraphMapper entityGraphMapper, DeleteHandlerDelegate deleteDelegate, AtlasRelationshipStore relationshipStore) {
             super(task, graph, entityGraphMapper, deleteDelegate, relationshipStore);
@@ -40,7 +50,52 @@ public class ClassificationPropagationTasks {
             String classificationVertexId = (String) parameters.get(PARAM_CLASSIFICATION_VERTEX_ID);
             String relationshipGuid       = (String) parameters.get(PARAM_RELATIONSHIP_GUID);
 
-            entityGraphMapper.propagateClassification(entityGuid, classificationVertexId, relationshipGuid);
+            Iterator<AtlasVertex> impactedVertices = entityGraphMapper.getImpactedVerticesToPropagate(entityGuid, classificationVertexId, relationshipGuid);
+            long                  processedCount   = getProcessedCount();
+
+            if (processedCount > 0) {
+                if (skipProcessedVertices(impactedVertices, processedCount)) {
+                    LOG.info("Task: {}: resuming propagation after {} entities", getTaskGuid(), processedCount);
+                } else {
+                    LOG.warn("Task: {}: entities to propagate to changed since the last checkpoint; propagating to all entities", getTaskGuid());
+
+                    impactedVertices = entityGraphMapper.getImpactedVerticesToPropagate(entityGuid, classificationVertexId, relationshipGuid);
+                    processedCount   = 0;
+                }
+            }
+
+            List<AtlasVertex> chunk = new ArrayList<>();
+
+            while (impactedVertices.hasNext()) {
+                chunk.add(impactedVertices.next());
+
+                if (chunk.size() >= PROPAGATION_CHUNK_SIZE || !impactedVertices.hasNext()) {
+                    String lastProcessedGuid = GraphHelper.getGuid(chunk.get(chunk.size() - 1));
+
+                    entityGraphMapper.propagateClassification(classificationVertexId, chunk);
+
+                    processedCount += chunk.size();
+
+                    saveProgress(processedCount, lastProcessedGuid);
+
+                    chunk = new ArrayList<>();
+                }
+            }
+        }
+
+        // the traversal order is stable as long as the lineage doesn't change; the guid recorded for the last processed
+        // entity is used to detect changes, in which case the propagation is applied again to all entities
+        private boolean skipProcessedVertices(Iterator<AtlasVertex> impactedVertices, long processedCount) {
+            AtlasVertex lastProcessed = null;
+            long        skippedCount  = 0;
+
+            while (skippedCount < processedCount && impactedVertices.hasNext()) {
+                lastProcessed = impactedVertices.next();
+
+                skippedCount++;
+            }
+
+            return skippedCount == processedCount && lastProcessed != null && StringUtils.equals(GraphHelper.getGuid(lastProcessed), getLastProcessedGuid());
         }
     }
 
@@ -53,8 +108,21 @@ public class ClassificationPropagationTasks {
         protected void run(Map<String, Object> parameters) throws AtlasBaseException {
             String entityGuid             = (String) parameters.get(PARAM_ENTITY_GUID);
             String classificationVertexId = (String) parameters.get(PARAM_CLASSIFICATION_VERTEX_ID);
+            long   processedCount         = getProcessedCount();
+
+            LOG.debug("Task: {}: removing propagations of classification {} from entity {}", getTaskGuid(), classificationVertexId, entityGuid);
+
+            // propagations removed in earlier chunks are gone from the graph, hence each chunk picks up where the previous one stopped
+            List<String> guids = entityGraphMapper.deleteClassificationPropagation(classificationVertexId, PROPAGATION_CHUNK_SIZE);
+
+            while (guids != null) {
+                processedCount += guids.size();
+
+                saveProgress(processedCount, null);
 
-            entityGraphMapper.deleteClassificationPropagation(entityGuid, classificationVertexId);
+                // the classification vertex is deleted along with the last chunk of propagations
+                guids = graph.getVertex(classificationVertexId) != null ? entityGraphMapper.deleteClassificationPropagation(classificationVertexId, PROPAGATION_CHUNK_SIZE) : null;
+            }
         }
     }
 
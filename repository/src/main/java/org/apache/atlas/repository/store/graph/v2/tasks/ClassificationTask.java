@@ -17,6 +17,7 @@
  */
 package org.apache.atlas.repository.store.graph.v2.tasks;
 
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.RequestContext;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.exception.EntityNotFoundException;
@@ -53,6 +54,10 @@ public abstract class ClassificationTask extends AbstractTask {
     public static final String PARAM_IMPORT_IN_PROGRESS       = "isImportInProgress";
     public static final boolean DEFAULT_IMPORT_IN_PROGRESS    = false;
 
+    protected static final String CHECKPOINT_PROCESSED_COUNT = "processedCount";
+    protected static final String CHECKPOINT_LAST_GUID       = "lastProcessedGuid";
+    protected static final int    PROPAGATION_CHUNK_SIZE     = getPropagationChunkSize();
+
     protected final AtlasGraph             graph;
     protected final EntityGraphMapper      entityGraphMapper;
     protected final DeleteHandlerDelegate  deleteDelegate;
@@ -155,4 +160,46 @@ public abstract class ClassificationTask extends AbstractTask {
     }
 
     protected abstract void run(Map<String, Object> parameters) throws AtlasBaseException;
+
+    /**
+     * Called after each chunk of the propagation is committed: records the progress made so far, to resume from after
+     * a restart, and releases per-request caches held for the chunk. The checkpoint is committed in a separate
+     * transaction; if the server stops before that, the task resumes from the previous checkpoint and applies the chunk
+     * again. That is idempotent: entities already having the propagated classification are skipped, and removal picks up
+     * the propagations that remain.
+     */
+    protected void saveProgress(long processedCount, String lastProcessedGuid) {
+        Map<String, Object> checkpoint = new HashMap<>();
+
+        checkpoint.put(CHECKPOINT_PROCESSED_COUNT, processedCount);
+
+        if (lastProcessedGuid != null) {
+            checkpoint.put(CHECKPOINT_LAST_GUID, lastProcessedGuid);
+        }
+
+        saveCheckpoint(checkpoint);
+
+        graph.commit();
+
+        RequestContext.get().clearCache();
+    }
+
+    protected long getProcessedCount() {
+        Map<String, Object> checkpoint = getCheckpoint();
+        Object              ret        = checkpoint != null ? checkpoint.get(CHECKPOINT_PROCESSED_COUNT) : null;
+
+        return ret instanceof Number ? ((Number) ret).longValue() : 0;
+    }
+
+    protected String getLastProcessedGuid() {
+        Map<String, Object> checkpoint = getCheckpoint();
+
+        return checkpoint != null ? (String) checkpoint.get(CHECKPOINT_LAST_GUID) : null;
+    }
+
+    private static int getPropagationChunkSize() {
+        int ret = AtlasConfiguration.TASKS_PROPAGATION_CHUNK_SIZE.getInt();
+
+        return ret > 0 ? ret : Integer.MAX_VALUE;
+    }
 }
@@ -19,10 +19,13 @@ package org.apache.atlas.tasks;
 
 import org.apache.atlas.model.tasks.AtlasTask;
 
+import java.util.Map;
+
 import static org.apache.atlas.model.tasks.AtlasTask.Status;
 
 public abstract class AbstractTask {
-    private final AtlasTask task;
+    private final AtlasTask    task;
+    private       TaskRegistry registry;
 
     public AbstractTask(AtlasTask task) {
         this.task = task;
@@ -65,4 +68,26 @@ public abstract class AbstractTask {
     protected AtlasTask getTaskDef() {
         return this.task;
     }
+
+    protected Map<String, Object> getCheckpoint() {
+        return task.getCheckpoint();
+    }
+
+    /**
+     * Records progress of the task, to resume from after a restart. The checkpoint is written in the current graph
+     * transaction, which the caller commits. A task that commits each chunk of work in its own transaction commits the
+     * checkpoint afterwards, in a separate transaction; if the server stops in between, the persisted checkpoint lags
+     * one chunk behind and that chunk is applied again on resume. Re-applying a chunk must therefore be idempotent.
+     */
+    protected void saveCheckpoint(Map<String, Object> checkpoint) {
+        task.setCheckpoint(checkpoint);
+
+        if (registry != null) {
+            registry.updateCheckpoint(task);
+        }
+    }
+
+    void setTaskRegistry(TaskRegistry registry) {
+        this.registry = registry;
+    }
 }
@@ -19,39 +19,74 @@ package org.apache.atlas.tasks;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.AtlasConfiguration;
 import org.apache.atlas.model.tasks.AtlasTask;
 import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.type.AtlasType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+/**
+ * Executes tasks using a pool of worker threads. Tasks having a common partition key - the task guid, or a key
+ * returned by TaskFactory.getPartitionKeys(), like guid of the entity the task operates on - are executed one at
+ * a time, in the order they were added; other tasks execute in parallel, subject to per-task-type concurrency limits.
+ *
+ * Each partition key has a queue of the tasks having that key, in the order they were added; the task at the head of
+ * a queue holds the key until it completes. A task that is at the head of the queues of all its keys is ready, and is
+ * started in the order it was added - once a thread is free and the concurrency limit of its type allows.
+ */
 public class TaskExecutor {
     private static final Logger LOG = LoggerFactory.getLogger(TaskExecutor.class);
 
     private static final TaskLogger TASK_LOG         = TaskLogger.getLogger();
     private static final String     TASK_NAME_FORMAT = "atlas-task-%d-";
-
-    private final TaskRegistry              registry;
-    private final Map<String, TaskFactory>  taskTypeFactoryMap;
-    private final TaskManagement.Statistics statistics;
-    private final ExecutorService           executorService;
+    private static final String     TASK_KEY_PREFIX  = "task:";
+    private static final long       MAX_WAIT_TIME_MS = 5000L;
+
+    private final TaskRegistry                           registry;
+    private final Map<String, TaskFactory>               taskTypeFactoryMap;
+    private final TaskManagement.Statistics              statistics;
+    private final ExecutorService                        executorService;
+    private final int                                    threadCount;
+    private final Map<String, Integer>                   typeConcurrencyLimits;
+    private final Map<String, ArrayDeque<QueuedTask>>    keyQueues         = new HashMap<>();
+    private final PriorityQueue<QueuedTask>              readyTasks        = new PriorityQueue<>(QueuedTask.BY_SEQUENCE);
+    private final Map<String, PriorityQueue<QueuedTask>> typeWaitingTasks  = new HashMap<>(); // ready tasks waiting for the concurrency limit of their type
+    private final Map<String, Integer>                   typeInProgressMap = new HashMap<>();
+    private       long                                   nextSequence;
+    private       int                                    inProgressCount;
 
     public TaskExecutor(TaskRegistry registry, Map<String, TaskFactory> taskTypeFactoryMap, TaskManagement.Statistics statistics) {
-        this.registry           = registry;
-        this.taskTypeFactoryMap = taskTypeFactoryMap;
-        this.statistics         = statistics;
-        this.executorService    = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+        this(registry, taskTypeFactoryMap, statistics, AtlasConfiguration.TASKS_EXECUTOR_THREAD_COUNT.getInt(), Collections.emptyMap());
+    }
+
+    public TaskExecutor(TaskRegistry registry, Map<String, TaskFactory> taskTypeFactoryMap, TaskManagement.Statistics statistics, int threadCount, Map<String, Integer> typeConcurrencyLimits) {
+        this.registry              = registry;
+        this.taskTypeFactoryMap    = taskTypeFactoryMap;
+        this.statistics            = statistics;
+        this.threadCount           = Math.max(threadCount, 1);
+        this.typeConcurrencyLimits = typeConcurrencyLimits;
+        this.executorService       = Executors.newFixedThreadPool(this.threadCount, new ThreadFactoryBuilder()
                 .setDaemon(true)
                 .setNameFormat(TASK_NAME_FORMAT + Thread.currentThread().getName())
                 .build());
+
+        LOG.info("TaskExecutor: threadCount={}, typeConcurrencyLimits={}", this.threadCount, typeConcurrencyLimits);
     }
 
-    public void addAll(List<AtlasTask> tasks) {
+    public synchronized void addAll(List<AtlasTask> tasks) {
         for (AtlasTask task : tasks) {
             if (task == null) {
                 continue;
@@ -59,13 +94,153 @@ public class TaskExecutor {
 
             TASK_LOG.log(task);
 
-            this.executorService.submit(new TaskConsumer(task, this.registry, this.taskTypeFactoryMap, this.statistics));
+            QueuedTask queuedTask = new QueuedTask(task, getPartitionKeys(task), nextSequence++);
+
+            for (String key : queuedTask.keys) {
+                ArrayDeque<QueuedTask> keyQueue = keyQueues.computeIfAbsent(key, k -> new ArrayDeque<>());
+
+                if (!keyQueue.isEmpty()) {
+                    queuedTask.blockingKeyCount++;
+                }
+
+                keyQueue.add(queuedTask);
+            }
+
+            if (queuedTask.blockingKeyCount == 0) {
+                readyTasks.add(queuedTask);
+            }
+
+            statistics.taskQueued();
         }
+
+        dispatch();
     }
 
     @VisibleForTesting
     void waitUntilDone() throws InterruptedException {
-        Thread.sleep(5000);
+        long waitUntil = System.currentTimeMillis() + MAX_WAIT_TIME_MS;
+
+        synchronized (this) {
+            for (long waitTime = MAX_WAIT_TIME_MS; waitTime > 0 && !keyQueues.isEmpty(); waitTime = waitUntil - System.currentTimeMillis()) {
+                wait(waitTime);
+            }
+        }
+    }
+
+    /*
+     * Starts ready tasks, in the order they were added, until all threads are busy. A ready task whose type has reached
+     * its concurrency limit is set aside until a task of that type completes.
+     */
+    private synchronized void dispatch() {
+        while (inProgressCount < threadCount && !readyTasks.isEmpty()) {
+            QueuedTask queuedTask = readyTasks.poll();
+            String     taskType   = queuedTask.task.getType();
+
+            if (isConcurrencyLimitReached(taskType)) {
+                typeWaitingTasks.computeIfAbsent(taskType, k -> new PriorityQueue<>(QueuedTask.BY_SEQUENCE)).add(queuedTask);
+
+                continue;
+            }
+
+            typeInProgressMap.merge(taskType, 1, Integer::sum);
+
+            inProgressCount++;
+
+            statistics.taskStarted(System.currentTimeMillis() - queuedTask.queuedTime);
+
+            executorService.submit(() -> execute(queuedTask));
+        }
+    }
+
+    private void execute(QueuedTask queuedTask) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            new TaskConsumer(queuedTask.task, this.registry, this.taskTypeFactoryMap, this.statistics).run();
+        } finally {
+            synchronized (this) {
+                String                    taskType     = queuedTask.task.getType();
+                PriorityQueue<QueuedTask> waitingTasks = typeWaitingTasks.get(taskType);
+
+                typeInProgressMap.merge(taskType, -1, Integer::sum);
+
+                inProgressCount--;
+
+                if (waitingTasks != null) {
+                    readyTasks.add(waitingTasks.poll());
+
+                    if (waitingTasks.isEmpty()) {
+                        typeWaitingTasks.remove(taskType);
+                    }
+                }
+
+                releaseKeys(queuedTask);
+
+                statistics.taskCompleted(System.currentTimeMillis() - startTime);
+
+                dispatch();
+
+                notifyAll();
+            }
+        }
+    }
+
+    /*
+     * Removes the completed task from the head of its key queues; the next task in a queue is ready once it is at the
+     * head of the queues of all its keys.
+     */
+    private void releaseKeys(QueuedTask queuedTask) {
+        for (String key : queuedTask.keys) {
+            ArrayDeque<QueuedTask> keyQueue = keyQueues.get(key);
+
+            keyQueue.poll();
+
+            if (keyQueue.isEmpty()) {
+                keyQueues.remove(key);
+            } else {
+                QueuedTask nextTask = keyQueue.peek();
+
+                if (--nextTask.blockingKeyCount == 0) {
+                    readyTasks.add(nextTask);
+                }
+            }
+        }
+    }
+
+    private boolean isConcurrencyLimitReached(String taskType) {
+        Integer limit = typeConcurrencyLimits.get(taskType);
+
+        return limit != null && limit > 0 && typeInProgressMap.getOrDefault(taskType, 0) >= limit;
+    }
+
+    private Set<String> getPartitionKeys(AtlasTask task) {
+        Set<String> ret     = new LinkedHashSet<>();
+        TaskFactory factory = taskTypeFactoryMap.get(task.getType());
+
+        ret.add(TASK_KEY_PREFIX + task.getGuid());
+
+        if (factory != null) {
+            ret.addAll(factory.getPartitionKeys(task));
+        }
+
+        return ret;
+    }
+
+    private static class QueuedTask {
+        private static final Comparator<QueuedTask> BY_SEQUENCE = Comparator.comparingLong(t -> t.sequence);
+
+        private final AtlasTask   task;
+        private final Set<String> keys;
+        private final long        sequence;
+        private final long        queuedTime;
+        private       int         blockingKeyCount; // number of keys for which an earlier task is queued or in progress
+
+        QueuedTask(AtlasTask task, Set<String> keys, long sequence) {
+            this.task       = task;
+            this.keys       = keys;
+            this.sequence   = sequence;
+            this.queuedTime = System.currentTimeMillis();
+        }
     }
 
     static class TaskConsumer implements Runnable {
@@ -145,6 +320,8 @@ public class TaskExecutor {
 
             AbstractTask runnableTask = factory.create(task);
 
+            runnableTask.setTaskRegistry(registry);
+
             runnableTask.run();
 
             registry.deleteComplete(taskVertex, task);
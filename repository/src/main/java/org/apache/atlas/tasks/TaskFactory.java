@@ -19,6 +19,7 @@ package org.apache.atlas.tasks;
 
 import org.apache.atlas.model.tasks.AtlasTask;
 
+import java.util.Collections;
 import java.util.List;
 
 public interface TaskFactory {
@@ -30,4 +31,14 @@ public interface TaskFactory {
     AbstractTask create(AtlasTask atlasTask);
 
     List<String> getSupportedTypes();
+
+    /**
+     * Returns keys identifying the entities/vertices the task operates on. Tasks having a common key are executed
+     * one at a time, in the order they were queued; other tasks can be executed in parallel.
+     * @param atlasTask
+     * @return keys of the task; empty if the task doesn't conflict with other tasks
+     */
+    default List<String> getPartitionKeys(AtlasTask atlasTask) {
+        return Collections.emptyList();
+    }
 }
@@ -39,12 +39,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 @Order(7)
 public class TaskManagement implements Service, ActiveStateChangeHandler {
     private static final Logger LOG = LoggerFactory.getLogger(TaskManagement.class);
 
+    public static final String TASK_TYPE_CONCURRENCY_LIMIT_PREFIX = "atlas.tasks.executor.max.concurrency.";
+
     private final Configuration            configuration;
     private final TaskRegistry             registry;
     private final Statistics               statistics;
@@ -202,7 +205,7 @@ public class TaskManagement implements Service, ActiveStateChangeHandler {
         }
 
         if (this.taskExecutor == null) {
-            this.taskExecutor = new TaskExecutor(registry, taskTypeFactoryMap, statistics);
+            this.taskExecutor = new TaskExecutor(registry, taskTypeFactoryMap, statistics, AtlasConfiguration.TASKS_EXECUTOR_THREAD_COUNT.getInt(), getTypeConcurrencyLimits());
         }
 
         this.taskExecutor.addAll(tasks);
@@ -210,6 +213,23 @@ public class TaskManagement implements Service, ActiveStateChangeHandler {
         this.statistics.print();
     }
 
+    // atlas.tasks.executor.max.concurrency.<taskType>: maximum number of tasks of the type to execute in parallel
+    private Map<String, Integer> getTypeConcurrencyLimits() {
+        Map<String, Integer> ret = new HashMap<>();
+
+        if (configuration != null) {
+            for (String taskType : taskTypeFactoryMap.keySet()) {
+                int limit = configuration.getInt(TASK_TYPE_CONCURRENCY_LIMIT_PREFIX + taskType, 0);
+
+                if (limit > 0) {
+                    ret.put(taskType, limit);
+                }
+            }
+        }
+
+        return ret;
+    }
+
     private void startInternal() {
         if (!AtlasConfiguration.TASKS_USE_ENABLED.getBoolean()) {
             return;
@@ -246,6 +266,13 @@ public class TaskManagement implements Service, ActiveStateChangeHandler {
         private final AtomicInteger countSinceLastCheck = new AtomicInteger(0);
         private final AtomicInteger totalWithErrors     = new AtomicInteger(0);
         private final AtomicInteger totalSucceed        = new AtomicInteger(0);
+        private final AtomicInteger queueDepth          = new AtomicInteger(0);
+        private final AtomicInteger inProgress          = new AtomicInteger(0);
+        private final AtomicInteger totalStarted        = new AtomicInteger(0);
+        private final AtomicInteger totalExecuted       = new AtomicInteger(0);
+        private final AtomicLong    totalWaitTimeMs     = new AtomicLong(0);
+        private final AtomicLong    maxWaitTimeMs       = new AtomicLong(0);
+        private final AtomicLong    totalExecTimeMs     = new AtomicLong(0);
         private       long          lastCheckTime       = System.currentTimeMillis();
 
         public void error() {
@@ -262,6 +289,24 @@ public class TaskManagement implements Service, ActiveStateChangeHandler {
             increment(1);
         }
 
+        public void taskQueued() {
+            this.queueDepth.incrementAndGet();
+        }
+
+        public void taskStarted(long waitTimeMs) {
+            this.queueDepth.decrementAndGet();
+            this.inProgress.incrementAndGet();
+            this.totalStarted.incrementAndGet();
+            this.totalWaitTimeMs.addAndGet(waitTimeMs);
+            this.maxWaitTimeMs.accumulateAndGet(waitTimeMs, Math::max);
+        }
+
+        public void taskCompleted(long execTimeMs) {
+            this.inProgress.decrementAndGet();
+            this.totalExecuted.incrementAndGet();
+            this.totalExecTimeMs.addAndGet(execTimeMs);
+        }
+
         public void increment(int delta) {
             this.total.addAndGet(delta);
             this.countSinceLastCheck.addAndGet(delta);
@@ -275,9 +320,15 @@ public class TaskManagement implements Service, ActiveStateChangeHandler {
                 return;
             }
 
-            logger.info(String.format("TaskManagement: Processing stats: total=%d, sinceLastStatsReport=%d completedWithErrors=%d, succeded=%d",
+            int started  = this.totalStarted.get();
+            int executed = this.totalExecuted.get();
+
+            logger.info(String.format("TaskManagement: Processing stats: total=%d, sinceLastStatsReport=%d completedWithErrors=%d, succeded=%d, queueDepth=%d, inProgress=%d, avgWaitTimeMs=%d, maxWaitTimeMs=%d, avgExecTimeMs=%d",
                     this.total.get(), this.countSinceLastCheck.getAndSet(0),
-                    this.totalWithErrors.get(), this.totalSucceed.get()));
+                    this.totalWithErrors.get(), this.totalSucceed.get(),
+                    this.queueDepth.get(), this.inProgress.get(),
+                    started > 0 ? this.totalWaitTimeMs.get() / started : 0, this.maxWaitTimeMs.get(),
+                    executed > 0 ? this.totalExecTimeMs.get() / executed : 0));
             this.lastCheckTime = now;
         }
 
@@ -300,5 +351,17 @@ public class TaskManagement implements Service, ActiveStateChangeHandler {
         int getTotalError() {
             return this.totalWithErrors.get();
         }
+
+        public int getQueueDepth() {
+            return this.queueDepth.get();
+        }
+
+        public int getInProgress() {
+            return this.inProgress.get();
+        }
+
+        public long getMaxWaitTimeMs() {
+            return this.maxWaitTimeMs.get();
+        }
     }
 }
@@ -114,6 +114,26 @@ public class TaskRegistry {
         setEncodedProperty(taskVertex, Constants.TASK_STATUS, task.getStatus().toString());
         setEncodedProperty(taskVertex, Constants.TASK_UPDATED_TIME, System.currentTimeMillis());
         setEncodedProperty(taskVertex, Constants.TASK_ERROR_MESSAGE, task.getErrorMessage());
+
+        if (task.getCheckpoint() != null) {
+            setEncodedProperty(taskVertex, Constants.TASK_CHECKPOINT, AtlasJson.toJson(task.getCheckpoint()));
+        }
+    }
+
+    /**
+     * Writes the checkpoint of the given task to its vertex, in the current graph transaction; the caller commits it.
+     * The checkpoint is not committed atomically with the work it records, hence it can lag one chunk behind.
+     */
+    public void updateCheckpoint(AtlasTask task) {
+        AtlasVertex taskVertex = getVertex(task.getGuid());
+
+        if (taskVertex == null) {
+            LOG.warn("updateCheckpoint(): vertex not found for task {}", task.getGuid());
+
+            return;
+        }
+
+        setEncodedProperty(taskVertex, Constants.TASK_CHECKPOINT, AtlasJson.toJson(task.getCheckpoint()));
     }
 
     @GraphTransaction
@@ -255,6 +275,11 @@ public class TaskRegistry {
             ret.setErrorMessage(errorMessage);
         }
 
+        String checkpointJson = v.getProperty(Constants.TASK_CHECKPOINT, String.class);
+        if (checkpointJson != null) {
+            ret.setCheckpoint(AtlasType.fromJson(checkpointJson, Map.class));
+        }
+
         return ret;
     }
 
@@ -281,6 +306,10 @@ public class TaskRegistry {
         setEncodedProperty(ret, Constants.TASK_ATTEMPT_COUNT, task.getAttemptCount());
         setEncodedProperty(ret, Constants.TASK_ERROR_MESSAGE, task.getErrorMessage());
 
+        if (task.getCheckpoint() != null) {
+            setEncodedProperty(ret, Constants.TASK_CHECKPOINT, AtlasJson.toJson(task.getCheckpoint()));
+        }
+
         return ret;
     }
 }
@@ -17,6 +17,7 @@
  */
 package org.apache.atlas.util;
 
+import org.apache.atlas.GraphTransactionInterceptor;
 import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
@@ -75,6 +76,10 @@ import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_FAILED_COU
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_FAILED_COUNT_PREV_DAY;
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_FAILED_COUNT_PREV_HOUR;
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_FAILED_COUNT_TOTAL;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_INGEST_ACTIVE_WORKERS;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_INGEST_BLOCKED_TICKETS;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_INGEST_MAX_WORKERS;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_INGEST_QUEUE_DEPTH;
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_LAST_MESSAGE_PROCESSED_TIME;
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_START_TIME_CURR_DAY;
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_START_TIME_CURR_HOUR;
@@ -86,6 +91,7 @@ import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_UPDATES_CO
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_NOTIFY_UPDATES_COUNT_TOTAL;
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_OUTPUT_TOPIC_STATS;
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_SERVER_ACTIVE_TIMESTAMP;
+import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_SERVER_GUID_VERTEX_CACHE;
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_SERVER_START_TIMESTAMP;
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_SERVER_STATUS_BACKEND_STORE;
 import static org.apache.atlas.model.metrics.AtlasMetrics.STAT_SERVER_STATUS_INDEX_STORE;
@@ -140,6 +146,10 @@ public class AtlasMetricsUtil {
     private final Map<String, Long> totalFailedByTopicNP            = new ConcurrentHashMap<>();
     private       long              serverStartTime;
     private       long              serverActiveTime;
+    private volatile int            ingestActiveWorkers;
+    private volatile int            ingestMaxWorkers;
+    private volatile int            ingestQueueDepth;
+    private volatile int            ingestBlockedTickets;
 
     @Inject
     public AtlasMetricsUtil(AtlasGraph graph) {
@@ -199,6 +209,13 @@ public class AtlasMetricsUtil {
         partitionStat.setLastMessageProcessedTime(messagesProcessed.getLastIncrTime().toEpochMilli());
     }
 
+    public void onIngestWorkersUpdate(int activeWorkers, int maxWorkers, int queueDepth, int blockedTickets) {
+        this.ingestActiveWorkers  = activeWorkers;
+        this.ingestMaxWorkers     = maxWorkers;
+        this.ingestQueueDepth     = queueDepth;
+        this.ingestBlockedTickets = blockedTickets;
+    }
+
     public void onNotificationProcessorComplete(String inputTopic, int partition, long msgOffset, NotificationProcessorStats stats) {
         // 1) Input topic stats
         TopicStats inStats = npInputTopicStats.computeIfAbsent(inputTopic, TopicStats::new);
@@ -306,6 +323,7 @@ public class AtlasMetricsUtil {
         ret.put(STAT_SERVER_UP_TIME, millisToTimeDiff(System.currentTimeMillis() - serverStartTime));
         ret.put(STAT_SERVER_STATUS_BACKEND_STORE, getBackendStoreStatus() ? STATUS_CONNECTED : STATUS_NOT_CONNECTED);
         ret.put(STAT_SERVER_STATUS_INDEX_STORE, getIndexStoreStatus() ? STATUS_CONNECTED : STATUS_NOT_CONNECTED);
+        ret.put(STAT_SERVER_GUID_VERTEX_CACHE, GraphTransactionInterceptor.getSharedVertexCacheStats());
 
         Map<String, Map<String, Long>> topicDetails = new HashMap<>();
 
@@ -338,6 +356,11 @@ public class AtlasMetricsUtil {
         ret.put(STAT_NOTIFY_UPDATES_COUNT_TOTAL, entityUpdates.getCount(ALL));
         ret.put(STAT_NOTIFY_DELETES_COUNT_TOTAL, entityDeletes.getCount(ALL));
 
+        ret.put(STAT_NOTIFY_INGEST_ACTIVE_WORKERS, ingestActiveWorkers);
+        ret.put(STAT_NOTIFY_INGEST_MAX_WORKERS, ingestMaxWorkers);
+        ret.put(STAT_NOTIFY_INGEST_QUEUE_DEPTH, ingestQueueDepth);
+        ret.put(STAT_NOTIFY_INGEST_BLOCKED_TICKETS, ingestBlockedTickets);
+
         ret.put(STAT_NOTIFY_START_TIME_CURR_DAY, messagesProcessed.getDayStartTimeMs());
         ret.put(STAT_NOTIFY_COUNT_CURR_DAY, messagesProcessed.getCount(CURR_DAY));
         ret.put(STAT_NOTIFY_AVG_TIME_CURR_DAY, messagesProcessed.getMeasureAvg(CURR_DAY));
@@ -0,0 +1,289 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.util;
+
+import org.apache.atlas.GraphTransactionInterceptor;
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded LRU cache, whose entries are indexed by tags - like guids or type names of entities the value was computed
+ * from. invalidate() evicts entries having any of the given tags; entries tagged with ANY_TAG are evicted by every
+ * invalidate().
+ *
+ * A value computed by reading the graph can be stale by the time it is put in the cache, if a concurrent transaction
+ * changed the graph in between. Callers therefore get a sequence number before reading the graph and pass it to put(),
+ * which skips caching the value if any of its tags were invalidated since. Invalidations are tracked for the most
+ * recent MAX_TRACKED_INVALIDATIONS tags; invalidations older than these are treated as invalidation of all tags.
+ */
+public class InvalidatingCache<V> {
+    private static final Logger LOG = LoggerFactory.getLogger(InvalidatingCache.class);
+
+    public static final String ANY_TAG = "*";
+
+    private static final int STATS_LOG_INTERVAL        = 100000;
+    private static final int MAX_TRACKED_INVALIDATIONS = 10000;
+
+    private final String                          name;
+    private final int                             maxEntries;
+    private final long                            maxBytes;
+    private final ToIntFunction<V>                sizer;
+    private final long                            ttlMs;
+    private final LinkedHashMap<String, Entry<V>> entries         = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<String>>        keysByTag       = new HashMap<>();
+    private final LinkedHashMap<String, Long>     tagInvalidation = new LinkedHashMap<>();
+    private       long                            invalidationSeq;
+    private       long                            allInvalidationSeq;
+    private       long                            totalBytes;
+    private       long                            hitCount;
+    private       long                            missCount;
+    private       long                            evictionCount;
+    private       long                            invalidationCount;
+
+    public InvalidatingCache(String name, int maxEntries) {
+        this(name, maxEntries, Long.MAX_VALUE, null, 0);
+    }
+
+    /**
+     * @param sizer size of a value in bytes; null if the cache is bounded by number of entries alone
+     * @param ttlMs time after which entries expire; 0 if entries don't expire
+     */
+    public InvalidatingCache(String name, int maxEntries, long maxBytes, ToIntFunction<V> sizer, long ttlMs) {
+        this.name       = name;
+        this.maxEntries = maxEntries;
+        this.maxBytes   = maxBytes;
+        this.sizer      = sizer;
+        this.ttlMs      = ttlMs;
+    }
+
+    /**
+     * @return sequence number to pass to put(), which skips caching values computed before an invalidation of their tags
+     */
+    public synchronized long getSequence() {
+        return invalidationSeq;
+    }
+
+    /**
+     * @return cached value; null if not cached or expired
+     */
+    public synchronized V get(String key) {
+        Entry<V> entry = entries.get(key);
+
+        if (entry != null && ttlMs > 0 && System.currentTimeMillis() - entry.createTime > ttlMs) {
+            remove(key);
+
+            entry = null;
+        }
+
+        if (entry != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+
+        if ((hitCount + missCount) % STATS_LOG_INTERVAL == 0) {
+            LOG.info("{} stats: {}", name, getStats());
+        }
+
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * @return true if the value was cached; false if it is larger than the cache or any of its tags were invalidated since the sequence
+     */
+    public synchronized boolean put(String key, V value, Set<String> tags, long sequence) {
+        int size = sizer != null ? sizer.applyAsInt(value) : 0;
+
+        if (size > maxBytes) {
+            return false;
+        }
+
+        if (isInvalidatedSince(tags, sequence)) {
+            LOG.debug("{}.put(): not caching value computed before invalidation of {}", name, tags);
+
+            return false;
+        }
+
+        remove(key);
+
+        entries.put(key, new Entry<>(value, size, tags));
+
+        totalBytes += size;
+
+        for (String tag : tags) {
+            keysByTag.computeIfAbsent(tag, k -> new HashSet<>()).add(key);
+        }
+
+        for (Iterator<Map.Entry<String, Entry<V>>> iter = entries.entrySet().iterator(); iter.hasNext() && (entries.size() > maxEntries || totalBytes > maxBytes); ) {
+            Map.Entry<String, Entry<V>> eldest = iter.next();
+
+            iter.remove();
+            onRemove(eldest.getKey(), eldest.getValue());
+
+            evictionCount++;
+        }
+
+        return true;
+    }
+
+    public synchronized void invalidate(Collection<String> tags) {
+        if (CollectionUtils.isEmpty(tags)) {
+            return;
+        }
+
+        invalidationSeq++;
+
+        for (String tag : tags) {
+            tagInvalidation.remove(tag); // to move the tag to the end of the insertion order
+            tagInvalidation.put(tag, invalidationSeq);
+
+            removeAll(keysByTag.get(tag));
+        }
+
+        removeAll(keysByTag.get(ANY_TAG));
+
+        for (Iterator<Long> iter = tagInvalidation.values().iterator(); iter.hasNext() && tagInvalidation.size() > MAX_TRACKED_INVALIDATIONS; ) {
+            allInvalidationSeq = Math.max(allInvalidationSeq, iter.next());
+
+            iter.remove();
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidationSeq++;
+        allInvalidationSeq = invalidationSeq;
+
+        invalidationCount += entries.size();
+
+        entries.clear();
+        keysByTag.clear();
+        tagInvalidation.clear();
+
+        totalBytes = 0;
+    }
+
+    /**
+     * Invalidates entries having the given tags now and again after the current transaction completes. Entity change
+     * listeners are notified before the transaction is committed; the second invalidation removes values cached by
+     * concurrent requests that read the graph before the commit.
+     */
+    public void invalidateOnCommit(Collection<String> tags) {
+        invalidate(tags);
+
+        new GraphTransactionInterceptor.PostTransactionHook() {
+            @Override
+            public void onComplete(boolean isSuccess) {
+                invalidate(tags);
+            }
+        };
+    }
+
+    public synchronized Map<String, Number> getStats() {
+        Map<String, Number> ret     = new LinkedHashMap<>();
+        long                lookups = hitCount + missCount;
+
+        ret.put("entries", entries.size());
+
+        if (sizer != null) {
+            ret.put("bytes", totalBytes);
+        }
+
+        ret.put("hits", hitCount);
+        ret.put("misses", missCount);
+        ret.put("hitRate", lookups > 0 ? (double) hitCount / lookups : 0);
+        ret.put("evictions", evictionCount);
+        ret.put("invalidations", invalidationCount);
+
+        return ret;
+    }
+
+    private boolean isInvalidatedSince(Set<String> tags, long sequence) {
+        if (allInvalidationSeq > sequence) {
+            return true;
+        } else if (tags.contains(ANY_TAG)) {
+            return invalidationSeq > sequence;
+        }
+
+        for (String tag : tags) {
+            if (tagInvalidation.getOrDefault(tag, 0L) > sequence) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void removeAll(Set<String> keys) {
+        if (keys != null) {
+            for (String key : keys.toArray(new String[0])) {
+                if (remove(key)) {
+                    invalidationCount++;
+                }
+            }
+        }
+    }
+
+    private boolean remove(String key) {
+        Entry<V> entry = entries.remove(key);
+
+        if (entry != null) {
+            onRemove(key, entry);
+        }
+
+        return entry != null;
+    }
+
+    private void onRemove(String key, Entry<V> entry) {
+        totalBytes -= entry.size;
+
+        for (String tag : entry.tags) {
+            Set<String> keys = keysByTag.get(tag);
+
+            if (keys != null) {
+                keys.remove(key);
+
+                if (keys.isEmpty()) {
+                    keysByTag.remove(tag);
+                }
+            }
+        }
+    }
+
+    private static class Entry<V> {
+        private final V           value;
+        private final int         size;
+        private final Set<String> tags;
+        private final long        createTime = System.currentTimeMillis();
+
+        Entry(V value, int size, Set<String> tags) {
+            this.value = value;
+            this.size  = size;
+            this.tags  = tags;
+        }
+    }
+}
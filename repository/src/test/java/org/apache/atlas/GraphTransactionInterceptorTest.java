@@ -0,0 +1,232 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.apache.atlas.annotation.GraphTransaction;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v2.AtlasGraphUtilsV2;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+import static org.apache.atlas.model.instance.AtlasEntity.Status.ACTIVE;
+import static org.apache.atlas.model.instance.AtlasEntity.Status.DELETED;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the shared guid-vertex cache through GraphTransactionInterceptor, with the cache enabled.
+ */
+public class GraphTransactionInterceptorTest {
+    private static final String GUID      = "guid1";
+    private static final String VERTEX_ID = "4096";
+
+    private AtlasGraph                  graph;
+    private AtlasGraphQuery             query;
+    private GuidVertexCache             cache;
+    private GuidVertexCache             prevCache;
+    private GraphTransactionInterceptor interceptor;
+
+    @BeforeMethod
+    public void setUp() {
+        graph       = mock(AtlasGraph.class);
+        query       = mock(AtlasGraphQuery.class);
+        cache       = new GuidVertexCache(true, 100);
+        prevCache   = GraphTransactionInterceptor.setSharedVertexCache(cache);
+        interceptor = new GraphTransactionInterceptor(graph, null);
+
+        when(graph.query()).thenReturn(query);
+        when(query.has(anyString(), any())).thenReturn(query);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        GraphTransactionInterceptor.setSharedVertexCache(prevCache);
+        GraphTransactionInterceptor.clearCache();
+        RequestContext.clear();
+    }
+
+    @Test
+    public void testFindByGuidHitsSharedCacheInNextTransaction() throws Throwable {
+        AtlasVertex vertex = mockVertex(GUID, VERTEX_ID, ACTIVE);
+
+        when(query.vertices()).thenReturn(Collections.singletonList(vertex));
+        when(graph.getVertex(VERTEX_ID)).thenReturn(vertex);
+
+        inTransaction(() -> assertSame(AtlasGraphUtilsV2.findByGuid(graph, GUID), vertex));
+
+        assertEquals(cache.get(GUID).getVertexId(), VERTEX_ID);
+
+        inTransaction(() -> assertSame(AtlasGraphUtilsV2.findByGuid(graph, GUID), vertex));
+
+        verify(graph, times(1)).query();
+        verify(graph, times(1)).getVertex(VERTEX_ID);
+    }
+
+    @Test
+    public void testRecycledVertexIdIsNotReturned() throws Throwable {
+        AtlasVertex recycled = mockVertex("guid2", VERTEX_ID, ACTIVE);
+        AtlasVertex vertex   = mockVertex(GUID, "8192", ACTIVE);
+
+        cache.put(GUID, VERTEX_ID, ACTIVE, cache.getSequence());
+
+        // the vertex of guid1 was purged, and its id reused for the vertex of guid2
+        when(graph.getVertex(VERTEX_ID)).thenReturn(recycled);
+        when(query.vertices()).thenReturn(Collections.singletonList(vertex));
+
+        inTransaction(() -> assertSame(AtlasGraphUtilsV2.findByGuid(graph, GUID), vertex));
+
+        assertEquals(cache.get(GUID).getVertexId(), "8192");
+        verify(graph, times(1)).query();
+    }
+
+    @Test
+    public void testUpdatedEntityInvalidatedOnCommit() throws Throwable {
+        cache.put(GUID, VERTEX_ID, ACTIVE, cache.getSequence());
+
+        inTransaction(() -> RequestContext.get().recordEntityUpdate(new AtlasEntityHeader("hive_table", GUID, null)));
+
+        assertNull(cache.get(GUID));
+        verify(graph).commit();
+    }
+
+    @Test
+    public void testDeletedEntityInvalidatedOnRollback() throws Throwable {
+        cache.put(GUID, VERTEX_ID, ACTIVE, cache.getSequence());
+
+        try {
+            inTransaction(() -> {
+                RequestContext.get().recordEntityDelete(new AtlasEntityHeader("hive_table", GUID, null));
+
+                throw new IllegalStateException("failed after delete");
+            });
+
+            fail("expected the transaction to fail");
+        } catch (IllegalStateException excp) {
+            // expected
+        }
+
+        assertNull(cache.get(GUID));
+        verify(graph).rollback();
+        verify(graph, never()).commit();
+    }
+
+    @Test
+    public void testStateChangeOnSoftDeleteAndRestore() throws Throwable {
+        AtlasVertex vertex = mockVertex(GUID, VERTEX_ID, ACTIVE);
+
+        cache.put(GUID, VERTEX_ID, ACTIVE, cache.getSequence());
+
+        // soft delete: other transactions see the entity as deleted only after commit, hence the deleted state must not be cached in the transaction
+        inTransaction(() -> {
+            when(vertex.getProperty(Constants.STATE_PROPERTY_KEY, String.class)).thenReturn(DELETED.name());
+
+            GraphTransactionInterceptor.recordVertexStateChange(vertex);
+            GraphTransactionInterceptor.addToSharedVertexCache(GUID, vertex, cache.getSequence());
+
+            assertEquals(cache.get(GUID).getState(), ACTIVE);
+        });
+
+        assertNull(cache.get(GUID));
+
+        cache.put(GUID, VERTEX_ID, DELETED, cache.getSequence());
+
+        // restore
+        inTransaction(() -> {
+            when(vertex.getProperty(Constants.STATE_PROPERTY_KEY, String.class)).thenReturn(ACTIVE.name());
+
+            GraphTransactionInterceptor.recordVertexStateChange(vertex);
+        });
+
+        assertNull(cache.get(GUID));
+
+        GraphTransactionInterceptor.clearCache();
+
+        inTransaction(() -> GraphTransactionInterceptor.addToSharedVertexCache(GUID, vertex, cache.getSequence()));
+
+        assertEquals(cache.get(GUID).getState(), ACTIVE);
+    }
+
+    @Test
+    public void testStateChangeOutsideTransactionInvalidatesRightAway() throws Throwable {
+        AtlasVertex vertex = mockVertex(GUID, VERTEX_ID, DELETED);
+
+        cache.put(GUID, VERTEX_ID, ACTIVE, cache.getSequence());
+
+        // like tasks that commit the graph directly, without a @GraphTransaction
+        GraphTransactionInterceptor.recordVertexStateChange(vertex);
+
+        assertNull(cache.get(GUID));
+
+        GraphTransactionInterceptor.clearCache();
+
+        // the guid must not be retained as changed, which would keep it out of the cache in later transactions
+        inTransaction(() -> GraphTransactionInterceptor.addToSharedVertexCache(GUID, vertex, cache.getSequence()));
+
+        assertNotNull(cache.get(GUID));
+    }
+
+    private void inTransaction(Runnable body) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+
+        when(invocation.getMethod()).thenReturn(TransactionalService.class.getMethod("run", Runnable.class));
+        when(invocation.proceed()).thenAnswer(inv -> {
+            new TransactionalService().run(body);
+
+            return null;
+        });
+
+        interceptor.invoke(invocation);
+    }
+
+    private static AtlasVertex mockVertex(String guid, String vertexId, AtlasEntity.Status state) {
+        AtlasVertex ret = mock(AtlasVertex.class);
+
+        when(ret.getId()).thenReturn(vertexId);
+        when(ret.getIdForDisplay()).thenReturn(vertexId);
+        when(ret.getProperty(Constants.GUID_PROPERTY_KEY, String.class)).thenReturn(guid);
+        when(ret.getProperty(Constants.STATE_PROPERTY_KEY, String.class)).thenReturn(state.name());
+
+        return ret;
+    }
+
+    public static class TransactionalService {
+        @GraphTransaction
+        public void run(Runnable body) {
+            body.run();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.apache.atlas.model.instance.AtlasEntity.Status.ACTIVE;
+import static org.apache.atlas.model.instance.AtlasEntity.Status.DELETED;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+public class GuidVertexCacheTest {
+    @Test
+    public void testGetAndPut() {
+        GuidVertexCache cache = new GuidVertexCache(true, 10);
+
+        assertNull(cache.get("guid1"));
+
+        cache.put("guid1", "4096", ACTIVE, cache.getSequence());
+
+        GuidVertexCache.Entry entry = cache.get("guid1");
+
+        assertNotNull(entry);
+        assertEquals(entry.getVertexId(), "4096");
+        assertEquals(entry.getState(), ACTIVE);
+        assertEquals(cache.getStats().get("hits").longValue(), 1L);
+        assertEquals(cache.getStats().get("misses").longValue(), 1L);
+        assertEquals(cache.getStats().get("hitRate").doubleValue(), 0.5d);
+    }
+
+    @Test
+    public void testInvalidate() {
+        GuidVertexCache cache = new GuidVertexCache(true, 10);
+
+        cache.put("guid1", "4096", ACTIVE, cache.getSequence());
+        cache.put("guid2", "8192", DELETED, cache.getSequence());
+        cache.put("guid3", "12288", ACTIVE, cache.getSequence());
+
+        cache.invalidate(Arrays.asList("guid1", "guid4"));
+
+        assertNull(cache.get("guid1"));
+        assertNotNull(cache.get("guid2"));
+        assertEquals(cache.getStats().get("invalidations").longValue(), 1L);
+
+        cache.invalidateAll();
+
+        assertNull(cache.get("guid2"));
+        assertNull(cache.get("guid3"));
+    }
+
+    @Test
+    public void testReadBeforeInvalidationIsNotCached() {
+        GuidVertexCache cache    = new GuidVertexCache(true, 10);
+        long            sequence = cache.getSequence();
+
+        // a concurrent transaction commits a change to guid1 while its vertex is being read
+        cache.invalidate(Collections.singleton("guid1"));
+
+        cache.put("guid1", "4096", ACTIVE, sequence);
+
+        assertNull(cache.get("guid1"));
+
+        cache.put("guid1", "4096", DELETED, cache.getSequence());
+
+        assertEquals(cache.get("guid1").getState(), DELETED);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        GuidVertexCache cache = new GuidVertexCache(true, 2);
+
+        cache.put("guid1", "4096", ACTIVE, cache.getSequence());
+        cache.put("guid2", "8192", ACTIVE, cache.getSequence());
+
+        assertNotNull(cache.get("guid1"));
+
+        cache.put("guid3", "12288", ACTIVE, cache.getSequence());
+
+        assertNotNull(cache.get("guid1"));
+        assertNull(cache.get("guid2"));
+        assertNotNull(cache.get("guid3"));
+        assertEquals(cache.getStats().get("evictions").longValue(), 1L);
+    }
+
+    @Test
+    public void testDisabled() {
+        GuidVertexCache cache = new GuidVertexCache(false, 10);
+
+        cache.put("guid1", "4096", ACTIVE, cache.getSequence());
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get("guid1"));
+        assertFalse(new GuidVertexCache(true, 0).isEnabled());
+    }
+}
@@ -29,6 +29,9 @@ import org.apache.atlas.discovery.AtlasDiscoveryService;
 import org.apache.atlas.discovery.AtlasLineageService;
 import org.apache.atlas.discovery.EntityDiscoveryService;
 import org.apache.atlas.discovery.EntityLineageService;
+import org.apache.atlas.discovery.LineageAdjacencyCache;
+import org.apache.atlas.discovery.LineageIndex;
+import org.apache.atlas.discovery.SearchResultCache;
 import org.apache.atlas.glossary.GlossaryService;
 import org.apache.atlas.graph.GraphSandboxUtil;
 import org.apache.atlas.listener.EntityChangeListener;
@@ -133,6 +136,9 @@ public class TestModules {
             bind(ExportService.class).asEagerSingleton();
 
             bind(SearchTracker.class).asEagerSingleton();
+            bind(SearchResultCache.class).asEagerSingleton();
+            bind(LineageAdjacencyCache.class).asEagerSingleton();
+            bind(LineageIndex.class).asEagerSingleton();
             bind(ImportTaskListener.class).toInstance(Mockito.mock(ImportTaskListener.class));
 
             bind(AtlasEntityStore.class).to(AtlasEntityStoreV2.class);
@@ -155,6 +161,9 @@ public class TestModules {
             Multibinder<EntityChangeListenerV2> entityChangeListenerV2Binder =
                     Multibinder.newSetBinder(binder(), EntityChangeListenerV2.class);
             entityChangeListenerV2Binder.addBinding().to(EntityAuditListenerV2.class);
+            entityChangeListenerV2Binder.addBinding().to(SearchResultCache.class);
+            entityChangeListenerV2Binder.addBinding().to(LineageAdjacencyCache.class);
+            entityChangeListenerV2Binder.addBinding().to(LineageIndex.class);
 
             // OGM related mappings
             Multibinder<DataTransferObject> availableDTOs = Multibinder.newSetBinder(binder(), DataTransferObject.class);
@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class EntityHeaderHydratorTest {
+    private static final int VERTEX_COUNT = 25;
+
+    @Test
+    public void testChunkSize() {
+        assertEquals(EntityHeaderHydrator.getChunkSize(100, 4), 25);
+        assertEquals(EntityHeaderHydrator.getChunkSize(101, 4), 26);
+        assertEquals(EntityHeaderHydrator.getChunkSize(3, 4), 1);
+    }
+
+    @Test
+    public void testHeadersReturnedInVertexOrder() throws AtlasBaseException {
+        AtlasGraph           graph       = mock(AtlasGraph.class);
+        EntityGraphRetriever retriever   = mock(EntityGraphRetriever.class);
+        Set<String>          threadNames = ConcurrentHashMap.newKeySet();
+        List<AtlasVertex>    vertices    = createVertices(graph, retriever, threadNames);
+        EntityHeaderHydrator hydrator    = new EntityHeaderHydrator(graph, retriever, 4, 10);
+
+        try {
+            List<AtlasEntityHeader> headers = hydrator.toEntityHeaders(vertices, Collections.emptySet(), false);
+
+            assertEquals(headers.size(), VERTEX_COUNT);
+
+            for (int i = 0; i < VERTEX_COUNT; i++) {
+                assertEquals(headers.get(i).getGuid(), "guid-" + i);
+            }
+
+            assertTrue(threadNames.size() > 1, "expected hydration in worker threads");
+
+            verify(graph, atLeastOnce()).rollback();
+        } finally {
+            hydrator.shutdown();
+        }
+    }
+
+    @Test
+    public void testVertexNotVisibleToWorkerIsHydratedByCaller() throws AtlasBaseException {
+        AtlasGraph           graph     = mock(AtlasGraph.class);
+        EntityGraphRetriever retriever = mock(EntityGraphRetriever.class);
+        List<AtlasVertex>    vertices  = createVertices(graph, retriever, ConcurrentHashMap.newKeySet());
+        EntityHeaderHydrator hydrator  = new EntityHeaderHydrator(graph, retriever, 4, 10);
+
+        when(graph.getVertex("7")).thenReturn(null);
+
+        try {
+            List<AtlasEntityHeader> headers = hydrator.toEntityHeaders(vertices, Collections.emptySet(), false);
+
+            assertEquals(headers.get(7).getGuid(), "guid-7");
+        } finally {
+            hydrator.shutdown();
+        }
+    }
+
+    @Test
+    public void testSmallPageHydratedSerially() throws AtlasBaseException {
+        AtlasGraph           graph       = mock(AtlasGraph.class);
+        EntityGraphRetriever retriever   = mock(EntityGraphRetriever.class);
+        Set<String>          threadNames = ConcurrentHashMap.newKeySet();
+        List<AtlasVertex>    vertices    = createVertices(graph, retriever, threadNames);
+        EntityHeaderHydrator hydrator    = new EntityHeaderHydrator(graph, retriever, 4, 100);
+
+        try {
+            assertEquals(hydrator.toEntityHeaders(vertices, Collections.emptySet(), false).size(), VERTEX_COUNT);
+            assertEquals(threadNames, Collections.singleton(Thread.currentThread().getName()));
+        } finally {
+            hydrator.shutdown();
+        }
+    }
+
+    @Test
+    public void testHeadersByVertexId() throws AtlasBaseException {
+        AtlasGraph           graph     = mock(AtlasGraph.class);
+        EntityGraphRetriever retriever = mock(EntityGraphRetriever.class);
+        List<Object>         vertexIds = new ArrayList<>();
+        EntityHeaderHydrator hydrator  = new EntityHeaderHydrator("lineage", graph, retriever, 4, 10);
+
+        for (AtlasVertex vertex : createVertices(graph, retriever, ConcurrentHashMap.newKeySet())) {
+            AtlasEntityHeader header = retriever.toAtlasEntityHeader(vertex, Collections.emptySet());
+
+            when(retriever.toAtlasEntityHeader(vertex)).thenReturn(header);
+
+            vertexIds.add(vertex.getId());
+        }
+
+        try {
+            List<AtlasEntityHeader> headers = hydrator.toEntityHeadersByVertexId(vertexIds);
+
+            for (int i = 0; i < VERTEX_COUNT; i++) {
+                assertEquals(headers.get(i).getGuid(), "guid-" + i);
+            }
+        } finally {
+            hydrator.shutdown();
+        }
+    }
+
+    private static List<AtlasVertex> createVertices(AtlasGraph graph, EntityGraphRetriever retriever, Set<String> threadNames) throws AtlasBaseException {
+        List<AtlasVertex> ret = new ArrayList<>();
+
+        for (int i = 0; i < VERTEX_COUNT; i++) {
+            AtlasVertex       vertex = mock(AtlasVertex.class);
+            AtlasEntityHeader header = new AtlasEntityHeader("hive_table");
+
+            header.setGuid("guid-" + i);
+
+            when(vertex.getId()).thenReturn(String.valueOf(i));
+            when(graph.getVertex(String.valueOf(i))).thenReturn(vertex);
+            when(retriever.toAtlasEntityHeader(vertex, Collections.emptySet())).thenAnswer(invocation -> {
+                threadNames.add(Thread.currentThread().getName());
+
+                return header;
+            });
+
+            ret.add(vertex);
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.ApplicationProperties;
+import org.apache.atlas.AtlasConfiguration;
+import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasIndexQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Pages through search results using markers, with an index that returns results in __timestamp order.
+ */
+public class EntitySearchProcessorPaginationTest {
+    private static final String  TYPE_NAME       = "hive_table";
+    private static final String  MARKER_END      = String.valueOf(SearchContext.MarkerUtil.MARKER_END);
+    private static final Pattern TIMESTAMP_RANGE = Pattern.compile("\\[(\\d+) TO \\*]");
+
+    @BeforeClass
+    public void enableKeysetPagination() throws Exception {
+        ApplicationProperties.get().setProperty(AtlasConfiguration.SEARCH_KEYSET_PAGINATION_ENABLED.getPropertyName(), true);
+    }
+
+    @AfterClass
+    public void resetKeysetPagination() throws Exception {
+        ApplicationProperties.get().clearProperty(AtlasConfiguration.SEARCH_KEYSET_PAGINATION_ENABLED.getPropertyName());
+    }
+
+    @Test
+    public void testTimestampTiesAcrossPages() throws Exception {
+        List<AtlasVertex> vertices = createVertices(1000, 1000, 1000, 2000, 2000, 2000, 2000, 2000, 2000, 2000, 2000, 2000,
+                3000, 4000, 4000, 4000, 4000, 4000, 4000, 4000, 5000, 5000, 5000);
+
+        assertPagesReturnAll(vertices, 4);
+    }
+
+    @Test
+    public void testAllResultsHaveSameTimestamp() throws Exception {
+        assertPagesReturnAll(createVertices(1000, 1000, 1000, 1000, 1000, 1000, 1000, 1000, 1000, 1000), 3);
+    }
+
+    private static void assertPagesReturnAll(List<AtlasVertex> vertices, int limit) throws Exception {
+        AtlasGraph        graph   = createGraph(vertices);
+        SearchParameters  params  = new SearchParameters();
+        List<AtlasVertex> results = new ArrayList<>();
+        String            marker  = SearchContext.MarkerUtil.MARKER_START;
+
+        params.setTypeName(TYPE_NAME);
+        params.setLimit(limit);
+
+        for (int pageCount = 0; !MARKER_END.equals(marker); pageCount++) {
+            assertTrue(pageCount <= vertices.size(), "pagination did not end");
+
+            params.setMarker(marker);
+
+            EntitySearchProcessor processor = new EntitySearchProcessor(createContext(params, graph));
+            List<AtlasVertex>     page      = processor.execute();
+
+            assertTrue(page.size() <= limit);
+            assertEquals(processor.getResultCount(), vertices.size());
+
+            results.addAll(page);
+
+            marker = processor.getNextMarker();
+        }
+
+        // each entity is returned once, with none skipped
+        assertEquals(results, vertices);
+
+        // later pages start at the __timestamp of the last returned entity
+        verify(graph, atLeastOnce()).indexQuery(eq(Constants.VERTEX_INDEX), contains(" TO *]"));
+    }
+
+    private static SearchContext createContext(SearchParameters params, AtlasGraph graph) throws Exception {
+        SearchContext ret = mock(SearchContext.class);
+
+        when(ret.getSearchParameters()).thenReturn(params);
+        when(ret.getGraph()).thenReturn(graph);
+        when(ret.getEntityTypes()).thenReturn(Collections.singleton(mock(AtlasEntityType.class)));
+        when(ret.getEntityTypeNames()).thenReturn(Collections.singleton(TYPE_NAME));
+        when(ret.getEntityTypesQryStr()).thenReturn("(" + TYPE_NAME + ")");
+        when(ret.getMarker()).thenReturn(SearchContext.MarkerUtil.decodeMarker(params));
+        when(ret.getMarkerTimestamp()).thenReturn(SearchContext.MarkerUtil.decodeMarkerTimestamp(params));
+
+        return ret;
+    }
+
+    /*
+     * The index returns matching vertices in __timestamp order; vertices having the same __timestamp are returned in
+     * the same order by every query, as the index does.
+     */
+    private static AtlasGraph createGraph(List<AtlasVertex> vertices) {
+        AtlasGraph ret = mock(AtlasGraph.class);
+
+        when(ret.indexQuery(eq(Constants.VERTEX_INDEX), anyString())).thenAnswer(invocation -> {
+            Matcher           matcher      = TIMESTAMP_RANGE.matcher(invocation.getArgument(1));
+            long              minTimestamp = matcher.find() ? Long.parseLong(matcher.group(1)) : Long.MIN_VALUE;
+            List<AtlasVertex> matches      = vertices.stream().filter(v -> getTimestamp(v) >= minTimestamp).collect(Collectors.toList());
+            AtlasIndexQuery   indexQuery   = mock(AtlasIndexQuery.class);
+
+            when(indexQuery.vertices(anyInt(), anyInt(), eq(Constants.TIMESTAMP_PROPERTY_KEY), eq(Order.asc)))
+                    .thenAnswer(inv -> toResults(matches, inv.getArgument(0), inv.getArgument(1)));
+            when(indexQuery.vertexTotals()).thenReturn((long) matches.size());
+
+            return indexQuery;
+        });
+
+        return ret;
+    }
+
+    private static Iterator<AtlasIndexQuery.Result> toResults(List<AtlasVertex> vertices, int offset, int limit) {
+        List<AtlasIndexQuery.Result> ret = new ArrayList<>();
+
+        for (AtlasVertex vertex : vertices.subList(Math.min(offset, vertices.size()), Math.min(offset + limit, vertices.size()))) {
+            AtlasIndexQuery.Result result = mock(AtlasIndexQuery.Result.class);
+
+            when(result.getVertex()).thenReturn(vertex);
+
+            ret.add(result);
+        }
+
+        return ret.iterator();
+    }
+
+    private static List<AtlasVertex> createVertices(long... timestamps) {
+        List<AtlasVertex> ret = new ArrayList<>();
+
+        for (long timestamp : timestamps) {
+            AtlasVertex vertex = mock(AtlasVertex.class);
+
+            when(vertex.getProperty(Constants.TYPE_NAME_PROPERTY_KEY, String.class)).thenReturn(TYPE_NAME);
+            when(vertex.getProperty(Constants.TIMESTAMP_PROPERTY_KEY, Long.class)).thenReturn(timestamp);
+
+            ret.add(vertex);
+        }
+
+        return ret;
+    }
+
+    private static long getTimestamp(AtlasVertex vertex) {
+        return vertex.getProperty(Constants.TIMESTAMP_PROPERTY_KEY, Long.class);
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.apache.atlas.repository.graphdb.AtlasEdgeDirection.IN;
+import static org.apache.atlas.repository.graphdb.AtlasEdgeDirection.OUT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+public class LineageAdjacencyCacheTest {
+    private static final String INPUTS  = "__Process.inputs";
+    private static final String OUTPUTS = "__Process.outputs";
+
+    @Test
+    public void testGetAndPut() {
+        LineageAdjacencyCache cache = new LineageAdjacencyCache(true, 10);
+        List<LineageEdge>     edges = Collections.singletonList(createEdge(INPUTS, "process1", "table1"));
+
+        assertNull(cache.get("table1", IN, INPUTS));
+
+        cache.put("table1", IN, INPUTS, edges, cache.getSequence());
+
+        assertEquals(cache.get("table1", IN, INPUTS), edges);
+        assertNull(cache.get("table1", OUT, INPUTS));
+        assertNull(cache.get("table1", IN, OUTPUTS));
+        assertEquals(cache.getStats().get("hits").longValue(), 1L);
+        assertEquals(cache.getStats().get("misses").longValue(), 3L);
+    }
+
+    @Test
+    public void testInvalidateByEdgeEndGuid() {
+        LineageAdjacencyCache cache = new LineageAdjacencyCache(true, 10);
+
+        cache.put("table1", IN, INPUTS, Collections.singletonList(createEdge(INPUTS, "process1", "table1")), cache.getSequence());
+        cache.put("table2", IN, INPUTS, Collections.singletonList(createEdge(INPUTS, "process2", "table2")), cache.getSequence());
+        cache.put("table3", IN, INPUTS, Collections.emptyList(), cache.getSequence());
+
+        // a change to process1 invalidates entries having edges of process1
+        cache.invalidate(Collections.singleton("process1"));
+
+        assertNull(cache.get("table1", IN, INPUTS));
+        assertNotNull(cache.get("table2", IN, INPUTS));
+        assertNotNull(cache.get("table3", IN, INPUTS));
+
+        cache.invalidate(Collections.singleton("table3"));
+
+        assertNull(cache.get("table3", IN, INPUTS));
+
+        cache.invalidateAll();
+
+        assertNull(cache.get("table2", IN, INPUTS));
+    }
+
+    @Test
+    public void testEdgesReadBeforeInvalidationAreNotCached() {
+        LineageAdjacencyCache cache    = new LineageAdjacencyCache(true, 10);
+        long                  sequence = cache.getSequence();
+
+        // concurrent changes to table1 and to process3, which is at the other end of an edge of table3
+        cache.invalidate(Collections.singleton("table1"));
+        cache.invalidate(Collections.singleton("process3"));
+
+        cache.put("table1", IN, INPUTS, Collections.emptyList(), sequence);
+        cache.put("table3", IN, INPUTS, Collections.singletonList(createEdge(INPUTS, "process3", "table3")), sequence);
+
+        assertNull(cache.get("table1", IN, INPUTS));
+        assertNull(cache.get("table3", IN, INPUTS));
+    }
+
+    @Test
+    public void testEdgesOfOtherEntitiesCachedAfterInvalidation() {
+        LineageAdjacencyCache cache    = new LineageAdjacencyCache(true, 10);
+        long                  sequence = cache.getSequence();
+
+        cache.invalidate(Collections.singleton("table1"));
+
+        cache.put("table2", IN, INPUTS, Collections.singletonList(createEdge(INPUTS, "process2", "table2")), sequence);
+
+        assertNotNull(cache.get("table2", IN, INPUTS));
+
+        cache.invalidateAll();
+
+        cache.put("table2", IN, INPUTS, Collections.emptyList(), sequence);
+
+        assertNull(cache.get("table2", IN, INPUTS));
+    }
+
+    @Test
+    public void testSizeBound() {
+        LineageAdjacencyCache cache = new LineageAdjacencyCache(true, 2);
+
+        cache.put("table1", IN, INPUTS, Collections.emptyList(), cache.getSequence());
+        cache.put("table2", IN, INPUTS, Collections.emptyList(), cache.getSequence());
+        cache.get("table1", IN, INPUTS);
+        cache.put("table3", IN, INPUTS, Collections.emptyList(), cache.getSequence());
+
+        assertNotNull(cache.get("table1", IN, INPUTS));
+        assertNull(cache.get("table2", IN, INPUTS)); // least recently used
+        assertNotNull(cache.get("table3", IN, INPUTS));
+        assertEquals(cache.getStats().get("evictions").longValue(), 1L);
+    }
+
+    @Test
+    public void testDisabledCache() {
+        LineageAdjacencyCache cache = new LineageAdjacencyCache(false, 10);
+
+        cache.put("table1", IN, INPUTS, Collections.emptyList(), cache.getSequence());
+
+        assertNull(cache.get("table1", IN, INPUTS));
+    }
+
+    @Test
+    public void testReferencedGuids() {
+        AtlasEntity process = new AtlasEntity("Process");
+
+        process.setGuid("process1");
+        process.setAttribute("inputs", Arrays.asList(new AtlasObjectId("table1", "hive_table"), Collections.singletonMap(AtlasObjectId.KEY_GUID, "table2")));
+        process.setRelationshipAttribute("outputs", Collections.singletonList(new AtlasObjectId("table3", "hive_table")));
+        process.setAttribute("name", "process1");
+
+        assertEquals(LineageAdjacencyCache.getReferencedGuids(Collections.singletonList(process)), new HashSet<>(Arrays.asList("process1", "table1", "table2", "table3")));
+    }
+
+    private static LineageEdge createEdge(String label, String outGuid, String inGuid) {
+        return new LineageEdge(label, inGuid + "-id", outGuid + "-id", inGuid, outGuid, "relationship-" + outGuid + "-" + inGuid);
+    }
+}
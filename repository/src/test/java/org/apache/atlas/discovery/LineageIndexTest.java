@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.apache.atlas.repository.graphdb.AtlasEdgeDirection.IN;
+import static org.apache.atlas.repository.graphdb.AtlasEdgeDirection.OUT;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class LineageIndexTest {
+    private static final String INPUTS  = "__Process.inputs";
+    private static final String OUTPUTS = "__Process.outputs";
+
+    @Test
+    public void testEdgesByDirectionAndLabel() {
+        LineageIndex index  = createIndex();
+        LineageEdge  input  = createEdge(INPUTS, "process1", "table1");
+        LineageEdge  output = createEdge(OUTPUTS, "process1", "table2");
+
+        assertNull(index.getEdges("process1", OUT, INPUTS)); // not ready
+
+        index.setProcessEdges("process1", Arrays.asList(input, output));
+        index.setReady(true);
+
+        assertEquals(index.getEdges("process1", OUT, INPUTS), Collections.singletonList(input));
+        assertEquals(index.getEdges("process1", OUT, OUTPUTS), Collections.singletonList(output));
+        assertEquals(index.getEdges("table1", IN, INPUTS), Collections.singletonList(input));
+        assertEquals(index.getEdges("table2", IN, OUTPUTS), Collections.singletonList(output));
+        assertTrue(index.getEdges("table1", IN, OUTPUTS).isEmpty());
+        assertTrue(index.getEdges("table3", IN, INPUTS).isEmpty());
+    }
+
+    @Test
+    public void testReplaceProcessEdges() {
+        LineageIndex index = createIndex();
+
+        index.setProcessEdges("process1", Arrays.asList(createEdge(INPUTS, "process1", "table1"), createEdge(OUTPUTS, "process1", "table2")));
+        index.setProcessEdges("process1", Collections.singletonList(createEdge(INPUTS, "process1", "table3")));
+        index.setReady(true);
+
+        assertTrue(index.getEdges("table1", IN, INPUTS).isEmpty());
+        assertTrue(index.getEdges("table2", IN, OUTPUTS).isEmpty());
+        assertEquals(index.getEdges("table3", IN, INPUTS).size(), 1);
+        assertEquals(index.getStats().get("edges").intValue(), 1);
+
+        index.setProcessEdges("process1", Collections.emptyList());
+
+        assertTrue(index.getEdges("process1", OUT, INPUTS).isEmpty());
+        assertEquals(index.getStats().get("processes").intValue(), 0);
+        assertEquals(index.getStats().get("datasets").intValue(), 0);
+    }
+
+    @Test
+    public void testStaleEntitiesAreNotServed() {
+        LineageIndex index = createIndex();
+
+        index.setProcessEdges("process1", Arrays.asList(createEdge(INPUTS, "process1", "table1"), createEdge(OUTPUTS, "process1", "table2")));
+        index.setReady(true);
+
+        // a change to process1 can change the edges of the tables it is connected to
+        assertEquals(index.getAffectedGuids(Collections.singleton("process1")), new HashSet<>(Arrays.asList("process1", "table1", "table2")));
+        assertEquals(index.getAffectedGuids(Collections.singleton("table1")), new HashSet<>(Arrays.asList("process1", "table1")));
+
+        index.markStale(Collections.singleton("table1"));
+        index.markStale(Collections.singleton("table1"));
+
+        assertNull(index.getEdges("table1", IN, INPUTS));
+        assertEquals(index.getEdges("table2", IN, OUTPUTS).size(), 1);
+
+        index.clearStale(Collections.singleton("table1"));
+
+        assertNull(index.getEdges("table1", IN, INPUTS)); // one refresh pending
+
+        index.clearStale(Collections.singleton("table1"));
+
+        assertEquals(index.getEdges("table1", IN, INPUTS).size(), 1);
+    }
+
+    private static LineageIndex createIndex() {
+        return new LineageIndex(mock(AtlasGraph.class), mock(AtlasTypeRegistry.class), null, false, 100);
+    }
+
+    private static LineageEdge createEdge(String label, String outGuid, String inGuid) {
+        return new LineageEdge(label, inGuid + "-id", outGuid + "-id", inGuid, outGuid, "relationship-" + outGuid + "-" + inGuid);
+    }
+}
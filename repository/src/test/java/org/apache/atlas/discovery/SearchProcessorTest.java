@@ -69,6 +69,7 @@ import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 public class SearchProcessorTest {
@@ -202,6 +203,26 @@ public class SearchProcessorTest {
         }
     }
 
+    @Test
+    public void testKeysetMarker() throws Exception {
+        SearchParameters params = new SearchParameters();
+
+        params.setTypeName("hive_table");
+
+        params.setMarker(SearchContext.MarkerUtil.getNextEncMarker(params, 3, 1700000000000L));
+        assertEquals(SearchContext.MarkerUtil.decodeMarker(params), Integer.valueOf(3));
+        assertEquals(SearchContext.MarkerUtil.decodeMarkerTimestamp(params), Long.valueOf(1700000000000L));
+
+        // offset markers remain valid
+        params.setMarker(SearchContext.MarkerUtil.getNextEncMarker(params, 25));
+        assertEquals(SearchContext.MarkerUtil.decodeMarker(params), Integer.valueOf(25));
+        assertNull(SearchContext.MarkerUtil.decodeMarkerTimestamp(params));
+
+        params.setMarker(SearchContext.MarkerUtil.MARKER_START);
+        assertEquals(SearchContext.MarkerUtil.decodeMarker(params), Integer.valueOf(0));
+        assertNull(SearchContext.MarkerUtil.decodeMarkerTimestamp(params));
+    }
+
     @Test
     public void testFilter() {
         LinkedHashMap<Integer, AtlasVertex> inputMap = new LinkedHashMap<>();
@@ -590,6 +611,67 @@ public class SearchProcessorTest {
                 LONG_FILTER_VALUE, AtlasStructDef.AtlasAttributeDef.IndexType.STRING));
     }
 
+    @Test
+    public void testNeqTextIndexTypeNotIndexSearchable() throws Exception {
+        assertFalse(isIndexSearchableForAttribute("qualifiedName", "qualifiedName", Operator.NEQ,
+                "default.table", null));
+    }
+
+    @Test
+    public void testNeqStringIndexTypeIsIndexSearchable() throws Exception {
+        assertTrue(isIndexSearchableForAttribute("owner", "__s_owner", Operator.NEQ,
+                "admin", AtlasStructDef.AtlasAttributeDef.IndexType.STRING));
+    }
+
+    @Test
+    public void testGetIndexFilterCriteria() throws Exception {
+        AtlasStructType                  structType   = mock(AtlasStructType.class);
+        AtlasType                        attrType     = mock(AtlasType.class);
+        AtlasStructDef.AtlasAttributeDef attributeDef = mock(AtlasStructDef.AtlasAttributeDef.class);
+        Set<AtlasStructType>             structTypes  = Collections.singleton(structType);
+
+        when(structType.getAttributeType(anyString())).thenReturn(attrType);
+        when(attrType.getTypeName()).thenReturn(AtlasBaseTypeDef.ATLAS_TYPE_STRING);
+        when(structType.getVertexPropertyName(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(structType.getAttributeDef(anyString())).thenReturn(attributeDef);
+        when(context.getIndexedKeys()).thenReturn(new HashSet<>(Arrays.asList("owner", "name")));
+        when(context.getEdgeIndexKeys()).thenReturn(Collections.emptySet());
+        when(context.hasAttributeFilter(any())).thenReturn(true);
+
+        FilterCriteria owner      = createFilterCriteria("owner", "admin");
+        FilterCriteria indexedOr  = createFilterCriteria(Condition.OR, createFilterCriteria("name", "t1"), createFilterCriteria("name", "t2"));
+        FilterCriteria nonIndexOr = createFilterCriteria(Condition.OR, createFilterCriteria("name", "t3"), createFilterCriteria("comment", "c1"));
+
+        // OR having a non-indexed attribute is dropped, rest of the AND is retained
+        FilterCriteria ret = searchProcessor.getIndexFilterCriteria(structTypes, createFilterCriteria(Condition.AND, owner, indexedOr, nonIndexOr));
+
+        assertNotNull(ret);
+        assertEquals(ret.getCondition(), Condition.AND);
+        assertEquals(ret.getCriterion(), Arrays.asList(owner, indexedOr));
+
+        assertNull(searchProcessor.getIndexFilterCriteria(structTypes, nonIndexOr));
+        assertEquals(searchProcessor.getIndexFilterCriteria(structTypes, owner), owner);
+    }
+
+    private static FilterCriteria createFilterCriteria(String attributeName, String attributeValue) {
+        FilterCriteria ret = new FilterCriteria();
+
+        ret.setAttributeName(attributeName);
+        ret.setOperator(Operator.EQ);
+        ret.setAttributeValue(attributeValue);
+
+        return ret;
+    }
+
+    private static FilterCriteria createFilterCriteria(Condition condition, FilterCriteria... criterion) {
+        FilterCriteria ret = new FilterCriteria();
+
+        ret.setCondition(condition);
+        ret.setCriterion(Arrays.asList(criterion));
+
+        return ret;
+    }
+
     private boolean isIndexSearchableForAttribute(String attributeName, String vertexPropertyName,
                                                  Operator operator, String attributeValue,
                                                  AtlasStructDef.AtlasAttributeDef.IndexType indexType) throws Exception {
@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.discovery;
+
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
+import org.apache.atlas.type.AtlasEntityType;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class SearchResultCacheTest {
+    private static final Set<String> TABLE_TYPES = Collections.singleton("hive_table");
+    private static final Set<String> DB_TYPES    = Collections.singleton("hive_db");
+
+    @Test
+    public void testGetReturnsCopyOfCachedResult() {
+        SearchResultCache cache  = new SearchResultCache(true, 60000, 10, 1024 * 1024);
+        AtlasSearchResult result = createResult("tables");
+
+        cache.put("key1", result, TABLE_TYPES, cache.getSequence());
+
+        AtlasSearchResult cached = cache.get("key1");
+
+        assertNotNull(cached);
+        assertNotSame(cached, result);
+        assertEquals(cached.getQueryText(), "tables");
+        assertNull(cache.get("key2"));
+        assertEquals(cache.getStats().get("hits").longValue(), 1L);
+        assertEquals(cache.getStats().get("misses").longValue(), 1L);
+        assertEquals(cache.getStats().get("hitRate").doubleValue(), 0.5);
+    }
+
+    @Test
+    public void testEntryExpires() throws InterruptedException {
+        SearchResultCache cache = new SearchResultCache(true, 20, 10, 1024 * 1024);
+
+        cache.put("key1", createResult("tables"), TABLE_TYPES, cache.getSequence());
+
+        Thread.sleep(50);
+
+        assertNull(cache.get("key1"));
+        assertEquals(cache.getStats().get("entries").intValue(), 0);
+    }
+
+    @Test
+    public void testInvalidateByType() {
+        SearchResultCache cache = new SearchResultCache(true, 60000, 10, 1024 * 1024);
+
+        cache.put("tables", createResult("tables"), TABLE_TYPES, cache.getSequence());
+        cache.put("dbs", createResult("dbs"), DB_TYPES, cache.getSequence());
+        cache.put("all", createResult("all"), Collections.singleton("*"), cache.getSequence());
+
+        cache.invalidate(TABLE_TYPES);
+
+        assertNull(cache.get("tables"));
+        assertNull(cache.get("all"));
+        assertNotNull(cache.get("dbs"));
+
+        cache.invalidateAll();
+
+        assertNull(cache.get("dbs"));
+    }
+
+    @Test
+    public void testResultComputedBeforeInvalidationIsNotCached() {
+        SearchResultCache cache    = new SearchResultCache(true, 60000, 10, 1024 * 1024);
+        long              sequence = cache.getSequence();
+
+        cache.invalidate(TABLE_TYPES);
+
+        cache.put("tables", createResult("tables"), TABLE_TYPES, sequence);
+        cache.put("dbs", createResult("dbs"), DB_TYPES, sequence);
+
+        assertNull(cache.get("tables"));
+        assertNotNull(cache.get("dbs"));
+    }
+
+    @Test
+    public void testSizeBounds() {
+        SearchResultCache cache = new SearchResultCache(true, 60000, 2, 1024 * 1024);
+
+        cache.put("key1", createResult("q1"), TABLE_TYPES, cache.getSequence());
+        cache.put("key2", createResult("q2"), TABLE_TYPES, cache.getSequence());
+        cache.get("key1");
+        cache.put("key3", createResult("q3"), TABLE_TYPES, cache.getSequence());
+
+        assertNotNull(cache.get("key1"));
+        assertNull(cache.get("key2")); // least recently used
+        assertNotNull(cache.get("key3"));
+        assertEquals(cache.getStats().get("evictions").longValue(), 1L);
+
+        SearchResultCache smallCache = new SearchResultCache(true, 60000, 10, 10);
+
+        smallCache.put("key1", createResult("q1"), TABLE_TYPES, smallCache.getSequence());
+
+        assertNull(smallCache.get("key1"));
+    }
+
+    @Test
+    public void testDependentTypes() {
+        SearchContext     context = mock(SearchContext.class);
+        AtlasSearchResult result  = createResult("q");
+
+        result.addEntity(new AtlasEntityHeader("hive_column"));
+
+        when(context.getEntityTypes()).thenReturn(Collections.emptySet());
+
+        Set<String> types = SearchResultCache.getDependentTypes(context, result);
+
+        assertTrue(types.contains("*"));
+        assertTrue(types.contains("hive_column"));
+
+        when(context.getEntityTypes()).thenReturn(Collections.singleton(SearchContext.MATCH_ALL_ENTITY_TYPES));
+
+        assertTrue(SearchResultCache.getDependentTypes(context, result).contains("*"));
+
+        AtlasEntityType tableType = mock(AtlasEntityType.class);
+
+        when(tableType.getTypeName()).thenReturn("hive_table");
+        when(context.getEntityTypes()).thenReturn(Collections.singleton(tableType));
+        when(context.getEntityTypeNames()).thenReturn(TABLE_TYPES);
+
+        assertEquals(SearchResultCache.getDependentTypes(context, result), new HashSet<>(Arrays.asList("hive_table", "hive_column")));
+    }
+
+    private static AtlasSearchResult createResult(String queryText) {
+        AtlasSearchResult ret = new AtlasSearchResult();
+
+        ret.setQueryText(queryText);
+
+        return ret;
+    }
+}
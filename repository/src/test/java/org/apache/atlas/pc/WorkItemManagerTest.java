@@ -72,10 +72,48 @@ public class WorkItemManagerTest {
         assertEquals(cb.integers.size(), numberOfItems);
     }
 
+    @Test
+    public void scaleDownUnderContinuousProduceDoesNotDrain() throws InterruptedException {
+        IntegerConsumerBuilder cb            = new IntegerConsumerBuilder();
+        DrainCountingManager   wi            = new DrainCountingManager(cb, 4);
+        int                    numberOfItems = 0;
+        long                   endTime       = System.currentTimeMillis() + 7000; // longer than consumers wait for items before exiting
+
+        wi.setActiveWorkers(1);
+
+        while (System.currentTimeMillis() < endTime) {
+            wi.checkProduce(numberOfItems++);
+
+            Thread.sleep(50);
+        }
+
+        assertEquals(wi.drainCount, 0);
+
+        wi.drain();
+        wi.shutdown();
+
+        assertEquals(cb.integers.size(), numberOfItems);
+    }
+
     private WorkItemManager<Integer, WorkItemConsumer<Integer>> getWorkItemManger(IntegerConsumerBuilder cb, int numWorkers) {
         return new WorkItemManager<>(cb, 5, numWorkers);
     }
 
+    private static class DrainCountingManager extends WorkItemManager<Integer, WorkItemConsumer<Integer>> {
+        private int drainCount;
+
+        DrainCountingManager(IntegerConsumerBuilder cb, int numWorkers) {
+            super(cb, 5, numWorkers);
+        }
+
+        @Override
+        public void drain() {
+            drainCount++;
+
+            super.drain();
+        }
+    }
+
     private static class IntegerConsumer extends WorkItemConsumer<Integer> {
         private final ConcurrentLinkedQueue<Integer> target;
 
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.query;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class GremlinQueryPlanTest {
+    @Test
+    public void testQueryShape() {
+        DSLQueryShape shape1 = DSLQueryShape.of("Table where name = 't1' and owner = \"joe\"");
+        DSLQueryShape shape2 = DSLQueryShape.of("Table where name = 't2' and owner = \"jane\"");
+
+        assertEquals(shape1.getShape(), "Table where name = '?' and owner = \"?\"");
+        assertEquals(shape1.getShape(), shape2.getShape());
+        assertEquals(shape1.getParameters(), Arrays.asList("'t1'", "\"joe\""));
+        assertEquals(shape1.toQuery(shape2.getParameters()), shape2.getQuery());
+    }
+
+    @Test
+    public void testLiteralsRetainedInShape() {
+        assertFalse(DSLQueryShape.of("`Table` where isIncomplete = 'true'").hasParameters());
+        assertFalse(DSLQueryShape.of("Table where name = ''").hasParameters());
+        assertFalse(DSLQueryShape.of("Table where name = \"it's\"").hasParameters());
+        assertFalse(DSLQueryShape.of("Table where name = 't1").hasParameters());
+        assertEquals(DSLQueryShape.of("`Table` where name = 't1'").getShape(), "`Table` where name = '?'");
+    }
+
+    @Test
+    public void testBindParameters() {
+        DSLQueryShape    shape1 = DSLQueryShape.of("Table where name = 't1'");
+        DSLQueryShape    shape2 = DSLQueryShape.of("Table where name = 't2'");
+        GremlinQueryPlan plan   = GremlinQueryPlan.create(shape1, createQuery(getProbeValue(shape1)), createQuery("'t1'"));
+
+        assertNotNull(plan);
+        assertTrue(plan.isParameterized());
+
+        GremlinQuery query = plan.bind(shape2.getParameters());
+
+        assertEquals(query.queryStr(), createQuery("'t2'").queryStr());
+        assertEquals(query.getClauses().get(3).getValues()[2], "'t2'");
+        assertEquals(query.getClauses().get(3).getRawValue(), "t2");
+        assertNotSame(plan.bind(shape2.getParameters()), query);
+    }
+
+    @Test
+    public void testTransformedLiteralIsNotBound() {
+        DSLQueryShape     shape   = DSLQueryShape.of("Table where name like 't1'");
+        GremlinClauseList clauses = createClauses();
+
+        // like the translation of a "like" clause, where the literal is converted to a regular expression
+        clauses.add(GremlinClause.STRING_CONTAINS, "Table.name", IdentifierHelper.getFixedRegEx(getProbeValue(shape)));
+
+        assertNull(GremlinQueryPlan.create(shape, new GremlinQuery("", null, clauses, null), createQuery("'t1'")));
+    }
+
+    @Test
+    public void testPlanWithoutParameters() {
+        GremlinQuery     query = createQuery("'t1'");
+        GremlinQueryPlan plan  = GremlinQueryPlan.of(query);
+
+        assertFalse(plan.isParameterized());
+        assertNotSame(plan.bind(Collections.emptyList()), query);
+        assertEquals(plan.bind(Collections.emptyList()).getClauses(), query.getClauses());
+    }
+
+    private static GremlinQuery createQuery(String value) {
+        GremlinClauseList clauses = createClauses();
+
+        clauses.add(new GremlinQueryComposer.GremlinClauseValue(GremlinClause.HAS_OPERATOR, "Table.name", "eq", IdentifierHelper.removeQuotes(value), value));
+        clauses.add(GremlinClause.DEDUP);
+        clauses.add(GremlinClause.LIMIT, "25");
+        clauses.add(GremlinClause.TO_LIST);
+
+        return new GremlinQuery("g.V().has('__typeName', 'Table').has('Table.name', eq(" + value + ")).dedup().limit(25).toList()", null, clauses, null);
+    }
+
+    private static String getProbeValue(DSLQueryShape shape) {
+        String probe = GremlinQueryPlan.getProbeQuery(shape);
+
+        return probe.substring(probe.indexOf('\''), probe.lastIndexOf('\'') + 1);
+    }
+
+    private static GremlinClauseList createClauses() {
+        GremlinClauseList ret = new GremlinClauseList();
+
+        ret.add(GremlinClause.G);
+        ret.add(GremlinClause.V);
+        ret.add(GremlinClause.HAS_TYPE, "Table");
+
+        return ret;
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.query;
+
+import org.apache.atlas.model.discovery.AtlasAggregationEntry;
+import org.apache.atlas.model.discovery.AtlasSearchResult;
+import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
+import org.apache.atlas.query.executors.IndexBasedAggregator;
+import org.apache.atlas.query.executors.SelectClauseProjections;
+import org.apache.atlas.repository.Constants;
+import org.apache.atlas.repository.graphdb.AggregationStats;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphIndexClient;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.v2.EntityGraphRetriever;
+import org.apache.atlas.type.AtlasBuiltInTypes;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasType;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+public class IndexBasedAggregatorTest {
+    private AtlasGraphIndexClient       indexClient;
+    private IndexBasedAggregator        aggregator;
+    private Map<String, AtlasAttribute> tableAttributes;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        AtlasTypeRegistry typeRegistry = mock(AtlasTypeRegistry.class);
+        AtlasGraph        graph        = mock(AtlasGraph.class);
+        AtlasEntityType   tableType    = mock(AtlasEntityType.class);
+
+        tableAttributes = new HashMap<>();
+        indexClient     = mock(AtlasGraphIndexClient.class);
+
+        tableAttributes.put("createTime", createAttribute("Table.createTime", new AtlasBuiltInTypes.AtlasLongType(), "createTime_l", AtlasAttributeDef.IndexType.DEFAULT));
+        tableAttributes.put("lastAccessTime", createAttribute("Table.lastAccessTime", new AtlasBuiltInTypes.AtlasDateType(), "lastAccessTime_l", AtlasAttributeDef.IndexType.DEFAULT));
+        tableAttributes.put("owner", createAttribute("Table.owner", new AtlasBuiltInTypes.AtlasStringType(), "owner_s", AtlasAttributeDef.IndexType.STRING));
+        tableAttributes.put("description", createAttribute("Table.description", new AtlasBuiltInTypes.AtlasStringType(), "description_t", AtlasAttributeDef.IndexType.DEFAULT));
+        tableAttributes.put("retention", createAttribute("Table.retention", new AtlasBuiltInTypes.AtlasIntType(), null, AtlasAttributeDef.IndexType.DEFAULT));
+
+        when(tableType.getAllAttributes()).thenReturn(tableAttributes);
+        when(typeRegistry.getEntityTypeByName("Table")).thenReturn(tableType);
+        when(typeRegistry.getIndexFieldName(Constants.ENTITY_TYPE_PROPERTY_KEY)).thenReturn("typeName_s");
+        when(graph.getGraphIndexClient()).thenReturn(indexClient);
+
+        aggregator = new IndexBasedAggregator(typeRegistry, graph);
+    }
+
+    @Test
+    public void testAggregationsUsingIndex() {
+        Map<String, AggregationStats.FieldStats> fieldStats = Collections.singletonMap("Table.createTime", new AggregationStats.FieldStats(10.0, 30.0, 60.0));
+
+        when(indexClient.getAggregationStats(any(), any(), anyInt())).thenReturn(new AggregationStats(3, Collections.emptyMap(), fieldStats));
+
+        SelectClauseComposer selectComposer = new SelectClauseComposer(new String[] {"count()", "max(createTime)", "sum(createTime)"},
+                                                                       new String[] {"count", "Table.createTime", "Table.createTime"},
+                                                                       new String[] {"count", "max", "sum"}, 0, 2, -1, 1);
+        AtlasSearchResult result = aggregator.execute("Table select count(), max(createTime), sum(createTime)", createQuery(selectComposer, null, 25, 0));
+
+        assertNotNull(result);
+        assertEquals(result.getAttributes().getName(), Arrays.asList("count()", "max(createTime)", "sum(createTime)"));
+        assertEquals(result.getAttributes().getValues(), Collections.singletonList(Arrays.asList(3, 30L, 60.0)));
+        verify(indexClient).getAggregationStats(any(), eq(Collections.singleton(tableAttributes.get("createTime"))), anyInt());
+    }
+
+    @Test
+    public void testMinMaxOfDateUsingIndex() {
+        Map<String, AggregationStats.FieldStats> fieldStats = Collections.singletonMap("Table.lastAccessTime", new AggregationStats.FieldStats(1500000000000.0, 1600000000000.0, 3100000000000.0));
+
+        when(indexClient.getAggregationStats(any(), any(), anyInt())).thenReturn(new AggregationStats(2, Collections.emptyMap(), fieldStats));
+
+        SelectClauseComposer selectComposer = new SelectClauseComposer(new String[] {"min(lastAccessTime)", "max(lastAccessTime)"},
+                                                                       new String[] {"Table.lastAccessTime", "Table.lastAccessTime"},
+                                                                       new String[] {"min", "max"}, -1, -1, 0, 1);
+        AtlasSearchResult result = aggregator.execute("Table select min(lastAccessTime), max(lastAccessTime)", createQuery(selectComposer, null, 25, 0));
+
+        // dates are returned as milliseconds since epoch, as when evaluated on the graph
+        assertNotNull(result);
+        assertEquals(result.getAttributes().getValues(), Collections.singletonList(Arrays.asList(1500000000000L, 1600000000000L)));
+    }
+
+    @Test
+    public void testGroupByUsingIndex() {
+        Map<String, List<AtlasAggregationEntry>> valueCounts = Collections.singletonMap("Table.owner", Arrays.asList(new AtlasAggregationEntry("joe", 5), new AtlasAggregationEntry("jane", 2), new AtlasAggregationEntry("john", 1)));
+
+        when(indexClient.getAggregationStats(any(), any(), anyInt())).thenReturn(new AggregationStats(8, valueCounts, Collections.emptyMap()));
+
+        AtlasSearchResult result = aggregator.execute("Table groupby(owner) select owner, count() limit 2", createQuery(createGroupByComposer("Table.owner"), "Table.owner", 2, 0));
+
+        assertNotNull(result);
+        assertEquals(result.getAttributes().getName(), Arrays.asList("owner", "count()"));
+        assertEquals(result.getAttributes().getValues(), Arrays.asList(Arrays.asList("joe", 5), Arrays.asList("john", 1)));
+        verify(indexClient).getAggregationStats(any(), eq(Collections.emptySet()), eq(-1));
+    }
+
+    @Test
+    public void testGroupByMatchesGraph() throws Exception {
+        List<AtlasAggregationEntry>          valueCounts = new ArrayList<>();
+        Map<String, Collection<AtlasVertex>> groups      = new LinkedHashMap<>();
+
+        // the index returns groups in the order of their counts
+        for (int i = 12; i > 0; i--) {
+            String            owner    = "owner" + (char) ('a' + i - 1);
+            List<AtlasVertex> vertices = new ArrayList<>();
+
+            for (int j = 0; j < i; j++) {
+                AtlasVertex vertex = mock(AtlasVertex.class);
+
+                when(vertex.getProperty("Table.owner", Object.class)).thenReturn(owner);
+
+                vertices.add(vertex);
+            }
+
+            valueCounts.add(new AtlasAggregationEntry(owner, i));
+            groups.put(owner, vertices);
+        }
+
+        when(indexClient.getAggregationStats(any(), any(), anyInt())).thenReturn(new AggregationStats(78, Collections.singletonMap("Table.owner", valueCounts), Collections.emptyMap()));
+
+        // collected one group at a time, as by AtlasJanusGraphTraversal.getAtlasVertexMap(); putAll() would size the map differently
+        Map<String, Collection<AtlasVertex>> resultMap = new HashMap<>(groups.size());
+
+        for (Map.Entry<String, Collection<AtlasVertex>> group : groups.entrySet()) {
+            resultMap.put(group.getKey(), group.getValue());
+        }
+
+        for (int[] limitOffset : new int[][] {{25, 0}, {5, 0}, {5, 5}, {5, 10}, {5, 20}}) {
+            int               limit       = limitOffset[0];
+            int               offset      = limitOffset[1];
+            String            query       = "Table groupby(owner) select owner, count() limit " + limit + " offset " + offset;
+            AtlasSearchResult indexResult = aggregator.execute(query, createQuery(createGroupByComposer("Table.owner"), "Table.owner", limit, offset));
+            AtlasSearchResult graphResult = SelectClauseProjections.usingMap(createQuery(createGroupByComposer("Table.owner"), "Table.owner", limit, offset), mock(EntityGraphRetriever.class), resultMap);
+
+            assertNotNull(indexResult);
+            assertEquals(indexResult.getAttributes().getName(), graphResult.getAttributes().getName(), query);
+            assertEquals(indexResult.getAttributes().getValues(), graphResult.getAttributes().getValues(), query);
+        }
+    }
+
+    @Test
+    public void testFallbackToGraph() {
+        SelectClauseComposer maxOfUnindexed = new SelectClauseComposer(new String[] {"max(retention)"}, new String[] {"Table.retention"}, new String[] {"max"}, -1, -1, -1, 0);
+        SelectClauseComposer maxOfString    = new SelectClauseComposer(new String[] {"max(owner)"}, new String[] {"Table.owner"}, new String[] {"max"}, -1, -1, -1, 0);
+        SelectClauseComposer sumOfDate      = new SelectClauseComposer(new String[] {"sum(lastAccessTime)"}, new String[] {"Table.lastAccessTime"}, new String[] {"sum"}, -1, 0, -1, -1);
+        SelectClauseComposer count          = new SelectClauseComposer(new String[] {"count()"}, new String[] {"count"}, new String[] {"count"}, 0, -1, -1, -1);
+        GremlinQuery         withFilter     = createQuery(count, null, 25, 0);
+
+        withFilter.getClauses().add(4, GremlinClause.HAS_OPERATOR, "Table.owner", "eq", "'joe'");
+
+        assertNull(aggregator.execute("Table select max(retention)", createQuery(maxOfUnindexed, null, 25, 0)));
+        assertNull(aggregator.execute("Table select max(owner)", createQuery(maxOfString, null, 25, 0)));
+        assertNull(aggregator.execute("Table select sum(lastAccessTime)", createQuery(sumOfDate, null, 25, 0)));
+        assertNull(aggregator.execute("Table where owner = 'joe' select count()", withFilter));
+        assertNull(aggregator.execute("Table groupby(description) select description, count()", createQuery(createGroupByComposer("Table.description"), "Table.description", 25, 0)));
+        verifyNoInteractions(indexClient);
+
+        // index not available
+        assertNull(aggregator.execute("Table select count()", createQuery(count, null, 25, 0)));
+    }
+
+    private static AtlasAttribute createAttribute(String qualifiedName, AtlasType attributeType, String indexFieldName, AtlasAttributeDef.IndexType indexType) {
+        AtlasAttribute ret = mock(AtlasAttribute.class);
+
+        when(ret.getQualifiedName()).thenReturn(qualifiedName);
+        when(ret.getVertexPropertyName()).thenReturn(qualifiedName);
+        when(ret.getTypeName()).thenReturn(attributeType.getTypeName());
+        when(ret.getAttributeType()).thenReturn(attributeType);
+        when(ret.getIndexFieldName()).thenReturn(indexFieldName);
+        when(ret.getIndexType()).thenReturn(indexType);
+
+        return ret;
+    }
+
+    private static SelectClauseComposer createGroupByComposer(String groupByProperty) {
+        String               attrName = groupByProperty.substring(groupByProperty.indexOf('.') + 1);
+        SelectClauseComposer ret      = new SelectClauseComposer(new String[] {attrName, "count()"}, new String[] {groupByProperty, "count"}, new String[] {groupByProperty, "count"}, 1, -1, -1, -1);
+
+        ret.setIsPrimitiveAttr(0);
+
+        return ret;
+    }
+
+    // clauses as translated by GremlinQueryComposer for "Table [groupby(a)] select ..."
+    private static GremlinQuery createQuery(SelectClauseComposer selectComposer, String groupByProperty, int limit, int offset) {
+        GremlinClauseList      clauses       = new GremlinClauseList();
+        AtlasDSL.QueryMetadata queryMetadata = mock(AtlasDSL.QueryMetadata.class);
+
+        clauses.add(groupByProperty != null ? GremlinClause.SELECT_MULTI_ATTR_GRP_FN : GremlinClause.SELECT_ONLY_AGG_FN);
+        clauses.add(GremlinClause.G);
+        clauses.add(GremlinClause.V);
+        clauses.add(GremlinClause.HAS_TYPE, "Table");
+
+        if (groupByProperty != null) {
+            clauses.add(GremlinClause.GROUP_BY, groupByProperty);
+        }
+
+        clauses.add(GremlinClause.DEDUP);
+        clauses.add(GremlinClause.TO_LIST);
+        clauses.add(GremlinClause.INLINE_TRANSFORM_CALL);
+
+        when(queryMetadata.hasSelect()).thenReturn(true);
+        when(queryMetadata.getResolvedLimit()).thenReturn(limit);
+        when(queryMetadata.getResolvedOffset()).thenReturn(offset);
+
+        return new GremlinQuery("", queryMetadata, clauses, selectComposer);
+    }
+}
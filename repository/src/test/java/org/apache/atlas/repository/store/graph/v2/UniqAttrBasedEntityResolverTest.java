@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.repository.store.graph.v2;
+
+import org.apache.atlas.AtlasErrorCode;
+import org.apache.atlas.RequestContext;
+import org.apache.atlas.exception.AtlasBaseException;
+import org.apache.atlas.model.instance.AtlasObjectId;
+import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasGraphQuery;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
+import org.apache.atlas.repository.store.graph.EntityGraphDiscoveryContext;
+import org.apache.atlas.type.AtlasEntityType;
+import org.apache.atlas.type.AtlasStructType.AtlasAttribute;
+import org.apache.atlas.type.AtlasTypeRegistry;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+public class UniqAttrBasedEntityResolverTest {
+    private static final String TYPE_NAME     = "hive_column";
+    private static final String PROPERTY_NAME = "Referenceable.qualifiedName";
+
+    @Mock private AtlasGraph        graph;
+    @Mock private AtlasGraphQuery   query;
+    @Mock private AtlasTypeRegistry typeRegistry;
+    @Mock private AtlasEntityType   entityType;
+    @Mock private AtlasAttribute    attribute;
+    @Mock private EntityGraphMapper entityGraphMapper;
+
+    private UniqAttrBasedEntityResolver resolver;
+
+    @BeforeMethod
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        when(typeRegistry.getEntityTypeByName(TYPE_NAME)).thenReturn(entityType);
+        when(entityType.getTypeName()).thenReturn(TYPE_NAME);
+        when(entityType.getUniqAttributes()).thenReturn(Collections.singletonMap("qualifiedName", attribute));
+        when(entityType.getAllSubTypes()).thenReturn(Collections.emptySet());
+        when(attribute.getName()).thenReturn("qualifiedName");
+        when(attribute.getVertexPropertyName()).thenReturn(PROPERTY_NAME);
+        when(attribute.getVertexUniquePropertyName()).thenReturn(PROPERTY_NAME);
+        when(graph.query()).thenReturn(query);
+        when(query.has(anyString(), any())).thenReturn(query);
+        when(query.in(anyString(), anyCollection())).thenReturn(query);
+
+        resolver = new UniqAttrBasedEntityResolver(graph, typeRegistry, entityGraphMapper);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        RequestContext.clear();
+    }
+
+    @Test
+    public void testReferencesResolvedInBatch() throws AtlasBaseException {
+        AtlasVertex col1 = mockVertex("db.t.col1@cl");
+        AtlasVertex col2 = mockVertex("db.t.col2@cl");
+
+        when(query.vertices()).thenReturn(Arrays.asList(col1, col2));
+
+        EntityGraphDiscoveryContext context = createContext("db.t.col1@cl", "db.t.col2@cl");
+
+        resolver.resolveEntityReferences(context);
+
+        assertEquals(context.getResolvedIdsByUniqAttribs().get(createObjectId("db.t.col1@cl")), col1);
+        assertEquals(context.getResolvedIdsByUniqAttribs().get(createObjectId("db.t.col2@cl")), col2);
+
+        verify(graph, times(1)).query();
+        verify(query).in(eq(PROPERTY_NAME), argThat((Collection<?> values) -> values.size() == 2));
+    }
+
+    @Test
+    public void testReferenceNotFoundInBatch() {
+        AtlasVertex col1 = mockVertex("db.t.col1@cl");
+
+        when(query.vertices()).thenReturn(Collections.singletonList(col1));
+
+        try {
+            resolver.resolveEntityReferences(createContext("db.t.col1@cl", "db.t.col2@cl"));
+
+            fail("expected reference to db.t.col2@cl to fail resolution");
+        } catch (AtlasBaseException e) {
+            assertEquals(e.getAtlasErrorCode(), AtlasErrorCode.REFERENCED_ENTITY_NOT_FOUND);
+        }
+    }
+
+    @Test
+    public void testShellEntityCreatedForReferenceNotFoundInBatch() throws AtlasBaseException {
+        AtlasVertex col1  = mockVertex("db.t.col1@cl");
+        AtlasVertex shell = mock(AtlasVertex.class);
+
+        when(query.vertices()).thenReturn(Collections.singletonList(col1));
+        when(entityGraphMapper.createShellEntityVertex(eq(createObjectId("db.t.col2@cl")), any())).thenReturn(shell);
+
+        RequestContext.get().setCreateShellEntityForNonExistingReference(true);
+
+        EntityGraphDiscoveryContext context = createContext("db.t.col1@cl", "db.t.col2@cl");
+
+        resolver.resolveEntityReferences(context);
+
+        assertEquals(context.getResolvedIdsByUniqAttribs().get(createObjectId("db.t.col1@cl")), col1);
+        assertEquals(context.getResolvedIdsByUniqAttribs().get(createObjectId("db.t.col2@cl")), shell);
+    }
+
+    @Test
+    public void testSingleReferenceNotBatched() throws AtlasBaseException {
+        AtlasVertex col1 = mockVertex("db.t.col1@cl");
+
+        when(query.vertices()).thenReturn(Collections.singletonList(col1));
+
+        EntityGraphDiscoveryContext context = createContext("db.t.col1@cl");
+
+        resolver.resolveEntityReferences(context);
+
+        assertEquals(context.getResolvedIdsByUniqAttribs().get(createObjectId("db.t.col1@cl")), col1);
+
+        verify(query, never()).in(anyString(), anyCollection());
+    }
+
+    private EntityGraphDiscoveryContext createContext(String... qualifiedNames) {
+        EntityGraphDiscoveryContext ret = new EntityGraphDiscoveryContext(typeRegistry, null);
+
+        for (String qualifiedName : qualifiedNames) {
+            ret.addReferencedByUniqAttribs(createObjectId(qualifiedName));
+        }
+
+        return ret;
+    }
+
+    private static AtlasObjectId createObjectId(String qualifiedName) {
+        return new AtlasObjectId(TYPE_NAME, "qualifiedName", qualifiedName);
+    }
+
+    private static AtlasVertex mockVertex(String qualifiedName) {
+        AtlasVertex ret = mock(AtlasVertex.class);
+
+        when(ret.getProperty(PROPERTY_NAME, Object.class)).thenReturn(qualifiedName);
+
+        return ret;
+    }
+}
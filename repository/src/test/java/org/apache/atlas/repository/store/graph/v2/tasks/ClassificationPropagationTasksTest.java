@@ -20,7 +20,9 @@ package org.apache.atlas.repository.store.graph.v2.tasks;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.instance.AtlasRelationship;
 import org.apache.atlas.model.tasks.AtlasTask;
+import org.apache.atlas.repository.Constants;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.atlas.repository.store.graph.AtlasRelationshipStore;
 import org.apache.atlas.repository.store.graph.v1.DeleteHandlerDelegate;
 import org.apache.atlas.repository.store.graph.v2.EntityGraphMapper;
@@ -35,7 +37,9 @@ import org.testng.annotations.Test;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationTask.PARAM_CLASSIFICATION_VERTEX_ID;
@@ -44,11 +48,15 @@ import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationTas
 import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationTask.PARAM_RELATIONSHIP_GUID;
 import static org.apache.atlas.repository.store.graph.v2.tasks.ClassificationTask.PARAM_RELATIONSHIP_OBJECT;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertNotNull;
@@ -90,11 +98,66 @@ public class ClassificationPropagationTasksTest {
         parameters.put(PARAM_CLASSIFICATION_VERTEX_ID, "classification-vertex-id");
         parameters.put(PARAM_RELATIONSHIP_GUID, "relationship-guid");
 
-        when(entityGraphMapper.propagateClassification(anyString(), anyString(), anyString())).thenReturn(Arrays.asList("guid1"));
+        AtlasVertex vertex = mockVertex("1", "guid1");
+
+        when(entityGraphMapper.getImpactedVerticesToPropagate(anyString(), anyString(), anyString())).thenReturn(Collections.singletonList(vertex).iterator());
+        when(entityGraphMapper.propagateClassification(anyString(), any(List.class))).thenReturn(Arrays.asList("guid1"));
+
+        invokeRunMethod(addTask, parameters);
+
+        verify(entityGraphMapper).getImpactedVerticesToPropagate(eq("entity-guid"), eq("classification-vertex-id"), eq("relationship-guid"));
+        verify(entityGraphMapper).propagateClassification(eq("classification-vertex-id"), eq(Collections.singletonList(vertex)));
+        verify(graph).commit();
+    }
+
+    @Test
+    public void testAddTaskResumesFromCheckpoint() throws Exception {
+        ClassificationPropagationTasks.Add addTask = new ClassificationPropagationTasks.Add(task, graph, entityGraphMapper, deleteDelegate, relationshipStore);
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(PARAM_ENTITY_GUID, "entity-guid");
+        parameters.put(PARAM_CLASSIFICATION_VERTEX_ID, "classification-vertex-id");
+        parameters.put(PARAM_RELATIONSHIP_GUID, "relationship-guid");
+
+        Map<String, Object> checkpoint = new HashMap<>();
+        checkpoint.put("processedCount", 1);
+        checkpoint.put("lastProcessedGuid", "guid1");
+
+        AtlasVertex vertex1 = mockVertex("1", "guid1");
+        AtlasVertex vertex2 = mockVertex("2", "guid2");
+
+        when(task.getCheckpoint()).thenReturn(checkpoint);
+        when(entityGraphMapper.getImpactedVerticesToPropagate(anyString(), anyString(), anyString())).thenReturn(Arrays.asList(vertex1, vertex2).iterator());
 
         invokeRunMethod(addTask, parameters);
 
-        verify(entityGraphMapper).propagateClassification(eq("entity-guid"), eq("classification-vertex-id"), eq("relationship-guid"));
+        verify(entityGraphMapper, times(1)).getImpactedVerticesToPropagate(anyString(), anyString(), anyString());
+        verify(entityGraphMapper).propagateClassification(eq("classification-vertex-id"), eq(Collections.singletonList(vertex2)));
+    }
+
+    @Test
+    public void testAddTaskRestartsOnStaleCheckpoint() throws Exception {
+        ClassificationPropagationTasks.Add addTask = new ClassificationPropagationTasks.Add(task, graph, entityGraphMapper, deleteDelegate, relationshipStore);
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(PARAM_ENTITY_GUID, "entity-guid");
+        parameters.put(PARAM_CLASSIFICATION_VERTEX_ID, "classification-vertex-id");
+        parameters.put(PARAM_RELATIONSHIP_GUID, "relationship-guid");
+
+        Map<String, Object> checkpoint = new HashMap<>();
+        checkpoint.put("processedCount", 1);
+        checkpoint.put("lastProcessedGuid", "guid-removed");
+
+        AtlasVertex vertex1 = mockVertex("1", "guid1");
+        AtlasVertex vertex2 = mockVertex("2", "guid2");
+
+        when(task.getCheckpoint()).thenReturn(checkpoint);
+        when(entityGraphMapper.getImpactedVerticesToPropagate(anyString(), anyString(), anyString())).thenReturn(Arrays.asList(vertex1, vertex2).iterator(), Arrays.asList(vertex1, vertex2).iterator());
+
+        invokeRunMethod(addTask, parameters);
+
+        verify(entityGraphMapper, times(2)).getImpactedVerticesToPropagate(anyString(), anyString(), anyString());
+        verify(entityGraphMapper).propagateClassification(eq("classification-vertex-id"), eq(Arrays.asList(vertex1, vertex2)));
     }
 
     @Test
@@ -106,7 +169,10 @@ public class ClassificationPropagationTasksTest {
         parameters.put(PARAM_CLASSIFICATION_VERTEX_ID, "classification-vertex-id");
         parameters.put(PARAM_RELATIONSHIP_GUID, "relationship-guid");
 
-        doThrow(new AtlasBaseException("Test exception")).when(entityGraphMapper).propagateClassification(anyString(), anyString(), anyString());
+        AtlasVertex vertex = mockVertex("1", "guid1");
+
+        when(entityGraphMapper.getImpactedVerticesToPropagate(anyString(), anyString(), anyString())).thenReturn(Collections.singletonList(vertex).iterator());
+        doThrow(new AtlasBaseException("Test exception")).when(entityGraphMapper).propagateClassification(anyString(), any(List.class));
 
         expectThrows(AtlasBaseException.class, () -> invokeRunMethod(addTask, parameters));
     }
@@ -120,11 +186,12 @@ public class ClassificationPropagationTasksTest {
         parameters.put(PARAM_CLASSIFICATION_VERTEX_ID, null);
         parameters.put(PARAM_RELATIONSHIP_GUID, null);
 
-        when(entityGraphMapper.propagateClassification(anyString(), anyString(), anyString())).thenReturn(Arrays.asList("guid1"));
+        when(entityGraphMapper.getImpactedVerticesToPropagate(any(), any(), any())).thenReturn(Collections.emptyIterator());
 
         invokeRunMethod(addTask, parameters);
 
-        verify(entityGraphMapper).propagateClassification(null, null, null);
+        verify(entityGraphMapper).getImpactedVerticesToPropagate(null, null, null);
+        verify(entityGraphMapper, never()).propagateClassification(any(), any(List.class));
     }
 
     @Test
@@ -135,11 +202,16 @@ public class ClassificationPropagationTasksTest {
         parameters.put(PARAM_ENTITY_GUID, "entity-guid");
         parameters.put(PARAM_CLASSIFICATION_VERTEX_ID, "classification-vertex-id");
 
-        when(entityGraphMapper.deleteClassificationPropagation(anyString(), anyString())).thenReturn(Arrays.asList("guid1"));
+        AtlasVertex classificationVertex = mock(AtlasVertex.class);
+
+        // two chunks of propagations are removed, the classification vertex is deleted with the second one
+        when(entityGraphMapper.deleteClassificationPropagation(anyString(), anyInt())).thenReturn(Arrays.asList("guid1"), Arrays.asList("guid2"));
+        when(graph.getVertex("classification-vertex-id")).thenReturn(classificationVertex, (AtlasVertex) null);
 
         invokeRunMethod(deleteTask, parameters);
 
-        verify(entityGraphMapper).deleteClassificationPropagation(eq("entity-guid"), eq("classification-vertex-id"));
+        verify(entityGraphMapper, times(2)).deleteClassificationPropagation(eq("classification-vertex-id"), anyInt());
+        verify(graph, times(2)).commit();
     }
 
     @Test
@@ -150,7 +222,7 @@ public class ClassificationPropagationTasksTest {
         parameters.put(PARAM_ENTITY_GUID, "entity-guid");
         parameters.put(PARAM_CLASSIFICATION_VERTEX_ID, "classification-vertex-id");
 
-        doThrow(new AtlasBaseException("Test exception")).when(entityGraphMapper).deleteClassificationPropagation(anyString(), anyString());
+        doThrow(new AtlasBaseException("Test exception")).when(entityGraphMapper).deleteClassificationPropagation(anyString(), anyInt());
 
         expectThrows(AtlasBaseException.class, () -> invokeRunMethod(deleteTask, parameters));
     }
@@ -163,11 +235,9 @@ public class ClassificationPropagationTasksTest {
         parameters.put(PARAM_ENTITY_GUID, null);
         parameters.put(PARAM_CLASSIFICATION_VERTEX_ID, null);
 
-        when(entityGraphMapper.deleteClassificationPropagation(anyString(), anyString())).thenReturn(Arrays.asList("guid1"));
-
         invokeRunMethod(deleteTask, parameters);
 
-        verify(entityGraphMapper).deleteClassificationPropagation(null, null);
+        verify(entityGraphMapper).deleteClassificationPropagation(eq((String) null), anyInt());
     }
 
     @Test
@@ -263,11 +333,11 @@ public class ClassificationPropagationTasksTest {
 
         Map<String, Object> parameters = new HashMap<>();
 
-        when(entityGraphMapper.propagateClassification(anyString(), anyString(), anyString())).thenReturn(Arrays.asList("guid1"));
+        when(entityGraphMapper.getImpactedVerticesToPropagate(any(), any(), any())).thenReturn(Collections.emptyIterator());
 
         invokeRunMethod(addTask, parameters);
 
-        verify(entityGraphMapper).propagateClassification(null, null, null);
+        verify(entityGraphMapper).getImpactedVerticesToPropagate(null, null, null);
     }
 
     @Test
@@ -276,11 +346,9 @@ public class ClassificationPropagationTasksTest {
 
         Map<String, Object> parameters = new HashMap<>();
 
-        when(entityGraphMapper.deleteClassificationPropagation(anyString(), anyString())).thenReturn(Arrays.asList("guid1"));
-
         invokeRunMethod(deleteTask, parameters);
 
-        verify(entityGraphMapper).deleteClassificationPropagation(null, null);
+        verify(entityGraphMapper).deleteClassificationPropagation(eq((String) null), anyInt());
     }
 
     @Test
@@ -297,6 +365,15 @@ public class ClassificationPropagationTasksTest {
     }
 
     // Helper methods
+    private AtlasVertex mockVertex(String id, String guid) {
+        AtlasVertex ret = mock(AtlasVertex.class);
+
+        when(ret.getId()).thenReturn(id);
+        when(ret.getProperty(Constants.GUID_PROPERTY_KEY, String.class)).thenReturn(guid);
+
+        return ret;
+    }
+
     private void invokeRunMethod(ClassificationTask task, Map<String, Object> parameters) throws Exception {
         Method runMethod = task.getClass().getDeclaredMethod("run", Map.class);
         runMethod.setAccessible(true);
@@ -30,6 +30,7 @@ import org.apache.atlas.model.instance.EntityMutationResponse;
 import org.apache.atlas.model.lineage.AtlasLineageInfo;
 import org.apache.atlas.model.lineage.AtlasLineageInfo.LineageRelation;
 import org.apache.atlas.model.typedef.AtlasClassificationDef;
+import org.apache.atlas.model.typedef.AtlasRelationshipDef.PropagateTags;
 import org.apache.atlas.model.typedef.AtlasStructDef.AtlasAttributeDef;
 import org.apache.atlas.model.typedef.AtlasTypesDef;
 import org.apache.atlas.repository.AtlasTestBase;
@@ -559,6 +560,89 @@ public class ClassificationPropagationTest extends AtlasTestBase {
         assertClassificationExistInEntity(US_EMPLOYEES_TABLE, tag1);
     }
 
+    @Test(dependsOnMethods = "addClassification_removePropagationsFalse_DeleteCase")
+    public void removePropagation_AlternatePathCase() throws AtlasBaseException {
+        AtlasEntity         hdfsEmployees = getEntity(HDFS_PATH_EMPLOYEES);
+        AtlasClassification tag1          = new AtlasClassification("tag1");
+
+        tag1.setPropagate(true);
+        tag1.setEntityGuid(hdfsEmployees.getGuid());
+
+        addClassification(hdfsEmployees, tag1);
+
+        assertClassificationExistInEntities(Arrays.asList(EMPLOYEES2_TABLE, EMPLOYEES_UNION_PROCESS, EMPLOYEES_UNION_TABLE), tag1);
+
+        // process3 and employees_union are still reachable from hdfs_employees through employees1
+        updatePropagateTags(EMPLOYEES2_TABLE, EMPLOYEES_UNION_PROCESS, TWO_TO_ONE, NONE);
+
+        assertClassificationExistInEntities(Arrays.asList(EMPLOYEES2_TABLE, EMPLOYEES_UNION_PROCESS, EMPLOYEES_UNION_TABLE), tag1);
+
+        updatePropagateTags(EMPLOYEES2_TABLE, EMPLOYEES_UNION_PROCESS, NONE, TWO_TO_ONE);
+
+        //cleanup
+        deleteClassification(hdfsEmployees, tag1);
+
+        assertClassificationNotExistInEntities(Arrays.asList(EMPLOYEES2_TABLE, EMPLOYEES_UNION_PROCESS, EMPLOYEES_UNION_TABLE), tag1);
+    }
+
+    @Test(dependsOnMethods = "removePropagation_AlternatePathCase")
+    public void removePropagation_NoAlternatePathCase() throws AtlasBaseException {
+        AtlasEntity         employees2Table = getEntity(EMPLOYEES2_TABLE);
+        AtlasClassification tag2            = new AtlasClassification("tag2");
+
+        tag2.setPropagate(true);
+        tag2.setEntityGuid(employees2Table.getGuid());
+
+        addClassification(employees2Table, tag2);
+
+        assertClassificationExistInEntities(Arrays.asList(EMPLOYEES_UNION_PROCESS, EMPLOYEES_UNION_TABLE), tag2);
+
+        // employees2 -> process3 is the only path from employees2 to process3 and employees_union
+        updatePropagateTags(EMPLOYEES2_TABLE, EMPLOYEES_UNION_PROCESS, TWO_TO_ONE, NONE);
+
+        assertClassificationExistInEntity(EMPLOYEES2_TABLE, tag2);
+        assertClassificationNotExistInEntities(Arrays.asList(EMPLOYEES_UNION_PROCESS, EMPLOYEES_UNION_TABLE), tag2);
+
+        updatePropagateTags(EMPLOYEES2_TABLE, EMPLOYEES_UNION_PROCESS, NONE, TWO_TO_ONE);
+
+        assertClassificationExistInEntities(Arrays.asList(EMPLOYEES_UNION_PROCESS, EMPLOYEES_UNION_TABLE), tag2);
+
+        //cleanup
+        deleteClassification(employees2Table, tag2);
+    }
+
+    @Test(dependsOnMethods = "removePropagation_NoAlternatePathCase")
+    public void addPropagation_DownstreamEntityWithoutClassificationCase() throws AtlasBaseException {
+        AtlasEntity         employees2Table = getEntity(EMPLOYEES2_TABLE);
+        AtlasClassification tag3            = new AtlasClassification("tag3");
+
+        tag3.setPropagate(true);
+        tag3.setEntityGuid(employees2Table.getGuid());
+
+        updatePropagateTags(EMPLOYEES2_TABLE, EMPLOYEES_UNION_PROCESS, TWO_TO_ONE, NONE);
+        updatePropagateTags(EMPLOYEES_UNION_PROCESS, EMPLOYEES_UNION_TABLE, ONE_TO_TWO, NONE);
+
+        addClassification(employees2Table, tag3);
+
+        assertClassificationNotExistInEntities(Arrays.asList(EMPLOYEES_UNION_PROCESS, EMPLOYEES_UNION_TABLE), tag3);
+
+        // process3 gets the classification, while employees_union doesn't
+        updatePropagateTags(EMPLOYEES2_TABLE, EMPLOYEES_UNION_PROCESS, NONE, TWO_TO_ONE);
+
+        assertClassificationExistInEntity(EMPLOYEES_UNION_PROCESS, tag3);
+        assertClassificationNotExistInEntity(EMPLOYEES_UNION_TABLE, tag3);
+
+        // process3 already has the classification, employees_union downstream of it must still get it
+        updatePropagateTags(EMPLOYEES_UNION_PROCESS, EMPLOYEES_UNION_TABLE, NONE, ONE_TO_TWO);
+
+        assertClassificationExistInEntities(Arrays.asList(EMPLOYEES_UNION_PROCESS, EMPLOYEES_UNION_TABLE), tag3);
+
+        //cleanup
+        deleteClassification(employees2Table, tag3);
+
+        assertClassificationNotExistInEntities(Arrays.asList(EMPLOYEES_UNION_PROCESS, EMPLOYEES_UNION_TABLE), tag3);
+    }
+
     private void assertClassificationEquals(Set<AtlasClassification> propagatedClassifications, AtlasClassification expected) {
         String expectedTypeName = expected.getTypeName();
         for (AtlasClassification c : propagatedClassifications) {
@@ -768,4 +852,14 @@ public class ClassificationPropagationTest extends AtlasTestBase {
 
         return relationshipStore.getById(relationshipGuid);
     }
+
+    private void updatePropagateTags(String fromEntityName, String toEntityName, PropagateTags expected, PropagateTags propagateTags) throws AtlasBaseException {
+        AtlasRelationship relationship = getRelationship(fromEntityName, toEntityName);
+
+        assertEquals(relationship.getPropagateTags(), expected);
+
+        relationship.setPropagateTags(propagateTags);
+
+        relationshipStore.update(relationship);
+    }
 }
@@ -21,6 +21,7 @@ import org.apache.atlas.TestModules;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.tasks.AtlasTask;
 import org.apache.atlas.repository.graphdb.AtlasGraph;
+import org.apache.atlas.repository.graphdb.AtlasVertex;
 import org.apache.commons.lang3.StringUtils;
 import org.testng.annotations.Guice;
 import org.testng.annotations.Test;
@@ -33,7 +34,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
@@ -114,6 +121,85 @@ public class TaskExecutorTest extends BaseTaskFixture {
         assertTaskUntilFail(errorThrowingTask, taskExecutor);
     }
 
+    @Test
+    public void tasksWithCommonKeyAreSerialized() throws InterruptedException {
+        PartitionedFactory        factory    = new PartitionedFactory();
+        TaskManagement.Statistics statistics = new TaskManagement.Statistics();
+        TaskExecutor              executor   = new TaskExecutor(createMockRegistry(), createFactoryMap(factory), statistics, 4, Collections.emptyMap());
+        List<AtlasTask>           tasks      = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            tasks.add(createPartitionedTask("hub"));
+            tasks.add(createPartitionedTask("entity-" + i));
+        }
+
+        executor.addAll(tasks);
+        executor.waitUntilDone();
+
+        assertEquals(statistics.getTotalSuccess(), tasks.size());
+        assertEquals(statistics.getQueueDepth(), 0);
+        assertEquals(statistics.getInProgress(), 0);
+        assertEquals(factory.getMaxInProgress("hub"), 1);
+        assertTrue(factory.getMaxInProgress() > 1);
+        assertEquals(factory.getExecutedTaskGuids("hub"), Arrays.asList(tasks.get(0).getGuid(), tasks.get(2).getGuid(), tasks.get(4).getGuid(), tasks.get(6).getGuid()));
+    }
+
+    @Test
+    public void taskTypeConcurrencyIsLimited() throws InterruptedException {
+        PartitionedFactory        factory    = new PartitionedFactory();
+        TaskManagement.Statistics statistics = new TaskManagement.Statistics();
+        TaskExecutor              executor   = new TaskExecutor(createMockRegistry(), createFactoryMap(factory), statistics, 4, Collections.singletonMap(PartitionedFactory.TASK_TYPE, 1));
+        List<AtlasTask>           tasks      = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            tasks.add(createPartitionedTask("entity-" + i));
+        }
+
+        executor.addAll(tasks);
+        executor.waitUntilDone();
+
+        assertEquals(statistics.getTotalSuccess(), tasks.size());
+        assertEquals(factory.getMaxInProgress(), 1);
+    }
+
+    @Test
+    public void tasksWithMultipleKeysAreOrderedOnEachKey() throws InterruptedException {
+        PartitionedFactory        factory    = new PartitionedFactory();
+        TaskManagement.Statistics statistics = new TaskManagement.Statistics();
+        TaskExecutor              executor   = new TaskExecutor(createMockRegistry(), createFactoryMap(factory), statistics, 4, Collections.emptyMap());
+        List<AtlasTask>           tasks      = Arrays.asList(createPartitionedTask("a,b"), createPartitionedTask("b"), createPartitionedTask("a"), createPartitionedTask("b,c"), createPartitionedTask("d"));
+
+        executor.addAll(tasks);
+        executor.waitUntilDone();
+
+        assertEquals(statistics.getTotalSuccess(), tasks.size());
+        assertEquals(statistics.getQueueDepth(), 0);
+        assertEquals(factory.getExecutedTaskGuids("a"), Arrays.asList(tasks.get(0).getGuid(), tasks.get(2).getGuid()));
+        assertEquals(factory.getExecutedTaskGuids("b"), Arrays.asList(tasks.get(0).getGuid(), tasks.get(1).getGuid(), tasks.get(3).getGuid()));
+
+        for (String key : Arrays.asList("a", "b", "c", "d")) {
+            assertEquals(factory.getMaxInProgress(key), 1);
+        }
+
+        assertTrue(factory.getMaxInProgress() > 1); // task of key d doesn't wait for tasks of other keys
+    }
+
+    private static TaskRegistry createMockRegistry() {
+        TaskRegistry registry = mock(TaskRegistry.class);
+
+        when(registry.getVertex(anyString())).thenReturn(mock(AtlasVertex.class));
+
+        return registry;
+    }
+
+    private static Map<String, TaskFactory> createFactoryMap(TaskFactory factory) {
+        return TaskManagement.createTaskTypeFactoryMap(new HashMap<>(), factory);
+    }
+
+    private static AtlasTask createPartitionedTask(String entityKeys) {
+        return new AtlasTask(PartitionedFactory.TASK_TYPE, "test", Collections.singletonMap(PartitionedFactory.PARAM_ENTITY, entityKeys));
+    }
+
     private void assertTaskUntilFail(AtlasTask errorThrowingTask, TaskExecutor taskExecutor) throws AtlasBaseException, InterruptedException {
         AtlasTask errorTaskFromDB = taskManagement.getByGuid(errorThrowingTask.getGuid());
 
@@ -130,4 +216,64 @@ public class TaskExecutorTest extends BaseTaskFixture {
         graph.commit();
         assertEquals(errorThrowingTask.getStatus(), AtlasTask.Status.FAILED);
     }
+
+    static class PartitionedFactory implements TaskFactory {
+        static final String TASK_TYPE    = "partitioned";
+        static final String PARAM_ENTITY = "entity";
+
+        private final AtomicInteger              inProgress        = new AtomicInteger();
+        private final AtomicInteger              maxInProgress     = new AtomicInteger();
+        private final Map<String, AtomicInteger> keyInProgress     = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> keyMaxInProgress  = new ConcurrentHashMap<>();
+        private final Map<String, List<String>>  executedTaskGuids = new ConcurrentHashMap<>();
+
+        @Override
+        public AbstractTask create(AtlasTask atlasTask) {
+            return new AbstractTask(atlasTask) {
+                @Override
+                public AtlasTask.Status perform() throws Exception {
+                    List<String> keys = getPartitionKeys(atlasTask);
+
+                    for (String key : keys) {
+                        executedTaskGuids.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(atlasTask.getGuid());
+                        keyMaxInProgress.computeIfAbsent(key, k -> new AtomicInteger()).accumulateAndGet(keyInProgress.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet(), Math::max);
+                    }
+
+                    maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+
+                    Thread.sleep(100);
+
+                    for (String key : keys) {
+                        keyInProgress.get(key).decrementAndGet();
+                    }
+
+                    inProgress.decrementAndGet();
+
+                    return AtlasTask.Status.COMPLETE;
+                }
+            };
+        }
+
+        @Override
+        public List<String> getSupportedTypes() {
+            return Collections.singletonList(TASK_TYPE);
+        }
+
+        @Override
+        public List<String> getPartitionKeys(AtlasTask atlasTask) {
+            return Arrays.asList(((String) atlasTask.getParameters().get(PARAM_ENTITY)).split(","));
+        }
+
+        int getMaxInProgress() {
+            return maxInProgress.get();
+        }
+
+        int getMaxInProgress(String key) {
+            return keyMaxInProgress.get(key).get();
+        }
+
+        List<String> getExecutedTaskGuids(String key) {
+            return executedTaskGuids.get(key);
+        }
+    }
 }
@@ -29,7 +29,9 @@ import org.testng.annotations.Test;
 import javax.inject.Inject;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
@@ -81,6 +83,29 @@ public class TaskRegistryTest {
         }
     }
 
+    @Test
+    public void checkpoint() throws AtlasBaseException {
+        AtlasTask task = registry.save(new AtlasTask("abcd", "test", Collections.singletonMap("p1", "p1")));
+
+        assertNull(task.getCheckpoint());
+
+        Map<String, Object> checkpoint = new HashMap<>();
+
+        checkpoint.put("processedCount", 1000);
+        checkpoint.put("lastProcessedGuid", "guid-1000");
+
+        task.setCheckpoint(checkpoint);
+        registry.updateCheckpoint(task);
+        registry.commit();
+
+        AtlasTask taskFromVertex = registry.getById(task.getGuid());
+
+        assertEquals(taskFromVertex.getCheckpoint(), checkpoint);
+
+        registry.deleteByGuid(task.getGuid());
+        registry.commit();
+    }
+
     @Test
     public void pendingTasks() throws AtlasBaseException {
         final int    maxTasks       = 3;
@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.util;
+
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class InvalidatingCacheTest {
+    @Test
+    public void testPutRejectedOnlyForInvalidatedTags() {
+        InvalidatingCache<String> cache    = new InvalidatingCache<>("test", 10);
+        long                      sequence = cache.getSequence();
+
+        cache.invalidate(Collections.singleton("guid1"));
+
+        assertFalse(cache.put("key1", "value1", tags("guid1", "guid2"), sequence));
+        assertTrue(cache.put("key2", "value2", tags("guid2", "guid3"), sequence));
+        assertFalse(cache.put("key3", "value3", tags(InvalidatingCache.ANY_TAG), sequence));
+        assertEquals(cache.get("key2"), "value2");
+    }
+
+    @Test
+    public void testAnyTagEvictedByEveryInvalidation() {
+        InvalidatingCache<String> cache = new InvalidatingCache<>("test", 10);
+
+        cache.put("key1", "value1", tags(InvalidatingCache.ANY_TAG), cache.getSequence());
+        cache.put("key2", "value2", tags("guid2"), cache.getSequence());
+
+        cache.invalidate(Collections.singleton("guid1"));
+
+        assertNull(cache.get("key1"));
+        assertEquals(cache.get("key2"), "value2");
+        assertEquals(cache.getStats().get("invalidations").longValue(), 1L);
+    }
+
+    @Test
+    public void testUntrackedInvalidationsRejectOlderPuts() {
+        InvalidatingCache<String> cache    = new InvalidatingCache<>("test", 10);
+        long                      sequence = cache.getSequence();
+
+        // invalidations beyond those tracked per tag must still reject values computed before them
+        for (int i = 0; i <= 10000; i++) {
+            cache.invalidate(Collections.singleton("guid" + i));
+        }
+
+        assertFalse(cache.put("key1", "value1", tags("guid0"), sequence));
+        assertFalse(cache.put("key2", "value2", tags("other"), sequence));
+        assertTrue(cache.put("key3", "value3", tags("guid0"), cache.getSequence()));
+    }
+
+    @Test
+    public void testSizeAndAgeBounds() throws InterruptedException {
+        InvalidatingCache<String> cache = new InvalidatingCache<>("test", 10, 10, String::length, 20);
+
+        assertFalse(cache.put("key1", "longer than 10 bytes", tags("guid1"), cache.getSequence()));
+        assertTrue(cache.put("key2", "123456", tags("guid1"), cache.getSequence()));
+        assertTrue(cache.put("key3", "123456", tags("guid1"), cache.getSequence()));
+
+        assertNull(cache.get("key2")); // evicted to fit key3 within 10 bytes
+        assertEquals(cache.get("key3"), "123456");
+        assertEquals(cache.getStats().get("bytes").longValue(), 6L);
+
+        Thread.sleep(50);
+
+        assertNull(cache.get("key3"));
+        assertEquals(cache.getStats().get("entries").intValue(), 0);
+    }
+
+    private static Set<String> tags(String... tags) {
+        return new HashSet<>(asList(tags));
+    }
+}
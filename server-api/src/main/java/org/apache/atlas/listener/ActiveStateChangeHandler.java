@@ -35,7 +35,8 @@ public interface ActiveStateChangeHandler {
         NOTIFICATION_HOOK_CONSUMER(5),
         TASK_MANAGEMENT(6),
         INDEX_RECOVERY(7),
-        IMPORT_TASK_LISTENER(8);
+        IMPORT_TASK_LISTENER(8),
+        LINEAGE_INDEX(9);
 
         private final int order;
 
@@ -25,6 +25,7 @@ import org.apache.atlas.notification.pc.Manager;
 import org.apache.atlas.notification.pc.MiscUtils;
 import org.apache.atlas.notification.pc.ReferenceKeeper;
 import org.apache.atlas.notification.pc.Ticket;
+import org.apache.atlas.notification.pc.WorkerScaler;
 import org.apache.atlas.repository.converters.AtlasInstanceConverter;
 import org.apache.atlas.repository.impexp.AsyncImporter;
 import org.apache.atlas.repository.store.graph.AtlasEntityStore;
@@ -56,10 +57,14 @@ public class ConcurrentEntityProcessor implements NotificationEntityProcessor {
             AsyncImporter asyncImporter) {
         this.referenceKeeper = new ReferenceKeeper();
 
+        WorkerScaler workerScaler = new WorkerScaler(applicationProperties, consumerNumWorkers);
+        int          maxWorkers   = workerScaler.isEnabled() ? workerScaler.getMaxWorkers() : consumerNumWorkers;
+        int          numWorkers   = workerScaler.isEnabled() ? Math.max(workerScaler.getMinWorkers(), Math.min(consumerNumWorkers, maxWorkers)) : consumerNumWorkers;
+
         ConsumerBuilder consumerBuilder = new ConsumerBuilder(this.referenceKeeper, applicationProperties, metricsUtil, authnCache, entityStore,
-                instanceConverter, entityCorrelationManager, typeRegistry, failedLog, largeMessagesLog, asyncImporter);
+                instanceConverter, entityCorrelationManager, typeRegistry, failedLog, largeMessagesLog, asyncImporter, workerScaler);
 
-        this.manager = new Manager(this.referenceKeeper, consumerBatchSize, consumerNumWorkers, consumerBuilder);
+        this.manager = new Manager(this.referenceKeeper, consumerBatchSize, numWorkers, maxWorkers, consumerBuilder, workerScaler, metricsUtil);
         MiscUtils.extractAllProcessTypeNames(Ticket.getProcessNameTypes(), typeRegistry);
     }
 
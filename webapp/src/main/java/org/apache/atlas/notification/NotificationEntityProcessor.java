@@ -19,6 +19,11 @@ package org.apache.atlas.notification;
 
 import org.apache.atlas.kafka.AtlasKafkaMessage;
 import org.apache.atlas.model.notification.HookNotification;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 public interface NotificationEntityProcessor {
     /***
@@ -34,6 +39,34 @@ public interface NotificationEntityProcessor {
      */
     TopicPartitionOffsetResult collectResults();
 
+    /***
+     * Collect results of all topic-partitions which were fetched after the last message was processed.
+     * @return results to commit, one per topic-partition at most
+     */
+    default List<TopicPartitionOffsetResult> collectAllResults() {
+        TopicPartitionOffsetResult result = collectResults();
+
+        return result != null ? Collections.singletonList(result) : Collections.emptyList();
+    }
+
+    /***
+     * Called when partitions are revoked from the consumer, before they are assigned to another consumer. Processing
+     * of messages of these partitions must be complete when this returns.
+     * @return results to commit for the revoked partitions
+     */
+    default List<TopicPartitionOffsetResult> onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        return Collections.emptyList();
+    }
+
+    /***
+     * Collect partitions whose processing stopped at a message that failed. The consumer must receive these partitions
+     * again from the returned offset, i.e. the offset of the failed message.
+     * @return offsets to receive the failed partitions from, one per topic-partition at most
+     */
+    default List<TopicPartitionOffsetResult> collectFailedPartitions() {
+        return Collections.emptyList();
+    }
+
     /***
      * Shutdown the processor.
      */
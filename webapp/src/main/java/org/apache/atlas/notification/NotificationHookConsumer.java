@@ -44,6 +44,7 @@ import org.apache.atlas.web.service.ServiceState;
 import org.apache.commons.collections4.map.PassiveExpiringMap;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +57,7 @@ import org.springframework.stereotype.Component;
 import javax.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -93,6 +95,10 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
     public static final String CONSUMER_MIN_RETRY_INTERVAL                                   = "atlas.notification.consumer.min.retry.interval";
     public static final String CONSUMER_MAX_RETRY_INTERVAL                                   = "atlas.notification.consumer.max.retry.interval";
     public static final String CONSUMER_COMMIT_BATCH_SIZE                                    = "atlas.notification.consumer.commit.batch.size";
+    public static final String CONSUMER_MICRO_BATCH_ENABLED                                  = "atlas.notification.consumer.micro.batch.enabled";
+    public static final String CONSUMER_MICRO_BATCH_MAX_MESSAGES                             = "atlas.notification.consumer.micro.batch.max.messages";
+    public static final String CONSUMER_MICRO_BATCH_MAX_BYTES                                = "atlas.notification.consumer.micro.batch.max.bytes";
+    public static final String CONSUMER_MICRO_BATCH_MAX_WAIT_MS                              = "atlas.notification.consumer.micro.batch.max.wait.ms";
     public static final String CONSUMER_DISABLED                                             = "atlas.notification.consumer.disabled";
     public static final String CONSUMER_SKIP_HIVE_COLUMN_LINEAGE_HIVE_20633                  = "atlas.notification.consumer.skip.hive_column_lineage.hive-20633";
     public static final String CONSUMER_SKIP_HIVE_COLUMN_LINEAGE_HIVE_20633_INPUTS_THRESHOLD = "atlas.notification.consumer.skip.hive_column_lineage.hive-20633.inputs.threshold";
@@ -451,9 +457,7 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             super(consumerThreadName);
 
             this.consumer        = consumer;
-            this.entityProcessor = AtlasConfiguration.NOTIFICATION_CONCURRENT_PROCESSING.getBoolean()
-                    ? new ConcurrentEntityProcessor(applicationProperties, metricsUtil, authnCache, atlasEntityStore, instanceConverter, entityCorrelationManager, typeRegistry, FAILED_LOG, LARGE_MESSAGES_LOG, asyncImporter)
-                    : new SerialEntityProcessor(applicationProperties, metricsUtil, authnCache, atlasEntityStore, instanceConverter, entityCorrelationManager, typeRegistry, FAILED_LOG, LARGE_MESSAGES_LOG, asyncImporter);
+            this.entityProcessor = createEntityProcessor(consumerThreadName);
 
             LOG.info("entityProcessor: {}", entityProcessor.getClass().getSimpleName());
         }
@@ -467,6 +471,18 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             LOG.info("entityProcessor: {}", entityProcessor.getClass().getSimpleName());
         }
 
+        private NotificationEntityProcessor createEntityProcessor(String consumerThreadName) {
+            if (AtlasConfiguration.NOTIFICATION_CONCURRENT_PROCESSING.getBoolean()) {
+                return new ConcurrentEntityProcessor(applicationProperties, metricsUtil, authnCache, atlasEntityStore, instanceConverter, entityCorrelationManager, typeRegistry, FAILED_LOG, LARGE_MESSAGES_LOG, asyncImporter);
+            } else if (AtlasConfiguration.NOTIFICATION_PARTITIONED_PROCESSING.getBoolean()) {
+                // partition workers advance their watermark per message, hence micro-batching is not used with them
+                return new PartitionedEntityProcessor(() -> new SerialEntityProcessor(applicationProperties, metricsUtil, authnCache, atlasEntityStore, instanceConverter, entityCorrelationManager, typeRegistry, FAILED_LOG, LARGE_MESSAGES_LOG, asyncImporter, false),
+                        AtlasConfiguration.NOTIFICATION_PARTITIONED_MAX_PENDING.getInt(), minWaitDuration, maxWaitDuration, consumerThreadName);
+            } else {
+                return new SerialEntityProcessor(applicationProperties, metricsUtil, authnCache, atlasEntityStore, instanceConverter, entityCorrelationManager, typeRegistry, FAILED_LOG, LARGE_MESSAGES_LOG, asyncImporter);
+            }
+        }
+
         @Override
         public void run() {
             LOG.info("==> HookConsumer run()");
@@ -477,6 +493,17 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                 return;
             }
 
+            consumer.setRebalanceListener(new ConsumerRebalanceListener() {
+                @Override
+                public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                    commitRevoked(partitions);
+                }
+
+                @Override
+                public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                }
+            });
+
             try {
                 while (shouldRun.get()) {
                     try {
@@ -487,9 +514,16 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
                             sortAndPublishMsgsToAtlasHook(msgBufferingStartTime, msgBuffer);
                         } else {
                             List<AtlasKafkaMessage<HookNotification>> messages;
-                            TopicPartitionOffsetResult                result = entityProcessor.collectResults();
 
-                            commit(result);
+                            for (TopicPartitionOffsetResult result : entityProcessor.collectAllResults()) {
+                                commit(result);
+                            }
+
+                            for (TopicPartitionOffsetResult failed : entityProcessor.collectFailedPartitions()) {
+                                LOG.warn("{}: receiving messages again from failed offset {}", failed.getTopicPartition(), failed.getOffset());
+
+                                consumer.seek(failed.getTopicPartition(), failed.getOffset());
+                            }
 
                             if (StringUtils.contains(this.getName(), ATLAS_IMPORT_CONSUMER_THREAD_PREFIX)) {
                                 messages = consumer.receive();
@@ -646,6 +680,17 @@ public class NotificationHookConsumer implements Service, ActiveStateChangeHandl
             }
         }
 
+        // called from receive() of the consumer, in this thread
+        private void commitRevoked(Collection<TopicPartition> partitions) {
+            for (TopicPartitionOffsetResult result : entityProcessor.onPartitionsRevoked(partitions)) {
+                try {
+                    commit(result.getTopicPartition(), result.getOffset());
+                } catch (Exception e) {
+                    LOG.warn("Failed to commit offset {} of revoked partition {}", result.getOffset(), result.getTopicPartition(), e);
+                }
+            }
+        }
+
         private void commit(AtlasKafkaMessage<HookNotification> kafkaMessage) {
             long commitOffset = kafkaMessage.getOffset() + 1;
             lastCommittedPartitionOffset.put(kafkaMessage.getTopicPartition(), commitOffset);
@@ -0,0 +1,294 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.atlas.kafka.AtlasKafkaMessage;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Processes messages of each Kafka partition in a worker of its own, so that messages from different partitions
+ * are processed in parallel while messages within a partition are processed in the order received.
+ *
+ * Each worker tracks the offset of the last message it processed; as a worker processes messages in order, all
+ * messages up to this offset are done and it can be committed. Results are collected by the consumer thread,
+ * which is the only thread that interacts with the Kafka consumer.
+ *
+ * Failures to write to the store are retried by the processor of the worker, which records a message as failed after
+ * the retries are exhausted, as with serial processing. If processing of a message fails with an exception that escapes
+ * the processor, the offset of the failed message is not committed: the worker skips the messages queued after the
+ * failed one and, after a wait that grows with consecutive failures, reports the partition in collectFailedPartitions()
+ * for the consumer to receive the partition again from the failed message.
+ */
+public class PartitionedEntityProcessor implements NotificationEntityProcessor {
+    private static final Logger LOG = LoggerFactory.getLogger(PartitionedEntityProcessor.class);
+
+    private static final long SHUTDOWN_WAIT_MS = 30000;
+
+    private final Supplier<NotificationEntityProcessor> processorFactory;
+    private final int                                   maxPendingPerPartition;
+    private final long                                  minRetryWaitMs;
+    private final long                                  maxRetryWaitMs;
+    private final String                                threadNamePrefix;
+    private final Map<TopicPartition, PartitionWorker>  workers            = new ConcurrentHashMap<>();
+    private final AtomicLong                            failedMessageCount = new AtomicLong();
+
+    public PartitionedEntityProcessor(Supplier<NotificationEntityProcessor> processorFactory, int maxPendingPerPartition, long minRetryWaitMs, long maxRetryWaitMs, String threadNamePrefix) {
+        this.processorFactory       = processorFactory;
+        this.maxPendingPerPartition = Math.max(1, maxPendingPerPartition);
+        this.minRetryWaitMs         = minRetryWaitMs;
+        this.maxRetryWaitMs         = Math.max(minRetryWaitMs, maxRetryWaitMs);
+        this.threadNamePrefix       = threadNamePrefix;
+
+        LOG.info("PartitionedEntityProcessor(maxPendingPerPartition={}, minRetryWaitMs={}, maxRetryWaitMs={})", this.maxPendingPerPartition, this.minRetryWaitMs, this.maxRetryWaitMs);
+    }
+
+    /**
+     * Queues the message for processing by the worker of its partition; blocks while the worker has
+     * maxPendingPerPartition messages pending.
+     *
+     * @return null, as the message is processed asynchronously. Use collectResults() to get offsets to commit
+     */
+    @Override
+    public TopicPartitionOffsetResult handleMessage(AtlasKafkaMessage<HookNotification> msg) {
+        PartitionWorker worker = workers.computeIfAbsent(msg.getTopicPartition(), PartitionWorker::new);
+
+        try {
+            worker.submit(msg);
+        } catch (InterruptedException e) {
+            LOG.warn("{}: interrupted while waiting to queue message at offset {}", msg.getTopicPartition(), msg.getOffset());
+
+            Thread.currentThread().interrupt();
+        }
+
+        return null;
+    }
+
+    @Override
+    public TopicPartitionOffsetResult collectResults() {
+        for (PartitionWorker worker : workers.values()) {
+            TopicPartitionOffsetResult result = worker.collect();
+
+            if (result != null) {
+                return result;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<TopicPartitionOffsetResult> collectAllResults() {
+        List<TopicPartitionOffsetResult> ret = new ArrayList<>();
+
+        for (PartitionWorker worker : workers.values()) {
+            TopicPartitionOffsetResult result = worker.collect();
+
+            if (result != null) {
+                ret.add(result);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Called from the consumer thread, which must receive the returned partitions again from the returned offsets before
+     * receiving other messages of these partitions.
+     */
+    @Override
+    public List<TopicPartitionOffsetResult> collectFailedPartitions() {
+        List<TopicPartitionOffsetResult> ret = new ArrayList<>();
+
+        long now = System.currentTimeMillis();
+
+        for (PartitionWorker worker : workers.values()) {
+            if (worker.retryAtMs <= now) {
+                long offset = worker.seekOffset.getAndSet(-1);
+
+                if (offset >= 0) {
+                    ret.add(new TopicPartitionOffsetResult(worker.topicPartition, offset));
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * @return number of messages whose processing failed with an exception that escaped the processor, including failures of messages received again
+     */
+    public long getFailedMessageCount() {
+        return failedMessageCount.get();
+    }
+
+    /**
+     * Processes messages already queued for the revoked partitions and stops their workers, so that these messages are
+     * not processed concurrently by the consumer the partitions are assigned to next.
+     */
+    @Override
+    public List<TopicPartitionOffsetResult> onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        List<TopicPartitionOffsetResult> ret = new ArrayList<>();
+
+        for (TopicPartition partition : partitions) {
+            PartitionWorker worker = workers.remove(partition);
+
+            if (worker != null) {
+                worker.shutdown();
+
+                TopicPartitionOffsetResult result = worker.collect();
+
+                if (result != null) {
+                    ret.add(result);
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    @Override
+    public void shutdown() {
+        for (PartitionWorker worker : workers.values()) {
+            worker.shutdown();
+        }
+
+        workers.clear();
+    }
+
+    private class PartitionWorker {
+        private final TopicPartition              topicPartition;
+        private final NotificationEntityProcessor processor;
+        private final ExecutorService             executor;
+        private final Semaphore                   pendingPermits;
+        private final AtomicLong                  processedOffset = new AtomicLong(-1);
+        private final AtomicLong                  seekOffset      = new AtomicLong(-1); // offset the consumer must receive the partition from
+        private volatile long                     retryAtMs;                            // time after which seekOffset is returned to the consumer
+        private       long                        collectedOffset = -1;                 // accessed only from the consumer thread
+        private       long                        failedOffset    = -1;                 // accessed only from the worker thread
+        private       int                         failureCount;                         // accessed only from the worker thread; consecutive failures of failedOffset
+        private       int                         skippedCount;                         // accessed only from the worker thread
+
+        PartitionWorker(TopicPartition topicPartition) {
+            this.topicPartition = topicPartition;
+            this.processor      = processorFactory.get();
+            this.executor       = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat(threadNamePrefix + "-" + topicPartition + "-%d").build());
+            this.pendingPermits = new Semaphore(maxPendingPerPartition);
+
+            LOG.info("{}: started partition worker", topicPartition);
+        }
+
+        void submit(AtlasKafkaMessage<HookNotification> msg) throws InterruptedException {
+            pendingPermits.acquire();
+
+            try {
+                executor.execute(() -> process(msg));
+            } catch (RuntimeException e) {
+                pendingPermits.release();
+
+                throw e;
+            }
+        }
+
+        TopicPartitionOffsetResult collect() {
+            long offset = processedOffset.get();
+
+            if (offset <= collectedOffset) {
+                return null;
+            }
+
+            collectedOffset = offset;
+
+            return new TopicPartitionOffsetResult(topicPartition, offset);
+        }
+
+        void shutdown() {
+            executor.shutdown();
+
+            try {
+                if (!executor.awaitTermination(SHUTDOWN_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                    LOG.warn("{}: partition worker did not terminate in {} ms", topicPartition, SHUTDOWN_WAIT_MS);
+
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+
+                Thread.currentThread().interrupt();
+            }
+
+            processor.shutdown();
+        }
+
+        /*
+         * After a failure, messages queued after the failed one are skipped until the failed message is received
+         * again: the consumer receives the partition again from the failed message, after collectFailedPartitions().
+         */
+        private void process(AtlasKafkaMessage<HookNotification> msg) {
+            try {
+                if (failedOffset >= 0) {
+                    if (msg.getOffset() != failedOffset) {
+                        skippedCount++;
+
+                        return;
+                    }
+
+                    LOG.info("{}: retrying message at offset {}, after skipping {} messages that will be received again", topicPartition, msg.getOffset(), skippedCount);
+
+                    skippedCount = 0;
+                }
+
+                processor.handleMessage(msg);
+
+                processedOffset.set(msg.getOffset());
+
+                failedOffset = -1;
+                failureCount = 0;
+            } catch (Throwable t) {
+                long failedCount = failedMessageCount.incrementAndGet();
+                long retryWaitMs = Math.min(maxRetryWaitMs, minRetryWaitMs * (failureCount + 1));
+
+                failedOffset = msg.getOffset();
+                failureCount++;
+
+                LOG.error("{}: failed to process message at offset {}, attempt {} (failed messages: {}). The partition will be received again from this offset in {} ms", topicPartition, msg.getOffset(), failureCount, failedCount, retryWaitMs, t);
+
+                retryAtMs = System.currentTimeMillis() + retryWaitMs;
+
+                seekOffset.set(failedOffset);
+            } finally {
+                pendingPermits.release();
+            }
+        }
+    }
+}
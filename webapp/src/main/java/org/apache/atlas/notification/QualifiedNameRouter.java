@@ -18,35 +18,96 @@
 package org.apache.atlas.notification;
 
 import org.apache.atlas.AtlasConfiguration;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Router class that determines which topic to use based on
  * the first two parts of the qualifiedName of entities in the notification.
+ *
+ * All messages of a routing key are sent to the same topic, to retain their order. Routing keys are mapped to topics
+ * either:
+ * - by hashCode() of the routing key modulo the number of topics. This is the default, and maps routing keys to the
+ *   same topics as earlier releases
+ * - using a consistent-hash ring, in which each topic owns (virtualNodes * weight) points. Adding a topic moves only
+ *   the keys that fall on the new topic's points; giving a topic a higher weight makes it receive a proportionally
+ *   larger share of routing keys
+ *
+ * Enabling or disabling the consistent-hash ring, or changing the number of topics, virtual nodes or weights, moves
+ * routing keys to other topics. Messages of a routing key still pending in its earlier topic can then be processed
+ * after later messages of the key sent to the new topic. Before such a change, stop the hooks and let the consumers
+ * drain all metadata and lineage topics.
  */
 public class QualifiedNameRouter {
     private static final Logger LOG                  = LoggerFactory.getLogger(QualifiedNameRouter.class);
     private static final String DEFAULT_TOPIC_PREFIX = AtlasConfiguration.ATLAS_METADATA_TOPIC_PREFIX.getString();
 
-    private final int                                maxTopicCount;
-    private final String                             topicPrefix;
-    private final ConcurrentHashMap<String, Integer> routingCache;
-    private final AtomicInteger                      nextTopicIndex;
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+    public static final int DEFAULT_TOPIC_WEIGHT  = 1;
+
+    private final int                                  maxTopicCount;
+    private final String                               topicPrefix;
+    private final int[]                                topicWeights;
+    private final int[]                                activeTopics;
+    private final NavigableMap<Long, Integer>          ring; // null when routing by modulo
+    private final ConcurrentHashMap<String, RouteInfo> routingCache;
+    private final AtomicInteger                        nextTopicIndex;
+    private final AtomicLongArray                      topicMessageCounts;
 
     public QualifiedNameRouter(int maxTopicCount) {
         this(maxTopicCount, DEFAULT_TOPIC_PREFIX);
     }
 
     public QualifiedNameRouter(int maxTopicCount, String topicPrefix) {
-        this.maxTopicCount           = maxTopicCount > 0 ? maxTopicCount : 1;
-        this.topicPrefix             = topicPrefix.endsWith("_") ? topicPrefix : topicPrefix + "_";
-        this.routingCache            = new ConcurrentHashMap<>();
-        this.nextTopicIndex          = new AtomicInteger(0);
+        this(maxTopicCount, topicPrefix, false, DEFAULT_VIRTUAL_NODES, null);
+    }
+
+    /**
+     * @param maxTopicCount           number of topics
+     * @param topicPrefix             prefix of topic names; topic name is topicPrefix followed by the topic index
+     * @param isConsistentHashEnabled true to route using the consistent-hash ring; false to route by modulo
+     * @param virtualNodes            number of points on the hash ring per unit of weight
+     * @param topicWeights            weight of each topic, as configured; see parseTopicWeights(). Used only with the
+     *                                consistent-hash ring
+     */
+    public QualifiedNameRouter(int maxTopicCount, String topicPrefix, boolean isConsistentHashEnabled, int virtualNodes, String[] topicWeights) {
+        this.maxTopicCount      = maxTopicCount > 0 ? maxTopicCount : 1;
+        this.topicPrefix        = topicPrefix.endsWith("_") ? topicPrefix : topicPrefix + "_";
+        this.topicWeights       = parseTopicWeights(isConsistentHashEnabled ? topicWeights : null, this.maxTopicCount);
+        this.activeTopics       = getActiveTopics(this.topicWeights);
+        this.ring               = isConsistentHashEnabled ? buildRing(this.topicWeights, virtualNodes > 0 ? virtualNodes : DEFAULT_VIRTUAL_NODES) : null;
+        this.routingCache       = new ConcurrentHashMap<>();
+        this.nextTopicIndex     = new AtomicInteger(0);
+        this.topicMessageCounts = new AtomicLongArray(this.maxTopicCount);
+
+        if (isConsistentHashEnabled) {
+            LOG.info("QualifiedNameRouter(topicPrefix={}, maxTopicCount={}, virtualNodes={}, topicWeights={}): ring size={}",
+                    this.topicPrefix, this.maxTopicCount, virtualNodes, Arrays.toString(this.topicWeights), ring.size());
+        } else {
+            if (ArrayUtils.isNotEmpty(topicWeights)) {
+                LOG.warn("QualifiedNameRouter(topicPrefix={}): topic weights are ignored, as consistent hashing is not enabled", this.topicPrefix);
+            }
+
+            LOG.info("QualifiedNameRouter(topicPrefix={}, maxTopicCount={}): routing by modulo", this.topicPrefix, this.maxTopicCount);
+        }
     }
 
     public String getTargetTopic(String routingKey) {
@@ -58,39 +119,86 @@ public class QualifiedNameRouter {
             return targetTopic;
         } else {
             // Fallback to round-robin if no routing key found
-            int    topicIndex  = nextTopicIndex.getAndIncrement() % maxTopicCount;
+            int    topicIndex  = activeTopics[Math.floorMod(nextTopicIndex.getAndIncrement(), activeTopics.length)];
             String targetTopic = topicPrefix + topicIndex;
 
+            topicMessageCounts.incrementAndGet(topicIndex);
+
             LOG.debug("No routing key found, using round-robin to topic '{}'", targetTopic);
             return targetTopic;
         }
     }
 
     /**
-     * Gets the topic index for a routing key using consistent hashing.
+     * Gets statistics about the routing cache and the distribution of messages across topics.
      *
-     * @param routingKey The routing key (first two parts of qualifiedName)
-     * @return The topic index (0 to maxTopicCount-1)
+     * @return A string with routing statistics
      */
-    private int getTopicIndexForRoutingKey(String routingKey) {
-        return routingCache.computeIfAbsent(routingKey, key -> {
-            // Use consistent hashing to ensure same routing key always goes to same topic
-            int hash       = Math.abs(key.hashCode());
-            int topicIndex = hash % maxTopicCount;
+    public String getRoutingStats() {
+        return String.format("Routing cache size: %d, Max topics: %d, Messages per topic: %s, Skew: %.2f, Hot keys: %s",
+                routingCache.size(), maxTopicCount, getTopicMessageCounts(), getSkew(), getHotRoutingKeys(5));
+    }
 
-            LOG.debug("Mapped routing key '{}' to topic index {}", key, topicIndex);
-            return topicIndex;
-        });
+    /**
+     * @return number of messages routed to each topic, keyed by topic name
+     */
+    public Map<String, Long> getTopicMessageCounts() {
+        Map<String, Long> ret = new LinkedHashMap<>();
+
+        for (int i = 0; i < maxTopicCount; i++) {
+            ret.put(topicPrefix + i, topicMessageCounts.get(i));
+        }
+
+        return ret;
     }
 
     /**
-     * Gets statistics about the routing cache.
+     * Ratio of messages received by the most loaded topic to its weighted fair share; 1.0 indicates perfect balance.
      *
-     * @return A string with routing statistics
+     * @return skew of message distribution across topics, 0 if no message has been routed yet
      */
-    public String getRoutingStats() {
-        return String.format("Routing cache size: %d, Max topics: %d",
-                routingCache.size(), maxTopicCount);
+    public double getSkew() {
+        long total       = 0;
+        long totalWeight = 0;
+
+        for (int i = 0; i < maxTopicCount; i++) {
+            total       += topicMessageCounts.get(i);
+            totalWeight += topicWeights[i];
+        }
+
+        double ret = 0;
+
+        if (total > 0 && totalWeight > 0) {
+            for (int topicIndex : activeTopics) {
+                double fairShare = (double) total * topicWeights[topicIndex] / totalWeight;
+
+                ret = Math.max(ret, topicMessageCounts.get(topicIndex) / fairShare);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * @param limit maximum number of routing keys to return
+     * @return routing keys with the most messages, in descending order of message count
+     */
+    public Map<String, Long> getHotRoutingKeys(int limit) {
+        List<Map.Entry<String, RouteInfo>> entries = new ArrayList<>(routingCache.entrySet());
+
+        entries.sort(Comparator.comparingLong((Map.Entry<String, RouteInfo> e) -> e.getValue().getMessageCount()).reversed());
+
+        Map<String, Long> ret = new LinkedHashMap<>();
+
+        for (Map.Entry<String, RouteInfo> entry : entries) {
+            if (ret.size() >= limit) {
+                break;
+            }
+
+            ret.put(entry.getKey(), entry.getValue().getMessageCount());
+        }
+
+        return ret;
     }
 
     /**
@@ -98,6 +206,132 @@ public class QualifiedNameRouter {
      */
     public void clearCache() {
         routingCache.clear();
+
+        for (int i = 0; i < maxTopicCount; i++) {
+            topicMessageCounts.set(i, 0);
+        }
+
         LOG.info("Routing cache cleared");
     }
+
+    /**
+     * Parses topic weights from configuration values, one value per topic, in topic index order. Topics without a
+     * valid value get DEFAULT_TOPIC_WEIGHT; a topic with weight 0 receives no messages. If all topics have weight 0,
+     * all get DEFAULT_TOPIC_WEIGHT.
+     *
+     * @return weight of each topic, by topic index
+     */
+    public static int[] parseTopicWeights(String[] values, int topicCount) {
+        int[] ret = new int[Math.max(topicCount, 1)];
+
+        Arrays.fill(ret, DEFAULT_TOPIC_WEIGHT);
+
+        if (values != null) {
+            for (int i = 0; i < values.length && i < ret.length; i++) {
+                if (StringUtils.isNotBlank(values[i])) {
+                    try {
+                        ret[i] = Math.max(0, Integer.parseInt(values[i].trim()));
+                    } catch (NumberFormatException excp) {
+                        LOG.warn("Invalid weight '{}' for topic index {}. Using default {}", values[i], i, DEFAULT_TOPIC_WEIGHT);
+                    }
+                }
+            }
+        }
+
+        if (Arrays.stream(ret).allMatch(weight -> weight == 0)) {
+            LOG.warn("All topics have weight 0. Using default weight {} for all topics", DEFAULT_TOPIC_WEIGHT);
+
+            Arrays.fill(ret, DEFAULT_TOPIC_WEIGHT);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets the topic index for a routing key.
+     *
+     * @param routingKey The routing key (first two parts of qualifiedName)
+     * @return The topic index (0 to maxTopicCount-1)
+     */
+    private int getTopicIndexForRoutingKey(String routingKey) {
+        RouteInfo routeInfo = routingCache.computeIfAbsent(routingKey, key -> {
+            int topicIndex;
+
+            if (ring == null) {
+                topicIndex = Math.abs(key.hashCode() % maxTopicCount);
+            } else {
+                Map.Entry<Long, Integer> node = ring.ceilingEntry(hash(key));
+
+                if (node == null) { // wrap around the ring
+                    node = ring.firstEntry();
+                }
+
+                topicIndex = node.getValue();
+            }
+
+            LOG.debug("Mapped routing key '{}' to topic index {}", key, topicIndex);
+            return new RouteInfo(topicIndex);
+        });
+
+        routeInfo.messageCount.increment();
+        topicMessageCounts.incrementAndGet(routeInfo.topicIndex);
+
+        return routeInfo.topicIndex;
+    }
+
+    private static int[] getActiveTopics(int[] topicWeights) {
+        int[] ret   = new int[(int) Arrays.stream(topicWeights).filter(weight -> weight > 0).count()];
+        int   count = 0;
+
+        for (int i = 0; i < topicWeights.length; i++) {
+            if (topicWeights[i] > 0) {
+                ret[count++] = i;
+            }
+        }
+
+        return ret;
+    }
+
+    private static NavigableMap<Long, Integer> buildRing(int[] topicWeights, int virtualNodes) {
+        NavigableMap<Long, Integer> ret = new TreeMap<>();
+
+        for (int topicIndex = 0; topicIndex < topicWeights.length; topicIndex++) {
+            int nodeCount = virtualNodes * topicWeights[topicIndex];
+
+            // node names depend only on topic index, so that adding a topic doesn't move points of other topics
+            for (int node = 0; node < nodeCount; node++) {
+                ret.putIfAbsent(hash("topic-" + topicIndex + "-node-" + node), topicIndex);
+            }
+        }
+
+        return ret;
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            long   ret    = 0;
+
+            for (int i = 0; i < Long.BYTES; i++) {
+                ret = (ret << 8) | (digest[i] & 0xFF);
+            }
+
+            return ret;
+        } catch (NoSuchAlgorithmException excp) {
+            throw new IllegalStateException("MD5 not available", excp);
+        }
+    }
+
+    private static class RouteInfo {
+        private final int       topicIndex;
+        private final LongAdder messageCount = new LongAdder();
+
+        RouteInfo(int topicIndex) {
+            this.topicIndex = topicIndex;
+        }
+
+        long getMessageCount() {
+            return messageCount.sum();
+        }
+    }
 }
@@ -29,6 +29,7 @@ import org.apache.atlas.model.instance.AtlasEntity.AtlasEntityWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntityHeader;
 import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.instance.EntityMutations.EntityOperation;
 import org.apache.atlas.model.notification.HookNotification;
 import org.apache.atlas.model.notification.HookNotification.EntityCreateRequestV2;
 import org.apache.atlas.model.notification.HookNotification.EntityDeleteRequestV2;
@@ -64,6 +65,7 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -77,8 +79,10 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -92,6 +96,10 @@ import static org.apache.atlas.notification.NotificationHookConsumer.CONSUMER_AU
 import static org.apache.atlas.notification.NotificationHookConsumer.CONSUMER_COMMIT_BATCH_SIZE;
 import static org.apache.atlas.notification.NotificationHookConsumer.CONSUMER_FAILEDCACHESIZE_PROPERTY;
 import static org.apache.atlas.notification.NotificationHookConsumer.CONSUMER_MAX_RETRY_INTERVAL;
+import static org.apache.atlas.notification.NotificationHookConsumer.CONSUMER_MICRO_BATCH_ENABLED;
+import static org.apache.atlas.notification.NotificationHookConsumer.CONSUMER_MICRO_BATCH_MAX_BYTES;
+import static org.apache.atlas.notification.NotificationHookConsumer.CONSUMER_MICRO_BATCH_MAX_MESSAGES;
+import static org.apache.atlas.notification.NotificationHookConsumer.CONSUMER_MICRO_BATCH_MAX_WAIT_MS;
 import static org.apache.atlas.notification.NotificationHookConsumer.CONSUMER_MIN_RETRY_INTERVAL;
 import static org.apache.atlas.notification.NotificationHookConsumer.CONSUMER_PREPROCESS_ENTITY_IGNORE_PATTERN;
 import static org.apache.atlas.notification.NotificationHookConsumer.CONSUMER_PREPROCESS_ENTITY_TYPE_IGNORE_PATTERN;
@@ -165,6 +173,13 @@ public class SerialEntityProcessor implements NotificationEntityProcessor {
     private final List<String>                                      hiveTablePrefixesToIgnore;
     private final Map<String, PreprocessorContext.PreprocessAction> hiveTablesCache;
     private final AsyncImporter                                     asyncImporter;
+    private final boolean                                           microBatchEnabled;
+    private final int                                               microBatchMaxMessages;
+    private final long                                              microBatchMaxBytes;
+    private final long                                              microBatchMaxWaitMs;
+    private final MicroBatch                                        microBatch            = new MicroBatch();
+    private final Map<TopicPartition, TopicPartitionOffsetResult>   microBatchResults     = new LinkedHashMap<>();
+    private volatile boolean                                        isShutdown;
     private       int                                               maxRetries            = 3;
     private       Map<String, Authentication>                       authnCache;
     private       AtlasInstanceConverter                            instanceConverter;
@@ -177,6 +192,20 @@ public class SerialEntityProcessor implements NotificationEntityProcessor {
     public SerialEntityProcessor(Configuration applicationProperties, AtlasMetricsUtil metricsUtil, Map<String, Authentication> authnCache,
             AtlasEntityStore atlasEntityStore, AtlasInstanceConverter instanceConverter, EntityCorrelationManager entityCorrelationManager,
             AtlasTypeRegistry typeRegistry, Logger failedMessageLogger, Logger largeMessagesLogger, AsyncImporter asyncImporter) {
+        this(applicationProperties, metricsUtil, authnCache, atlasEntityStore, instanceConverter, entityCorrelationManager, typeRegistry,
+                failedMessageLogger, largeMessagesLogger, asyncImporter, applicationProperties.getBoolean(CONSUMER_MICRO_BATCH_ENABLED, false));
+    }
+
+    /**
+     * @param microBatchEnabled when true, consecutive non-conflicting create/update messages received via
+     *                          handleMessage(AtlasKafkaMessage) are written to the store in a single createOrUpdate() call;
+     *                          offsets of such messages are returned by collectResults()/collectAllResults(). Ignored when
+     *                          parallel processing is enabled, as entity references are then resolved as of the time
+     *                          each message was created
+     */
+    public SerialEntityProcessor(Configuration applicationProperties, AtlasMetricsUtil metricsUtil, Map<String, Authentication> authnCache,
+            AtlasEntityStore atlasEntityStore, AtlasInstanceConverter instanceConverter, EntityCorrelationManager entityCorrelationManager,
+            AtlasTypeRegistry typeRegistry, Logger failedMessageLogger, Logger largeMessagesLogger, AsyncImporter asyncImporter, boolean microBatchEnabled) {
         this.failedMessageLog = failedMessageLogger;
         this.largeMessagesLog = largeMessagesLogger;
         this.metricsUtil      = metricsUtil;
@@ -207,6 +236,10 @@ public class SerialEntityProcessor implements NotificationEntityProcessor {
         this.adaptiveWaiter                                = new AdaptiveWaiter(minWaitDuration, maxWaitDuration, minWaitDuration);
         this.createShellEntityForNonExistingReference      = AtlasConfiguration.NOTIFICATION_CREATE_SHELL_ENTITY_FOR_NON_EXISTING_REF.getBoolean();
         this.asyncImporter                                 = asyncImporter;
+        this.microBatchEnabled                             = microBatchEnabled && !AtlasConfiguration.ATLAS_PARALLEL_PROCESSING_ENABLED.getBoolean();
+        this.microBatchMaxMessages                         = this.applicationProperties.getInt(CONSUMER_MICRO_BATCH_MAX_MESSAGES, 100);
+        this.microBatchMaxBytes                            = this.applicationProperties.getLong(CONSUMER_MICRO_BATCH_MAX_BYTES, 1024 * 1024); // 1 MB by default
+        this.microBatchMaxWaitMs                           = this.applicationProperties.getLong(CONSUMER_MICRO_BATCH_MAX_WAIT_MS, 500);
 
         String[] patternEntityTypesToIgnore = applicationProperties.getStringArray(CONSUMER_PREPROCESS_ENTITY_TYPE_IGNORE_PATTERN);
         String[] patternEntitiesToIgnore    = applicationProperties.getStringArray(CONSUMER_PREPROCESS_ENTITY_IGNORE_PATTERN);
@@ -318,19 +351,105 @@ public class SerialEntityProcessor implements NotificationEntityProcessor {
         LOG.info("{}={}", CONSUMER_PREPROCESS_RDBMS_TYPES_REMOVE_OWNEDREF_ATTRS, rdbmsTypesRemoveOwnedRefAttrs);
         LOG.info("{}={}", CONSUMER_PREPROCESS_S3_V2_DIRECTORY_PRUNE_OBJECT_PREFIX, s3V2DirectoryPruneObjectPrefix);
         LOG.info("{}={}", CONSUMER_COMMIT_BATCH_SIZE, commitBatchSize);
+        LOG.info("{}={}", CONSUMER_MICRO_BATCH_ENABLED, microBatchEnabled);
+
+        if (microBatchEnabled != this.microBatchEnabled) {
+            LOG.warn("{} is ignored, as {} is enabled", CONSUMER_MICRO_BATCH_ENABLED, AtlasConfiguration.ATLAS_PARALLEL_PROCESSING_ENABLED.getPropertyName());
+        }
+
+        if (this.microBatchEnabled) {
+            LOG.info("{}={}", CONSUMER_MICRO_BATCH_MAX_MESSAGES, microBatchMaxMessages);
+            LOG.info("{}={}", CONSUMER_MICRO_BATCH_MAX_BYTES, microBatchMaxBytes);
+            LOG.info("{}={}", CONSUMER_MICRO_BATCH_MAX_WAIT_MS, microBatchMaxWaitMs);
+        }
     }
 
     public TopicPartitionOffsetResult handleMessage(AtlasKafkaMessage<HookNotification> kafkaMsg) {
-        return handleMessage(new Ticket(kafkaMsg));
+        if (!microBatchEnabled) {
+            return handleMessage(new Ticket(kafkaMsg));
+        }
+
+        if (isShutdown) { // the message, like those in the dropped batch, will be received again after restart
+            dropMicroBatch();
+
+            return null;
+        }
+
+        Ticket    ticket = new Ticket(kafkaMsg);
+        BatchItem item   = prepareBatchItem(ticket);
+
+        if (item == null) { // message can't be batched; process it after messages in the batch, to retain the order
+            flushMicroBatch();
+
+            TopicPartitionOffsetResult ret = handleMessage(ticket);
+
+            if (ret != null) {
+                microBatchResults.remove(ret.getTopicPartition()); // ret supersedes the earlier offset of the same partition
+            }
+
+            return ret;
+        }
+
+        if (!microBatch.canAdd(item, microBatchMaxMessages, microBatchMaxBytes, commitBatchSize)) {
+            flushMicroBatch();
+        }
+
+        microBatch.add(item);
+
+        if (microBatch.isFull(microBatchMaxMessages, microBatchMaxBytes, microBatchMaxWaitMs)) {
+            flushMicroBatch();
+        }
+
+        return null;
     }
 
     @Override
     public TopicPartitionOffsetResult collectResults() {
-        return null;
+        if (isShutdown) {
+            dropMicroBatch();
+        } else if (microBatch.isExpired(microBatchMaxWaitMs)) {
+            flushMicroBatch();
+        }
+
+        Iterator<TopicPartitionOffsetResult> iter = microBatchResults.values().iterator();
+
+        if (!iter.hasNext()) {
+            return null;
+        }
+
+        TopicPartitionOffsetResult ret = iter.next();
+
+        iter.remove();
+
+        return ret;
+    }
+
+    @Override
+    public List<TopicPartitionOffsetResult> collectAllResults() {
+        if (isShutdown) {
+            dropMicroBatch();
+        } else if (microBatch.isExpired(microBatchMaxWaitMs)) {
+            flushMicroBatch();
+        }
+
+        if (microBatchResults.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<TopicPartitionOffsetResult> ret = new ArrayList<>(microBatchResults.values());
+
+        microBatchResults.clear();
+
+        return ret;
     }
 
+    /**
+     * Called from a thread other than the one processing messages. Messages in the pending micro-batch are not written to
+     * the store: the batch is dropped by the processing thread, without returning offsets of its messages for commit.
+     */
     @Override
     public void shutdown() {
+        isShutdown = true;
     }
 
     /**
@@ -404,8 +523,15 @@ public class SerialEntityProcessor implements NotificationEntityProcessor {
     }
 
     public TopicPartitionOffsetResult handleMessage(Ticket ticket) {
+        return handleMessage(ticket, null);
+    }
+
+    /**
+     * @param preparedItem when not null, the message converted to V2 and preprocessed while being added to a micro-batch
+     */
+    private TopicPartitionOffsetResult handleMessage(Ticket ticket, BatchItem preparedItem) {
         AtlasPerfTracer                     perf                  = null;
-        AtlasKafkaMessage<HookNotification> kafkaMsg              = ticket.getMessage();
+        AtlasKafkaMessage<HookNotification> kafkaMsg              = preparedItem != null ? preparedItem.kafkaMsg : ticket.getMessage();
         HookNotification                    message               = kafkaMsg.getMessage();
         String                              messageUser           = message.getUser();
         long                                startTime             = System.currentTimeMillis();
@@ -422,35 +548,16 @@ public class SerialEntityProcessor implements NotificationEntityProcessor {
         }
 
         try {
-            // covert V1 messages to V2 to enable preProcess
-            try {
-                switch (message.getType()) {
-                    case ENTITY_CREATE: {
-                        final HookNotificationV1.EntityCreateRequest createRequest = (HookNotificationV1.EntityCreateRequest) message;
-                        final AtlasEntity.AtlasEntitiesWithExtInfo   entities      = instanceConverter.toAtlasEntities(createRequest.getEntities());
-                        final EntityCreateRequestV2 v2Request                      = new EntityCreateRequestV2(message.getUser(), entities);
-
-                        kafkaMsg = new AtlasKafkaMessage<>(v2Request, kafkaMsg.getOffset(), kafkaMsg.getTopic(), kafkaMsg.getPartition());
-                        message  = kafkaMsg.getMessage();
-                    }
-                    break;
-
-                    case ENTITY_FULL_UPDATE: {
-                        final HookNotificationV1.EntityUpdateRequest updateRequest = (HookNotificationV1.EntityUpdateRequest) message;
-                        final AtlasEntity.AtlasEntitiesWithExtInfo   entities      = instanceConverter.toAtlasEntities(updateRequest.getEntities());
-                        final EntityUpdateRequestV2 v2Request                      = new EntityUpdateRequestV2(messageUser, entities);
+            final PreprocessorContext context;
 
-                        kafkaMsg = new AtlasKafkaMessage<>(v2Request, kafkaMsg.getOffset(), kafkaMsg.getTopic(), kafkaMsg.getPartition());
-                        message  = kafkaMsg.getMessage();
-                    }
-                    break;
-                }
-            } catch (AtlasBaseException excp) {
-                LOG.error("handleMessage(): failed to convert V1 message to V2", message.getType().name());
+            if (preparedItem != null) {
+                context = preparedItem.context;
+            } else {
+                kafkaMsg = toV2Message(kafkaMsg);
+                message  = kafkaMsg.getMessage();
+                context  = preProcessNotificationMessage(kafkaMsg);
             }
 
-            PreprocessorContext context = preProcessNotificationMessage(kafkaMsg);
-
             if (isEmptyMessage(kafkaMsg)) {
                 return new TopicPartitionOffsetResult(kafkaMsg.getTopicPartition(), kafkaMsg.getOffset());
             }
@@ -465,14 +572,7 @@ public class SerialEntityProcessor implements NotificationEntityProcessor {
                 }
 
                 try {
-                    RequestContext requestContext = RequestContext.get();
-
-                    requestContext.setAttemptCount(numRetries + 1);
-                    requestContext.setMaxAttempts(maxRetries);
-
-                    requestContext.setUser(messageUser, null);
-                    requestContext.setInNotificationProcessing(true);
-                    requestContext.setCreateShellEntityForNonExistingReference(createShellEntityForNonExistingReference);
+                    RequestContext requestContext = initRequestContext(messageUser, numRetries + 1, maxRetries);
 
                     LOG.debug("Parallel Processing-{}: Starting attempt={}/{} for message type={}, topic={}, offset={}, msgCreationTime={}",
                             threadName, numRetries + 1, maxRetries, message.getType().name(),
@@ -709,13 +809,7 @@ public class SerialEntityProcessor implements NotificationEntityProcessor {
 
                         LOG.warn("Offset: {}: Max retries: {} exceeded for message {}", kafkaMsg.getOffset(), maxRetries, strMessage, e);
 
-                        stats.isFailedMsg = true;
-
-                        failedMessages.add(strMessage);
-
-                        if (failedMessages.size() >= failedMsgCacheSize) {
-                            recordFailedMessages(kafkaMsg.getTopic(), failedMessages);
-                        }
+                        recordFailedMessage(kafkaMsg, strMessage, stats);
 
                         return new TopicPartitionOffsetResult(kafkaMsg.getTopicPartition(), kafkaMsg.getOffset());
                     }
@@ -751,38 +845,376 @@ public class SerialEntityProcessor implements NotificationEntityProcessor {
 
             stats.timeTakenMs = System.currentTimeMillis() - startTime;
 
-            metricsUtil.onNotificationProcessingComplete(kafkaMsg.getTopic(), kafkaMsg.getPartition(), kafkaMsg.getOffset(), stats);
+            onMessageProcessed(kafkaMsg, stats, auditLog);
 
-            if (stats.timeTakenMs > largeMessageProcessingTimeThresholdMs) {
-                String strMessage = AbstractNotification.getMessageJson(message);
+            if (importRequestComplete) {
+                asyncImporter.onCompleteImportRequest(((AtlasEntityImportNotification) message).getImportId());
+            }
+        }
+    }
+
+    private RequestContext initRequestContext(String messageUser, int attemptCount, int maxAttempts) {
+        RequestContext ret = RequestContext.get();
+
+        ret.setAttemptCount(attemptCount);
+        ret.setMaxAttempts(maxAttempts);
+        ret.setUser(messageUser, null);
+        ret.setInNotificationProcessing(true);
+        ret.setCreateShellEntityForNonExistingReference(createShellEntityForNonExistingReference);
+
+        return ret;
+    }
+
+    /**
+     * Records metrics, large-message log and audit of a processed message; called once for each message, whether
+     * processed individually or in a micro-batch.
+     */
+    private void onMessageProcessed(AtlasKafkaMessage<HookNotification> kafkaMsg, NotificationStat stats, AuditFilter.AuditLog auditLog) {
+        metricsUtil.onNotificationProcessingComplete(kafkaMsg.getTopic(), kafkaMsg.getPartition(), kafkaMsg.getOffset(), stats);
+
+        if (stats.timeTakenMs > largeMessageProcessingTimeThresholdMs) {
+            String strMessage = AbstractNotification.getMessageJson(kafkaMsg.getMessage());
+
+            LOG.warn("msgProcessingTime={}, msgSize={}, topicOffset={}}", stats.timeTakenMs, strMessage.length(), kafkaMsg.getOffset());
+            largeMessagesLog.warn("{\"msgProcessingTime\":{},\"msgSize\":{},\"topicOffset\":{},\"data\":{}}", stats.timeTakenMs, strMessage.length(), kafkaMsg.getOffset(), strMessage);
+        }
+
+        if (auditLog != null) {
+            auditLog.setHttpStatus(stats.isFailedMsg ? SC_BAD_REQUEST : SC_OK);
+            auditLog.setTimeTaken(stats.timeTakenMs);
+
+            AuditFilter.audit(auditLog);
+        }
+
+        Instant now = Instant.now();
+
+        if (now.isAfter(nextStatsLogTime)) {
+            LOG.info("STATS: {}", AtlasJson.toJson(metricsUtil.getStats()));
+
+            nextStatsLogTime = AtlasMetricsCounter.getNextHourStartTime(now);
+        }
+    }
+
+    private void recordFailedMessage(AtlasKafkaMessage<HookNotification> kafkaMsg, String strMessage, NotificationStat stats) {
+        stats.isFailedMsg = true;
+
+        failedMessages.add(strMessage);
+
+        if (failedMessages.size() >= failedMsgCacheSize) {
+            recordFailedMessages(kafkaMsg.getTopic(), failedMessages);
+        }
+    }
+
+    public List<String> getFailedMessages() {
+        return this.failedMessages;
+    }
+
+    // covert V1 messages to V2 to enable preProcess
+    private AtlasKafkaMessage<HookNotification> toV2Message(AtlasKafkaMessage<HookNotification> kafkaMsg) {
+        HookNotification message = kafkaMsg.getMessage();
+
+        try {
+            switch (message.getType()) {
+                case ENTITY_CREATE: {
+                    final HookNotificationV1.EntityCreateRequest createRequest = (HookNotificationV1.EntityCreateRequest) message;
+                    final AtlasEntity.AtlasEntitiesWithExtInfo   entities      = instanceConverter.toAtlasEntities(createRequest.getEntities());
+                    final EntityCreateRequestV2 v2Request                      = new EntityCreateRequestV2(message.getUser(), entities);
+
+                    return new AtlasKafkaMessage<>(v2Request, kafkaMsg.getOffset(), kafkaMsg.getTopic(), kafkaMsg.getPartition());
+                }
+
+                case ENTITY_FULL_UPDATE: {
+                    final HookNotificationV1.EntityUpdateRequest updateRequest = (HookNotificationV1.EntityUpdateRequest) message;
+                    final AtlasEntity.AtlasEntitiesWithExtInfo   entities      = instanceConverter.toAtlasEntities(updateRequest.getEntities());
+                    final EntityUpdateRequestV2 v2Request                      = new EntityUpdateRequestV2(message.getUser(), entities);
 
-                LOG.warn("msgProcessingTime={}, msgSize={}, topicOffset={}}", stats.timeTakenMs, strMessage.length(), kafkaMsg.getOffset());
-                largeMessagesLog.warn("{\"msgProcessingTime\":{},\"msgSize\":{},\"topicOffset\":{},\"data\":{}}", stats.timeTakenMs, strMessage.length(), kafkaMsg.getOffset(), strMessage);
+                    return new AtlasKafkaMessage<>(v2Request, kafkaMsg.getOffset(), kafkaMsg.getTopic(), kafkaMsg.getPartition());
+                }
             }
+        } catch (AtlasBaseException excp) {
+            LOG.error("handleMessage(): failed to convert V1 message to V2", message.getType().name());
+        }
+
+        return kafkaMsg;
+    }
+
+    /**
+     * Converts and preprocesses the message for adding to a micro-batch.
+     *
+     * @return null if the message can't be batched: only create/full-update and V1 partial-update messages are batched
+     */
+    private BatchItem prepareBatchItem(Ticket ticket) {
+        AtlasKafkaMessage<HookNotification>           kafkaMsg             = toV2Message(ticket.getMessage());
+        HookNotification                              message              = kafkaMsg.getMessage();
+        HookNotificationV1.EntityPartialUpdateRequest partialUpdateRequest = null;
+        final AtlasEntitiesWithExtInfo                entities;
+
+        switch (message.getType()) {
+            case ENTITY_CREATE_V2:
+                entities = ((EntityCreateRequestV2) message).getEntities();
+                break;
+
+            case ENTITY_FULL_UPDATE_V2:
+                entities = ((EntityUpdateRequestV2) message).getEntities();
+                break;
+
+            case ENTITY_PARTIAL_UPDATE:
+                partialUpdateRequest = (HookNotificationV1.EntityPartialUpdateRequest) message;
+
+                try {
+                    entities = instanceConverter.toAtlasEntity(partialUpdateRequest.getEntity());
+                } catch (AtlasBaseException excp) {
+                    LOG.debug("prepareBatchItem(): failed to convert partial-update message at offset {}. Will be processed individually", kafkaMsg.getOffset(), excp);
+
+                    return null;
+                }
+                break;
+
+            default:
+                return null;
+        }
+
+        if (entities == null || (commitBatchSize > 0 && CollectionUtils.size(entities.getEntities()) > commitBatchSize)) {
+            return null; // large messages are split into commitBatchSize batches by createOrUpdate()
+        }
+
+        PreprocessorContext context = preProcessNotificationMessage(kafkaMsg);
+        long                size    = microBatchMaxBytes > 0 ? AbstractNotification.getMessageJson(message).length() : 0;
+
+        return new BatchItem(ticket, kafkaMsg, context, entities, partialUpdateRequest, size);
+    }
+
+    private void flushMicroBatch() {
+        if (microBatch.isEmpty()) {
+            return;
+        }
+
+        List<BatchItem>            items  = microBatch.drain();
+        TopicPartitionOffsetResult result = processMicroBatch(items);
+
+        if (result != null) {
+            microBatchResults.put(result.getTopicPartition(), result);
+        }
+    }
+
+    private void dropMicroBatch() {
+        if (microBatch.isEmpty()) {
+            return;
+        }
 
-            if (auditLog != null) {
-                auditLog.setHttpStatus(stats.isFailedMsg ? SC_BAD_REQUEST : SC_OK);
-                auditLog.setTimeTaken(stats.timeTakenMs);
+        List<BatchItem> items = microBatch.drain();
 
-                AuditFilter.audit(auditLog);
+        LOG.info("Dropped micro-batch of {} messages (offsets {}-{}) on shutdown; the messages will be received again", items.size(), items.get(0).kafkaMsg.getOffset(), items.get(items.size() - 1).kafkaMsg.getOffset());
+    }
+
+    /**
+     * Writes entities of all messages in the batch in a single createOrUpdate() call. If that fails, the messages are
+     * processed individually - with the usual retries - so that a bad message doesn't fail the others in the batch.
+     *
+     * Once the combined write succeeds, each message is completed on its own: its share of the mutation response is
+     * recorded and its post-update is done - with the usual retries. A failed post-update marks only that message as
+     * failed; messages already written are not processed again.
+     *
+     * @return offset of the last message in the batch
+     */
+    private TopicPartitionOffsetResult processMicroBatch(List<BatchItem> items) {
+        BatchItem              first       = items.get(0);
+        BatchItem              last        = items.get(items.size() - 1);
+        String                 messageUser = first.kafkaMsg.getMessage().getUser();
+        long                   startTime   = System.currentTimeMillis();
+        EntityMutationResponse response    = null;
+        boolean                isWritten   = false;
+        boolean                isFailed    = false;
+
+        if (authorizeUsingMessageUser) {
+            setCurrentUser(messageUser);
+        }
+
+        try {
+            RequestContext requestContext = initRequestContext(messageUser, 1, 1);
+
+            requestContext.setCreateEventMsgTime(first.kafkaMsg.getMsgCreated()); // batches are not used with parallel processing, which looks up references by this time
+
+            AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo();
+
+            for (BatchItem item : items) {
+                if (isEmptyMessage(item.kafkaMsg)) {
+                    continue;
+                }
+
+                if (item.partialUpdateRequest != null) {
+                    HookNotificationV1.EntityPartialUpdateRequest partialUpdateRequest = item.partialUpdateRequest;
+                    AtlasEntityType                               entityType           = typeRegistry.getEntityTypeByName(partialUpdateRequest.getTypeName());
+                    String                                        guid                 = AtlasGraphUtilsV2.getGuidByUniqueAttributes(entityType, Collections.singletonMap(partialUpdateRequest.getAttribute(), (Object) partialUpdateRequest.getAttributeValue()));
+
+                    // There should only be one root entity
+                    item.entities.getEntities().get(0).setGuid(guid);
+
+                    if (guid != null) {
+                        item.guids.add(guid);
+                    }
+                }
+
+                if (item.entities.getEntities() != null) {
+                    item.entities.getEntities().forEach(entities::addEntity);
+                }
+
+                if (item.entities.getReferredEntities() != null) {
+                    item.entities.getReferredEntities().forEach(entities::addReferredEntity);
+                }
             }
 
-            Instant now = Instant.now();
+            if (CollectionUtils.isNotEmpty(entities.getEntities())) {
+                response  = atlasEntityStore.createOrUpdate(new AtlasEntityStream(entities), first.isPartialUpdate());
+                isWritten = true;
+            }
+        } catch (Throwable e) {
+            LOG.warn("Micro-batch of {} messages (offsets {}-{}) failed with {}: processing the messages individually",
+                    items.size(), first.kafkaMsg.getOffset(), last.kafkaMsg.getOffset(), e.getClass().getSimpleName(), e);
 
-            if (now.isAfter(nextStatsLogTime)) {
-                LOG.info("STATS: {}", AtlasJson.toJson(metricsUtil.getStats()));
+            RequestContext.get().resetEntityGuidUpdates();
 
-                nextStatsLogTime = AtlasMetricsCounter.getNextHourStartTime(now);
+            isFailed = true;
+        } finally {
+            RequestContext.clear();
+        }
+
+        if (isFailed) {
+            TopicPartitionOffsetResult ret = null;
+
+            for (BatchItem item : items) {
+                TopicPartitionOffsetResult result = handleMessage(item.ticket, item);
+
+                if (result != null) {
+                    ret = result;
+                }
             }
 
-            if (importRequestComplete) {
-                asyncImporter.onCompleteImportRequest(((AtlasEntityImportNotification) message).getImportId());
+            return ret;
+        }
+
+        long writeTimeMs = (System.currentTimeMillis() - startTime) / items.size();
+
+        LOG.debug("Micro-batch of {} messages (offsets {}-{}) written in {} ms", items.size(), first.kafkaMsg.getOffset(), last.kafkaMsg.getOffset(), writeTimeMs * items.size());
+
+        for (BatchItem item : items) {
+            long                 itemStartTime = System.currentTimeMillis();
+            NotificationStat     stats         = new NotificationStat();
+            AuditFilter.AuditLog auditLog      = null;
+
+            if (isWritten && !isEmptyMessage(item.kafkaMsg)) { // audit each message, as when processed individually
+                EntityMutationResponse itemResponse = getMutationResponse(response, item);
+
+                recordProcessedEntities(itemResponse, stats, item.context);
+
+                if (itemResponse != null) {
+                    entityCorrelationManager.add(item.kafkaMsg.getSpooled(), item.kafkaMsg.getMsgCreated(), itemResponse.getDeletedEntities());
+                }
+
+                postUpdate(item, stats);
+
+                auditLog = createAuditLog(item, item.kafkaMsg.getMessage().getUser());
             }
+
+            stats.timeTakenMs = writeTimeMs + (System.currentTimeMillis() - itemStartTime);
+
+            onMessageProcessed(item.kafkaMsg, stats, auditLog);
         }
+
+        return new TopicPartitionOffsetResult(last.kafkaMsg.getTopicPartition(), last.kafkaMsg.getOffset());
     }
 
-    public List<String> getFailedMessages() {
-        return this.failedMessages;
+    /**
+     * Performs the post-update of a message whose entities were written by a micro-batch, with the usual retries. The
+     * message is recorded as failed if the post-update doesn't succeed, as in handleMessage().
+     */
+    private void postUpdate(BatchItem item, NotificationStat stats) {
+        if (item.context == null) {
+            return;
+        }
+
+        String messageUser = item.kafkaMsg.getMessage().getUser();
+
+        for (int numRetries = 0; numRetries < maxRetries; numRetries++) {
+            try {
+                initRequestContext(messageUser, numRetries + 1, maxRetries);
+
+                postUpdate(item.context);
+
+                return;
+            } catch (Throwable e) {
+                RequestContext.get().resetEntityGuidUpdates();
+
+                if (!isRetryableException(e) || numRetries == (maxRetries - 1)) {
+                    String strMessage = AbstractNotification.getMessageJson(item.kafkaMsg.getMessage());
+
+                    LOG.warn("Offset: {}: post-update failed after {} attempts for message {}", item.kafkaMsg.getOffset(), numRetries + 1, strMessage, e);
+
+                    recordFailedMessage(item.kafkaMsg, strMessage, stats);
+
+                    return;
+                }
+
+                LOG.warn("{}: Offset: {}: post-update failed: Try: {}/{}: Pause: {} ms. {}",
+                        e.getClass().getSimpleName(), item.kafkaMsg.getOffset(), numRetries + 1, maxRetries, adaptiveWaiter.getWaitDuration(), e.getMessage());
+
+                adaptiveWaiter.pause(e instanceof Exception ? (Exception) e : new Exception(e));
+            } finally {
+                RequestContext.clear();
+            }
+        }
+    }
+
+    /**
+     * @return entries of the micro-batch mutation response that are for entities of the given message
+     */
+    private static EntityMutationResponse getMutationResponse(EntityMutationResponse batchResponse, BatchItem item) {
+        if (batchResponse == null) {
+            return null;
+        }
+
+        EntityMutationResponse ret             = new EntityMutationResponse();
+        Map<String, String>    guidAssignments = new HashMap<>();
+        Set<String>            guids           = new HashSet<>(item.guids);
+
+        if (batchResponse.getGuidAssignments() != null) {
+            for (Map.Entry<String, String> entry : batchResponse.getGuidAssignments().entrySet()) {
+                if (item.guids.contains(entry.getKey())) {
+                    guidAssignments.put(entry.getKey(), entry.getValue());
+                    guids.add(entry.getValue());
+                }
+            }
+        }
+
+        ret.setGuidAssignments(guidAssignments);
+
+        if (batchResponse.getMutatedEntities() != null) {
+            for (Map.Entry<EntityOperation, List<AtlasEntityHeader>> entry : batchResponse.getMutatedEntities().entrySet()) {
+                for (AtlasEntityHeader header : entry.getValue()) {
+                    if (header != null && guids.contains(header.getGuid())) {
+                        ret.addEntity(entry.getKey(), header);
+                    }
+                }
+            }
+        }
+
+        return ret;
+    }
+
+    private AuditFilter.AuditLog createAuditLog(BatchItem item, String messageUser) {
+        if (item.partialUpdateRequest != null) {
+            return new AuditFilter.AuditLog(messageUser, THREADNAME_PREFIX,
+                    AtlasClientV2.API_V2.UPDATE_ENTITY_BY_ATTRIBUTE.getMethod(),
+                    String.format(AtlasClientV2.API_V2.UPDATE_ENTITY_BY_ATTRIBUTE.getNormalizedPath(), item.partialUpdateRequest.getTypeName()));
+        } else if (item.kafkaMsg.getMessage().getType() == HookNotification.HookNotificationType.ENTITY_CREATE_V2) {
+            return new AuditFilter.AuditLog(messageUser, THREADNAME_PREFIX,
+                    AtlasClientV2.API_V2.CREATE_ENTITY.getMethod(),
+                    AtlasClientV2.API_V2.CREATE_ENTITY.getNormalizedPath());
+        } else {
+            return new AuditFilter.AuditLog(messageUser, THREADNAME_PREFIX,
+                    AtlasClientV2.API_V2.UPDATE_ENTITY.getMethod(),
+                    AtlasClientV2.API_V2.UPDATE_ENTITY.getNormalizedPath());
+        }
     }
 
     private void createOrUpdate(AtlasEntitiesWithExtInfo entities, boolean isPartialUpdate, NotificationStat stats, PreprocessorContext context) throws AtlasBaseException {
@@ -821,13 +1253,17 @@ public class SerialEntityProcessor implements NotificationEntityProcessor {
         }
 
         if (context != null) {
-            context.prepareForPostUpdate();
+            postUpdate(context);
+        }
+    }
 
-            List<AtlasEntity> postUpdateEntities = context.getPostUpdateEntities();
+    private void postUpdate(PreprocessorContext context) throws AtlasBaseException {
+        context.prepareForPostUpdate();
 
-            if (CollectionUtils.isNotEmpty(postUpdateEntities)) {
-                atlasEntityStore.createOrUpdate(new AtlasEntityStream(postUpdateEntities), true);
-            }
+        List<AtlasEntity> postUpdateEntities = context.getPostUpdateEntities();
+
+        if (CollectionUtils.isNotEmpty(postUpdateEntities)) {
+            atlasEntityStore.createOrUpdate(new AtlasEntityStream(postUpdateEntities), true);
         }
     }
 
@@ -1292,4 +1728,142 @@ public class SerialEntityProcessor implements NotificationEntityProcessor {
             }
         }
     }
+
+    private static class BatchItem {
+        final Ticket                                        ticket;
+        final AtlasKafkaMessage<HookNotification>           kafkaMsg;
+        final PreprocessorContext                           context;
+        final AtlasEntitiesWithExtInfo                      entities;
+        final HookNotificationV1.EntityPartialUpdateRequest partialUpdateRequest;
+        final long                                          size;
+        final Set<String>                                   qualifiedNames = new HashSet<>();
+        final Set<String>                                   references     = new HashSet<>();
+        final Set<String>                                   guids          = new HashSet<>();
+
+        BatchItem(Ticket ticket, AtlasKafkaMessage<HookNotification> kafkaMsg, PreprocessorContext context, AtlasEntitiesWithExtInfo entities, HookNotificationV1.EntityPartialUpdateRequest partialUpdateRequest, long size) {
+            this.ticket               = ticket;
+            this.kafkaMsg             = kafkaMsg;
+            this.context              = context;
+            this.entities             = entities;
+            this.partialUpdateRequest = partialUpdateRequest;
+            this.size                 = size;
+
+            Ticket.addEntityQualifiedNames(qualifiedNames, entities);
+
+            ticket.getReferencedSet(references, qualifiedNames, entities);
+
+            if (partialUpdateRequest != null && partialUpdateRequest.getAttributeValue() != null) {
+                qualifiedNames.add(partialUpdateRequest.getAttributeValue());
+            }
+
+            if (entities.getEntities() != null) {
+                for (AtlasEntity entity : entities.getEntities()) {
+                    if (entity.getGuid() != null) {
+                        guids.add(entity.getGuid());
+                    }
+                }
+            }
+
+            if (entities.getReferredEntities() != null) {
+                guids.addAll(entities.getReferredEntities().keySet());
+            }
+        }
+
+        boolean isPartialUpdate() {
+            return partialUpdateRequest != null;
+        }
+
+        int getEntityCount() {
+            return CollectionUtils.size(entities.getEntities());
+        }
+    }
+
+    /**
+     * Consecutive messages to be written to the store together. Messages of a batch are from the same topic-partition
+     * and user, and don't touch each other's entities - so that writing them together has the same effect as writing
+     * them one after another.
+     */
+    private static class MicroBatch {
+        private final List<BatchItem> items          = new ArrayList<>();
+        private final Set<String>     qualifiedNames = new HashSet<>();
+        private final Set<String>     references     = new HashSet<>();
+        private final Set<String>     guids          = new HashSet<>();
+        private       long            size;
+        private       int             entityCount;
+        private       long            startTime;
+
+        boolean isEmpty() {
+            return items.isEmpty();
+        }
+
+        boolean canAdd(BatchItem item, int maxMessages, long maxBytes, int maxEntities) {
+            if (items.isEmpty()) {
+                return true;
+            }
+
+            BatchItem first = items.get(0);
+
+            return items.size() < maxMessages &&
+                    (maxBytes <= 0 || size + item.size <= maxBytes) &&
+                    (maxEntities <= 0 || entityCount + item.getEntityCount() <= maxEntities) &&
+                    first.kafkaMsg.getTopicPartition().equals(item.kafkaMsg.getTopicPartition()) &&
+                    first.isPartialUpdate() == item.isPartialUpdate() &&
+                    StringUtils.equals(first.kafkaMsg.getMessage().getUser(), item.kafkaMsg.getMessage().getUser()) &&
+                    !isConflicting(item);
+        }
+
+        void add(BatchItem item) {
+            if (items.isEmpty()) {
+                startTime = System.currentTimeMillis();
+            }
+
+            items.add(item);
+            qualifiedNames.addAll(item.qualifiedNames);
+            references.addAll(item.references);
+            guids.addAll(item.guids);
+
+            size        += item.size;
+            entityCount += item.getEntityCount();
+        }
+
+        boolean isFull(int maxMessages, long maxBytes, long maxWaitMs) {
+            return items.size() >= maxMessages || (maxBytes > 0 && size >= maxBytes) || isExpired(maxWaitMs);
+        }
+
+        boolean isExpired(long maxWaitMs) {
+            return !items.isEmpty() && System.currentTimeMillis() - startTime >= maxWaitMs;
+        }
+
+        List<BatchItem> drain() {
+            List<BatchItem> ret = new ArrayList<>(items);
+
+            items.clear();
+            qualifiedNames.clear();
+            references.clear();
+            guids.clear();
+
+            size        = 0;
+            entityCount = 0;
+
+            return ret;
+        }
+
+        // an entity written or referenced by the message is written by the batch, or an entity written by the message is referenced by the batch
+        private boolean isConflicting(BatchItem item) {
+            return containsAny(qualifiedNames, item.qualifiedNames) ||
+                    containsAny(qualifiedNames, item.references) ||
+                    containsAny(references, item.qualifiedNames) ||
+                    containsAny(guids, item.guids);
+        }
+
+        private static boolean containsAny(Set<String> set, Set<String> values) {
+            for (String value : values) {
+                if (set.contains(value)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
 }
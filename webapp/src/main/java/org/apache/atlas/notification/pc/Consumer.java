@@ -33,16 +33,19 @@ public class Consumer extends WorkItemConsumer<Ticket> {
 
     private ReferenceKeeper referenceKeeper;
     private final SerialEntityProcessor serialEntityCreator;
+    private final WorkerScaler workerScaler;
 
     private final AtomicLong counter;
     private String lastKey;
 
     public Consumer(ReferenceKeeper referenceKeeper,
                     SerialEntityProcessor serialEntityCreator,
+                    WorkerScaler workerScaler,
                     BlockingQueue queue) {
         super(queue);
         this.referenceKeeper        = referenceKeeper;
         this.serialEntityCreator    = serialEntityCreator;
+        this.workerScaler           = workerScaler;
         this.counter                = new AtomicLong(0);
     }
 
@@ -57,7 +60,13 @@ public class Consumer extends WorkItemConsumer<Ticket> {
 
             referenceKeeper.awaitDependents(dependents);
 
+            long startTime = System.currentTimeMillis();
+
             result = serialEntityCreator.handleMessage(ticket);
+
+            if (workerScaler != null) {
+                workerScaler.recordProcessingTime(System.currentTimeMillis() - startTime);
+            }
         } catch (Exception e) {
             LOG.error("Error handling message: {}", AtlasType.toJson(ticket.msg), e);
         } finally {
@@ -43,11 +43,12 @@ public class ConsumerBuilder implements WorkItemBuilder<Consumer, Ticket> {
     private final AtlasMetricsUtil            metricsUtil;
     private final Map<String, Authentication> authnCache;
     private final AsyncImporter               asyncImporter;
+    private final WorkerScaler                workerScaler;
     private       ReferenceKeeper             referenceKeeper;
 
     public ConsumerBuilder(ReferenceKeeper referenceKeeper, Configuration applicationProperties, AtlasMetricsUtil metricsUtil, Map<String, Authentication> authnCache,
             AtlasEntityStore entityStore, AtlasInstanceConverter instanceConverter, EntityCorrelationManager entityCorrelationManager,
-            AtlasTypeRegistry typeRegistry, Logger failedLog, Logger largeMessagesLog, AsyncImporter asyncImporter) {
+            AtlasTypeRegistry typeRegistry, Logger failedLog, Logger largeMessagesLog, AsyncImporter asyncImporter, WorkerScaler workerScaler) {
         this.referenceKeeper          = referenceKeeper;
         this.applicationProperties    = applicationProperties;
         this.metricsUtil              = metricsUtil;
@@ -59,6 +60,7 @@ public class ConsumerBuilder implements WorkItemBuilder<Consumer, Ticket> {
         this.failedLog                = failedLog;
         this.largeMessagesLog         = largeMessagesLog;
         this.asyncImporter            = asyncImporter;
+        this.workerScaler             = workerScaler;
     }
 
     @Override
@@ -68,6 +70,7 @@ public class ConsumerBuilder implements WorkItemBuilder<Consumer, Ticket> {
                 new SerialEntityProcessor(applicationProperties, metricsUtil, authnCache,
                         entityStore, instanceConverter, entityCorrelationManager, typeRegistry,
                         failedLog, largeMessagesLog, asyncImporter),
+                this.workerScaler,
                 queue);
     }
 }
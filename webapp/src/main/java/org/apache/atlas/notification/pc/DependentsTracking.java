@@ -21,14 +21,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DependentsTracking {
     private static final Logger LOG = LoggerFactory.getLogger(DependentsTracking.class);
 
     private final Map<String, CountDownLatch> objectSync;
+    private final AtomicInteger               blockedCount = new AtomicInteger();
 
     public DependentsTracking() {
         this.objectSync = new ConcurrentHashMap<>();
@@ -63,10 +67,42 @@ public class DependentsTracking {
                 continue;
             }
 
-            latch.await();
+            if (latch.getCount() == 0) {
+                continue;
+            }
+
+            blockedCount.incrementAndGet();
+
+            try {
+                latch.await();
+            } finally {
+                blockedCount.decrementAndGet();
+            }
         }
     }
 
+    /**
+     * @return number of tickets currently waiting for their dependents to complete
+     */
+    public int getBlockedCount() {
+        return blockedCount.get();
+    }
+
+    /**
+     * @return keys of tickets that are registered and not yet completed
+     */
+    public Set<String> getPendingKeys() {
+        Set<String> ret = new HashSet<>();
+
+        objectSync.forEach((key, latch) -> {
+            if (latch.getCount() > 0) {
+                ret.add(key);
+            }
+        });
+
+        return ret;
+    }
+
     public int size() {
         return this.objectSync.size();
     }
@@ -19,6 +19,7 @@ package org.apache.atlas.notification.pc;
 
 import org.apache.atlas.notification.TopicPartitionOffsetResult;
 import org.apache.atlas.pc.WorkItemManager;
+import org.apache.atlas.util.AtlasMetricsUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.CollectionUtils;
@@ -29,23 +30,32 @@ public class Manager extends WorkItemManager<Ticket, Consumer> {
     private static final Logger LOG = LoggerFactory.getLogger(Manager.class);
     private static final String MANAGER_NAME_FORMAT = "ingest";
 
-    private final ReferenceKeeper referenceKeeper;
+    private final ReferenceKeeper  referenceKeeper;
+    private final WorkerScaler     workerScaler;
+    private final AtlasMetricsUtil metricsUtil;
 
     public Manager(ReferenceKeeper referenceKeeper, int batchSize, int numWorkers, ConsumerBuilder consumerBuilder) {
-        super(consumerBuilder, String.format(MANAGER_NAME_FORMAT), batchSize, numWorkers, true);
+        this(referenceKeeper, batchSize, numWorkers, numWorkers, consumerBuilder, null, null);
+    }
+
+    public Manager(ReferenceKeeper referenceKeeper, int batchSize, int numWorkers, int maxWorkers, ConsumerBuilder consumerBuilder, WorkerScaler workerScaler, AtlasMetricsUtil metricsUtil) {
+        super(consumerBuilder, String.format(MANAGER_NAME_FORMAT), batchSize, Math.max(numWorkers, maxWorkers), true);
 
         this.referenceKeeper = referenceKeeper;
+        this.workerScaler    = workerScaler;
+        this.metricsUtil     = metricsUtil;
+
+        setActiveWorkers(numWorkers);
     }
 
     public TopicPartitionOffsetResult submit(Ticket ticket) {
         try {
-            if (!ticket.isMessageHandled()) {
-                this.drain();
-            }
-
+            // dependencies on earlier tickets are tracked per ticket; workers wait only for the tickets their ticket depends on
             this.referenceKeeper.register(ticket);
             super.checkProduce(ticket);
 
+            adjustWorkers();
+
             if (LOG.isDebugEnabled()) {
                 LOG.debug("{}: {}: Types: {}, QNames: {}, Refs: {}, Dependents: {}, Types: {}", ticket.getKey(), ticket.getMessage().getMessage().getType().name(),
                         ticket.getTypes(), ticket.getQualifiedNamesSet(), ticket.getReferencedSet(), ticket.getDependents(), ticket.getTypes());
@@ -71,6 +81,27 @@ public class Manager extends WorkItemManager<Ticket, Consumer> {
         return this.referenceKeeper.getResult();
     }
 
+    private void adjustWorkers() {
+        if (workerScaler == null || !workerScaler.isAdjustDue()) {
+            return;
+        }
+
+        int activeWorkers  = getActiveWorkers();
+        int queueDepth     = getQueueSize();
+        int blockedTickets = referenceKeeper.getBlockedTicketCount();
+        int targetWorkers  = workerScaler.getTargetWorkers(activeWorkers, queueDepth, blockedTickets);
+
+        if (targetWorkers != activeWorkers) {
+            LOG.info("Active workers: {} => {} (queueDepth={}, blockedTickets={})", activeWorkers, targetWorkers, queueDepth, blockedTickets);
+
+            setActiveWorkers(targetWorkers);
+        }
+
+        if (metricsUtil != null) {
+            metricsUtil.onIngestWorkersUpdate(getActiveWorkers(), getNumWorkers(), queueDepth, blockedTickets);
+        }
+    }
+
     private void extractAccumulatedResults() {
         List<TopicPartitionOffsetResult> res = super.getTypedResults();
         if (CollectionUtils.isEmpty(res)) {
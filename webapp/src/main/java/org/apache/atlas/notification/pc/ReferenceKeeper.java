@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ReferenceKeeper {
     private static final Logger LOG = LoggerFactory.getLogger(ReferenceKeeper.class);
@@ -36,19 +37,42 @@ public class ReferenceKeeper {
     private final Map<String, Map<String, Integer>> currentlyProcessedEntities;
     private final ResultsCollector                  resultsCollector;
     private final DependentsTracking dependentsTracking;
+    private final AtomicReference<String>           barrierTicketKey;
 
     public ReferenceKeeper() {
         this.currentlyProcessedEntities = new ConcurrentHashMap<>();
         this.referenceFinder            = new ReferenceFinder();
         this.resultsCollector           = new ResultsCollector();
         this.dependentsTracking = new DependentsTracking();
+        this.barrierTicketKey           = new AtomicReference<>();
     }
 
+    /**
+     * Registers the ticket and computes the earlier tickets it must wait for:
+     *  - tickets whose qualified names or references overlap with those of this ticket
+     *  - for a ticket whose entities can't be determined: all tickets in flight. Such ticket becomes a barrier,
+     *    i.e. tickets registered after it wait for its completion
+     */
     public void register(Ticket ticket) {
+        final Set<String> refs;
+
+        if (ticket.isMessageHandled()) {
+            refs = referenceFinder.find(this.currentlyProcessedEntities, ticket.getQualifiedNamesSet(), ticket.getReferencedSet());
+
+            String barrierKey = barrierTicketKey.get();
+
+            if (barrierKey != null) {
+                refs.add(barrierKey);
+            }
+        } else {
+            refs = dependentsTracking.getPendingKeys();
+
+            barrierTicketKey.set(ticket.getKey());
+        }
+
         this.dependentsTracking.addReference(ticket.getKey());
         this.resultsCollector.markProduced(ticket.getKey(), null);
 
-        Set<String> refs = referenceFinder.find(this.currentlyProcessedEntities, ticket.getQualifiedNamesSet(), ticket.getReferencedSet());
         ticket.addDependents(refs);
         LOG.debug("Ticket: {}: References: {}: Total: {}", ticket.getKey(), refs.size(), this.currentlyProcessedEntities.size());
         addAll(ticket.getQualifiedNamesSet(), ticket.getKey());
@@ -91,6 +115,7 @@ public class ReferenceKeeper {
 
         this.resultsCollector.markProcessed(result);
         this.dependentsTracking.remove(result.getKey());
+        this.barrierTicketKey.compareAndSet(result.getKey(), null);
     }
 
     public void awaitDependents(List<String> dependents) throws InterruptedException {
@@ -101,6 +126,10 @@ public class ReferenceKeeper {
         this.dependentsTracking.decrementReference(key);
     }
 
+    public int getBlockedTicketCount() {
+        return this.dependentsTracking.getBlockedCount();
+    }
+
     public static class ReferenceFinder {
         public Set<String> find(Map<String, Map<String, Integer>> currentlyProcessedEntities, Set<String> qualifiedNamesSet, Set<String> referencedSet) {
             Set<String> ret = ConcurrentHashMap.newKeySet();
@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification.pc;
+
+import org.apache.commons.configuration2.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides the number of ingest workers that should be active, based on queue depth, message processing latency
+ * and the number of tickets blocked on their dependents. Workers are:
+ *  - removed when most active workers are blocked on dependents, or when processing latency exceeds the configured limit;
+ *    adding workers in these cases only increases contention
+ *  - added when the queue has more pending tickets than active workers can take up
+ *  - removed when the queue is (nearly) empty
+ * The number of active workers always stays within [minWorkers, maxWorkers].
+ */
+public class WorkerScaler {
+    private static final Logger LOG = LoggerFactory.getLogger(WorkerScaler.class);
+
+    public static final String PROPERTY_ADAPTIVE_ENABLED       = "atlas.notification.consumer.adaptive.enabled";
+    public static final String PROPERTY_MIN_WORKERS            = "atlas.notification.consumer.minWorkers";
+    public static final String PROPERTY_MAX_WORKERS            = "atlas.notification.consumer.maxWorkers";
+    public static final String PROPERTY_ADJUST_INTERVAL_MS     = "atlas.notification.consumer.adaptive.intervalMs";
+    public static final String PROPERTY_MAX_LATENCY_MS         = "atlas.notification.consumer.adaptive.maxLatencyMs";
+    public static final String PROPERTY_QUEUE_DEPTH_PER_WORKER = "atlas.notification.consumer.adaptive.queueDepthPerWorker";
+    public static final int    DEFAULT_MIN_WORKERS             = 1;
+    public static final long   DEFAULT_ADJUST_INTERVAL_MS      = 5000;
+    public static final long   DEFAULT_MAX_LATENCY_MS          = 0; // no limit
+    public static final int    DEFAULT_QUEUE_DEPTH_PER_WORKER  = 10;
+
+    private final boolean    isEnabled;
+    private final int        minWorkers;
+    private final int        maxWorkers;
+    private final long       adjustIntervalMs;
+    private final long       maxLatencyMs;
+    private final int        queueDepthPerWorker;
+    private final AtomicLong processedCount   = new AtomicLong();
+    private final AtomicLong processingTimeMs = new AtomicLong();
+    private       long       lastAdjustTime;
+
+    public WorkerScaler(Configuration config, int numWorkers) {
+        this(config.getBoolean(PROPERTY_ADAPTIVE_ENABLED, false),
+                config.getInt(PROPERTY_MIN_WORKERS, DEFAULT_MIN_WORKERS),
+                config.getInt(PROPERTY_MAX_WORKERS, numWorkers),
+                config.getLong(PROPERTY_ADJUST_INTERVAL_MS, DEFAULT_ADJUST_INTERVAL_MS),
+                config.getLong(PROPERTY_MAX_LATENCY_MS, DEFAULT_MAX_LATENCY_MS),
+                config.getInt(PROPERTY_QUEUE_DEPTH_PER_WORKER, DEFAULT_QUEUE_DEPTH_PER_WORKER));
+    }
+
+    public WorkerScaler(boolean isEnabled, int minWorkers, int maxWorkers, long adjustIntervalMs, long maxLatencyMs, int queueDepthPerWorker) {
+        this.maxWorkers          = Math.max(1, maxWorkers);
+        this.minWorkers          = Math.max(1, Math.min(minWorkers, this.maxWorkers));
+        this.isEnabled           = isEnabled && this.minWorkers < this.maxWorkers;
+        this.adjustIntervalMs    = Math.max(0, adjustIntervalMs);
+        this.maxLatencyMs        = Math.max(0, maxLatencyMs);
+        this.queueDepthPerWorker = Math.max(1, queueDepthPerWorker);
+        this.lastAdjustTime      = System.currentTimeMillis();
+
+        LOG.info("WorkerScaler: enabled={}, minWorkers={}, maxWorkers={}, adjustIntervalMs={}, maxLatencyMs={}, queueDepthPerWorker={}",
+                this.isEnabled, this.minWorkers, this.maxWorkers, this.adjustIntervalMs, this.maxLatencyMs, this.queueDepthPerWorker);
+    }
+
+    public boolean isEnabled() {
+        return isEnabled;
+    }
+
+    public int getMinWorkers() {
+        return minWorkers;
+    }
+
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    public void recordProcessingTime(long timeTakenMs) {
+        processedCount.incrementAndGet();
+        processingTimeMs.addAndGet(timeTakenMs);
+    }
+
+    /**
+     * @return true once every adjustIntervalMs; only one of the concurrent callers gets true
+     */
+    public synchronized boolean isAdjustDue() {
+        long now = System.currentTimeMillis();
+
+        if (now - lastAdjustTime < adjustIntervalMs) {
+            return false;
+        }
+
+        lastAdjustTime = now;
+
+        return true;
+    }
+
+    /**
+     * Computes the number of workers to keep active, from stats gathered since the previous call.
+     */
+    public int getTargetWorkers(int activeWorkers, int queueDepth, int blockedTickets) {
+        long count       = processedCount.getAndSet(0);
+        long timeTakenMs = processingTimeMs.getAndSet(0);
+        long avgLatency  = count > 0 ? (timeTakenMs / count) : 0;
+
+        return getTargetWorkers(activeWorkers, queueDepth, blockedTickets, avgLatency);
+    }
+
+    int getTargetWorkers(int activeWorkers, int queueDepth, int blockedTickets, long avgLatencyMs) {
+        if (!isEnabled) {
+            return activeWorkers;
+        }
+
+        final int ret;
+
+        if (blockedTickets * 2 >= activeWorkers && blockedTickets > 0) {
+            ret = activeWorkers - 1;
+        } else if (maxLatencyMs > 0 && avgLatencyMs > maxLatencyMs) {
+            ret = activeWorkers - 1;
+        } else if (queueDepth > (long) activeWorkers * queueDepthPerWorker) {
+            ret = activeWorkers + Math.max(1, activeWorkers / 2);
+        } else if (queueDepth < activeWorkers) {
+            ret = activeWorkers - 1;
+        } else {
+            ret = activeWorkers;
+        }
+
+        return Math.max(minWorkers, Math.min(maxWorkers, ret));
+    }
+}
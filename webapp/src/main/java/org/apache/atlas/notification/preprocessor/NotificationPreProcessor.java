@@ -117,8 +117,14 @@ public class NotificationPreProcessor implements NotificationEntityProcessor, Ty
         this.lineageTopicEnabled   = this.configuration.getBoolean("atlas.notification.processor.lineage.topic.enabled", true);
         this.maxRetries            = this.configuration.getInt(CONSUMER_RETRIES_PROPERTY, 3);
         this.failedMsgCacheSize    = this.configuration.getInt(CONSUMER_FAILEDCACHESIZE_PROPERTY, 1);
-        this.metadataRouter        = new QualifiedNameRouter(metadataTopicCount, AtlasConfiguration.ATLAS_METADATA_TOPIC_PREFIX.getString());
-        this.lineageRouter         = new QualifiedNameRouter(lineageTopicCount, AtlasConfiguration.ATLAS_LINEAGE_TOPIC_PREFIX.getString());
+        this.metadataRouter        = new QualifiedNameRouter(metadataTopicCount, AtlasConfiguration.ATLAS_METADATA_TOPIC_PREFIX.getString(),
+                this.configuration.getBoolean("atlas.notification.processor.topic.consistent.hash.enabled", false),
+                this.configuration.getInt("atlas.notification.processor.metadata.topic.virtual.nodes", QualifiedNameRouter.DEFAULT_VIRTUAL_NODES),
+                this.configuration.getStringArray("atlas.notification.processor.metadata.topic.weights"));
+        this.lineageRouter         = new QualifiedNameRouter(lineageTopicCount, AtlasConfiguration.ATLAS_LINEAGE_TOPIC_PREFIX.getString(),
+                this.configuration.getBoolean("atlas.notification.processor.topic.consistent.hash.enabled", false),
+                this.configuration.getInt("atlas.notification.processor.lineage.topic.virtual.nodes", QualifiedNameRouter.DEFAULT_VIRTUAL_NODES),
+                this.configuration.getStringArray("atlas.notification.processor.lineage.topic.weights"));
         this.metricsUtil           = metricsUtil;
         this.typeRegistry          = typeRegistry;
         this.failedMessages        = new ArrayList<>();
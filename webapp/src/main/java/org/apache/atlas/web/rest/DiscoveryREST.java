@@ -26,6 +26,7 @@ import org.apache.atlas.annotation.Timed;
 import org.apache.atlas.authorize.AtlasAuthorizationUtils;
 import org.apache.atlas.discovery.AtlasDiscoveryService;
 import org.apache.atlas.discovery.EntityDiscoveryService;
+import org.apache.atlas.discovery.SearchResultConsumer;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.AtlasQuickSearchResult;
 import org.apache.atlas.model.discovery.AtlasSearchResult;
@@ -43,6 +44,7 @@ import org.apache.atlas.type.AtlasStructType;
 import org.apache.atlas.type.AtlasTypeRegistry;
 import org.apache.atlas.utils.AtlasJson;
 import org.apache.atlas.utils.AtlasPerfTracer;
+import org.apache.atlas.web.util.NdJsonSearchResultWriter;
 import org.apache.atlas.web.util.Servlets;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.configuration2.Configuration;
@@ -63,12 +65,15 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -100,6 +105,9 @@ import static org.apache.atlas.repository.store.graph.v2.tasks.searchdownload.Se
 public class DiscoveryREST {
     private static final Logger PERF_LOG = AtlasPerfTracer.getPerfLogger("rest.DiscoveryREST");
 
+    // lower quality-of-source than JSON, so that requests accepting any media type get the JSON response
+    private static final String NDJSON_QS = Servlets.NDJSON + ";qs=0.5";
+
     private final int                    maxFullTextQueryLength;
     private final int                    maxDslQueryLength;
     private final AtlasTypeRegistry     typeRegistry;
@@ -155,6 +163,38 @@ public class DiscoveryREST {
         }
     }
 
+    /**
+     * Stream results of the specified DSL, one JSON document per line, as they are retrieved. Selected when the
+     * request accepts application/x-ndjson.
+     *
+     * @param query DSL query
+     * @param typeName limit the result to only entities of specified type or its sub-types
+     * @param classification limit the result to only entities tagged with the given classification or or its sub-types
+     * @param limit maximum number of results to stream; when not specified, all results are streamed
+     * @param offset start offset of the result set
+     * @return entity headers, or for queries with a select clause the selected values, one per line
+     * @throws AtlasBaseException
+     * @HTTP 200 On successful DSL execution with some results, might return an empty stream if execution succeeded
+     * without any results
+     * @HTTP 400 Invalid DSL or query parameters
+     */
+    @GET
+    @Path("/dsl")
+    @Produces(NDJSON_QS)
+    @Timed
+    public StreamingOutput searchUsingDSLAsStream(@QueryParam("query") String query,
+            @QueryParam("typeName") String typeName,
+            @QueryParam("classification") String classification,
+            @QueryParam("limit") int limit,
+            @QueryParam("offset") int offset) throws AtlasBaseException {
+        validateDSLSearchParameters(query, typeName, classification);
+
+        String queryStr = discoveryService.getDslQueryUsingTypeNameClassification(query, typeName, classification);
+
+        return outputStream -> streamSearchResults(outputStream, "DiscoveryREST.searchUsingDSLAsStream(" + query + "," + typeName + "," + classification + "," + limit + "," + offset + ")",
+                consumer -> discoveryService.searchUsingDslQuery(queryStr, limit, offset, consumer));
+    }
+
     /**
      * @param parameterMap
      * @throws AtlasBaseException
@@ -369,6 +409,27 @@ public class DiscoveryREST {
         }
     }
 
+    /**
+     * Attribute based search for entities satisfying the search parameters; matching entities are streamed one JSON
+     * document per line, as they are retrieved. Selected when the request accepts application/x-ndjson.
+     *
+     * @param parameters Search parameters; limit, when specified, caps the number of entities streamed
+     * @return entity headers, one per line
+     * @throws AtlasBaseException
+     * @HTTP 200 On successful search
+     * @HTTP 400 Tag/Entity doesn't exist or Tag/entity filter is present without tag/type name
+     */
+    @Path("basic")
+    @POST
+    @Produces(NDJSON_QS)
+    @Timed
+    public StreamingOutput searchWithParametersAsStream(SearchParameters parameters) throws AtlasBaseException {
+        validateBasicSearchParameters(parameters);
+
+        return outputStream -> streamSearchResults(outputStream, "DiscoveryREST.searchWithParametersAsStream(" + parameters + ")",
+                consumer -> discoveryService.searchWithParameters(parameters, consumer));
+    }
+
     /**
      * @param parameterMap
      * @throws AtlasBaseException
@@ -978,6 +1039,25 @@ public class DiscoveryREST {
         validateSearchParameters(parameters);
     }
 
+    private static void streamSearchResults(OutputStream outputStream, String perfName, StreamingSearch search) throws IOException {
+        AtlasPerfTracer          perf   = null;
+        NdJsonSearchResultWriter writer = new NdJsonSearchResultWriter(outputStream);
+
+        try {
+            if (AtlasPerfTracer.isPerfTraceEnabled(PERF_LOG)) {
+                perf = AtlasPerfTracer.getPerfTracer(PERF_LOG, perfName);
+            }
+
+            search.execute(writer);
+
+            writer.flush();
+        } catch (AtlasBaseException e) {
+            throw new WebApplicationException(Servlets.getErrorResponse(e));
+        } finally {
+            AtlasPerfTracer.log(perf);
+        }
+    }
+
     private void validateDSLSearchParameters(String query, String typeName, String classification) throws AtlasBaseException {
         Servlets.validateQueryParamLength("typeName", typeName);
         Servlets.validateQueryParamLength("classification", classification);
@@ -1031,4 +1111,8 @@ public class DiscoveryREST {
 
         return formatter.format(localDateTime);
     }
+
+    private interface StreamingSearch {
+        void execute(SearchResultConsumer consumer) throws AtlasBaseException;
+    }
 }
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.web.util;
+
+import org.apache.atlas.discovery.SearchResultConsumer;
+import org.apache.atlas.utils.AtlasJson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes each search result as a line of JSON (application/x-ndjson). A failed write, usually because the client
+ * disconnected, stops the search.
+ */
+public class NdJsonSearchResultWriter implements SearchResultConsumer {
+    private static final Logger LOG = LoggerFactory.getLogger(NdJsonSearchResultWriter.class);
+
+    private final Writer  writer;
+    private       long    recordCount;
+    private       boolean failed;
+
+    public NdJsonSearchResultWriter(OutputStream outputStream) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean accept(Object record) {
+        try {
+            writer.write(AtlasJson.toJson(record));
+            writer.write('\n');
+
+            recordCount++;
+        } catch (IOException e) {
+            LOG.info("stopping search after {} results: failed to write to client: {}", recordCount, e.getMessage());
+
+            failed = true;
+        }
+
+        return !failed;
+    }
+
+    public void flush() throws IOException {
+        if (!failed) {
+            writer.flush();
+        }
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+}
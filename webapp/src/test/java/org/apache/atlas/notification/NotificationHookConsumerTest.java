@@ -31,6 +31,7 @@ import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
 import org.apache.atlas.model.instance.AtlasEntityHeader;
 import org.apache.atlas.model.instance.AtlasObjectId;
 import org.apache.atlas.model.instance.EntityMutationResponse;
+import org.apache.atlas.model.instance.EntityMutations;
 import org.apache.atlas.model.notification.HookNotification;
 import org.apache.atlas.model.notification.HookNotification.EntityCreateRequestV2;
 import org.apache.atlas.model.notification.HookNotification.EntityDeleteRequestV2;
@@ -2495,6 +2496,118 @@ public class NotificationHookConsumerTest {
         verify(notificationConsumer).wakeup();
     }
 
+    @Test
+    public void testMicroBatchCoalescesMessages() throws Exception {
+        SerialEntityProcessor processor = (SerialEntityProcessor) createEntityProcessor(buildMicroBatchConfig(3));
+
+        assertNull(processor.handleMessage(createTableCreateMessage("db1.table1@cl1", 0)));
+        assertNull(processor.handleMessage(createTableCreateMessage("db1.table2@cl1", 1)));
+        assertNull(processor.handleMessage(createTableCreateMessage("db1.table3@cl1", 2)));
+
+        verify(atlasEntityStore, times(1)).createOrUpdate(any(EntityStream.class), eq(false));
+
+        List<TopicPartitionOffsetResult> results = processor.collectAllResults();
+
+        assertEquals(results.size(), 1);
+        assertEquals(results.get(0).getOffset(), 2L);
+        assertTrue(processor.collectAllResults().isEmpty());
+    }
+
+    @Test
+    public void testMicroBatchFlushedOnConflictingMessage() throws Exception {
+        SerialEntityProcessor processor = (SerialEntityProcessor) createEntityProcessor(buildMicroBatchConfig(3));
+
+        assertNull(processor.handleMessage(createTableCreateMessage("db1.table1@cl1", 0)));
+        assertNull(processor.handleMessage(createTableCreateMessage("db1.table1@cl1", 1)));
+
+        verify(atlasEntityStore, times(1)).createOrUpdate(any(EntityStream.class), eq(false));
+
+        List<TopicPartitionOffsetResult> results = processor.collectAllResults();
+
+        assertEquals(results.size(), 1);
+        assertEquals(results.get(0).getOffset(), 0L);
+    }
+
+    @Test
+    public void testMicroBatchFallsBackToPerMessageProcessingOnFailure() throws Exception {
+        SerialEntityProcessor processor = (SerialEntityProcessor) createEntityProcessor(buildMicroBatchConfig(3));
+
+        when(atlasEntityStore.createOrUpdate(any(EntityStream.class), anyBoolean()))
+                .thenThrow(new RuntimeException("Simulating failure of micro-batch"))
+                .thenReturn(mock(EntityMutationResponse.class));
+
+        processor.handleMessage(createTableCreateMessage("db1.table1@cl1", 0));
+        processor.handleMessage(createTableCreateMessage("db1.table2@cl1", 1));
+        processor.handleMessage(createTableCreateMessage("db1.table3@cl1", 2));
+
+        // 1 call for the batch, followed by 1 call for each message
+        verify(atlasEntityStore, times(4)).createOrUpdate(any(EntityStream.class), eq(false));
+
+        List<TopicPartitionOffsetResult> results = processor.collectAllResults();
+
+        assertEquals(results.size(), 1);
+        assertEquals(results.get(0).getOffset(), 2L);
+    }
+
+    @Test
+    public void testMicroBatchPostUpdateFailureNotProcessedAgain() throws Exception {
+        Configuration config = buildMicroBatchConfig(2);
+
+        when(config.getBoolean(NotificationHookConsumer.CONSUMER_PREPROCESS_RDBMS_TYPES_REMOVE_OWNEDREF_ATTRS, true)).thenReturn(true);
+
+        SerialEntityProcessor               processor = (SerialEntityProcessor) createEntityProcessor(config);
+        AtlasKafkaMessage<HookNotification> msg1      = createRdbmsTableCreateMessage("db1.table1@cl1", 0);
+        AtlasKafkaMessage<HookNotification> msg2      = createRdbmsTableCreateMessage("db1.table2@cl1", 1);
+        EntityMutationResponse              response  = new EntityMutationResponse();
+        Map<String, String>                 guids     = new HashMap<>();
+
+        // tables exist already: the batch updates them, and the post-update of each message updates their columns
+        for (AtlasKafkaMessage<HookNotification> msg : Arrays.asList(msg1, msg2)) {
+            AtlasEntity       table  = ((EntityCreateRequestV2) msg.getMessage()).getEntities().getEntities().get(0);
+            AtlasEntityHeader header = new AtlasEntityHeader(table.getTypeName());
+
+            header.setGuid("guid-" + msg.getOffset());
+
+            guids.put(table.getGuid(), header.getGuid());
+            response.addEntity(EntityMutations.EntityOperation.UPDATE, header);
+        }
+
+        response.setGuidAssignments(guids);
+
+        when(atlasEntityStore.createOrUpdate(any(EntityStream.class), eq(false))).thenReturn(response);
+        when(atlasEntityStore.createOrUpdate(any(EntityStream.class), eq(true)))
+                .thenThrow(new RuntimeException("Simulating failure of post-update"), new RuntimeException("Simulating failure of post-update"), new RuntimeException("Simulating failure of post-update"))
+                .thenReturn(new EntityMutationResponse());
+
+        assertNull(processor.handleMessage(msg1));
+        assertNull(processor.handleMessage(msg2));
+
+        // the batch is not written again: the failed post-update of the first message is retried, and recorded as failed
+        verify(atlasEntityStore, times(1)).createOrUpdate(any(EntityStream.class), eq(false));
+        verify(atlasEntityStore, times(4)).createOrUpdate(any(EntityStream.class), eq(true));
+        assertEquals(processor.getFailedMessages().size(), 1);
+
+        List<TopicPartitionOffsetResult> results = processor.collectAllResults();
+
+        assertEquals(results.size(), 1);
+        assertEquals(results.get(0).getOffset(), 1L);
+    }
+
+    @Test
+    public void testMicroBatchDroppedOnShutdown() throws Exception {
+        SerialEntityProcessor processor = (SerialEntityProcessor) createEntityProcessor(buildMicroBatchConfig(3));
+
+        assertNull(processor.handleMessage(createTableCreateMessage("db1.table1@cl1", 0)));
+        assertNull(processor.handleMessage(createTableCreateMessage("db1.table2@cl1", 1)));
+
+        processor.shutdown();
+
+        assertNull(processor.handleMessage(createTableCreateMessage("db1.table3@cl1", 2)));
+        assertTrue(processor.collectAllResults().isEmpty(), "offsets of dropped messages must not be committed");
+
+        verify(atlasEntityStore, never()).createOrUpdate(any(EntityStream.class), anyBoolean());
+    }
+
     private NotificationHookConsumer createTestConsumer() throws AtlasException {
         return new NotificationHookConsumer(notificationInterface, atlasEntityStore, serviceState, instanceConverter, typeRegistry, metricsUtil, entityCorrelationStore, asyncImporter, null);
     }
@@ -2571,6 +2684,34 @@ public class NotificationHookConsumerTest {
         return batchConfig;
     }
 
+    private Configuration buildMicroBatchConfig(int maxMessages) {
+        Configuration batchConfig = buildFailedMsgCacheConfig(10);
+
+        when(batchConfig.getBoolean(NotificationHookConsumer.CONSUMER_MICRO_BATCH_ENABLED, false)).thenReturn(true);
+        when(batchConfig.getInt(NotificationHookConsumer.CONSUMER_MICRO_BATCH_MAX_MESSAGES, 100)).thenReturn(maxMessages);
+        when(batchConfig.getLong(NotificationHookConsumer.CONSUMER_MICRO_BATCH_MAX_BYTES, 1024 * 1024)).thenReturn(1024L * 1024);
+        when(batchConfig.getLong(NotificationHookConsumer.CONSUMER_MICRO_BATCH_MAX_WAIT_MS, 500)).thenReturn(60000L);
+
+        return batchConfig;
+    }
+
+    private AtlasKafkaMessage<HookNotification> createTableCreateMessage(String qualifiedName, long offset) {
+        AtlasEntity entity = new AtlasEntity("hive_table");
+
+        entity.setAttribute("qualifiedName", qualifiedName);
+
+        return new AtlasKafkaMessage<>(new EntityCreateRequestV2("user", new AtlasEntitiesWithExtInfo(entity)), offset, KafkaNotification.ATLAS_HOOK_TOPIC, 0);
+    }
+
+    private AtlasKafkaMessage<HookNotification> createRdbmsTableCreateMessage(String qualifiedName, long offset) {
+        AtlasEntity entity = new AtlasEntity("rdbms_table");
+
+        entity.setAttribute("qualifiedName", qualifiedName);
+        entity.setAttribute("columns", new ArrayList<>());
+
+        return new AtlasKafkaMessage<>(new EntityCreateRequestV2("user", new AtlasEntitiesWithExtInfo(entity)), offset, KafkaNotification.ATLAS_HOOK_TOPIC, 0);
+    }
+
     private Configuration buildFailedMsgCacheConfig(int cacheSize) {
         Configuration cacheConfig = mock(Configuration.class);
         when(cacheConfig.getInt(NotificationHookConsumer.CONSUMER_FAILEDCACHESIZE_PROPERTY, 1)).thenReturn(cacheSize);
@@ -0,0 +1,254 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.kafka.AtlasKafkaMessage;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.model.notification.HookNotification.EntityDeleteRequestV2;
+import org.apache.kafka.common.TopicPartition;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class PartitionedEntityProcessorTest {
+    private static final String TOPIC          = "ATLAS_HOOK";
+    private static final int    NUM_PARTITIONS = 4;
+    private static final int    NUM_MESSAGES   = 50;
+
+    @Test
+    public void testMessagesProcessedInOrderPerPartition() {
+        Map<Integer, List<Long>>   processedOffsets = new ConcurrentHashMap<>();
+        Set<String>                threadNames      = ConcurrentHashMap.newKeySet();
+        PartitionedEntityProcessor processor        = new PartitionedEntityProcessor(() -> new RecordingProcessor(processedOffsets, threadNames), 5, 0, 0, "test");
+
+        for (long offset = 0; offset < NUM_MESSAGES; offset++) {
+            for (int partition = 0; partition < NUM_PARTITIONS; partition++) {
+                assertNull(processor.handleMessage(createMessage(partition, offset)));
+            }
+        }
+
+        processor.shutdown();
+
+        assertEquals(processedOffsets.size(), NUM_PARTITIONS);
+        assertEquals(threadNames.size(), NUM_PARTITIONS);
+
+        for (List<Long> offsets : processedOffsets.values()) {
+            assertEquals(offsets.size(), NUM_MESSAGES);
+
+            for (int i = 0; i < NUM_MESSAGES; i++) {
+                assertEquals(offsets.get(i).longValue(), i);
+            }
+        }
+    }
+
+    @Test
+    public void testCollectAllResultsReturnsWatermarkPerPartition() throws InterruptedException {
+        PartitionedEntityProcessor processor = new PartitionedEntityProcessor(() -> new RecordingProcessor(new ConcurrentHashMap<>(), ConcurrentHashMap.newKeySet()), 5, 0, 0, "test");
+
+        for (long offset = 0; offset < NUM_MESSAGES; offset++) {
+            processor.handleMessage(createMessage(0, offset));
+            processor.handleMessage(createMessage(1, offset + 100));
+        }
+
+        Map<TopicPartition, Long> committed = new HashMap<>();
+
+        for (int i = 0; i < 100 && !isDone(committed); i++) {
+            for (TopicPartitionOffsetResult result : processor.collectAllResults()) {
+                Long prev = committed.put(result.getTopicPartition(), result.getOffset());
+
+                assertTrue(prev == null || prev < result.getOffset(), "watermark must advance");
+            }
+
+            Thread.sleep(20);
+        }
+
+        assertEquals(committed.get(new TopicPartition(TOPIC, 0)).longValue(), NUM_MESSAGES - 1);
+        assertEquals(committed.get(new TopicPartition(TOPIC, 1)).longValue(), NUM_MESSAGES + 99);
+        assertTrue(processor.collectAllResults().isEmpty());
+
+        processor.shutdown();
+    }
+
+    @Test
+    public void testFailedMessageReceivedAgain() throws InterruptedException {
+        Map<Integer, List<Long>>   processedOffsets = new ConcurrentHashMap<>();
+        TopicPartition             partition        = new TopicPartition(TOPIC, 0);
+        PartitionedEntityProcessor processor        = new PartitionedEntityProcessor(() -> new RecordingProcessor(processedOffsets, ConcurrentHashMap.newKeySet(), 3, 1, 0), 5, 10, 100, "test");
+
+        for (long offset = 0; offset < 10; offset++) {
+            processor.handleMessage(createMessage(0, offset));
+        }
+
+        // the partition must be received again from the failed message; the watermark doesn't advance past it
+        List<TopicPartitionOffsetResult> failed = waitForFailedPartitions(processor);
+
+        assertEquals(failed.size(), 1);
+        assertEquals(failed.get(0).getTopicPartition(), partition);
+        assertEquals(failed.get(0).getOffset(), 3L);
+        assertEquals(processor.getFailedMessageCount(), 1);
+        assertTrue(processor.collectFailedPartitions().isEmpty());
+
+        for (long offset = 3; offset < 10; offset++) {
+            processor.handleMessage(createMessage(0, offset));
+        }
+
+        List<TopicPartitionOffsetResult> results = processor.onPartitionsRevoked(Collections.singleton(partition));
+
+        // messages queued after the failed one are skipped, and processed once received again
+        assertEquals(results.size(), 1);
+        assertEquals(results.get(0).getOffset(), 9L);
+        assertEquals(processedOffsets.get(0), Arrays.asList(0L, 1L, 2L, 3L, 3L, 4L, 5L, 6L, 7L, 8L, 9L));
+
+        processor.shutdown();
+    }
+
+    @Test
+    public void testStuckPartitionNotCommitted() throws InterruptedException {
+        Map<Integer, List<Long>>   processedOffsets = new ConcurrentHashMap<>();
+        TopicPartition             partition        = new TopicPartition(TOPIC, 0);
+        PartitionedEntityProcessor processor        = new PartitionedEntityProcessor(() -> new RecordingProcessor(processedOffsets, ConcurrentHashMap.newKeySet(), 3, Integer.MAX_VALUE, 0), 5, 10, 100, "test");
+
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            for (long offset = attempt == 1 ? 0 : 3; offset < 10; offset++) {
+                processor.handleMessage(createMessage(0, offset));
+            }
+
+            List<TopicPartitionOffsetResult> failed = waitForFailedPartitions(processor);
+
+            assertEquals(failed.size(), 1);
+            assertEquals(failed.get(0).getOffset(), 3L);
+            assertEquals(processor.getFailedMessageCount(), attempt);
+        }
+
+        List<TopicPartitionOffsetResult> results = processor.onPartitionsRevoked(Collections.singleton(partition));
+
+        assertEquals(results.size(), 1);
+        assertEquals(results.get(0).getOffset(), 2L);
+        assertEquals(processedOffsets.get(0), Arrays.asList(0L, 1L, 2L, 3L, 3L, 3L));
+
+        processor.shutdown();
+    }
+
+    @Test
+    public void testRevokedPartitionsDrainedBeforeCommit() {
+        Map<Integer, List<Long>>   processedOffsets = new ConcurrentHashMap<>();
+        PartitionedEntityProcessor processor        = new PartitionedEntityProcessor(() -> new RecordingProcessor(processedOffsets, ConcurrentHashMap.newKeySet(), -1, 0, 10), 20, 0, 0, "test");
+
+        for (long offset = 0; offset < 10; offset++) {
+            processor.handleMessage(createMessage(0, offset));
+            processor.handleMessage(createMessage(1, offset));
+        }
+
+        List<TopicPartitionOffsetResult> results = processor.onPartitionsRevoked(Collections.singleton(new TopicPartition(TOPIC, 0)));
+
+        // all messages queued for the revoked partition are processed by the time its offset is returned for commit
+        assertEquals(results.size(), 1);
+        assertEquals(results.get(0).getTopicPartition(), new TopicPartition(TOPIC, 0));
+        assertEquals(results.get(0).getOffset(), 9L);
+        assertEquals(processedOffsets.get(0).size(), 10);
+
+        processor.shutdown();
+
+        assertEquals(processedOffsets.get(1).size(), 10);
+    }
+
+    private static List<TopicPartitionOffsetResult> waitForFailedPartitions(PartitionedEntityProcessor processor) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            List<TopicPartitionOffsetResult> ret = processor.collectFailedPartitions();
+
+            if (!ret.isEmpty()) {
+                return ret;
+            }
+
+            Thread.sleep(20);
+        }
+
+        return Collections.emptyList();
+    }
+
+    private static boolean isDone(Map<TopicPartition, Long> committed) {
+        return committed.getOrDefault(new TopicPartition(TOPIC, 0), -1L) == NUM_MESSAGES - 1 &&
+                committed.getOrDefault(new TopicPartition(TOPIC, 1), -1L) == NUM_MESSAGES + 99;
+    }
+
+    private static AtlasKafkaMessage<HookNotification> createMessage(int partition, long offset) {
+        return new AtlasKafkaMessage<>(new EntityDeleteRequestV2("test", Collections.emptyList()), offset, TOPIC, partition);
+    }
+
+    private static class RecordingProcessor implements NotificationEntityProcessor {
+        private final Map<Integer, List<Long>> processedOffsets;
+        private final Set<String>              threadNames;
+        private final long                     failAtOffset;
+        private final AtomicInteger            failuresLeft;
+        private final long                     delayMs;
+
+        RecordingProcessor(Map<Integer, List<Long>> processedOffsets, Set<String> threadNames) {
+            this(processedOffsets, threadNames, -1, 0, 0);
+        }
+
+        RecordingProcessor(Map<Integer, List<Long>> processedOffsets, Set<String> threadNames, long failAtOffset, int maxFailures, long delayMs) {
+            this.processedOffsets = processedOffsets;
+            this.threadNames      = threadNames;
+            this.failAtOffset     = failAtOffset;
+            this.failuresLeft     = new AtomicInteger(maxFailures);
+            this.delayMs          = delayMs;
+        }
+
+        @Override
+        public TopicPartitionOffsetResult handleMessage(AtlasKafkaMessage<HookNotification> msg) {
+            threadNames.add(Thread.currentThread().getName());
+
+            processedOffsets.computeIfAbsent(msg.getTopicPartition().partition(), p -> Collections.synchronizedList(new ArrayList<>())).add(msg.getOffset());
+
+            if (msg.getOffset() == failAtOffset && failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("Simulating failure at offset " + failAtOffset);
+            }
+
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            return new TopicPartitionOffsetResult(msg.getTopicPartition(), msg.getOffset());
+        }
+
+        @Override
+        public TopicPartitionOffsetResult collectResults() {
+            return null;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
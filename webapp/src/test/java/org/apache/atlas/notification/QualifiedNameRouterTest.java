@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class QualifiedNameRouterTest {
+    private static final String PREFIX    = "ATLAS_METADATA_";
+    private static final int    KEY_COUNT = 10000;
+
+    @Test
+    public void testAddingTopicMovesFewKeys() {
+        QualifiedNameRouter router5 = newRingRouter(5, null);
+        QualifiedNameRouter router6 = newRingRouter(6, null);
+        int                 moved   = 0;
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            String key    = "db" + i + ".schema";
+            String topic5 = router5.getTargetTopic(key);
+            String topic6 = router6.getTargetTopic(key);
+
+            if (!topic5.equals(topic6)) {
+                assertEquals(topic6, PREFIX + 5); // keys move only to the new topic
+
+                moved++;
+            }
+        }
+
+        // ideally 1/6 of the keys move; modulo hashing would move ~5/6 of them
+        assertTrue(moved < KEY_COUNT / 4, "moved=" + moved);
+    }
+
+    @Test
+    public void testKeysAreSpreadAcrossTopics() {
+        QualifiedNameRouter router = newRingRouter(5, null);
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            router.getTargetTopic("db" + i + ".schema");
+        }
+
+        assertTrue(router.getSkew() < 1.3, "skew=" + router.getSkew());
+    }
+
+    @Test
+    public void testTopicWeights() {
+        QualifiedNameRouter router = newRingRouter(3, new String[] {"3", "1", "0"});
+
+        for (int i = 0; i < KEY_COUNT; i++) {
+            router.getTargetTopic("db" + i + ".schema");
+        }
+
+        Map<String, Long> counts = router.getTopicMessageCounts();
+
+        assertEquals(counts.get(PREFIX + 2).longValue(), 0L);
+        assertTrue(counts.get(PREFIX + 0) > 2 * counts.get(PREFIX + 1), "counts=" + counts);
+
+        // messages without routing key are not sent to topics with weight 0 either
+        for (int i = 0; i < 10; i++) {
+            assertNotEquals(router.getTargetTopic(null), PREFIX + 2);
+        }
+    }
+
+    @Test
+    public void testHotRoutingKeys() {
+        QualifiedNameRouter router = new QualifiedNameRouter(5, PREFIX);
+
+        for (int i = 0; i < 100; i++) {
+            router.getTargetTopic("hot.db");
+            router.getTargetTopic("db" + i + ".schema");
+        }
+
+        Map<String, Long> hotKeys = router.getHotRoutingKeys(1);
+
+        assertEquals(hotKeys.size(), 1);
+        assertEquals(hotKeys.get("hot.db").longValue(), 100L);
+        assertEquals(router.getTopicMessageCounts().values().stream().mapToLong(Long::longValue).sum(), 200L);
+    }
+
+    @Test
+    public void testModuloRoutingByDefault() {
+        QualifiedNameRouter router = new QualifiedNameRouter(5, PREFIX, false, QualifiedNameRouter.DEFAULT_VIRTUAL_NODES, new String[] {"0", "0", "0", "0", "1"});
+
+        // routing keys are mapped to the same topics as by earlier releases; weights are ignored
+        for (int i = 0; i < KEY_COUNT; i++) {
+            String key = "db" + i + ".schema";
+
+            assertEquals(router.getTargetTopic(key), PREFIX + (Math.abs(key.hashCode()) % 5));
+        }
+
+        assertEquals(new QualifiedNameRouter(5, PREFIX).getTargetTopic("hot.db"), PREFIX + (Math.abs("hot.db".hashCode()) % 5));
+    }
+
+    @Test
+    public void testParseTopicWeights() {
+        assertEquals(QualifiedNameRouter.parseTopicWeights(new String[] {"2", "", "x", "-1"}, 5), new int[] {2, 1, 1, 0, 1});
+        assertEquals(QualifiedNameRouter.parseTopicWeights(new String[] {"0", "0"}, 2), new int[] {1, 1});
+        assertEquals(QualifiedNameRouter.parseTopicWeights(null, 3), new int[] {1, 1, 1});
+    }
+
+    private static QualifiedNameRouter newRingRouter(int topicCount, String[] topicWeights) {
+        return new QualifiedNameRouter(topicCount, PREFIX, true, QualifiedNameRouter.DEFAULT_VIRTUAL_NODES, topicWeights);
+    }
+}
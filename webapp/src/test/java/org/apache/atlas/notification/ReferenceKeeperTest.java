@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.kafka.AtlasKafkaMessage;
+import org.apache.atlas.model.instance.AtlasEntity;
+import org.apache.atlas.model.instance.AtlasEntity.AtlasEntitiesWithExtInfo;
+import org.apache.atlas.model.notification.HookNotification;
+import org.apache.atlas.model.notification.HookNotification.EntityCreateRequestV2;
+import org.apache.atlas.notification.pc.ReferenceKeeper;
+import org.apache.atlas.notification.pc.Ticket;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class ReferenceKeeperTest {
+    private static final String TOPIC = "ATLAS_HOOK";
+
+    private ReferenceKeeper referenceKeeper;
+    private long            offset;
+
+    @BeforeMethod
+    public void setup() {
+        referenceKeeper = new ReferenceKeeper();
+        offset          = 0;
+    }
+
+    @Test
+    public void testIndependentTicketsHaveNoDependents() {
+        Ticket t1 = register("tableA@cluster");
+        Ticket t2 = register("tableB@cluster");
+
+        assertTrue(t1.getDependents().isEmpty());
+        assertTrue(t2.getDependents().isEmpty());
+    }
+
+    @Test
+    public void testOverlappingTicketWaitsOnlyForEarlierOverlappingTicket() {
+        Ticket t1 = register("tableA@cluster");
+        register("tableB@cluster");
+        Ticket t3 = register("tableA@cluster");
+
+        assertEquals(t3.getDependents().size(), 1);
+        assertTrue(t3.getDependents().contains(t1.getKey()));
+    }
+
+    @Test
+    public void testUnknownTicketIsBarrier() {
+        Ticket t1 = register("tableA@cluster");
+        Ticket t2 = register("tableB@cluster");
+
+        complete(t2);
+
+        Ticket barrier = register();
+
+        assertFalse(barrier.isMessageHandled());
+        assertEquals(new HashSet<>(barrier.getDependents()), Collections.singleton(t1.getKey()));
+
+        Ticket t4 = register("tableC@cluster");
+
+        assertTrue(t4.getDependents().contains(barrier.getKey()));
+
+        complete(barrier);
+
+        Ticket t5 = register("tableD@cluster");
+
+        assertTrue(t5.getDependents().isEmpty());
+    }
+
+    private Ticket register(String... qualifiedNames) {
+        AtlasEntitiesWithExtInfo entities = new AtlasEntitiesWithExtInfo();
+
+        for (String qualifiedName : qualifiedNames) {
+            AtlasEntity entity = new AtlasEntity("hive_table");
+
+            entity.setAttribute("qualifiedName", qualifiedName);
+
+            entities.addEntity(entity);
+        }
+
+        HookNotification message = new EntityCreateRequestV2("test", entities);
+        Ticket           ret     = new Ticket(new AtlasKafkaMessage<>(message, offset++, TOPIC, 0));
+
+        referenceKeeper.register(ret);
+
+        return ret;
+    }
+
+    private void complete(Ticket ticket) {
+        TopicPartitionOffsetResult result = ticket.createTopicPartitionOffsetResult();
+
+        result.setAdditionalInfo(ticket.getQualifiedNamesSet());
+
+        referenceKeeper.countDown(ticket.getKey());
+        referenceKeeper.deregister(result);
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.atlas.notification;
+
+import org.apache.atlas.notification.pc.WorkerScaler;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class WorkerScalerTest {
+    private static final int MIN_WORKERS      = 2;
+    private static final int MAX_WORKERS      = 16;
+    private static final int DEPTH_PER_WORKER = 10;
+
+    @Test
+    public void growsWhenQueueIsDeep() {
+        WorkerScaler scaler = new WorkerScaler(true, MIN_WORKERS, MAX_WORKERS, 0, 0, DEPTH_PER_WORKER);
+
+        assertEquals(scaler.getTargetWorkers(4, 100, 0), 6);
+        assertEquals(scaler.getTargetWorkers(12, 1000, 0), MAX_WORKERS);
+    }
+
+    @Test
+    public void shrinksWhenQueueIsEmpty() {
+        WorkerScaler scaler = new WorkerScaler(true, MIN_WORKERS, MAX_WORKERS, 0, 0, DEPTH_PER_WORKER);
+
+        assertEquals(scaler.getTargetWorkers(4, 0, 0), 3);
+        assertEquals(scaler.getTargetWorkers(MIN_WORKERS, 0, 0), MIN_WORKERS);
+    }
+
+    @Test
+    public void shrinksWhenTicketsAreBlocked() {
+        WorkerScaler scaler = new WorkerScaler(true, MIN_WORKERS, MAX_WORKERS, 0, 0, DEPTH_PER_WORKER);
+
+        assertEquals(scaler.getTargetWorkers(8, 1000, 4), 7);
+        assertEquals(scaler.getTargetWorkers(8, 1000, 1), 12);
+    }
+
+    @Test
+    public void shrinksWhenLatencyIsHigh() {
+        WorkerScaler scaler = new WorkerScaler(true, MIN_WORKERS, MAX_WORKERS, 0, 100, DEPTH_PER_WORKER);
+
+        scaler.recordProcessingTime(150);
+        scaler.recordProcessingTime(250);
+
+        assertEquals(scaler.getTargetWorkers(8, 1000, 0), 7);
+
+        // latency stats are reset after each evaluation
+        assertEquals(scaler.getTargetWorkers(8, 1000, 0), 12);
+    }
+
+    @Test
+    public void keepsWorkersWhenDisabled() {
+        WorkerScaler scaler = new WorkerScaler(false, MIN_WORKERS, MAX_WORKERS, 0, 0, DEPTH_PER_WORKER);
+
+        assertFalse(scaler.isEnabled());
+        assertEquals(scaler.getTargetWorkers(4, 1000, 0), 4);
+        assertEquals(scaler.getTargetWorkers(4, 0, 0), 4);
+    }
+}
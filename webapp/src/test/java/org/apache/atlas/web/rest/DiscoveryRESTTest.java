@@ -18,6 +18,7 @@ import org.apache.atlas.AtlasErrorCode;
 import org.apache.atlas.SortOrder;
 import org.apache.atlas.common.TestUtility;
 import org.apache.atlas.discovery.AtlasDiscoveryService;
+import org.apache.atlas.discovery.SearchResultConsumer;
 import org.apache.atlas.exception.AtlasBaseException;
 import org.apache.atlas.model.discovery.AtlasQuickSearchResult;
 import org.apache.atlas.model.discovery.AtlasSearchResult;
@@ -26,6 +27,7 @@ import org.apache.atlas.model.discovery.AtlasSuggestionsResult;
 import org.apache.atlas.model.discovery.QuickSearchParameters;
 import org.apache.atlas.model.discovery.RelationshipSearchParameters;
 import org.apache.atlas.model.discovery.SearchParameters;
+import org.apache.atlas.model.instance.AtlasEntityHeader;
 import org.apache.atlas.model.profile.AtlasUserSavedSearch;
 import org.apache.atlas.repository.Constants;
 import org.apache.atlas.type.AtlasEntityType;
@@ -39,6 +41,10 @@ import org.mockito.MockitoAnnotations;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -59,6 +65,7 @@ import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -67,6 +74,7 @@ import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.expectThrows;
 
 public class DiscoveryRESTTest {
@@ -133,6 +141,57 @@ public class DiscoveryRESTTest {
         TestUtility.assertInvalidQueryLength(exception, Constants.MAX_DSL_QUERY_STR_LENGTH);
     }
 
+    @Test
+    public void testSearchUsingDSLAsStream_WritesOneLinePerResult() throws Exception {
+        String query = "from DataSet";
+        String dslQuery = "from DataSet";
+
+        when(mockDiscoveryService.getDslQueryUsingTypeNameClassification(query, null, null)).thenReturn(dslQuery);
+        doAnswer(invocation -> {
+            SearchResultConsumer consumer = invocation.getArgument(3);
+
+            consumer.accept(new AtlasEntityHeader("hive_table"));
+            consumer.accept(Collections.singletonMap("name", "sales"));
+
+            return null;
+        }).when(mockDiscoveryService).searchUsingDslQuery(eq(dslQuery), eq(0), eq(0), any(SearchResultConsumer.class));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        discoveryREST.searchUsingDSLAsStream(query, null, null, 0, 0).write(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8.name()).split("\n");
+
+        assertEquals(lines.length, 2);
+        assertEquals(AtlasJson.fromJson(lines[0], AtlasEntityHeader.class).getTypeName(), "hive_table");
+        assertEquals(AtlasJson.fromJson(lines[1], Map.class).get("name"), "sales");
+    }
+
+    @Test
+    public void testSearchWithParametersAsStream_StopsWhenClientDisconnects() throws Exception {
+        SearchParameters params   = buildAndGetSearchParameters(0, 0, "hive_table", null, null);
+        int[]            accepted = new int[1];
+
+        doAnswer(invocation -> {
+            SearchResultConsumer consumer = invocation.getArgument(1);
+
+            while (accepted[0] < 100000 && consumer.accept(new AtlasEntityHeader("hive_table"))) {
+                accepted[0]++;
+            }
+
+            return null;
+        }).when(mockDiscoveryService).searchWithParameters(eq(params), any(SearchResultConsumer.class));
+
+        discoveryREST.searchWithParametersAsStream(params).write(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+
+        assertTrue(accepted[0] < 100000, "search should stop once writes to the client fail");
+    }
+
     @Test
     public void testDslSearchCreateFile_Success() throws AtlasBaseException {
         Map<String, Object> parameterMap = new HashMap<>();